@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.GdxObservable;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.libgdx.events.box2d.ContactEvent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps a headless Box2D world with a pile of boxes that never sleep, with and without a subscriber to
+ * {@link GdxObservable#fromBox2DContact}, so the difference is the cost of dispatching the contact callbacks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContactDispatchBenchmark {
+
+    @Param({ "16", "128" })
+    public int bodies;
+
+    @Param({ "true", "false" })
+    public boolean subscribed;
+
+    private World world;
+    private Subscription subscription;
+
+    @Setup
+    public void createWorld(final Blackhole blackhole) {
+        GdxNativesLoader.load();
+        world = new World(new Vector2(0f, -10f), false);
+
+        final PolygonShape ground = new PolygonShape();
+        ground.setAsBox(50f, 1f);
+        world.createBody(new BodyDef()).createFixture(ground, 0f);
+        ground.dispose();
+
+        final PolygonShape box = new PolygonShape();
+        box.setAsBox(0.5f, 0.5f);
+        final BodyDef def = new BodyDef();
+        def.type = BodyDef.BodyType.DynamicBody;
+        for (int i = 0; i < bodies; i++) {
+            def.position.set((i % 16) * 1.01f - 8f, 1.5f + (i / 16) * 1.01f);
+            final Body body = world.createBody(def);
+            body.createFixture(box, 1f);
+        }
+        box.dispose();
+        for (int i = 0; i < 120; i++) {
+            world.step(1f / 60f, 8, 3); // settle the pile
+        }
+
+        if (subscribed) {
+            subscription = GdxObservable.fromBox2DContact(world).subscribe(new Action1<ContactEvent>() {
+
+                @Override
+                public void call(ContactEvent event) {
+                    blackhole.consume(event);
+                }
+            });
+        }
+    }
+
+    @TearDown
+    public void disposeWorld() {
+        if (subscription != null) {
+            subscription.unsubscribe();
+        }
+        world.dispose();
+    }
+
+    @Benchmark
+    public void step() {
+        world.step(1f / 60f, 8, 3);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.benchmarks;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rx.GdxObservable;
+import rx.functions.Action1;
+import rx.libgdx.io.ByteBufferPool;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads a file completely, touching every byte, via {@link FileHandle#readBytes} and via
+ * {@link GdxObservable#fromFile}, both mapped and chunked. The file is in the page cache after the first
+ * iteration, so this measures the cost of getting the bytes to the code rather than the disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class FileReadBenchmark {
+
+    @Param({ "1024", "1048576", "67108864", "524288000" })
+    public int size;
+
+    private File file;
+    private FileHandle mapped;
+    private FileHandle chunked;
+    private final ByteBufferPool pool = new ByteBufferPool(64 * 1024, 8, true);
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = File.createTempFile("file-read-benchmark", ".bin");
+        final byte[] block = new byte[64 * 1024];
+        for (int i = 0; i < block.length; i++) {
+            block[i] = (byte) i;
+        }
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            for (int written = 0; written < size; written += block.length) {
+                out.write(block, 0, Math.min(block.length, size - written));
+            }
+        } finally {
+            out.close();
+        }
+        mapped = new FileHandle(file);
+        chunked = new FileHandle(file) {
+            @Override
+            public Files.FileType type() {
+                return Files.FileType.Classpath; // not mappable, like an Android asset
+            }
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() {
+        file.delete();
+    }
+
+    @Benchmark
+    public long readBytes() {
+        final byte[] bytes = mapped.readBytes();
+        long sum = 0L;
+        for (byte b : bytes) {
+            sum += b;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long fromFileMapped() {
+        return sum(mapped);
+    }
+
+    @Benchmark
+    public long fromFileChunked() {
+        return sum(chunked);
+    }
+
+    private long sum(FileHandle handle) {
+        final long[] sum = new long[1];
+        GdxObservable.fromFile(handle, pool).toBlocking().forEach(new Action1<ByteBuffer>() {
+
+            @Override
+            public void call(ByteBuffer chunk) {
+                long s = 0L;
+                for (int i = chunk.position(); i < chunk.limit(); i++) {
+                    s += chunk.get(i);
+                }
+                sum[0] += s;
+                pool.release(chunk);
+            }
+        });
+        return sum[0];
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.libgdx.events.input.InputEvent;
+import rx.libgdx.events.input.KeyDownEvent;
+import rx.libgdx.events.input.TouchDownEvent;
+import rx.libgdx.events.input.TouchDraggedEvent;
+import rx.libgdx.sources.GdxInputEventSource;
+import rx.subjects.PublishSubject;
+import rx.subscriptions.CompositeSubscription;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pushes a mix of input events through the {@link rx.GdxObservable#filtered} chains of three typed streams, as
+ * a game listening for keys, touches and drags on one published input stream does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FilteredBenchmark {
+
+    private final PublishSubject<InputEvent> input = PublishSubject.create();
+    private final InputEvent[] events = {
+            new TouchDraggedEvent(10, 20, 0), new KeyDownEvent(29), new TouchDraggedEvent(11, 20, 0),
+            new TouchDownEvent(10, 20, 0, 0)
+    };
+    private Subscription subscription;
+    private int next;
+
+    @Setup
+    public void subscribe(final Blackhole blackhole) {
+        final CompositeSubscription subscriptions = new CompositeSubscription();
+        final Action1<InputEvent> consumer = new Action1<InputEvent>() {
+
+            @Override
+            public void call(InputEvent event) {
+                blackhole.consume(event);
+            }
+        };
+        subscriptions.add(GdxInputEventSource.keyDown(input).subscribe(consumer));
+        subscriptions.add(GdxInputEventSource.touchDown(input).subscribe(consumer));
+        subscriptions.add(GdxInputEventSource.touchDragged(input).subscribe(consumer));
+        subscription = subscriptions;
+    }
+
+    @TearDown
+    public void unsubscribe() {
+        subscription.unsubscribe();
+    }
+
+    @Benchmark
+    public void dispatch() {
+        input.onNext(events[next]);
+        next = (next + 1) & 3;
+    }
+}
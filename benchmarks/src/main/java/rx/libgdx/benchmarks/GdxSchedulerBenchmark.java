@@ -0,0 +1,130 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.benchmarks;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rx.Scheduler;
+import rx.concurrency.GdxScheduler;
+import rx.functions.Action0;
+import rx.libgdx.headless.StubApplication;
+import rx.libgdx.headless.StubGraphics;
+import rx.libgdx.headless.StubInput;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules actions on the {@link GdxScheduler}, running them the way a backend does at the start of a frame,
+ * through a stub <code>Gdx.app</code>.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GdxSchedulerBenchmark {
+
+    private static final int BATCH = 64;
+
+    private StubApplication app;
+    private Scheduler.Worker worker;
+    private int executed;
+
+    private final Action0 action = new Action0() {
+
+        @Override
+        public void call() {
+            executed++;
+        }
+    };
+
+    @Setup
+    public void install() {
+        app = new StubApplication(new ApplicationAdapter() { }, new StubGraphics(640, 480), new StubInput());
+        Gdx.app = app;
+        worker = GdxScheduler.get().createWorker();
+    }
+
+    @TearDown
+    public void uninstall() {
+        worker.unsubscribe();
+        Gdx.app = null;
+    }
+
+    /**
+     * One action per frame.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int schedule() {
+        worker.schedule(action);
+        return app.executeRunnables();
+    }
+
+    /**
+     * Many actions per frame, as when an observable is observed on the GL thread.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @OperationsPerInvocation(BATCH)
+    public int scheduleBatch() {
+        for (int i = 0; i < BATCH; i++) {
+            worker.schedule(action);
+        }
+        return app.executeRunnables();
+    }
+
+    /**
+     * The delays to schedule with: none, which takes the timer all the same, and a few milliseconds.
+     */
+    @State(Scope.Thread)
+    public static class Delay {
+
+        @Param({ "0", "2" })
+        public long millis;
+    }
+
+    /**
+     * The time from scheduling an action with a delay until it has run, polling for it like a frame loop running
+     * flat out. The time beyond the delay is the timer's lateness.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int delayedScheduleLatency(Delay delay) {
+        final int before = executed;
+        worker.schedule(action, delay.millis, TimeUnit.MILLISECONDS);
+        while (executed == before) {
+            app.executeRunnables();
+            Thread.yield();
+        }
+        return executed;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputProcessor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.GdxObservable;
+import rx.functions.Action1;
+import rx.libgdx.events.input.InputEvent;
+import rx.libgdx.headless.StubInput;
+import rx.observables.ConnectableObservable;
+import rx.subscriptions.CompositeSubscription;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispatches input events through {@link GdxObservable#fromInput} to 1..N subscribers sharing a single published
+ * subscription.
+ * <p>
+ * Subscribing to {@link GdxObservable#fromInput} directly adds an input processor per subscription, which
+ * handles every event, so the input multiplexer stops at the first of them. That variant would measure a single
+ * subscriber no matter how many there are, so it isn't measured; subscribers that all want the input share it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputDispatchBenchmark {
+
+    @Param({ "1", "4", "16" })
+    public int subscribers;
+
+    private final CompositeSubscription subscriptions = new CompositeSubscription();
+    private InputProcessor processor;
+    private int x;
+
+    @Setup
+    public void subscribe(final Blackhole blackhole) {
+        Gdx.input = new StubInput();
+        final Action1<InputEvent> consumer = new Action1<InputEvent>() {
+
+            @Override
+            public void call(InputEvent event) {
+                blackhole.consume(event);
+            }
+        };
+
+        final ConnectableObservable<InputEvent> input = GdxObservable.fromInput().publish();
+        for (int i = 0; i < subscribers; i++) {
+            subscriptions.add(input.subscribe(consumer));
+        }
+        subscriptions.add(input.connect());
+        processor = Gdx.input.getInputProcessor();
+    }
+
+    @TearDown
+    public void unsubscribe() {
+        subscriptions.unsubscribe();
+    }
+
+    @Benchmark
+    public boolean touchDragged() {
+        x = (x + 1) & 1023;
+        return processor.touchDragged(x, 300, 0);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.benchmarks;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rx.libgdx.physics.ContactBatch;
+import rx.libgdx.physics.ParallelWorldStepper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steps independent worlds of bouncing balls with {@link ParallelWorldStepper} on pools of different sizes. The
+ * speedup over one thread is what stepping in parallel buys, up to the number of cores of the machine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelWorldStepperBenchmark {
+
+    @Param({ "1", "2", "4" })
+    public int threads;
+
+    @Param({ "16" })
+    public int worlds;
+
+    @Param({ "200" })
+    public int bodies;
+
+    private ForkJoinPool pool;
+    private List<World> created;
+    private ParallelWorldStepper stepper;
+
+    @Setup
+    public void createWorlds() {
+        GdxNativesLoader.load();
+        pool = new ForkJoinPool(threads);
+        created = new ArrayList<World>();
+        stepper = new ParallelWorldStepper(pool, 1f / 60f, 8, 3);
+        for (int i = 0; i < worlds; i++) {
+            final World world = arena(bodies);
+            created.add(world);
+            stepper.add(world);
+        }
+    }
+
+    @TearDown
+    public void disposeWorlds() {
+        pool.shutdown();
+        for (World world : created) {
+            world.dispose();
+        }
+    }
+
+    @Benchmark
+    public List<ContactBatch> step() {
+        return stepper.step();
+    }
+
+    /**
+     * A box with circles bouncing around inside, so that bodies never fall asleep.
+     */
+    private static World arena(int bodies) {
+        final World world = new World(new Vector2(0f, -10f), false);
+
+        final BodyDef wallDef = new BodyDef();
+        final PolygonShape wall = new PolygonShape();
+        final float[][] walls = {{0f, -1f, 21f, 1f}, {0f, 41f, 21f, 1f}, {-21f, 20f, 1f, 21f}, {21f, 20f, 1f, 21f}};
+        for (float[] w : walls) {
+            wallDef.position.set(w[0], w[1]);
+            wall.setAsBox(w[2], w[3]);
+            world.createBody(wallDef).createFixture(wall, 0f);
+        }
+        wall.dispose();
+
+        final BodyDef ballDef = new BodyDef();
+        ballDef.type = BodyDef.BodyType.DynamicBody;
+        final CircleShape ball = new CircleShape();
+        ball.setRadius(0.4f);
+        for (int i = 0; i < bodies; i++) {
+            ballDef.position.set(-19f + (i % 38), 1f + (i / 38) * 1.5f);
+            ballDef.linearVelocity.set((i % 7) - 3f, (i % 5) * 2f);
+            world.createBody(ballDef).createFixture(ball, 1f).setRestitution(1f);
+        }
+        ball.dispose();
+
+        return world;
+    }
+}
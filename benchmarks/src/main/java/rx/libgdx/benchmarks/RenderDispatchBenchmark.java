@@ -0,0 +1,89 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.benchmarks;
+
+import com.badlogic.gdx.ApplicationListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import rx.Observable;
+import rx.RxApplication;
+import rx.RxGame;
+import rx.functions.Action1;
+import rx.libgdx.events.lifecycle.LifecycleEvent;
+import rx.libgdx.events.lifecycle.RenderEvent;
+import rx.libgdx.sources.GdxLifecycleEventSource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders frames of an {@link RxApplication} whose games each subscribe to the render events of the lifecycle.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderDispatchBenchmark {
+
+    @Param({ "1", "8" })
+    public int games;
+
+    private ApplicationListener listener;
+
+    @Setup
+    public void create(final Blackhole blackhole) {
+        final RxGame[] rxGames = new RxGame[games];
+        for (int i = 0; i < games; i++) {
+            rxGames[i] = new RxGame() {
+
+                @Override
+                public void start(Observable<LifecycleEvent> lifecycle) {
+                    GdxLifecycleEventSource.render(lifecycle).subscribe(new Action1<RenderEvent>() {
+
+                        @Override
+                        public void call(RenderEvent event) {
+                            blackhole.consume(event.getDeltaNanos());
+                        }
+                    });
+                }
+            };
+        }
+        listener = RxApplication.app(rxGames);
+        listener.create();
+    }
+
+    @TearDown
+    public void dispose() {
+        listener.dispose();
+    }
+
+    @Benchmark
+    public void render() {
+        listener.render();
+    }
+}
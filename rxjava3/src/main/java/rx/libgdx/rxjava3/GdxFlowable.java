@@ -0,0 +1,130 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.rxjava3;
+
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.physics.box2d.World;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.functions.Supplier;
+import io.reactivex.rxjava3.processors.UnicastProcessor;
+import org.reactivestreams.Publisher;
+import rx.GdxObservable;
+import rx.Observable;
+import rx.Subscriber;
+import rx.libgdx.events.box2d.ContactEvent;
+import rx.libgdx.events.input.InputEvent;
+import rx.libgdx.events.lifecycle.LifecycleEvent;
+import rx.libgdx.events.lifecycle.RenderEvent;
+
+/**
+ * The sources of {@link GdxObservable} as RxJava 3 flowables, emitting the same events.
+ * <p>
+ * Each subscription buffers its events in a queue that downstream operators can fuse with: in a chain like
+ * <code>fromInput().ofType(TouchDownEvent.class).map(...).observeOn(GlThreadScheduler.get())</code>,
+ * <code>ofType</code> and <code>map</code> run inside the drain loop of <code>observeOn</code>, which polls the
+ * source's queue directly instead of having one of its own. Events are buffered until requested, like with
+ * {@link io.reactivex.rxjava3.core.BackpressureStrategy#BUFFER}.
+ * <p>
+ * Some events refer to objects libgdx reuses, like the contacts of Box2D and the render event. Use them in
+ * the callback that delivers them, or copy what's needed, whenever they are observed asynchronously.
+ */
+public enum GdxFlowable {
+    ; // no instances
+
+    /**
+     * Subscribes to an observable of RxJava 1 for each subscription of the returned flowable. Use this for
+     * observables this facade doesn't cover, like the lifecycle handed to an {@link rx.RxGame}.
+     *
+     * @param source The observable to subscribe to.
+     * @return A flowable emitting what the observable emits, fusable as described above.
+     */
+    public static <T> Flowable<T> from(final Observable<? extends T> source) {
+        return Flowable.defer(new Supplier<Publisher<T>>() {
+
+            @Override
+            public Publisher<T> get() {
+                final Bridge<T> bridge = new Bridge<T>();
+                source.unsafeSubscribe(bridge);
+                return bridge.processor;
+            }
+        });
+    }
+
+    /**
+     * @see GdxObservable#fromInput
+     */
+    public static Flowable<InputEvent> fromInput() {
+        return from(GdxObservable.fromInput());
+    }
+
+    /**
+     * @see GdxObservable#fromBox2DContact
+     */
+    public static Flowable<ContactEvent> fromBox2DContact(World world) {
+        return from(GdxObservable.fromBox2DContact(world));
+    }
+
+    /**
+     * @see GdxObservable#fromLifecycle
+     */
+    public static Flowable<LifecycleEvent> fromLifecycle() {
+        return from(GdxObservable.fromLifecycle());
+    }
+
+    /**
+     * Like {@link GdxObservable#fromRenderTicks}, but drops the ticks of frames a subscriber hasn't requested,
+     * rather than buffering the reused render event.
+     */
+    public static Flowable<RenderEvent> fromRenderTicks() {
+        return from(GdxObservable.fromRenderTicks()).onBackpressureDrop();
+    }
+
+    /**
+     * @see GdxObservable#fromHttpRequest
+     */
+    public static Flowable<Net.HttpResponse> fromHttpRequest(Net.HttpRequest httpRequest) {
+        return from(GdxObservable.fromHttpRequest(httpRequest));
+    }
+
+    /**
+     * Feeds the events of one RxJava 1 subscription into a unicast processor, and unsubscribes when the
+     * processor is cancelled or terminated.
+     */
+    private static final class Bridge<T> extends Subscriber<T> implements Runnable {
+
+        final UnicastProcessor<T> processor = UnicastProcessor.create(16, this);
+
+        @Override
+        public void onNext(T t) {
+            processor.onNext(t);
+        }
+
+        @Override
+        public void onCompleted() {
+            processor.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            processor.onError(e);
+        }
+
+        @Override
+        public void run() {
+            unsubscribe();
+        }
+    }
+}
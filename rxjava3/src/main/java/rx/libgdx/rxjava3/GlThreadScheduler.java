@@ -0,0 +1,218 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.rxjava3;
+
+import com.badlogic.gdx.Gdx;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.CompositeDisposable;
+import io.reactivex.rxjava3.disposables.Disposable;
+import io.reactivex.rxjava3.plugins.RxJavaPlugins;
+import rx.functions.Action1;
+import rx.libgdx.sources.LifecycleGate;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executes work on the Gdx UI thread, for RxJava 3.
+ * <p>
+ * Each worker queues its tasks and posts a single runnable to drain them, however many tasks are scheduled
+ * before it runs, and runs those scheduled meanwhile in the next frame. Combined with the fusable sources of
+ * {@link GdxFlowable}, <code>observeOn</code> with this scheduler runs one drain loop per burst of events,
+ * polling the source's queue. Delayed tasks share one timer
+ * thread, which hands them to their worker when due. Disposing a worker disposes all of its tasks, and cancels
+ * the timeouts of those still delayed.
+ * <p>
+ * Like {@link rx.concurrency.GdxScheduler}, the workers park while the {@link LifecycleGate} is paused and
+ * continue once it resumes.
+ */
+public final class GlThreadScheduler extends Scheduler {
+
+    private static final GlThreadScheduler INSTANCE = new GlThreadScheduler();
+
+    public static GlThreadScheduler get() {
+        return INSTANCE;
+    }
+
+    private final LifecycleGate gate = LifecycleGate.get();
+    private final Queue<GlWorker> parked = new ConcurrentLinkedQueue<GlWorker>();
+    private final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "gl-thread-scheduler-timer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private GlThreadScheduler() {
+        timer.setRemoveOnCancelPolicy(true);
+        gate.states().subscribe(new Action1<Boolean>() {
+
+            @Override
+            public void call(Boolean paused) {
+                if (!paused) {
+                    unpark();
+                }
+            }
+        });
+    }
+
+    @Override
+    public Worker createWorker() {
+        return new GlWorker();
+    }
+
+    private void unpark() {
+        GlWorker worker;
+        while ((worker = parked.poll()) != null) {
+            Gdx.app.postRunnable(worker);
+        }
+    }
+
+    private final class GlWorker extends Worker implements Runnable {
+
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<Task>();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final CompositeDisposable scheduled = new CompositeDisposable();
+        private volatile boolean disposed;
+
+        @Override
+        public Disposable schedule(Runnable run, long delay, TimeUnit unit) {
+            if (disposed) {
+                return Disposable.disposed();
+            }
+            final Task task = new Task(this, RxJavaPlugins.onSchedule(run));
+            if (!scheduled.add(task)) {
+                return task; // disposed meanwhile, and so is the task
+            }
+            if (delay <= 0L) {
+                enqueue(task);
+            } else {
+                task.delay(timer.schedule(task, delay, unit));
+            }
+            return task;
+        }
+
+        void enqueue(Task task) {
+            if (disposed) {
+                return;
+            }
+            tasks.offer(task);
+            if (pending.getAndIncrement() == 0) {
+                Gdx.app.postRunnable(this);
+            }
+        }
+
+        /**
+         * Drains the tasks queued when the drain starts on the GL thread. Tasks scheduled while draining run in
+         * the next frame, as with <code>Gdx.app.postRunnable</code>, so that a task rescheduling itself
+         * or a faster producer can't keep the frame from ending.
+         */
+        @Override
+        public void run() {
+            if (gate.isPaused()) {
+                parked.offer(this); // stays pending, so no other drain gets posted meanwhile
+                if (!gate.isPaused()) {
+                    unpark(); // resumed while we were parking
+                }
+                return;
+            }
+            final int count = pending.get();
+            for (int i = 0; i < count; i++) {
+                final Task task = tasks.poll();
+                if (task != null && !disposed) {
+                    task.execute();
+                }
+            }
+            if (pending.addAndGet(-count) != 0) {
+                Gdx.app.postRunnable(this); // still pending, so no other drain got posted meanwhile
+            }
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            scheduled.dispose();
+            tasks.clear(); // a pending drain finds fewer tasks than it counted, and runs none of them anyway
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+
+    /**
+     * A scheduled task, first run by the timer if delayed, which hands it over to its worker.
+     */
+    private static final class Task implements Runnable, Disposable {
+
+        private final GlWorker worker;
+        private final Runnable action;
+        private volatile boolean disposed;
+        private volatile Future<?> timeout;
+
+        Task(GlWorker worker, Runnable action) {
+            this.worker = worker;
+            this.action = action;
+        }
+
+        void delay(Future<?> timeout) {
+            this.timeout = timeout;
+            if (disposed) {
+                timeout.cancel(false); // disposed while being scheduled
+            }
+        }
+
+        @Override
+        public void run() {
+            worker.enqueue(this);
+        }
+
+        void execute() {
+            if (!disposed) {
+                try {
+                    action.run();
+                } catch (Throwable e) {
+                    RxJavaPlugins.onError(e);
+                }
+            }
+            worker.scheduled.delete(this);
+        }
+
+        @Override
+        public void dispose() {
+            disposed = true;
+            final Future<?> future = timeout;
+            if (future != null) {
+                future.cancel(false);
+            }
+            worker.scheduled.delete(this);
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return disposed;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.rxjava3;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputMultiplexer;
+import com.badlogic.gdx.InputProcessor;
+import io.reactivex.rxjava3.core.FlowableSubscriber;
+import io.reactivex.rxjava3.functions.Function;
+import io.reactivex.rxjava3.operators.QueueFuseable;
+import io.reactivex.rxjava3.operators.QueueSubscription;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import rx.libgdx.events.input.TouchDownEvent;
+import rx.libgdx.headless.StubApplication;
+import rx.libgdx.headless.StubGraphics;
+import rx.libgdx.headless.StubInput;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class GdxFlowableTest {
+
+    private StubApplication app;
+    private InputProcessor processor;
+
+    @Before
+    public void install() {
+        app = new StubApplication(new ApplicationAdapter() { }, new StubGraphics(640, 480), new StubInput());
+        Gdx.app = app;
+        Gdx.input = app.getInput();
+    }
+
+    @After
+    public void uninstall() {
+        Gdx.app = null;
+        Gdx.input = null;
+    }
+
+    @Test
+    public void testObservesBurstsOfEventsOnTheGlThreadWithOneRunnable() {
+        final TestSubscriber<Integer> subscriber = new TestSubscriber<Integer>();
+        GdxFlowable.fromInput()
+                .ofType(TouchDownEvent.class)
+                .map(new Function<TouchDownEvent, Integer>() {
+
+                    @Override
+                    public Integer apply(TouchDownEvent event) {
+                        return event.getScreenX();
+                    }
+                })
+                .observeOn(GlThreadScheduler.get())
+                .subscribe(subscriber);
+        processor = Gdx.input.getInputProcessor();
+
+        processor.touchDown(1, 0, 0, 0);
+        processor.keyDown(42);
+        processor.touchDown(2, 0, 0, 0);
+        processor.touchDown(3, 0, 0, 0);
+        subscriber.assertNoValues();
+
+        assertEquals(1, app.executeRunnables());
+        subscriber.assertValues(1, 2, 3);
+        subscriber.cancel();
+    }
+
+    @Test
+    public void testFusesWithFilterAndMap() {
+        final int[] mode = new int[1];
+        GdxFlowable.fromInput()
+                .ofType(TouchDownEvent.class)
+                .subscribe(new FlowableSubscriber<TouchDownEvent>() {
+
+                    @Override
+                    @SuppressWarnings("unchecked")
+                    public void onSubscribe(Subscription s) {
+                        mode[0] = ((QueueSubscription<TouchDownEvent>) s).requestFusion(QueueFuseable.ANY);
+                        s.cancel();
+                    }
+
+                    @Override
+                    public void onNext(TouchDownEvent event) { }
+
+                    @Override
+                    public void onError(Throwable t) { }
+
+                    @Override
+                    public void onComplete() { }
+                });
+
+        assertEquals(QueueFuseable.ASYNC, mode[0]);
+        assertNull("cancelling detaches the input processor", firstProcessor());
+    }
+
+    @Test
+    public void testBuffersUntilRequested() {
+        final TestSubscriber<TouchDownEvent> subscriber = new TestSubscriber<TouchDownEvent>(1L);
+        GdxFlowable.fromInput().ofType(TouchDownEvent.class).subscribe(subscriber);
+        processor = Gdx.input.getInputProcessor();
+
+        for (int i = 0; i < 5; i++) {
+            processor.touchDown(i, 0, 0, 0);
+        }
+        subscriber.assertValueCount(1);
+
+        subscriber.request(10L);
+        subscriber.assertValueCount(5);
+        subscriber.cancel();
+    }
+
+    @Test
+    public void testRunsDelayedTasksOnTheGlThreadWhenDue() throws InterruptedException {
+        final List<String> runs = new ArrayList<String>();
+        final CountDownLatch due = new CountDownLatch(1);
+        GlThreadScheduler.get().createWorker().schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                runs.add("delayed");
+            }
+        }, 20L, TimeUnit.MILLISECONDS);
+        GlThreadScheduler.get().createWorker().schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                runs.add("cancelled");
+            }
+        }, 20L, TimeUnit.MILLISECONDS).dispose();
+        GlThreadScheduler.get().scheduleDirect(new Runnable() {
+
+            @Override
+            public void run() {
+                due.countDown();
+            }
+        }, 40L, TimeUnit.MILLISECONDS);
+
+        app.executeRunnables();
+        assertTrue(runs.isEmpty());
+
+        long deadline = System.currentTimeMillis() + 5000L;
+        while (due.getCount() > 0 && System.currentTimeMillis() < deadline) {
+            app.executeRunnables();
+            Thread.sleep(5L);
+        }
+        assertEquals(Arrays.asList("delayed"), runs);
+    }
+
+    private InputProcessor firstProcessor() {
+        final InputProcessor current = Gdx.input.getInputProcessor();
+        if (current instanceof InputMultiplexer) {
+            final InputMultiplexer multiplexer = (InputMultiplexer) current;
+            return multiplexer.size() == 0 ? null : multiplexer.getProcessors().first();
+        }
+        return current;
+    }
+}
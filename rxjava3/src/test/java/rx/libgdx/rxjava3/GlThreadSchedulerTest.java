@@ -0,0 +1,114 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.rxjava3;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.disposables.Disposable;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.libgdx.headless.StubApplication;
+import rx.libgdx.headless.StubGraphics;
+import rx.libgdx.headless.StubInput;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GlThreadSchedulerTest {
+
+    private StubApplication app;
+
+    @Before
+    public void install() {
+        app = new StubApplication(new ApplicationAdapter() { }, new StubGraphics(640, 480), new StubInput());
+        Gdx.app = app;
+    }
+
+    @After
+    public void uninstall() {
+        Gdx.app = null;
+    }
+
+    @Test
+    public void testRunsTasksOnTheGlThreadWhenDue() throws InterruptedException {
+        final Scheduler.Worker worker = GlThreadScheduler.get().createWorker();
+        final AtomicInteger calls = new AtomicInteger();
+        worker.schedule(counting(calls));
+        worker.schedule(counting(calls), 20L, TimeUnit.MILLISECONDS);
+        assertEquals(0, calls.get());
+
+        app.executeRunnables();
+        assertEquals(1, calls.get());
+        Thread.sleep(100L);
+        app.executeRunnables();
+        assertEquals(2, calls.get());
+        worker.dispose();
+    }
+
+    @Test
+    public void testDisposingTheWorkerDisposesAllOfItsTasks() throws InterruptedException {
+        final Scheduler.Worker worker = GlThreadScheduler.get().createWorker();
+        final AtomicInteger calls = new AtomicInteger();
+        final Disposable queued = worker.schedule(counting(calls));
+        final Disposable delayed = worker.schedule(counting(calls), 20L, TimeUnit.MILLISECONDS);
+
+        worker.dispose();
+        assertTrue(queued.isDisposed());
+        assertTrue(delayed.isDisposed());
+        assertTrue(worker.schedule(counting(calls)).isDisposed());
+
+        Thread.sleep(100L);
+        app.executeRunnables();
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void testRunsTasksScheduledWhileDrainingInTheNextFrame() {
+        final Scheduler.Worker worker = GlThreadScheduler.get().createWorker();
+        final AtomicInteger calls = new AtomicInteger();
+        worker.schedule(new Runnable() {
+
+            @Override
+            public void run() {
+                calls.incrementAndGet();
+                worker.schedule(this);
+            }
+        });
+
+        for (int frame = 1; frame <= 3; frame++) {
+            app.executeRunnables();
+            assertEquals(frame, calls.get());
+        }
+        worker.dispose();
+        app.executeRunnables();
+        assertEquals(3, calls.get());
+    }
+
+    private static Runnable counting(final AtomicInteger calls) {
+        return new Runnable() {
+
+            @Override
+            public void run() {
+                calls.incrementAndGet();
+            }
+        };
+    }
+}
@@ -15,25 +15,55 @@
  */
 package rx;
 
+import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Net;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.net.ServerSocketHints;
+import com.badlogic.gdx.net.Socket;
+import com.badlogic.gdx.net.SocketHints;
 import com.badlogic.gdx.physics.box2d.World;
 
 import rx.functions.Action0;
 import rx.functions.Func1;
+import rx.libgdx.assets.RxAssetManager;
+import rx.libgdx.events.assets.AssetProgressEvent;
 import rx.libgdx.events.input.InputEvent;
 import rx.libgdx.events.box2d.ContactEvent;
 import rx.libgdx.events.lifecycle.LifecycleEvent;
+import rx.libgdx.events.lifecycle.RenderEvent;
+import rx.libgdx.events.net.HttpProgressEvent;
+import rx.libgdx.events.sensors.SensorEvent;
+import rx.libgdx.instrumentation.BucketHistogram;
+import rx.libgdx.instrumentation.MetricsRegistry;
+import rx.libgdx.instrumentation.StripedCounter;
+import rx.libgdx.io.ByteBufferPool;
+import rx.libgdx.sources.FrameTimer;
 import rx.libgdx.sources.GdxBox2DEventSource;
+import rx.libgdx.sources.GdxFileEventSource;
 import rx.libgdx.sources.GdxInputEventSource;
 import rx.libgdx.sources.GdxLifecycleEventSource;
+import rx.libgdx.sources.GdxNetEventSource;
+import rx.libgdx.sources.GdxSensorEventSource;
+import rx.libgdx.sources.SensorFilter;
 import rx.subscriptions.Subscriptions;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 /**
  * Allows creating observables from various sources specific to libgdx. 
  */
 public enum GdxObservable { ; // no instances
 
+    private static final StripedCounter HTTP_REQUESTS = MetricsRegistry.get().counter("http.requests");
+    private static final StripedCounter HTTP_IN_FLIGHT = MetricsRegistry.get().counter("http.inFlight");
+    private static final StripedCounter HTTP_FAILURES = MetricsRegistry.get().counter("http.failures");
+    private static final StripedCounter HTTP_CANCELLED = MetricsRegistry.get().counter("http.cancelled");
+    private static final BucketHistogram HTTP_LATENCY =
+            MetricsRegistry.get().histogram("http.latencyMillis", BucketHistogram.exponential(1L, 16));
+
     /**
      * Creates an observable corresponding to the game's input events.
      * Publish this and convert to the more specific input events you require.
@@ -44,6 +74,45 @@ public enum GdxObservable { ; // no instances
         return GdxInputEventSource.fromInput();
     }
 
+    /**
+     * Creates an observable sampling the accelerometer on each tick, e.g. once per frame via
+     * {@link #fromRenderTicks} or at a fixed rate via {@link Observable#interval}. Samples taken on render events
+     * are timed with the frame's time, which may be synthetic, and all others with the system clock. Each
+     * subscription filters the samples in place and emits them in a reused event, which also keeps the most recent
+     * raw samples. Completes right away if the device has no accelerometer.
+     *
+     * @param ticks When to take a sample.
+     * @param filter The filter to apply, e.g. {@link SensorFilter#lowPass} to get gravity.
+     * @param history The number of raw samples to keep in the event, at least 1.
+     * @return Observable emitting the acceleration along x, y and z, in meters per second squared.
+     */
+    public static Observable<SensorEvent> fromAccelerometer(Observable<?> ticks, SensorFilter filter, int history) {
+        return GdxSensorEventSource.fromAccelerometer(ticks, filter, history);
+    }
+
+    /**
+     * Like {@link #fromAccelerometer}, but sampling the orientation of the device. Completes right away if the
+     * device has no compass.
+     *
+     * @return Observable emitting the azimuth, pitch and roll, in degrees.
+     */
+    public static Observable<SensorEvent> fromCompass(Observable<?> ticks, SensorFilter filter, int history) {
+        return GdxSensorEventSource.fromCompass(ticks, filter, history);
+    }
+
+    /**
+     * Like {@link #fromCompass}, but fusing pitch and roll with the tilt of gravity measured by the accelerometer,
+     * via a complementary filter. The result follows each change of the orientation right away, like a gyroscope
+     * would, and settles on the tilt of gravity over the time constant, so it is both responsive and steady.
+     * Completes right away if the device has no compass or no accelerometer.
+     *
+     * @param timeConstant The time over which to settle on the tilt of gravity, in seconds, e.g. 0.5.
+     * @return Observable emitting the pitch, roll and azimuth, in degrees.
+     */
+    public static Observable<SensorEvent> fromTilt(Observable<?> ticks, float timeConstant, int history) {
+        return GdxSensorEventSource.fromTilt(ticks, timeConstant, history);
+    }
+
     /**
      * Creates an observable corresponding to the game's physics contact events (using Box2D).
      * Publish this and convert to the more specific contact events you require.
@@ -65,6 +134,39 @@ public enum GdxObservable { ; // no instances
         return GdxLifecycleEventSource.fromLifecycle();
     }
 
+    /**
+     * Creates an observable emitting a render event right before each frame of an application wrapped with
+     * {@link #withRenderTicks}. All render events are the same, reused instance, updated for each frame.
+     * Use this for per-frame streams in games that don't use {@link RxApplication}.
+     *
+     * @return Observable emitting a render event per frame.
+     */
+    public static Observable<RenderEvent> fromRenderTicks() {
+        return GdxLifecycleEventSource.fromRenderTicks();
+    }
+
+    /**
+     * Wraps an existing application listener (or <code>Game</code>), so that {@link #fromRenderTicks} emits
+     * its frames. Hand the wrapper over to the libgdx backend instead of the original listener.
+     *
+     * @param listener The application listener to wrap.
+     * @return The wrapping application listener.
+     */
+    public static ApplicationListener withRenderTicks(ApplicationListener listener) {
+        return GdxLifecycleEventSource.withRenderTicks(listener);
+    }
+
+    /**
+     * Like {@link #withRenderTicks(ApplicationListener)}, but timing the frames with the given clock.
+     *
+     * @param listener The application listener to wrap.
+     * @param clock The clock to take frame times and deltas from, e.g. that of a headless driver.
+     * @return The wrapping application listener.
+     */
+    public static ApplicationListener withRenderTicks(ApplicationListener listener, FrameTimer.Clock clock) {
+        return GdxLifecycleEventSource.withRenderTicks(listener, clock);
+    }
+
     /**
      * Creates an observable corresponding to the http request events.
      * Publish this and convert to the more specific contact events you require.
@@ -77,16 +179,30 @@ public enum GdxObservable { ; // no instances
 
             @Override
             public void call(final Subscriber<? super Net.HttpResponse> subscriber) {
+                final long start = System.nanoTime();
+                final AtomicBoolean done = new AtomicBoolean();
+                HTTP_REQUESTS.increment();
+                HTTP_IN_FLIGHT.increment();
                 Gdx.net.sendHttpRequest(httpRequest, new Net.HttpResponseListener() {
 
+                    private void finish() {
+                        if (done.compareAndSet(false, true)) {
+                            HTTP_IN_FLIGHT.decrement();
+                            HTTP_LATENCY.record((System.nanoTime() - start) / 1000000L);
+                        }
+                    }
+
                     @Override
                     public void handleHttpResponse(Net.HttpResponse httpResponse) {
+                        finish();
                         subscriber.onNext(httpResponse);
                         subscriber.onCompleted();
                     }
 
                     @Override
                     public void failed(Throwable t) {
+                        finish();
+                        HTTP_FAILURES.increment();
                         subscriber.onError(t);
                     }
 
@@ -101,6 +217,10 @@ public enum GdxObservable { ; // no instances
 
                     @Override
                     public void call() {
+                        if (done.compareAndSet(false, true)) {
+                            HTTP_IN_FLIGHT.decrement();
+                            HTTP_CANCELLED.increment();
+                        }
                         Gdx.net.cancelHttpRequest(httpRequest);
                     }
 
@@ -110,6 +230,122 @@ public enum GdxObservable { ; // no instances
         });
     }
 
+    /**
+     * Creates an observable streaming the body of a http response in chunks, without buffering it as a whole.
+     * The body is read on the backend's http thread, one pooled buffer per chunk, and only as fast as the
+     * subscriber requests chunks. Release each chunk to the pool when done with it. Fails for error statuses.
+     *
+     * @param httpRequest The request to execute on subscription
+     * @param pool The pool to take the chunk buffers from
+     * @return Observable emitting the body in flipped buffers of up to the pool's buffer size.
+     */
+    public static Observable<ByteBuffer> fromHttpRequestChunked(Net.HttpRequest httpRequest, ByteBufferPool pool) {
+        return GdxNetEventSource.fromHttpRequestChunked(httpRequest, pool);
+    }
+
+    /**
+     * Creates an observable downloading the body of a http response straight into a file, chunk by chunk.
+     * Memory use is constant, no matter how large the body is. The body is written to a temporary file next to
+     * the target, which replaces the target only once the download is complete, so a failed or cancelled
+     * download leaves an existing file as it was.
+     *
+     * @param httpRequest The request to execute on subscription
+     * @param file The (local or absolute) file to write to
+     * @param pool The pool to take the chunk buffers from
+     * @return Observable emitting the progress after each chunk.
+     */
+    public static Observable<HttpProgressEvent> downloadToFile(Net.HttpRequest httpRequest, FileHandle file,
+                                                               ByteBufferPool pool) {
+        return GdxNetEventSource.downloadToFile(httpRequest, file, pool);
+    }
+
+    /**
+     * Creates an observable reading a file in chunks on an I/O thread, only as fast as the subscriber requests
+     * them. Files in the file system are memory mapped, and emitted as read-only views of the mapping; others,
+     * like classpath files or Android assets, are read into pooled buffers. Releasing all chunks to the pool
+     * works for both, as the pool ignores the views.
+     *
+     * @param file The file to read on subscription
+     * @param pool The pool to take the chunk buffers from, whose buffer size is the chunk size
+     * @return Observable emitting the file's contents in flipped buffers of up to the pool's buffer size.
+     */
+    public static Observable<ByteBuffer> fromFile(FileHandle file, ByteBufferPool pool) {
+        return GdxFileEventSource.fromFile(file, pool);
+    }
+
+    /**
+     * Creates an observable of the messages arriving at a socket, each framed by a 4 byte big-endian length.
+     * Frames are read on an I/O thread into pooled buffers, and only as fast as the subscriber requests them.
+     * Release each message to the pool when done with it. Completes when the peer closes the connection between
+     * two frames; dispose the socket to stop a pending read.
+     *
+     * @param socket The connected socket to read from
+     * @param pool The pool to take the message buffers from, whose buffer size limits the message size
+     * @return Observable emitting one flipped buffer per message.
+     */
+    public static Observable<ByteBuffer> fromSocket(Socket socket, ByteBufferPool pool) {
+        return GdxNetEventSource.fromSocket(socket, pool);
+    }
+
+    /**
+     * Creates an observable accepting connections on a server socket, which is opened on subscription and
+     * disposed on unsubscription. Connections are only accepted as they are requested.
+     *
+     * @param protocol The protocol of the server socket
+     * @param port The port to listen on
+     * @param serverHints The hints for the server socket, or <code>null</code>
+     * @param hints The hints for accepted sockets, or <code>null</code>
+     * @return Observable emitting the accepted sockets.
+     */
+    public static Observable<Socket> fromServerSocket(Net.Protocol protocol, int port, ServerSocketHints serverHints,
+                                                      SocketHints hints) {
+        return GdxNetEventSource.fromServerSocket(protocol, port, serverHints, hints);
+    }
+
+    /**
+     * Creates an observable writing messages to a socket, framed by a 4 byte big-endian length. Messages are
+     * copied into a staging buffer, so their buffers can be reused right away, and written out on an I/O thread
+     * with a single flush per flush signal; pass {@link #fromRenderTicks} to flush once per frame. Once more
+     * than the given number of bytes is pending, no more messages are requested until the next write is done.
+     *
+     * @param socket The connected socket to write to
+     * @param messages The messages to write
+     * @param flushes The signals to write and flush the pending messages at
+     * @param maxPendingBytes The number of pending bytes at which to stop requesting messages
+     * @return Observable emitting the number of bytes written per flush, completing once all messages are.
+     */
+    public static Observable<Integer> toSocket(Socket socket, Observable<? extends ByteBuffer> messages,
+                                               Observable<?> flushes, int maxPendingBytes) {
+        return GdxNetEventSource.toSocket(socket, messages, flushes, maxPendingBytes);
+    }
+
+    /**
+     * Creates an observable loading an asset in the background. The asset manager reads and decodes it on its
+     * loader thread, and finishes it on the GL thread within its per-frame budget, once it is driven by
+     * {@link RxAssetManager#updates} on {@link #fromRenderTicks}.
+     *
+     * @param assets The asset manager to load with
+     * @param asset The asset to load on subscription
+     * @return Observable emitting the loaded asset, then completing.
+     * @see RxAssetManager#load(AssetDescriptor)
+     */
+    public static <T> Observable<T> fromAsset(RxAssetManager assets, AssetDescriptor<T> asset) {
+        return assets.load(asset);
+    }
+
+    /**
+     * Like {@link #fromAsset}, but loading a group of assets together with their dependencies, e.g. to prefetch
+     * the next screen while the current one plays.
+     *
+     * @param assets The asset manager to load with
+     * @param group The assets to load on subscription
+     * @return Observable emitting the progress of the group, completing once all assets are loaded.
+     * @see RxAssetManager#prefetch
+     */
+    public static Observable<AssetProgressEvent> prefetchAssets(RxAssetManager assets, AssetDescriptor<?>... group) {
+        return assets.prefetch(group);
+    }
+
     /**
      * Filters and casts an observable.
      *
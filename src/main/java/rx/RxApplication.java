@@ -17,72 +17,137 @@ package rx;
 
 import com.badlogic.gdx.ApplicationListener;
 import rx.libgdx.events.lifecycle.*;
-import rx.subscriptions.Subscriptions;
-
-import static rx.Observable.create;
+import rx.libgdx.instrumentation.BucketHistogram;
+import rx.libgdx.instrumentation.FrameProfiler;
+import rx.libgdx.instrumentation.MetricsRegistry;
+import rx.libgdx.instrumentation.StripedCounter;
+import rx.libgdx.sources.EventBus;
+import rx.libgdx.sources.FrameTimer;
+import rx.libgdx.sources.LifecycleGate;
 
+/**
+ * Turns {@link RxGame}s into a libgdx application, emitting the application's lifecycle as events.
+ */
 public enum RxApplication {
     ; // no instances
 
-    public static ApplicationListener app(RxGame game) {
-        game.start(obsv());
-        return app;
+    private static final CreateEvent CREATE = new CreateEvent();
+    private static final PauseEvent PAUSE = new PauseEvent();
+    private static final ResumeEvent RESUME = new ResumeEvent();
+    private static final DisposeEvent DISPOSE = new DisposeEvent();
+
+    private static final FrameProfiler DISABLED = new FrameProfiler(false, 1, Long.MAX_VALUE);
+
+    private static final StripedCounter FRAMES = MetricsRegistry.get().counter("app.frames");
+    private static final BucketHistogram FRAME_NANOS =
+            MetricsRegistry.get().histogram("app.frameNanos", BucketHistogram.linear(500000L, 100));
+
+    /**
+     * Creates an application listener and starts the games with its lifecycle events. Any number of
+     * subscriptions to the lifecycle observable are supported, and all of them see the same events.
+     * The create, pause, resume and dispose events are shared instances, and each render event reuses the same
+     * {@link RenderEvent}, updated with the frame's index and timing. After the dispose event, the lifecycle
+     * observable completes.
+     * <p>
+     * Pausing and resuming the application also pauses and resumes the {@link LifecycleGate}.
+     *
+     * @param games The games to start.
+     * @return The application listener to hand over to the libgdx backend.
+     */
+    public static ApplicationListener app(RxGame... games) {
+        return app(FrameTimer.SYSTEM, DISABLED, games);
     }
 
-    private static Observable<LifecycleEvent> obsv() {
-        return create(new Observable.OnSubscribe<LifecycleEvent>() {
-            @Override
-            public void call(final Subscriber<? super LifecycleEvent> subscriber) {
-                subscriber.add(Subscriptions.empty());
-                RxApplication.subscriber = subscriber;
-            }
-        });
+    /**
+     * Like {@link #app(RxGame...)}, but timing the frames with the given clock, e.g. the synthetic clock of a
+     * headless driver.
+     *
+     * @param clock The clock to take frame times and deltas from.
+     * @param games The games to start.
+     * @return The application listener to hand over to the libgdx backend.
+     */
+    public static ApplicationListener app(FrameTimer.Clock clock, RxGame... games) {
+        return app(clock, DISABLED, games);
+    }
+
+    /**
+     * Like {@link #app(RxGame...)}, but profiles the lifecycle subscribers of each game, labelled with the game's
+     * class name, and ends the profiler's frame after each render event.
+     *
+     * @param profiler The profiler to use.
+     * @param games The games to start.
+     * @return The application listener to hand over to the libgdx backend.
+     */
+    public static ApplicationListener app(FrameProfiler profiler, RxGame... games) {
+        return app(FrameTimer.SYSTEM, profiler, games);
+    }
+
+    /**
+     * Like {@link #app(FrameProfiler, RxGame...)}, but timing the frames with the given clock.
+     *
+     * @param clock The clock to take frame times and deltas from.
+     * @param profiler The profiler to use.
+     * @param games The games to start.
+     * @return The application listener to hand over to the libgdx backend.
+     */
+    public static ApplicationListener app(FrameTimer.Clock clock, FrameProfiler profiler, RxGame... games) {
+        final EventBus<LifecycleEvent> bus = new EventBus<LifecycleEvent>();
+        for (RxGame game : games) {
+            game.start(profiler.profile(bus.observable(), game.getClass().getName()));
+        }
+        return new Listener(bus, profiler, new FrameTimer(clock));
     }
 
-    private static Subscriber<? super LifecycleEvent> subscriber = null;
+    private static final class Listener implements ApplicationListener {
+
+        private final EventBus<LifecycleEvent> bus;
+        private final FrameProfiler profiler;
+        private final FrameTimer timer;
+
+        Listener(EventBus<LifecycleEvent> bus, FrameProfiler profiler, FrameTimer timer) {
+            this.bus = bus;
+            this.profiler = profiler;
+            this.timer = timer;
+        }
 
-    private static final ApplicationListener app = new ApplicationListener() {
         @Override
         public void create() {
-            if (subscriber != null && !subscriber.isUnsubscribed()) {
-                subscriber.onNext(new CreateEvent());
-            }
+            bus.emit(CREATE);
         }
 
         @Override
         public void resize(int width, int height) {
-            if (subscriber != null && !subscriber.isUnsubscribed()) {
-                subscriber.onNext(new ResizeEvent(width, height));
+            if (bus.hasSubscribers()) {
+                bus.emit(new ResizeEvent(width, height));
             }
         }
 
         @Override
         public void render() {
-            if (subscriber != null && !subscriber.isUnsubscribed()) {
-                subscriber.onNext(new RenderEvent());
-            }
+            bus.emit(timer.begin());
+            final long nanos = timer.end();
+            FRAMES.increment();
+            FRAME_NANOS.record(nanos);
+            profiler.endFrame(timer.getFrame(), nanos);
         }
 
         @Override
         public void pause() {
-            if (subscriber != null && !subscriber.isUnsubscribed()) {
-                subscriber.onNext(new PauseEvent());
-            }
+            bus.emit(PAUSE);
+            LifecycleGate.get().pause();
         }
 
         @Override
         public void resume() {
-            if (subscriber != null && !subscriber.isUnsubscribed()) {
-                subscriber.onNext(new ResumeEvent());
-            }
+            timer.resume();
+            LifecycleGate.get().resume();
+            bus.emit(RESUME);
         }
 
         @Override
         public void dispose() {
-            if (subscriber != null && !subscriber.isUnsubscribed()) {
-                subscriber.onNext(new DisposeEvent());
-                subscriber.unsubscribe();
-            }
+            bus.emit(DISPOSE);
+            bus.complete();
         }
-    };
+    }
 }
@@ -19,14 +19,30 @@ import com.badlogic.gdx.Gdx;
 import rx.Scheduler;
 import rx.Subscription;
 import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.libgdx.instrumentation.MetricsRegistry;
+import rx.libgdx.instrumentation.StripedCounter;
+import rx.libgdx.sources.LifecycleGate;
 import rx.subscriptions.Subscriptions;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Executes work on the Gdx UI thread.
  * This scheduler should only be used with actions that execute quickly.
+ * <p>
+ * Delayed actions wait on one shared timer thread before they are posted. While the {@link LifecycleGate} is
+ * paused, due actions are parked and posted again when it resumes, and the timers are held: they keep their
+ * remaining delays and only continue counting down after resuming.
  */
 public final class GdxScheduler extends Scheduler {
 
@@ -36,8 +52,75 @@ public final class GdxScheduler extends Scheduler {
         return INSTANCE;
     }
 
+    private static final StripedCounter POSTED = MetricsRegistry.get().counter("scheduler.posted");
+    private static final StripedCounter EXECUTED = MetricsRegistry.get().counter("scheduler.executed");
+    private static final StripedCounter BACKLOG = MetricsRegistry.get().counter("scheduler.backlog");
+    private static final StripedCounter PARKED = MetricsRegistry.get().counter("scheduler.parked");
+    private static final StripedCounter DELAYED = MetricsRegistry.get().counter("scheduler.delayed");
+
+    private final LifecycleGate gate = LifecycleGate.get();
+    private final Queue<Runnable> parked = new ConcurrentLinkedQueue<Runnable>();
+
+    private final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactory() {
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, "gdx-scheduler-timer");
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    // guarded by themselves
+    private final Set<Timer> timers = Collections.newSetFromMap(new IdentityHashMap<Timer, Boolean>());
+
     private GdxScheduler() {
-        // hide from public access
+        timer.setRemoveOnCancelPolicy(true);
+        gate.states().subscribe(new Action1<Boolean>() {
+
+            @Override
+            public void call(Boolean paused) {
+                synchronized (timers) {
+                    for (Timer t : timers) {
+                        if (paused) {
+                            t.hold();
+                        } else {
+                            t.start();
+                        }
+                    }
+                }
+                if (!paused) {
+                    unpark();
+                }
+            }
+
+        });
+    }
+
+    private void post(Runnable runnable) {
+        if (gate.isPaused()) {
+            PARKED.increment();
+            parked.add(runnable);
+            if (!gate.isPaused()) {
+                unpark(); // resumed while we were parking
+            }
+        } else {
+            postRunnable(runnable);
+        }
+    }
+
+    private void unpark() {
+        Runnable runnable;
+        while ((runnable = parked.poll()) != null) {
+            PARKED.decrement();
+            postRunnable(runnable);
+        }
+    }
+
+    private static void postRunnable(Runnable runnable) {
+        POSTED.increment();
+        BACKLOG.increment();
+        Gdx.app.postRunnable(runnable);
     }
 
     @Override
@@ -56,11 +139,17 @@ public final class GdxScheduler extends Scheduler {
             }
 
             final AtomicBoolean run = new AtomicBoolean(true);
-            Gdx.app.postRunnable(new Runnable() {
+            post(new Runnable() {
 
                 @Override
                 public void run() {
-                    if (!isUnsubscribed && run.get()) action.call();
+                    BACKLOG.decrement();
+                    if (gate.isPaused()) {
+                        post(this);
+                    } else if (!isUnsubscribed && run.get()) {
+                        EXECUTED.increment();
+                        action.call();
+                    }
                 }
 
             });
@@ -80,33 +169,25 @@ public final class GdxScheduler extends Scheduler {
                 return Subscriptions.empty();
             }
 
-            final AtomicBoolean run = new AtomicBoolean(true);
-
             final long delayInMillis = unit.toMillis(delayTime);
             if (delayInMillis < 0) {
                 throw new IllegalArgumentException("delay may not be negative (in milliseconds): " + delayInMillis);
             }
 
-            final Thread sleeper = new Thread(new Runnable() {
-
-                @Override
-                public void run() {
-                    try {
-                        Thread.sleep(unit.toMillis(delayTime));
-                        if (!isUnsubscribed && run.get()) schedule(action);
-                    } catch (InterruptedException e) {
-                        run.set(false);
-                    }
+            final Timer t = new Timer(this, action, unit.toNanos(delayTime));
+            DELAYED.increment();
+            synchronized (timers) {
+                timers.add(t);
+                if (!gate.isPaused()) {
+                    t.start();
                 }
-            }, "gdx-scheduler-sleeper");
-            sleeper.start();
+            }
 
             return Subscriptions.create(new Action0() {
 
                 @Override
                 public void call() {
-                    sleeper.interrupt();
-                    run.set(false);
+                    t.cancel();
                 }
 
             });
@@ -123,4 +204,67 @@ public final class GdxScheduler extends Scheduler {
         }
     };
 
+    /**
+     * A delayed action, counting down on the timer thread while the gate is open. Guarded by the timers.
+     */
+    private final class Timer implements Runnable {
+
+        private final Worker worker;
+        private final Action0 action;
+        private long remainingNanos;
+        private long dueNanos;
+        private ScheduledFuture<?> future;
+        private volatile boolean cancelled;
+
+        Timer(Worker worker, Action0 action, long delayNanos) {
+            this.worker = worker;
+            this.action = action;
+            this.remainingNanos = delayNanos;
+        }
+
+        void start() {
+            if (future == null) {
+                dueNanos = System.nanoTime() + remainingNanos;
+                future = timer.schedule(this, remainingNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        void hold() {
+            if (future != null && future.cancel(false)) {
+                remainingNanos = Math.max(0L, dueNanos - System.nanoTime());
+                future = null;
+            } // otherwise it's due already, and its action will be parked
+        }
+
+        void cancel() {
+            cancelled = true;
+            synchronized (timers) {
+                timers.remove(this);
+                if (future != null) {
+                    future.cancel(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            synchronized (timers) {
+                if (!timers.remove(this)) {
+                    return; // cancelled
+                }
+            }
+            if (!worker.isUnsubscribed()) {
+                worker.schedule(new Action0() {
+
+                    @Override
+                    public void call() {
+                        if (!cancelled) {
+                            action.call();
+                        }
+                    }
+
+                });
+            }
+        }
+    }
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.concurrency;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action1;
+import rx.functions.Action2;
+import rx.functions.Func0;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands state from a producing thread (e.g. game logic on a background scheduler) to a consuming thread (e.g.
+ * the render thread), without locks and without allocating.
+ * <p>
+ * Of the three preallocated buffers, the producer owns the back buffer and the consumer the front buffer; the
+ * third one is in the middle. Publishing exchanges the back buffer with the middle one, and updating exchanges
+ * the middle one with the front buffer if something new was published since. Each exchange is a single atomic
+ * operation on an integer holding the middle buffer's index and a flag telling whether it is new. So the
+ * consumer always reads the most recent complete state, never one being written, and neither side ever waits.
+ * States published faster than they are consumed are skipped.
+ * <p>
+ * After publishing, the back buffer holds an older state, so the producer has to write all of it again before
+ * publishing it. Exactly one thread may produce and one thread may consume at a time.
+ */
+public final class TripleBuffer<T> {
+
+    private static final int INDEX = 3;
+    private static final int FRESH = 4;
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0; // producer side only
+    private int front = 2; // consumer side only
+    private boolean published; // consumer side only
+
+    /**
+     * @param factory Creates each of the three buffers.
+     */
+    public TripleBuffer(Func0<? extends T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.call();
+        }
+    }
+
+    /**
+     * @return The buffer to write the next state into. Producer side only.
+     */
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Makes the state written into the back buffer the most recent one. Producer side only.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * Takes the most recent state as the front buffer, if one was published since the last update. Consumer side
+     * only.
+     *
+     * @return <code>true</code> if the front buffer changed.
+     */
+    public boolean update() {
+        if ((middle.get() & FRESH) == 0) {
+            return false;
+        }
+        front = middle.getAndSet(front) & INDEX;
+        published = true;
+        return true;
+    }
+
+    /**
+     * @return The buffer holding the state taken by the last update. Consumer side only.
+     */
+    @SuppressWarnings("unchecked")
+    public T front() {
+        return (T) buffers[front];
+    }
+
+    /**
+     * Creates an observable that writes each item of the source into the back buffer with the given writer,
+     * publishes it, and passes the item on. Subscribe to it on the producing thread.
+     *
+     * @param source The items to publish states for, e.g. the steps of a physics world.
+     * @param writer Writes the state for an item into the back buffer, overwriting all of it.
+     * @return Observable emitting the items of the source, after their state is published.
+     */
+    public <S> Observable<S> publishing(Observable<S> source, final Action2<? super S, ? super T> writer) {
+        return source.doOnNext(new Action1<S>() {
+
+            @Override
+            public void call(S item) {
+                writer.call(item, back());
+                publish();
+            }
+        });
+    }
+
+    /**
+     * Creates an observable that updates the front buffer on each frame and emits it, once the first state has
+     * been published. The same buffer is emitted until a newer state is published, so read it right away and
+     * don't keep it beyond the frame.
+     *
+     * @param frames One signal per frame, on the consuming thread, e.g. {@link rx.GdxObservable#fromRenderTicks}
+     * @return Observable emitting the front buffer once per frame.
+     */
+    public Observable<T> latest(final Observable<?> frames) {
+        return Observable.create(new Observable.OnSubscribe<T>() {
+
+            @Override
+            public void call(final Subscriber<? super T> subscriber) {
+                subscriber.add(frames.subscribe(new Subscriber<Object>() {
+
+                    @Override
+                    public void onCompleted() {
+                        subscriber.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        subscriber.onError(e);
+                    }
+
+                    @Override
+                    public void onNext(Object frame) {
+                        update();
+                        if (published) {
+                            subscriber.onNext(front());
+                        }
+                    }
+                }));
+            }
+        });
+    }
+
+    @Override public String toString() {
+        return String.format("TripleBuffer(back = %d, middle = %d, front = %d)", back, middle.get() & INDEX, front);
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.assets;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetErrorListener;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.libgdx.events.assets.AssetProgressEvent;
+import rx.subscriptions.Subscriptions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads assets via an {@link AssetManager}, one frame-aligned time slice at a time.
+ * <p>
+ * The asynchronous part of loading (reading and decoding) runs on the asset manager's loader thread. The
+ * synchronous finishing steps, like uploading textures, run on the GL thread from {@link #update}, which keeps
+ * finishing assets only while the per-frame budget lasts, and returns as soon as the next asset isn't decoded
+ * yet instead of waiting for it. So loading in the background never makes a frame take much longer than the
+ * budget, and a loading screen stays responsive.
+ * <p>
+ * The asset manager loads assets in the order they were queued, so prefetching the next screen's assets
+ * delays assets requested later. Dependencies (like the textures of an atlas) are resolved by the asset
+ * manager and loaded before the assets depending on them.
+ */
+public final class RxAssetManager {
+
+    /**
+     * The number of calls in a row that may pass without a change of the loaded or queued assets before
+     * {@link #update} assumes it is waiting for the loader thread. A task takes a few such calls, e.g. to resolve its
+     * dependencies and to hand its asynchronous part to the loader thread.
+     */
+    private static final int IDLE_UPDATES = 3;
+
+    private final AssetManager manager;
+    private final long budgetNanos;
+    private final List<Request> requests = new ArrayList<Request>();
+
+    /**
+     * @param manager The asset manager to load with. Its error listener is replaced.
+     * @param budgetMillis The maximum time per frame to spend on finishing assets, in milliseconds.
+     */
+    public RxAssetManager(AssetManager manager, float budgetMillis) {
+        this.manager = manager;
+        this.budgetNanos = (long) (budgetMillis * 1000000.0);
+        manager.setErrorListener(new AssetErrorListener() {
+
+            @Override
+            @SuppressWarnings("rawtypes") // the listener's signature
+            public void error(AssetDescriptor asset, Throwable throwable) {
+                failed(asset, throwable);
+            }
+        });
+    }
+
+    public AssetManager getManager() {
+        return manager;
+    }
+
+    /**
+     * @see #load(AssetDescriptor)
+     */
+    public <T> Observable<T> load(String fileName, Class<T> type) {
+        return load(new AssetDescriptor<T>(fileName, type));
+    }
+
+    /**
+     * Creates an observable that queues the asset on subscription and emits it once it is loaded, from
+     * {@link #update}. Each subscription adds a reference, so unload the asset once per subscription when done.
+     *
+     * @param asset The asset to load
+     * @return Observable emitting the loaded asset, then completing.
+     */
+    public <T> Observable<T> load(final AssetDescriptor<T> asset) {
+        return Observable.create(new Observable.OnSubscribe<T>() {
+
+            @Override
+            public void call(final Subscriber<? super T> subscriber) {
+                enqueue(new Request(new AssetDescriptor<?>[] { asset }, subscriber) {
+
+                    @Override
+                    void loaded(int loaded) {
+                        if (loaded == 1) {
+                            subscriber.onNext(manager.get(asset));
+                            subscriber.onCompleted();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Creates an observable that queues a group of assets on subscription, e.g. those of the next screen, and
+     * emits the group's progress whenever another of them is loaded. Unsubscribing doesn't unload anything.
+     *
+     * @param assets The assets to load, together with their dependencies
+     * @return Observable emitting the progress of the group, completing once all assets are loaded.
+     */
+    public Observable<AssetProgressEvent> prefetch(final AssetDescriptor<?>... assets) {
+        return Observable.create(new Observable.OnSubscribe<AssetProgressEvent>() {
+
+            @Override
+            public void call(final Subscriber<? super AssetProgressEvent> subscriber) {
+                enqueue(new Request(assets, subscriber) {
+
+                    private int reported = -1;
+
+                    @Override
+                    void loaded(int loaded) {
+                        if (loaded != reported) {
+                            reported = loaded;
+                            subscriber.onNext(new AssetProgressEvent(loaded, assets.length - loaded));
+                        }
+                        if (loaded == assets.length) {
+                            subscriber.onCompleted();
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Creates an observable that calls {@link #update} once per frame while subscribed, emitting the overall
+     * progress for each frame in which assets were loading.
+     *
+     * @param frames One signal per frame, on the GL thread, e.g. {@link rx.GdxObservable#fromRenderTicks}
+     * @return Observable emitting the progress of the asset manager.
+     */
+    public Observable<AssetProgressEvent> updates(final Observable<?> frames) {
+        return Observable.create(new Observable.OnSubscribe<AssetProgressEvent>() {
+
+            @Override
+            public void call(final Subscriber<? super AssetProgressEvent> subscriber) {
+                subscriber.add(frames.subscribe(new Subscriber<Object>() {
+
+                    private boolean loading;
+
+                    @Override
+                    public void onCompleted() {
+                        subscriber.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        subscriber.onError(e);
+                    }
+
+                    @Override
+                    public void onNext(Object frame) {
+                        final boolean wasLoading = loading;
+                        loading = !update();
+                        if (loading || wasLoading) {
+                            subscriber.onNext(new AssetProgressEvent(manager.getLoadedAssets(),
+                                    manager.getQueuedAssets()));
+                        }
+                    }
+                }));
+            }
+        });
+    }
+
+    /**
+     * Finishes assets until the budget is used up, then notifies the subscribers of loaded assets. Stops early
+     * once everything is loaded, or when the asset manager makes no more progress because it is waiting for the
+     * loader thread. Call this once per frame on the GL thread, unless {@link #updates} does.
+     *
+     * @return <code>true</code> if all queued assets are loaded.
+     */
+    public boolean update() {
+        final long deadline = System.nanoTime() + budgetNanos;
+        int loaded = manager.getLoadedAssets();
+        int queued = manager.getQueuedAssets();
+        int idle = 0;
+        boolean done;
+        do {
+            done = manager.update();
+            if (manager.getLoadedAssets() != loaded || manager.getQueuedAssets() != queued) {
+                loaded = manager.getLoadedAssets();
+                queued = manager.getQueuedAssets();
+                idle = 0;
+            } else {
+                idle++;
+            }
+        } while (!done && idle < IDLE_UPDATES && System.nanoTime() < deadline);
+
+        final Request[] current;
+        synchronized (requests) {
+            current = requests.toArray(new Request[requests.size()]);
+        }
+        for (Request request : current) {
+            request.check();
+        }
+        return done;
+    }
+
+    private void enqueue(final Request request) {
+        synchronized (requests) {
+            requests.add(request);
+        }
+        request.owner.add(Subscriptions.create(new Action0() {
+
+            @Override
+            public void call() {
+                synchronized (requests) {
+                    requests.remove(request);
+                }
+            }
+        }));
+        for (AssetDescriptor<?> asset : request.assets) {
+            manager.load(asset);
+        }
+    }
+
+    private void failed(AssetDescriptor<?> asset, Throwable throwable) {
+        final Request[] current;
+        synchronized (requests) {
+            current = requests.toArray(new Request[requests.size()]);
+        }
+        for (Request request : current) {
+            for (AssetDescriptor<?> requested : request.assets) {
+                if (requested.fileName.equals(asset.fileName)) {
+                    request.owner.onError(new GdxRuntimeException("couldn't load " + asset, throwable));
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Subscribers waiting for assets.
+     */
+    private abstract class Request {
+
+        final AssetDescriptor<?>[] assets;
+        final Subscriber<?> owner;
+
+        Request(AssetDescriptor<?>[] assets, Subscriber<?> owner) {
+            this.assets = assets;
+            this.owner = owner;
+        }
+
+        void check() {
+            int loaded = 0;
+            for (AssetDescriptor<?> asset : assets) {
+                if (manager.isLoaded(asset.fileName, asset.type)) {
+                    loaded++;
+                }
+            }
+            loaded(loaded);
+        }
+
+        abstract void loaded(int loaded);
+    }
+}
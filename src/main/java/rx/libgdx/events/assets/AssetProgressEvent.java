@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.events.assets;
+
+public class AssetProgressEvent {
+    private final int loaded;
+    private final int remaining;
+
+    public AssetProgressEvent(int loaded, int remaining) {
+        this.loaded = loaded;
+        this.remaining = remaining;
+    }
+
+    /**
+     * @return The number of assets loaded so far.
+     */
+    public int getLoaded() {
+        return loaded;
+    }
+
+    /**
+     * @return The number of assets still to load.
+     */
+    public int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * @return The loaded fraction from 0 to 1.
+     */
+    public float getProgress() {
+        return loaded + remaining == 0 ? 1f : (float) loaded / (loaded + remaining);
+    }
+
+    @Override public String toString() {
+        return String.format("AssetProgressEvent(%d, %d)", loaded, remaining);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        AssetProgressEvent that = (AssetProgressEvent) o;
+
+        return (loaded == that.loaded && remaining == that.remaining);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * loaded + remaining;
+    }
+}
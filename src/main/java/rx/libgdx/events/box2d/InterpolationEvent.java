@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.events.box2d;
+
+public class InterpolationEvent implements StepEvent {
+    private final float alpha;
+    private final int steps;
+
+    public InterpolationEvent(float alpha, int steps) {
+        this.alpha = alpha;
+        this.steps = steps;
+    }
+
+    /**
+     * @return How far the simulation has progressed towards the next fixed step, from 0 (inclusive) to 1 (exclusive).
+     */
+    public float getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * @return The number of fixed steps taken for the frame that led to this event.
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    @Override public String toString() {
+        return String.format("InterpolationEvent(%f, %d)", alpha, steps);
+    }
+}
@@ -15,6 +15,84 @@
  */
 package rx.libgdx.events.lifecycle;
 
+/**
+ * A frame being rendered.
+ * <p>
+ * {@link rx.RxApplication} reuses a single instance per application for all of its render events, so don't
+ * keep references to them beyond the <code>onNext</code> call; copy the values instead.
+ */
 public class RenderEvent implements LifecycleEvent {
+    private long frame;
+    private long timeNanos;
+    private long deltaNanos;
+    private long previousFrameNanos;
+
+    public RenderEvent() {
+        // no frame information available
+    }
+
+    public RenderEvent(long frame, long deltaNanos, long previousFrameNanos) {
+        set(frame, 0L, deltaNanos, previousFrameNanos);
+    }
+
+    /**
+     * Updates this event for the next frame. Only for sources reusing their render events.
+     *
+     * @return This event.
+     */
+    public RenderEvent set(long frame, long deltaNanos, long previousFrameNanos) {
+        return set(frame, 0L, deltaNanos, previousFrameNanos);
+    }
+
+    /**
+     * Like {@link #set(long, long, long)}, but also with the time the frame started at.
+     *
+     * @return This event.
+     */
+    public RenderEvent set(long frame, long timeNanos, long deltaNanos, long previousFrameNanos) {
+        this.frame = frame;
+        this.timeNanos = timeNanos;
+        this.deltaNanos = deltaNanos;
+        this.previousFrameNanos = previousFrameNanos;
+        return this;
+    }
+
+    /**
+     * @return The index of this frame, starting with 1, or 0 if unknown.
+     */
+    public long getFrame() {
+        return frame;
+    }
+
+    /**
+     * @return When this frame started, in nanoseconds of the frame clock, which may be synthetic; 0 if unknown.
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    /**
+     * @return The time since the previous frame started, in nanoseconds (0 for the first frame).
+     */
+    public long getDeltaNanos() {
+        return deltaNanos;
+    }
+
+    /**
+     * @return The time since the previous frame started, in seconds (0 for the first frame).
+     */
+    public float getDeltaTime() {
+        return deltaNanos / 1e9f;
+    }
+
+    /**
+     * @return The time spent rendering the previous frame, in nanoseconds (0 for the first frame).
+     */
+    public long getPreviousFrameNanos() {
+        return previousFrameNanos;
+    }
 
+    @Override public String toString() {
+        return String.format("RenderEvent(%d, %d, %d)", frame, deltaNanos, previousFrameNanos);
+    }
 }
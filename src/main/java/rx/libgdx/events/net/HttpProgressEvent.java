@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.events.net;
+
+public class HttpProgressEvent {
+    private final long bytes;
+    private final long contentLength;
+
+    public HttpProgressEvent(long bytes, long contentLength) {
+        this.bytes = bytes;
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * @return The number of bytes transferred so far.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return The total number of bytes to transfer, or -1 if unknown.
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * @return The transferred fraction from 0 to 1, or -1 if the content length is unknown.
+     */
+    public float getProgress() {
+        return contentLength <= 0L ? -1f : (float) bytes / contentLength;
+    }
+
+    @Override public String toString() {
+        return String.format("HttpProgressEvent(%d, %d)", bytes, contentLength);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        HttpProgressEvent that = (HttpProgressEvent) o;
+
+        return (bytes == that.bytes && contentLength == that.contentLength);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (bytes ^ (bytes >>> 32));
+        result = 31 * result + (int) (contentLength ^ (contentLength >>> 32));
+        return result;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.events.preferences;
+
+public class PreferenceChangeEvent {
+    private final String key;
+    private final Object value;
+    private final boolean external;
+
+    public PreferenceChangeEvent(String key, Object value, boolean external) {
+        this.key = key;
+        this.value = value;
+        this.external = external;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * @return The new value, or <code>null</code> if the key was removed.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * @return <code>true</code> if the key was changed on the underlying preferences directly, not via the
+     * wrapper.
+     */
+    public boolean isExternal() {
+        return external;
+    }
+
+    @Override public String toString() {
+        return String.format("PreferenceChangeEvent(%s, %s, %b)", key, value, external);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        PreferenceChangeEvent that = (PreferenceChangeEvent) o;
+
+        return (key.equals(that.key) && (value == null ? that.value == null : value.equals(that.value))
+                && external == that.external);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = key.hashCode();
+        result = 31 * result + (value == null ? 0 : value.hashCode());
+        result = 31 * result + (external ? 1 : 0);
+        return result;
+    }
+}
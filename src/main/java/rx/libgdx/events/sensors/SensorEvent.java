@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.events.sensors;
+
+/**
+ * A sample of a sensor, filtered, together with the most recent raw samples.
+ * <p>
+ * The sensor sources reuse a single instance per subscription for all of their events, so don't keep
+ * references to them beyond the <code>onNext</code> call; copy the values instead. The raw samples are kept in a
+ * ring buffer of primitive floats, allocated once.
+ */
+public class SensorEvent {
+    private final float[] history;
+    private long sample;
+    private long timeNanos;
+    private float x;
+    private float y;
+    private float z;
+
+    /**
+     * @param historySize The number of raw samples to keep, at least 1.
+     */
+    public SensorEvent(int historySize) {
+        if (historySize < 1) {
+            throw new IllegalArgumentException("must keep at least one sample: " + historySize);
+        }
+        this.history = new float[historySize * 3];
+    }
+
+    /**
+     * Records the next sample. Only for sources reusing their sensor events.
+     *
+     * @param raw The raw values of the three axes; the array is not kept.
+     * @param filtered The filtered values of the three axes; the array is not kept.
+     * @return This event.
+     */
+    public SensorEvent record(long timeNanos, float[] raw, float[] filtered) {
+        final int offset = (int) (sample % (history.length / 3)) * 3;
+        history[offset] = raw[0];
+        history[offset + 1] = raw[1];
+        history[offset + 2] = raw[2];
+        this.sample++;
+        this.timeNanos = timeNanos;
+        this.x = filtered[0];
+        this.y = filtered[1];
+        this.z = filtered[2];
+        return this;
+    }
+
+    /**
+     * @return The index of this sample, starting with 1.
+     */
+    public long getSample() {
+        return sample;
+    }
+
+    /**
+     * @return When the sample was taken, in nanoseconds of the frame clock.
+     */
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getZ() {
+        return z;
+    }
+
+    /**
+     * @return The number of raw samples available via {@link #getRaw}.
+     */
+    public int getHistorySize() {
+        return (int) Math.min(sample, history.length / 3);
+    }
+
+    /**
+     * @param ago 0 for this sample, 1 for the one before and so on, up to the history size (exclusive).
+     * @param axis 0 for x, 1 for y, 2 for z.
+     * @return The raw value of the axis in that sample.
+     */
+    public float getRaw(int ago, int axis) {
+        if (ago < 0 || ago >= getHistorySize() || axis < 0 || axis > 2) {
+            throw new IndexOutOfBoundsException("no raw sample " + ago + " ago for axis " + axis);
+        }
+        final int samples = history.length / 3;
+        return history[(int) ((sample - 1 - ago) % samples) * 3 + axis];
+    }
+
+    @Override public String toString() {
+        return String.format("SensorEvent(%d, %.3f, %.3f, %.3f)", sample, x, y, z);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.events.tasks;
+
+public class TaskProgressEvent<R> {
+    private final float progress;
+    private final int steps;
+    private final int frames;
+    private final boolean done;
+    private final R result;
+
+    public TaskProgressEvent(float progress, int steps, int frames, boolean done, R result) {
+        this.progress = progress;
+        this.steps = steps;
+        this.frames = frames;
+        this.done = done;
+        this.result = result;
+    }
+
+    /**
+     * @return The completed fraction from 0 to 1, as estimated by the task.
+     */
+    public float getProgress() {
+        return progress;
+    }
+
+    /**
+     * @return The number of steps run so far.
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return The number of frames in which the task ran so far.
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @return The result of the task once it is done, <code>null</code> before.
+     */
+    public R getResult() {
+        return result;
+    }
+
+    @Override public String toString() {
+        return String.format("TaskProgressEvent(%.2f, %d steps, %d frames, done = %b)", progress, steps, frames, done);
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.headless;
+
+/**
+ * The results of a {@link HeadlessDriver} run. Frame times are the real time spent rendering each frame.
+ */
+public class DriverReport {
+    private final long frames;
+    private final long elapsedNanos;
+    private final long p50;
+    private final long p99;
+    private final long max;
+
+    public DriverReport(long frames, long elapsedNanos, long p50, long p99, long max) {
+        this.frames = frames;
+        this.elapsedNanos = elapsedNanos;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.max = max;
+    }
+
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return The real time the run took, in nanoseconds.
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public double getFramesPerSecond() {
+        return elapsedNanos == 0L ? 0.0 : frames * 1e9 / elapsedNanos;
+    }
+
+    public double getMeanFrameNanos() {
+        return frames == 0L ? 0.0 : (double) elapsedNanos / frames;
+    }
+
+    public long getP50FrameNanos() {
+        return p50;
+    }
+
+    public long getP99FrameNanos() {
+        return p99;
+    }
+
+    public long getMaxFrameNanos() {
+        return max;
+    }
+
+    @Override public String toString() {
+        return String.format("DriverReport(%d frames, %.1f fps, mean=%.1fus p50=%.1fus p99=%.1fus max=%.1fus)",
+                frames, getFramesPerSecond(), getMeanFrameNanos() / 1e3, p50 / 1e3, p99 / 1e3, max / 1e3);
+    }
+}
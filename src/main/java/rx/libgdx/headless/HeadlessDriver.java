@@ -0,0 +1,269 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.headless;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.Net;
+import rx.RxApplication;
+import rx.RxGame;
+import rx.functions.Func1;
+import rx.libgdx.instrumentation.BucketHistogram;
+import rx.libgdx.instrumentation.HistogramSnapshot;
+import rx.libgdx.sources.FrameTimer;
+import rx.libgdx.sources.LifecycleGate;
+
+/**
+ * Runs an application's lifecycle without window, GL context or vsync, as fast as possible.
+ * <p>
+ * While running, <code>Gdx.app</code>, <code>Gdx.graphics</code>, <code>Gdx.input</code> and <code>Gdx.net</code>
+ * are replaced by stand-ins ({@link StubApplication}, {@link StubGraphics}, {@link StubInput},
+ * {@link HeadlessNet}). With a fixed delta, the frame deltas seen through <code>Gdx.graphics</code> are synthetic,
+ * and so are those of the render events of an application created with the driver's clock (see
+ * {@link #HeadlessDriver(Func1, int, int, long)}), so simulations are reproducible no matter how fast the machine
+ * is. Input is fed in frame by frame through an {@link InputFeed}.
+ * <p>
+ * The report covers the real time of all frames since {@link #start}, counted in 10 us buckets up to 100 ms,
+ * with the exact maximum beyond that.
+ * <p>
+ * Use {@link #run} for a complete lifecycle, or {@link #start}, {@link #frame} and {@link #stop} to drive
+ * it from a benchmark harness.
+ */
+public final class HeadlessDriver {
+
+    private static final InputFeed NO_INPUT = new InputFeed() {
+
+        @Override
+        public void frame(long frame, long timeNanos, StubInput input) {
+        }
+    };
+
+    private final ApplicationListener listener;
+    private final long fixedDeltaNanos;
+    private final FrameTimer.Clock clock;
+    private final StubGraphics graphics;
+    private final StubInput input = new StubInput();
+    private final StubApplication application;
+    private BucketHistogram frameTimes = frameTimes();
+
+    private InputFeed feed = NO_INPUT;
+
+    private Application previousApp;
+    private Graphics previousGraphics;
+    private Input previousInput;
+    private Net previousNet;
+    private boolean previouslyPaused;
+
+    private boolean running;
+    private long frame;
+    private long time;
+    private long elapsedNanos;
+
+    private final FrameTimer.Clock syntheticClock = new FrameTimer.Clock() {
+
+        @Override
+        public long nanoTime() {
+            return time;
+        }
+    };
+
+    /**
+     * @param listener The application to drive, which times its render events with its own clock.
+     * @param width The reported screen width.
+     * @param height The reported screen height.
+     * @param fixedDeltaNanos The synthetic time between frames, or 0 to use real time.
+     */
+    public HeadlessDriver(final ApplicationListener listener, int width, int height, long fixedDeltaNanos) {
+        this(new Func1<FrameTimer.Clock, ApplicationListener>() {
+
+            @Override
+            public ApplicationListener call(FrameTimer.Clock clock) {
+                return listener;
+            }
+        }, width, height, fixedDeltaNanos);
+    }
+
+    /**
+     * @param listeners Creates the application to drive, given the driver's clock to time its frames with.
+     * @param width The reported screen width.
+     * @param height The reported screen height.
+     * @param fixedDeltaNanos The synthetic time between frames, or 0 to use real time.
+     */
+    public HeadlessDriver(Func1<FrameTimer.Clock, ? extends ApplicationListener> listeners, int width, int height,
+                          long fixedDeltaNanos) {
+        if (fixedDeltaNanos < 0L) {
+            throw new IllegalArgumentException("fixed delta may not be negative: " + fixedDeltaNanos);
+        }
+        this.fixedDeltaNanos = fixedDeltaNanos;
+        this.clock = fixedDeltaNanos > 0L ? syntheticClock : FrameTimer.SYSTEM;
+        this.listener = listeners.call(clock);
+        this.graphics = new StubGraphics(width, height);
+        this.application = new StubApplication(listener, graphics, input);
+    }
+
+    /**
+     * Drives games through {@link RxApplication}, at 60 synthetic frames per second.
+     *
+     * @param games The games to drive.
+     * @return The driver.
+     */
+    public static HeadlessDriver of(final RxGame... games) {
+        return new HeadlessDriver(new Func1<FrameTimer.Clock, ApplicationListener>() {
+
+            @Override
+            public ApplicationListener call(FrameTimer.Clock clock) {
+                return RxApplication.app(clock, games);
+            }
+        }, 640, 480, 1000000000L / 60L);
+    }
+
+    /**
+     * @return The clock of the frames: synthetic with a fixed delta, the system clock otherwise.
+     */
+    public FrameTimer.Clock getClock() {
+        return clock;
+    }
+
+    public void setInput(InputFeed feed) {
+        this.feed = feed == null ? NO_INPUT : feed;
+    }
+
+    public StubApplication getApplication() {
+        return application;
+    }
+
+    public StubGraphics getGraphics() {
+        return graphics;
+    }
+
+    public StubInput getInput() {
+        return input;
+    }
+
+    /**
+     * Runs a complete lifecycle: create, resize, the given number of frames, pause and dispose.
+     *
+     * @param frames The number of frames to render.
+     * @return The measurements of the rendered frames.
+     */
+    public DriverReport run(long frames) {
+        start();
+        try {
+            for (long i = 0; i < frames; i++) {
+                frame();
+            }
+            return report();
+        } finally {
+            stop();
+        }
+    }
+
+    /**
+     * Installs the stand-ins and creates the application.
+     */
+    public void start() {
+        if (running) {
+            throw new IllegalStateException("already running");
+        }
+        running = true;
+        previousApp = Gdx.app;
+        previousGraphics = Gdx.graphics;
+        previousInput = Gdx.input;
+        previousNet = Gdx.net;
+        previouslyPaused = LifecycleGate.get().isPaused();
+        Gdx.app = application;
+        Gdx.graphics = graphics;
+        Gdx.input = input;
+        Gdx.net = application.getNet();
+        if (fixedDeltaNanos == 0L) {
+            time = System.nanoTime();
+        }
+        frame = 0L;
+        elapsedNanos = 0L;
+        frameTimes = frameTimes();
+
+        listener.create();
+        listener.resize(graphics.getWidth(), graphics.getHeight());
+    }
+
+    /**
+     * Renders one frame, after executing posted runnables and feeding input.
+     *
+     * @return The real time the frame took, in nanoseconds.
+     */
+    public long frame() {
+        final long start = System.nanoTime();
+        final long delta;
+        if (fixedDeltaNanos > 0L) {
+            delta = frame == 0L ? 0L : fixedDeltaNanos;
+            time += delta;
+        } else {
+            delta = frame == 0L ? 0L : start - time;
+            time = start;
+        }
+        frame++;
+
+        application.executeRunnables();
+        input.frame();
+        feed.frame(frame, time, input);
+        graphics.frame(delta, time);
+        listener.render();
+
+        final long nanos = System.nanoTime() - start;
+        frameTimes.record(nanos);
+        elapsedNanos += nanos;
+        return nanos;
+    }
+
+    /**
+     * @return The measurements of the frames rendered since {@link #start}.
+     */
+    public DriverReport report() {
+        final HistogramSnapshot snapshot = frameTimes.snapshot();
+        return new DriverReport(frame, elapsedNanos, snapshot.percentile(50.0), snapshot.percentile(99.0),
+                snapshot.getMax());
+    }
+
+    private static BucketHistogram frameTimes() {
+        return BucketHistogram.linear(10000L, 10000);
+    }
+
+    /**
+     * Pauses and disposes the application, and restores the previous <code>Gdx</code> globals and
+     * {@link LifecycleGate} state.
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            application.pause();
+            application.dispose();
+        } finally {
+            Gdx.app = previousApp;
+            Gdx.graphics = previousGraphics;
+            Gdx.input = previousInput;
+            Gdx.net = previousNet;
+            if (!previouslyPaused) {
+                LifecycleGate.get().resume();
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.headless;
+
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.net.NetJavaImpl;
+import com.badlogic.gdx.net.NetJavaServerSocketImpl;
+import com.badlogic.gdx.net.NetJavaSocketImpl;
+import com.badlogic.gdx.net.ServerSocket;
+import com.badlogic.gdx.net.ServerSocketHints;
+import com.badlogic.gdx.net.Socket;
+import com.badlogic.gdx.net.SocketHints;
+
+/**
+ * A <code>Gdx.net</code> for running without backend, using the plain Java implementations from libgdx core.
+ */
+public class HeadlessNet implements Net {
+
+    private final NetJavaImpl http = new NetJavaImpl();
+
+    @Override
+    public void sendHttpRequest(HttpRequest httpRequest, HttpResponseListener httpResponseListener) {
+        http.sendHttpRequest(httpRequest, httpResponseListener);
+    }
+
+    @Override
+    public void cancelHttpRequest(HttpRequest httpRequest) {
+        http.cancelHttpRequest(httpRequest);
+    }
+
+    @Override
+    public ServerSocket newServerSocket(Protocol protocol, int port, ServerSocketHints hints) {
+        return new NetJavaServerSocketImpl(protocol, port, hints);
+    }
+
+    @Override
+    public Socket newClientSocket(Protocol protocol, String host, int port, SocketHints hints) {
+        return new NetJavaSocketImpl(protocol, host, port, hints);
+    }
+
+    @Override
+    public void openURI(String URI) {
+        // nothing to open it with
+    }
+}
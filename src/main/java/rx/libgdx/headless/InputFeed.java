@@ -0,0 +1,31 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.headless;
+
+/**
+ * Feeds input into a {@link HeadlessDriver}, frame by frame.
+ */
+public interface InputFeed {
+
+    /**
+     * Called at the start of each frame, before rendering.
+     *
+     * @param frame The index of the frame, starting with 1.
+     * @param timeNanos The (real or synthetic) time of the frame.
+     * @param input The input to dispatch events to.
+     */
+    void frame(long frame, long timeNanos, StubInput input);
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.headless;
+
+import rx.Observable;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.libgdx.events.input.InputEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Input events stamped with the frame they happened in, to be replayed by a {@link HeadlessDriver}.
+ */
+public final class RecordedInput implements InputFeed {
+
+    private final List<InputEvent> events = new ArrayList<InputEvent>();
+    private final List<Long> frames = new ArrayList<Long>();
+    private int next;
+
+    /**
+     * Adds an event. Events must be added in frame order.
+     *
+     * @param frame The frame to replay the event in, starting with 1.
+     * @param event The event to replay.
+     * @return This recording.
+     */
+    public RecordedInput add(long frame, InputEvent event) {
+        if (!frames.isEmpty() && frame < frames.get(frames.size() - 1)) {
+            throw new IllegalArgumentException("events must be added in frame order: " + frame);
+        }
+        frames.add(frame);
+        events.add(event);
+        return this;
+    }
+
+    /**
+     * Records live input events, stamped with the frame they arrived in.
+     *
+     * @param input The input events to record, see {@link rx.GdxObservable#fromInput}.
+     * @param frameIds Supplies the current frame, e.g. <code>Gdx.graphics.getFrameId()</code>.
+     * @return The subscription to unsubscribe from to stop recording.
+     */
+    public Subscription record(Observable<? extends InputEvent> input, final FrameIds frameIds) {
+        return input.subscribe(new Action1<InputEvent>() {
+
+            @Override
+            public void call(InputEvent event) {
+                add(frameIds.currentFrame(), event);
+            }
+        });
+    }
+
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Starts replaying from the first event again.
+     */
+    public void rewind() {
+        next = 0;
+    }
+
+    @Override
+    public void frame(long frame, long timeNanos, StubInput input) {
+        while (next < events.size() && frames.get(next) <= frame) {
+            input.dispatch(events.get(next++), timeNanos);
+        }
+    }
+
+    /**
+     * Supplies the frame to stamp recorded events with.
+     */
+    public interface FrameIds {
+        long currentFrame();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.headless;
+
+import com.badlogic.gdx.Application;
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Audio;
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.LifecycleListener;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.Preferences;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Clipboard;
+
+/**
+ * A stand-in for <code>Gdx.app</code> without any backend, driven by a {@link HeadlessDriver}.
+ * Runnables are executed at the start of each frame, like the real backends do.
+ */
+public class StubApplication implements Application {
+
+    private final ApplicationListener listener;
+    private final Graphics graphics;
+    private final Input input;
+    private final Net net = new HeadlessNet();
+    private final Array<Runnable> runnables = new Array<Runnable>();
+    private final Array<Runnable> executed = new Array<Runnable>();
+    private final Array<LifecycleListener> lifecycleListeners = new Array<LifecycleListener>();
+    private int logLevel = LOG_ERROR;
+
+    public StubApplication(ApplicationListener listener, Graphics graphics, Input input) {
+        this.listener = listener;
+        this.graphics = graphics;
+        this.input = input;
+    }
+
+    /**
+     * Executes the runnables posted so far. Runnables posted while executing wait for the next call.
+     *
+     * @return The number of runnables executed.
+     */
+    public int executeRunnables() {
+        synchronized (runnables) {
+            executed.addAll(runnables);
+            runnables.clear();
+        }
+        final int count = executed.size;
+        for (int i = 0; i < count; i++) {
+            executed.get(i).run();
+        }
+        executed.clear();
+        return count;
+    }
+
+    public void pause() {
+        synchronized (lifecycleListeners) {
+            for (LifecycleListener lifecycleListener : lifecycleListeners) {
+                lifecycleListener.pause();
+            }
+        }
+        listener.pause();
+    }
+
+    public void resume() {
+        synchronized (lifecycleListeners) {
+            for (LifecycleListener lifecycleListener : lifecycleListeners) {
+                lifecycleListener.resume();
+            }
+        }
+        listener.resume();
+    }
+
+    public void dispose() {
+        synchronized (lifecycleListeners) {
+            for (LifecycleListener lifecycleListener : lifecycleListeners) {
+                lifecycleListener.dispose();
+            }
+        }
+        listener.dispose();
+    }
+
+    @Override
+    public ApplicationListener getApplicationListener() {
+        return listener;
+    }
+
+    @Override
+    public Graphics getGraphics() {
+        return graphics;
+    }
+
+    @Override
+    public Audio getAudio() {
+        return null;
+    }
+
+    @Override
+    public Input getInput() {
+        return input;
+    }
+
+    @Override
+    public Files getFiles() {
+        return null;
+    }
+
+    @Override
+    public Net getNet() {
+        return net;
+    }
+
+    @Override
+    public void log(String tag, String message) {
+        if (logLevel >= LOG_INFO) System.out.println(tag + ": " + message);
+    }
+
+    @Override
+    public void log(String tag, String message, Throwable exception) {
+        if (logLevel >= LOG_INFO) {
+            System.out.println(tag + ": " + message);
+            exception.printStackTrace(System.out);
+        }
+    }
+
+    @Override
+    public void error(String tag, String message) {
+        if (logLevel >= LOG_ERROR) System.err.println(tag + ": " + message);
+    }
+
+    @Override
+    public void error(String tag, String message, Throwable exception) {
+        if (logLevel >= LOG_ERROR) {
+            System.err.println(tag + ": " + message);
+            exception.printStackTrace(System.err);
+        }
+    }
+
+    @Override
+    public void debug(String tag, String message) {
+        if (logLevel >= LOG_DEBUG) System.out.println(tag + ": " + message);
+    }
+
+    @Override
+    public void debug(String tag, String message, Throwable exception) {
+        if (logLevel >= LOG_DEBUG) {
+            System.out.println(tag + ": " + message);
+            exception.printStackTrace(System.out);
+        }
+    }
+
+    @Override
+    public void setLogLevel(int logLevel) {
+        this.logLevel = logLevel;
+    }
+
+    @Override
+    public int getLogLevel() {
+        return logLevel;
+    }
+
+    @Override
+    public ApplicationType getType() {
+        return ApplicationType.HeadlessDesktop;
+    }
+
+    @Override
+    public int getVersion() {
+        return 0;
+    }
+
+    @Override
+    public long getJavaHeap() {
+        return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+    }
+
+    @Override
+    public long getNativeHeap() {
+        return getJavaHeap();
+    }
+
+    @Override
+    public Preferences getPreferences(String name) {
+        return null;
+    }
+
+    @Override
+    public Clipboard getClipboard() {
+        return null;
+    }
+
+    @Override
+    public void postRunnable(Runnable runnable) {
+        synchronized (runnables) {
+            runnables.add(runnable);
+        }
+    }
+
+    @Override
+    public void exit() {
+        // the driver decides when to stop
+    }
+
+    @Override
+    public void addLifecycleListener(LifecycleListener listener) {
+        synchronized (lifecycleListeners) {
+            lifecycleListeners.add(listener);
+        }
+    }
+
+    @Override
+    public void removeLifecycleListener(LifecycleListener listener) {
+        synchronized (lifecycleListeners) {
+            lifecycleListeners.removeValue(listener, true);
+        }
+    }
+}
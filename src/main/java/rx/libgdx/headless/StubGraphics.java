@@ -0,0 +1,198 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.headless;
+
+import com.badlogic.gdx.Graphics;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+
+/**
+ * A stand-in for <code>Gdx.graphics</code> without any GL context. The frame id, delta time and frames per
+ * second are updated by a {@link HeadlessDriver} each frame.
+ */
+public class StubGraphics implements Graphics {
+
+    private int width;
+    private int height;
+    private long frameId = -1L;
+    private float deltaTime;
+    private int fps;
+    private int framesThisSecond;
+    private long secondStart;
+
+    public StubGraphics(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Starts the next frame.
+     *
+     * @param deltaNanos The time since the last frame, real or synthetic.
+     * @param timeNanos The current time, real or synthetic.
+     */
+    public void frame(long deltaNanos, long timeNanos) {
+        frameId++;
+        deltaTime = deltaNanos / 1e9f;
+        framesThisSecond++;
+        if (timeNanos - secondStart >= 1000000000L) {
+            fps = framesThisSecond;
+            framesThisSecond = 0;
+            secondStart = timeNanos;
+        }
+    }
+
+    public void setSize(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    @Override
+    public boolean isGL30Available() {
+        return false;
+    }
+
+    @Override
+    public GL20 getGL20() {
+        return null;
+    }
+
+    @Override
+    public GL30 getGL30() {
+        return null;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public long getFrameId() {
+        return frameId;
+    }
+
+    @Override
+    public float getDeltaTime() {
+        return deltaTime;
+    }
+
+    @Override
+    public float getRawDeltaTime() {
+        return deltaTime;
+    }
+
+    @Override
+    public int getFramesPerSecond() {
+        return fps;
+    }
+
+    @Override
+    public GraphicsType getType() {
+        return GraphicsType.Mock;
+    }
+
+    @Override
+    public float getPpiX() {
+        return 96f;
+    }
+
+    @Override
+    public float getPpiY() {
+        return 96f;
+    }
+
+    @Override
+    public float getPpcX() {
+        return 96f / 2.54f;
+    }
+
+    @Override
+    public float getPpcY() {
+        return 96f / 2.54f;
+    }
+
+    @Override
+    public float getDensity() {
+        return 1f;
+    }
+
+    @Override
+    public boolean supportsDisplayModeChange() {
+        return false;
+    }
+
+    @Override
+    public DisplayMode[] getDisplayModes() {
+        return new DisplayMode[0];
+    }
+
+    @Override
+    public DisplayMode getDesktopDisplayMode() {
+        return null;
+    }
+
+    @Override
+    public boolean setDisplayMode(DisplayMode displayMode) {
+        return false;
+    }
+
+    @Override
+    public boolean setDisplayMode(int width, int height, boolean fullscreen) {
+        return false;
+    }
+
+    @Override
+    public void setTitle(String title) {
+    }
+
+    @Override
+    public void setVSync(boolean vsync) {
+    }
+
+    @Override
+    public BufferFormat getBufferFormat() {
+        return new BufferFormat(8, 8, 8, 8, 16, 0, 0, false);
+    }
+
+    @Override
+    public boolean supportsExtension(String extension) {
+        return false;
+    }
+
+    @Override
+    public void setContinuousRendering(boolean isContinuous) {
+    }
+
+    @Override
+    public boolean isContinuousRendering() {
+        return true;
+    }
+
+    @Override
+    public void requestRendering() {
+    }
+
+    @Override
+    public boolean isFullscreen() {
+        return false;
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.headless;
+
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.graphics.Pixmap;
+import rx.libgdx.events.input.*;
+
+import java.util.Arrays;
+
+/**
+ * A stand-in for <code>Gdx.input</code> without any devices. Input is fed in as {@link InputEvent}s via
+ * {@link #dispatch}, which updates the polled state and calls the input processor. Sensor values are set
+ * directly.
+ */
+public class StubInput implements Input {
+
+    private static final int POINTERS = 20;
+
+    private final int[] x = new int[POINTERS];
+    private final int[] y = new int[POINTERS];
+    private final int[] deltaX = new int[POINTERS];
+    private final int[] deltaY = new int[POINTERS];
+    private final boolean[] touched = new boolean[POINTERS];
+    private final boolean[] keys = new boolean[256];
+    private final boolean[] justPressedKeys = new boolean[256];
+    private final boolean[] buttons = new boolean[8];
+    private boolean justTouched;
+    private long eventTime;
+
+    private InputProcessor processor;
+
+    private float accelerometerX;
+    private float accelerometerY;
+    private float accelerometerZ;
+    private float azimuth;
+    private float pitch;
+    private float roll;
+
+    /**
+     * Forgets the "just" states of the previous frame. Called by the driver at the start of each frame.
+     */
+    public void frame() {
+        justTouched = false;
+        Arrays.fill(justPressedKeys, false);
+        Arrays.fill(deltaX, 0);
+        Arrays.fill(deltaY, 0);
+    }
+
+    /**
+     * Feeds an input event as if it came from a device.
+     *
+     * @param event The event.
+     * @param timeNanos The time of the event.
+     * @return What the input processor returned, <code>false</code> without processor.
+     */
+    public boolean dispatch(InputEvent event, long timeNanos) {
+        eventTime = timeNanos;
+        if (event instanceof TouchDownEvent) {
+            final TouchDownEvent e = (TouchDownEvent) event;
+            move(e.getPointer(), e.getScreenX(), e.getScreenY());
+            touched[e.getPointer()] = true;
+            buttons[e.getButton()] = true;
+            justTouched = true;
+            return processor != null
+                    && processor.touchDown(e.getScreenX(), e.getScreenY(), e.getPointer(), e.getButton());
+        } else if (event instanceof TouchUpEvent) {
+            final TouchUpEvent e = (TouchUpEvent) event;
+            move(e.getPointer(), e.getScreenX(), e.getScreenY());
+            touched[e.getPointer()] = false;
+            buttons[e.getButton()] = false;
+            return processor != null
+                    && processor.touchUp(e.getScreenX(), e.getScreenY(), e.getPointer(), e.getButton());
+        } else if (event instanceof TouchDraggedEvent) {
+            final TouchDraggedEvent e = (TouchDraggedEvent) event;
+            move(e.getPointer(), e.getScreenX(), e.getScreenY());
+            return processor != null && processor.touchDragged(e.getScreenX(), e.getScreenY(), e.getPointer());
+        } else if (event instanceof MouseMovedEvent) {
+            final MouseMovedEvent e = (MouseMovedEvent) event;
+            move(0, e.getScreenX(), e.getScreenY());
+            return processor != null && processor.mouseMoved(e.getScreenX(), e.getScreenY());
+        } else if (event instanceof KeyDownEvent) {
+            final int keycode = ((KeyDownEvent) event).getKeycode();
+            keys[keycode] = true;
+            justPressedKeys[keycode] = true;
+            return processor != null && processor.keyDown(keycode);
+        } else if (event instanceof KeyUpEvent) {
+            final int keycode = ((KeyUpEvent) event).getKeycode();
+            keys[keycode] = false;
+            return processor != null && processor.keyUp(keycode);
+        } else if (event instanceof KeyTypedEvent) {
+            return processor != null && processor.keyTyped(((KeyTypedEvent) event).getCharacter());
+        } else if (event instanceof ScrolledEvent) {
+            return processor != null && processor.scrolled(((ScrolledEvent) event).getAmount());
+        }
+        throw new IllegalArgumentException("unknown input event: " + event);
+    }
+
+    public void setAccelerometer(float x, float y, float z) {
+        accelerometerX = x;
+        accelerometerY = y;
+        accelerometerZ = z;
+    }
+
+    public void setOrientation(float azimuth, float pitch, float roll) {
+        this.azimuth = azimuth;
+        this.pitch = pitch;
+        this.roll = roll;
+    }
+
+    private void move(int pointer, int screenX, int screenY) {
+        deltaX[pointer] += screenX - x[pointer];
+        deltaY[pointer] += screenY - y[pointer];
+        x[pointer] = screenX;
+        y[pointer] = screenY;
+    }
+
+    @Override
+    public float getAccelerometerX() {
+        return accelerometerX;
+    }
+
+    @Override
+    public float getAccelerometerY() {
+        return accelerometerY;
+    }
+
+    @Override
+    public float getAccelerometerZ() {
+        return accelerometerZ;
+    }
+
+    @Override
+    public int getX() {
+        return x[0];
+    }
+
+    @Override
+    public int getX(int pointer) {
+        return x[pointer];
+    }
+
+    @Override
+    public int getDeltaX() {
+        return deltaX[0];
+    }
+
+    @Override
+    public int getDeltaX(int pointer) {
+        return deltaX[pointer];
+    }
+
+    @Override
+    public int getY() {
+        return y[0];
+    }
+
+    @Override
+    public int getY(int pointer) {
+        return y[pointer];
+    }
+
+    @Override
+    public int getDeltaY() {
+        return deltaY[0];
+    }
+
+    @Override
+    public int getDeltaY(int pointer) {
+        return deltaY[pointer];
+    }
+
+    @Override
+    public boolean isTouched() {
+        return touched[0];
+    }
+
+    @Override
+    public boolean justTouched() {
+        return justTouched;
+    }
+
+    @Override
+    public boolean isTouched(int pointer) {
+        return touched[pointer];
+    }
+
+    @Override
+    public boolean isButtonPressed(int button) {
+        return buttons[button];
+    }
+
+    @Override
+    public boolean isKeyPressed(int key) {
+        if (key == Keys.ANY_KEY) {
+            for (boolean pressed : keys) {
+                if (pressed) return true;
+            }
+            return false;
+        }
+        return keys[key];
+    }
+
+    @Override
+    public boolean isKeyJustPressed(int key) {
+        return key != Keys.ANY_KEY && justPressedKeys[key];
+    }
+
+    @Override
+    public void getTextInput(TextInputListener listener, String title, String text) {
+        listener.canceled();
+    }
+
+    @Override
+    public void getPlaceholderTextInput(TextInputListener listener, String title, String placeholder) {
+        listener.canceled();
+    }
+
+    @Override
+    public void setOnscreenKeyboardVisible(boolean visible) {
+    }
+
+    @Override
+    public void vibrate(int milliseconds) {
+    }
+
+    @Override
+    public void vibrate(long[] pattern, int repeat) {
+    }
+
+    @Override
+    public void cancelVibrate() {
+    }
+
+    @Override
+    public float getAzimuth() {
+        return azimuth;
+    }
+
+    @Override
+    public float getPitch() {
+        return pitch;
+    }
+
+    @Override
+    public float getRoll() {
+        return roll;
+    }
+
+    @Override
+    public void getRotationMatrix(float[] matrix) {
+    }
+
+    @Override
+    public long getCurrentEventTime() {
+        return eventTime;
+    }
+
+    @Override
+    public void setCatchBackKey(boolean catchBack) {
+    }
+
+    @Override
+    public boolean isCatchBackKey() {
+        return false;
+    }
+
+    @Override
+    public void setCatchMenuKey(boolean catchMenu) {
+    }
+
+    @Override
+    public void setInputProcessor(InputProcessor processor) {
+        this.processor = processor;
+    }
+
+    @Override
+    public InputProcessor getInputProcessor() {
+        return processor;
+    }
+
+    @Override
+    public boolean isPeripheralAvailable(Peripheral peripheral) {
+        return peripheral == Peripheral.HardwareKeyboard || peripheral == Peripheral.Accelerometer
+                || peripheral == Peripheral.Compass;
+    }
+
+    @Override
+    public int getRotation() {
+        return 0;
+    }
+
+    @Override
+    public Orientation getNativeOrientation() {
+        return Orientation.Landscape;
+    }
+
+    @Override
+    public void setCursorCatched(boolean catched) {
+    }
+
+    @Override
+    public boolean isCursorCatched() {
+        return false;
+    }
+
+    @Override
+    public void setCursorPosition(int x, int y) {
+        move(0, x, y);
+    }
+
+    @Override
+    public void setCursorImage(Pixmap pixmap, int xHotspot, int yHotspot) {
+    }
+}
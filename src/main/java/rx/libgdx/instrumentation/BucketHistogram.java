@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram counting values in buckets with fixed upper bounds, plus an overflow bucket for everything beyond the
+ * last bound. Unlike {@link FrameTimeHistogram}, it counts since creation rather than over a window, and may be
+ * recorded to from any thread. Recording looks up the bucket and increments it, without allocating.
+ */
+public final class BucketHistogram {
+
+    private final long[] bounds;
+    private final AtomicLongArray counts;
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param bounds The inclusive upper bounds of the buckets, strictly ascending.
+     */
+    public BucketHistogram(long... bounds) {
+        if (bounds.length == 0) {
+            throw new IllegalArgumentException("at least one bucket is required");
+        }
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException("bounds must be strictly ascending: " + Arrays.toString(bounds));
+            }
+        }
+        this.bounds = bounds.clone();
+        this.counts = new AtomicLongArray(bounds.length + 1);
+    }
+
+    /**
+     * @param width The width of each bucket, positive.
+     * @param buckets The number of buckets.
+     * @return A histogram with equally wide buckets, the first starting at 0.
+     */
+    public static BucketHistogram linear(long width, int buckets) {
+        if (width < 1 || buckets < 1 || width > Long.MAX_VALUE / buckets) {
+            throw new IllegalArgumentException("invalid linear buckets: " + width + ", " + buckets);
+        }
+        final long[] bounds = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            bounds[i] = width * (i + 1);
+        }
+        return new BucketHistogram(bounds);
+    }
+
+    /**
+     * @param first The upper bound of the first bucket, positive.
+     * @param buckets The number of buckets, each twice as wide as the one before.
+     * @return A histogram with exponentially growing buckets, covering a wide range with few buckets.
+     */
+    public static BucketHistogram exponential(long first, int buckets) {
+        if (first < 1 || buckets < 1 || buckets >= Long.numberOfLeadingZeros(first)) {
+            throw new IllegalArgumentException("invalid exponential buckets: " + first + ", " + buckets);
+        }
+        final long[] bounds = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            bounds[i] = first << i;
+        }
+        return new BucketHistogram(bounds);
+    }
+
+    public void record(long value) {
+        final int found = Arrays.binarySearch(bounds, value);
+        counts.incrementAndGet(found >= 0 ? found : -found - 1);
+        long seen;
+        while (value > (seen = max.get()) && !max.compareAndSet(seen, value)) {
+            // retry, someone else recorded a new maximum
+        }
+    }
+
+    public HistogramSnapshot snapshot() {
+        final long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new HistogramSnapshot(bounds, copy, max.get());
+    }
+
+    @Override public String toString() {
+        return String.format("BucketHistogram(%d buckets up to %d)", bounds.length, bounds[bounds.length - 1]);
+    }
+}
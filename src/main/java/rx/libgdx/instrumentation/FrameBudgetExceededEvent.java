@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import java.util.Arrays;
+
+/**
+ * A frame that took longer than the budget of its {@link FrameProfiler}.
+ */
+public class FrameBudgetExceededEvent {
+    private final long frame;
+    private final long frameNanos;
+    private final long budgetNanos;
+    private final String[] labels;
+    private final long[] nanos;
+
+    public FrameBudgetExceededEvent(long frame, long frameNanos, long budgetNanos, String[] labels, long[] nanos) {
+        this.frame = frame;
+        this.frameNanos = frameNanos;
+        this.budgetNanos = budgetNanos;
+        this.labels = labels.clone();
+        this.nanos = nanos.clone();
+    }
+
+    public long getFrame() {
+        return frame;
+    }
+
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * @return The labels of the most expensive subscribers during the frame, most expensive first.
+     */
+    public String[] getLabels() {
+        return labels.clone();
+    }
+
+    /**
+     * @return The times of the most expensive subscribers during the frame, in nanoseconds.
+     */
+    public long[] getNanos() {
+        return nanos.clone();
+    }
+
+    @Override public String toString() {
+        return String.format("FrameBudgetExceededEvent(%d, %.2fms > %.2fms, %s)", frame, frameNanos / 1e6,
+                budgetNanos / 1e6, Arrays.toString(labels));
+    }
+}
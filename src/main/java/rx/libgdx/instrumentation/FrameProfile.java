@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+/**
+ * The most expensive profiled subscribers of one frame, as measured by a {@link FrameProfiler}.
+ * <p>
+ * The profiler reuses one instance for all frames, so read (or copy) it within the <code>onNext</code> call.
+ */
+public final class FrameProfile {
+
+    long frame;
+    long frameNanos;
+    int size;
+    final String[] labels;
+    final long[] nanos;
+
+    FrameProfile(int capacity) {
+        labels = new String[capacity];
+        nanos = new long[capacity];
+    }
+
+    void clear(long frame, long frameNanos) {
+        this.frame = frame;
+        this.frameNanos = frameNanos;
+        size = 0;
+    }
+
+    /**
+     * Lists a subscriber if it is among the top K so far, keeping the list ordered by time.
+     */
+    void add(String label, long subscriberNanos) {
+        if (size == nanos.length && subscriberNanos <= nanos[size - 1]) {
+            return;
+        }
+        int i = size < nanos.length ? size++ : size - 1;
+        for (; i > 0 && nanos[i - 1] < subscriberNanos; i--) {
+            labels[i] = labels[i - 1];
+            nanos[i] = nanos[i - 1];
+        }
+        labels[i] = label;
+        nanos[i] = subscriberNanos;
+    }
+
+    public long getFrame() {
+        return frame;
+    }
+
+    /**
+     * @return The time the whole frame took, in nanoseconds.
+     */
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+
+    /**
+     * @return The number of subscribers listed, at most the profiler's top K.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param rank From 0 (most expensive) to {@link #size()} (exclusive).
+     * @return The label of the subscriber.
+     */
+    public String getLabel(int rank) {
+        return labels[rank];
+    }
+
+    /**
+     * @param rank From 0 (most expensive) to {@link #size()} (exclusive).
+     * @return The time the subscriber took during the frame, in nanoseconds.
+     */
+    public long getNanos(int rank) {
+        return nanos[rank];
+    }
+
+    @Override public String toString() {
+        final StringBuilder builder = new StringBuilder("FrameProfile(").append(frame).append(", ")
+                .append(frameNanos / 1e6).append("ms");
+        for (int i = 0; i < size; i++) {
+            builder.append(", ").append(labels[i]).append('=').append(nanos[i] / 1e6).append("ms");
+        }
+        return builder.append(')').toString();
+    }
+}
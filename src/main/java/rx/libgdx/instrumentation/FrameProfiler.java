@@ -0,0 +1,188 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.libgdx.sources.EventBus;
+import rx.libgdx.sources.FrameTimer;
+
+import java.util.Arrays;
+
+/**
+ * Measures how much time each profiled subscriber takes per frame.
+ * <p>
+ * Wrap any observable (lifecycle, input, contacts, ...) with {@link #profile} to time its subscribers'
+ * <code>onNext</code> calls under a label. At the end of each frame, {@link #endFrame} publishes the top K
+ * most expensive subscribers of the frame via {@link #profiles}, and, if the frame took longer than the budget,
+ * a {@link FrameBudgetExceededEvent} via {@link #watchdog}. {@link rx.RxApplication#app(FrameProfiler, rx.RxGame...)}
+ * does all of this for the lifecycle of each game.
+ * <p>
+ * A disabled profiler returns observables unchanged, so it adds no overhead at all. Profiled subscribers are
+ * expected to be called on the render thread.
+ */
+public final class FrameProfiler {
+
+    private final boolean enabled;
+    private final long budgetNanos;
+    private final FrameTimer.Clock clock;
+    private final EventBus<FrameProfile> probes = new EventBus<FrameProfile>(); // each adds its time to the profile
+    private final FrameProfile profile;
+    private final EventBus<FrameProfile> profiles = new EventBus<FrameProfile>();
+    private final EventBus<FrameBudgetExceededEvent> watchdog = new EventBus<FrameBudgetExceededEvent>();
+
+    /**
+     * @param enabled Whether to profile at all.
+     * @param topK The number of most expensive subscribers to report per frame.
+     * @param budgetNanos The time a frame may take before the watchdog fires, in nanoseconds.
+     */
+    public FrameProfiler(boolean enabled, int topK, long budgetNanos) {
+        this(enabled, topK, budgetNanos, FrameTimer.SYSTEM);
+    }
+
+    /**
+     * @param enabled Whether to profile at all.
+     * @param topK The number of most expensive subscribers to report per frame.
+     * @param budgetNanos The time a frame may take before the watchdog fires, in nanoseconds.
+     * @param clock The clock to time the subscribers with.
+     */
+    public FrameProfiler(boolean enabled, int topK, long budgetNanos, FrameTimer.Clock clock) {
+        if (topK < 1) {
+            throw new IllegalArgumentException("must report at least one subscriber: " + topK);
+        }
+        this.enabled = enabled;
+        this.budgetNanos = budgetNanos;
+        this.clock = clock;
+        this.profile = new FrameProfile(topK);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+
+    /**
+     * Times each subscriber of the source under the given label.
+     *
+     * @param source The observable to profile.
+     * @param label The label to report the subscribers' times with.
+     * @return The profiled observable, or the source itself if this profiler is disabled.
+     */
+    public <T> Observable<T> profile(Observable<T> source, final String label) {
+        if (!enabled) {
+            return source;
+        }
+        return source.lift(new Observable.Operator<T, T>() {
+
+            @Override
+            public Subscriber<? super T> call(final Subscriber<? super T> child) {
+                final Probe probe = new Probe(label);
+                child.add(probe);
+                probes.observable().unsafeSubscribe(probe);
+
+                return new Subscriber<T>(child) {
+
+                    @Override
+                    public void onNext(T t) {
+                        final long start = clock.nanoTime();
+                        try {
+                            child.onNext(t);
+                        } finally {
+                            probe.nanos += clock.nanoTime() - start;
+                        }
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        child.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        child.onError(e);
+                    }
+                };
+            }
+        });
+    }
+
+    /**
+     * Ends a frame, publishing its most expensive subscribers and resetting their times.
+     *
+     * @param frame The index of the frame.
+     * @param frameNanos The time the frame took, in nanoseconds.
+     */
+    public void endFrame(long frame, long frameNanos) {
+        if (!enabled) {
+            return;
+        }
+
+        profile.clear(frame, frameNanos);
+        probes.emit(profile);
+
+        profiles.emit(profile);
+        if (frameNanos > budgetNanos && watchdog.hasSubscribers()) {
+            watchdog.emit(new FrameBudgetExceededEvent(frame, frameNanos, budgetNanos,
+                    Arrays.copyOf(profile.labels, profile.size), Arrays.copyOf(profile.nanos, profile.size)));
+        }
+    }
+
+    /**
+     * @return Observable emitting the (reused) profile at the end of each frame.
+     */
+    public Observable<FrameProfile> profiles() {
+        return profiles.observable();
+    }
+
+    /**
+     * @return Observable emitting an event for each frame over budget.
+     */
+    public Observable<FrameBudgetExceededEvent> watchdog() {
+        return watchdog.observable();
+    }
+
+    /**
+     * Collects the time of one profiled subscriber, and hands it to the profile at the end of each frame.
+     */
+    private static final class Probe extends Subscriber<FrameProfile> {
+        final String label;
+        long nanos;
+
+        Probe(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public void onNext(FrameProfile profile) {
+            final long frameNanos = nanos;
+            nanos = 0L;
+            if (frameNanos > 0L) {
+                profile.add(label, frameNanos);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+
+        @Override
+        public void onError(Throwable e) {
+        }
+    }
+}
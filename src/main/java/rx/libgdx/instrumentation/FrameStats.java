@@ -0,0 +1,104 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+/**
+ * Frame time percentiles over a rolling window of frames, in nanoseconds.
+ */
+public class FrameStats {
+    private final long frame;
+    private final int frames;
+    private final long deltaP50;
+    private final long deltaP99;
+    private final long deltaMax;
+    private final long cpuP50;
+    private final long cpuP99;
+    private final long cpuMax;
+
+    public FrameStats(long frame, int frames, long deltaP50, long deltaP99, long deltaMax,
+                      long cpuP50, long cpuP99, long cpuMax) {
+        this.frame = frame;
+        this.frames = frames;
+        this.deltaP50 = deltaP50;
+        this.deltaP99 = deltaP99;
+        this.deltaMax = deltaMax;
+        this.cpuP50 = cpuP50;
+        this.cpuP99 = cpuP99;
+        this.cpuMax = cpuMax;
+    }
+
+    /**
+     * @return The last frame covered by these stats.
+     */
+    public long getFrame() {
+        return frame;
+    }
+
+    /**
+     * @return The number of frames covered by these stats.
+     */
+    public int getFrames() {
+        return frames;
+    }
+
+    /**
+     * @return The median time between frames.
+     */
+    public long getDeltaP50() {
+        return deltaP50;
+    }
+
+    /**
+     * @return The 99th percentile of the time between frames.
+     */
+    public long getDeltaP99() {
+        return deltaP99;
+    }
+
+    /**
+     * @return The longest time between frames.
+     */
+    public long getDeltaMax() {
+        return deltaMax;
+    }
+
+    /**
+     * @return The median time spent rendering a frame.
+     */
+    public long getCpuP50() {
+        return cpuP50;
+    }
+
+    /**
+     * @return The 99th percentile of the time spent rendering a frame.
+     */
+    public long getCpuP99() {
+        return cpuP99;
+    }
+
+    /**
+     * @return The longest time spent rendering a frame.
+     */
+    public long getCpuMax() {
+        return cpuMax;
+    }
+
+    @Override public String toString() {
+        return String.format("FrameStats(%d frames, delta p50=%.2fms p99=%.2fms max=%.2fms, "
+                        + "cpu p50=%.2fms p99=%.2fms max=%.2fms)", frames,
+                deltaP50 / 1e6, deltaP99 / 1e6, deltaMax / 1e6, cpuP50 / 1e6, cpuP99 / 1e6, cpuMax / 1e6);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import java.util.Arrays;
+
+/**
+ * A rolling histogram over the last <code>window</code> recorded durations.
+ * <p>
+ * Durations are counted in fixed-width buckets, with everything beyond the last bucket counted in an overflow
+ * bucket. Recording evicts the oldest duration from its bucket, so the histogram always covers exactly the
+ * window. All storage is allocated up front; recording and querying don't allocate.
+ */
+public final class FrameTimeHistogram {
+
+    private final long bucketNanos;
+    private final int[] counts;
+    private final long[] window;
+    private int next;
+    private int size;
+
+    /**
+     * @param window The number of most recent durations to cover.
+     * @param bucketNanos The width of each bucket, in nanoseconds.
+     * @param buckets The number of buckets, not counting the overflow bucket.
+     */
+    public FrameTimeHistogram(int window, long bucketNanos, int buckets) {
+        if (window < 1 || bucketNanos < 1 || buckets < 1) {
+            throw new IllegalArgumentException("window, bucket width and bucket count must be positive");
+        }
+        this.bucketNanos = bucketNanos;
+        this.counts = new int[buckets + 1];
+        this.window = new long[window];
+    }
+
+    /**
+     * Covers the last 600 frames (10 seconds at 60 FPS) in 0.1 ms buckets up to 100 ms.
+     */
+    public FrameTimeHistogram() {
+        this(600, 100000L, 1000);
+    }
+
+    public void record(long nanos) {
+        if (size == window.length) {
+            counts[bucket(window[next])]--;
+        } else {
+            size++;
+        }
+        window[next] = nanos;
+        counts[bucket(nanos)]++;
+        next = (next + 1) % window.length;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        size = 0;
+        next = 0;
+    }
+
+    /**
+     * @param percentile From 0 (exclusive) to 100 (inclusive).
+     * @return The upper bound of the bucket containing the percentile, or the exact maximum for the overflow
+     * bucket, in nanoseconds; 0 if nothing has been recorded yet.
+     */
+    public long percentile(double percentile) {
+        if (size == 0) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(size * percentile / 100.0));
+        long seen = 0L;
+        for (int i = 0; i < counts.length - 1; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (i + 1) * bucketNanos;
+            }
+        }
+        return max();
+    }
+
+    /**
+     * @return The exact maximum within the window, in nanoseconds.
+     */
+    public long max() {
+        long max = 0L;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, window[i]);
+        }
+        return max;
+    }
+
+    private int bucket(long nanos) {
+        return (int) Math.min(Math.max(nanos, 0L) / bucketNanos, counts.length - 1);
+    }
+}
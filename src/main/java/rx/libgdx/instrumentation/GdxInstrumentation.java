@@ -0,0 +1,129 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Func1;
+import rx.libgdx.events.lifecycle.LifecycleEvent;
+import rx.libgdx.events.lifecycle.RenderEvent;
+import rx.schedulers.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+import static rx.Observable.create;
+
+/**
+ * Observables for measuring the game at runtime.
+ */
+public enum GdxInstrumentation {
+    ; // no instances
+
+    /**
+     * Publishes rolling frame time percentiles, computed from the render events of {@link rx.RxApplication}.
+     * Recording a frame doesn't allocate; only the emitted stats do.
+     *
+     * @param source The observable of lifecycle events to use as source.
+     * @param window The number of most recent frames to cover.
+     * @param every Emit stats every this many frames.
+     * @return An observable emitting frame stats.
+     */
+    public static Observable<FrameStats> frameStats(final Observable<? extends LifecycleEvent> source,
+                                                    final int window, final int every) {
+        if (every < 1) {
+            throw new IllegalArgumentException("must emit every frame or less often: " + every);
+        }
+        return create(new Observable.OnSubscribe<FrameStats>() {
+
+            @Override
+            public void call(final Subscriber<? super FrameStats> subscriber) {
+                final FrameTimeHistogram deltas = new FrameTimeHistogram(window, 100000L, 1000);
+                final FrameTimeHistogram cpu = new FrameTimeHistogram(window, 100000L, 1000);
+
+                subscriber.add(source.subscribe(new Subscriber<LifecycleEvent>() {
+
+                    private int frames;
+
+                    @Override
+                    public void onNext(LifecycleEvent event) {
+                        if (!(event instanceof RenderEvent)) {
+                            return;
+                        }
+                        final RenderEvent render = (RenderEvent) event;
+                        if (render.getFrame() <= 1) {
+                            return; // no times known yet
+                        }
+                        deltas.record(render.getDeltaNanos());
+                        cpu.record(render.getPreviousFrameNanos());
+                        if (++frames == every) {
+                            frames = 0;
+                            subscriber.onNext(new FrameStats(render.getFrame(), deltas.size(),
+                                    deltas.percentile(50.0), deltas.percentile(99.0), deltas.max(),
+                                    cpu.percentile(50.0), cpu.percentile(99.0), cpu.max()));
+                        }
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        subscriber.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        subscriber.onError(e);
+                    }
+                }));
+            }
+        });
+    }
+
+    /**
+     * Publishes frame time percentiles over the last 600 frames, once per 60 frames.
+     *
+     * @see #frameStats(Observable, int, int)
+     */
+    public static Observable<FrameStats> frameStats(Observable<? extends LifecycleEvent> source) {
+        return frameStats(source, 600, 60);
+    }
+
+    /**
+     * Publishes snapshots of the {@link MetricsRegistry} periodically.
+     *
+     * @param period The time between snapshots.
+     * @param unit The unit of the period.
+     * @param scheduler The scheduler to take the snapshots on.
+     * @return An observable emitting a snapshot after each period.
+     */
+    public static Observable<MetricsSnapshot> metrics(long period, TimeUnit unit, Scheduler scheduler) {
+        return Observable.interval(period, unit, scheduler).map(new Func1<Long, MetricsSnapshot>() {
+
+            @Override
+            public MetricsSnapshot call(Long tick) {
+                return MetricsRegistry.get().snapshot();
+            }
+        });
+    }
+
+    /**
+     * Publishes snapshots of the {@link MetricsRegistry} periodically, taken on the computation scheduler.
+     *
+     * @see #metrics(long, TimeUnit, Scheduler)
+     */
+    public static Observable<MetricsSnapshot> metrics(long period, TimeUnit unit) {
+        return metrics(period, unit, Schedulers.computation());
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+/**
+ * The counts of a {@link BucketHistogram} at one point in time.
+ */
+public final class HistogramSnapshot {
+
+    private final long[] bounds;
+    private final long[] counts;
+    private final long max;
+    private final long count;
+
+    HistogramSnapshot(long[] bounds, long[] counts, long max) {
+        this.bounds = bounds;
+        this.counts = counts;
+        this.max = max;
+        long count = 0L;
+        for (long c : counts) {
+            count += c;
+        }
+        this.count = count;
+    }
+
+    /**
+     * @return The number of values recorded.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return The largest value recorded, or 0 if nothing has been recorded yet.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * @param bucket From 0 to the number of bounds, the last being the overflow bucket.
+     * @return The number of values recorded in the bucket.
+     */
+    public long getBucketCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * @param percentile From 0 (exclusive) to 100 (inclusive).
+     * @return The upper bound of the bucket containing the percentile, or the maximum for the overflow bucket;
+     * 0 if nothing has been recorded yet.
+     */
+    public long percentile(double percentile) {
+        if (count == 0L) {
+            return 0L;
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0L;
+        for (int i = 0; i < bounds.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bounds[i], max);
+            }
+        }
+        return max;
+    }
+
+    @Override public String toString() {
+        return String.format("HistogramSnapshot(count = %d, p50 = %d, p99 = %d, max = %d)",
+                count, percentile(50.0), percentile(99.0), max);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes a {@link MetricsRegistry} through JMX. Counters are read-only long attributes of the same name;
+ * histograms are read-only long attributes named after the histogram plus <code>.count</code>, <code>.p50</code>,
+ * <code>.p99</code> and <code>.max</code>. The attributes are listed anew for every call, so metrics created
+ * later show up too.
+ * <p>
+ * Kept apart from the registry so that JMX classes are only loaded when actually registering.
+ */
+final class MetricsMBean implements DynamicMBean {
+
+    private static final String NAME = "rx.libgdx:type=Metrics";
+
+    private static final String[] HISTOGRAM_ATTRIBUTES = { "count", "p50", "p99", "max" };
+
+    private final MetricsRegistry registry;
+
+    private MetricsMBean(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    static void register(MetricsRegistry registry) {
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(new MetricsMBean(registry), name);
+        } catch (JMException e) {
+            throw new IllegalStateException("cannot register the metrics MBean", e);
+        }
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        final MetricsSnapshot snapshot = registry.snapshot();
+        final Long counter = snapshot.getCounters().get(attribute);
+        if (counter != null) {
+            return counter;
+        }
+        final int dot = attribute.lastIndexOf('.');
+        final HistogramSnapshot histogram = dot < 0 ? null : snapshot.getHistogram(attribute.substring(0, dot));
+        if (histogram != null) {
+            final String value = attribute.substring(dot + 1);
+            if ("count".equals(value)) {
+                return histogram.getCount();
+            } else if ("p50".equals(value)) {
+                return histogram.percentile(50.0);
+            } else if ("p99".equals(value)) {
+                return histogram.percentile(99.0);
+            } else if ("max".equals(value)) {
+                return histogram.getMax();
+            }
+        }
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        final AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // left out, as the contract of getAttributes demands
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        final MetricsSnapshot snapshot = registry.snapshot();
+        final List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+        for (String counter : snapshot.getCounters().keySet()) {
+            attributes.add(attribute(counter, "counter"));
+        }
+        for (Map.Entry<String, HistogramSnapshot> histogram : snapshot.getHistograms().entrySet()) {
+            for (String value : HISTOGRAM_ATTRIBUTES) {
+                attributes.add(attribute(histogram.getKey() + "." + value, "histogram " + value));
+            }
+        }
+        return new MBeanInfo(getClass().getName(), "rxjava-libgdx metrics",
+                attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null, null, null);
+    }
+
+    private static MBeanAttributeInfo attribute(String name, String description) {
+        return new MBeanAttributeInfo(name, "long", description, true, false, false);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Named counters and histograms, recorded by the sources, {@link rx.RxApplication} and
+ * {@link rx.concurrency.GdxScheduler}. Recording costs an increment; reading is done by taking snapshots, either
+ * on demand, periodically via {@link GdxInstrumentation#metrics}, or through JMX after {@link #registerMBean}.
+ * <p>
+ * The built-in metrics are:
+ * <ul>
+ * <li><code>input.subscribers</code>, <code>input.events</code>, <code>input.held</code> (while paused) and
+ * <code>input.dropped</code> (after unsubscribing, or beyond the events held while paused)</li>
+ * <li><code>box2d.subscribers</code>, <code>box2d.events</code> and <code>box2d.dropped</code> (while paused or
+ * after unsubscribing)</li>
+ * <li><code>lifecycle.subscribers</code> and <code>lifecycle.events</code></li>
+ * <li><code>app.frames</code> and the <code>app.frameNanos</code> histogram</li>
+ * <li><code>http.requests</code>, <code>http.inFlight</code>, <code>http.failures</code>,
+ * <code>http.cancelled</code> and the <code>http.latencyMillis</code> histogram</li>
+ * <li><code>scheduler.posted</code>, <code>scheduler.executed</code>, <code>scheduler.backlog</code> (posted
+ * runnables not yet run), <code>scheduler.parked</code> (runnables held while paused) and
+ * <code>scheduler.delayed</code> (delayed schedules)</li>
+ * </ul>
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry INSTANCE = new MetricsRegistry();
+
+    public static MetricsRegistry get() {
+        return INSTANCE;
+    }
+
+    private final ConcurrentMap<String, StripedCounter> counters = new ConcurrentHashMap<String, StripedCounter>();
+    private final ConcurrentMap<String, BucketHistogram> histograms =
+            new ConcurrentHashMap<String, BucketHistogram>();
+
+    /**
+     * @return The counter of the given name, created if it doesn't exist yet. Look it up once and keep it.
+     */
+    public StripedCounter counter(String name) {
+        final StripedCounter counter = counters.get(name);
+        if (counter != null) {
+            return counter;
+        }
+        final StripedCounter created = new StripedCounter();
+        final StripedCounter existing = counters.putIfAbsent(name, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * @param bounds The bucket bounds to use if the histogram doesn't exist yet.
+     * @return The histogram of the given name, created if it doesn't exist yet. Look it up once and keep it.
+     */
+    public BucketHistogram histogram(String name, long... bounds) {
+        return histogram(name, new BucketHistogram(bounds));
+    }
+
+    /**
+     * @param created The histogram to register if there is none of that name yet.
+     * @return The histogram of the given name.
+     */
+    public BucketHistogram histogram(String name, BucketHistogram created) {
+        final BucketHistogram existing = histograms.putIfAbsent(name, created);
+        return existing == null ? created : existing;
+    }
+
+    public MetricsSnapshot snapshot() {
+        final Map<String, Long> counterValues = new TreeMap<String, Long>();
+        for (Map.Entry<String, StripedCounter> entry : counters.entrySet()) {
+            counterValues.put(entry.getKey(), entry.getValue().sum());
+        }
+        final Map<String, HistogramSnapshot> histogramValues = new TreeMap<String, HistogramSnapshot>();
+        for (Map.Entry<String, BucketHistogram> entry : histograms.entrySet()) {
+            histogramValues.put(entry.getKey(), entry.getValue().snapshot());
+        }
+        return new MetricsSnapshot(System.currentTimeMillis(), counterValues, histogramValues);
+    }
+
+    /**
+     * Registers an MBean named <code>rx.libgdx:type=Metrics</code> with the platform MBean server, exposing each
+     * counter as an attribute and each histogram as its count, p50, p99 and max attributes. Registering again
+     * replaces the previous registration. Not available on Android, which has no JMX.
+     *
+     * @throws IllegalStateException if registering fails.
+     */
+    public void registerMBean() {
+        MetricsMBean.register(this);
+    }
+
+    @Override public String toString() {
+        return String.format("MetricsRegistry(%d counters, %d histograms)", counters.size(), histograms.size());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * The values of all counters and histograms of a {@link MetricsRegistry} at one point in time, sorted by name.
+ */
+public final class MetricsSnapshot {
+
+    private final long timeMillis;
+    private final Map<String, Long> counters;
+    private final Map<String, HistogramSnapshot> histograms;
+
+    MetricsSnapshot(long timeMillis, Map<String, Long> counters, Map<String, HistogramSnapshot> histograms) {
+        this.timeMillis = timeMillis;
+        this.counters = Collections.unmodifiableMap(counters);
+        this.histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * @return When the snapshot was taken, in milliseconds since the epoch.
+     */
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public Map<String, Long> getCounters() {
+        return counters;
+    }
+
+    public Map<String, HistogramSnapshot> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * @return The value of the counter, or 0 if there is no such counter.
+     */
+    public long getCounter(String name) {
+        final Long value = counters.get(name);
+        return value == null ? 0L : value;
+    }
+
+    /**
+     * @return The snapshot of the histogram, or null if there is no such histogram.
+     */
+    public HistogramSnapshot getHistogram(String name) {
+        return histograms.get(name);
+    }
+
+    @Override public String toString() {
+        return String.format("MetricsSnapshot(counters = %s, histograms = %s)", counters, histograms);
+    }
+}
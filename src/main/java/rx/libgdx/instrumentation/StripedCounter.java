@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A counter spread over several cells, so that threads counting concurrently rarely contend for the same cache
+ * line. Each thread adds to the cell picked by its id; reading sums up all cells. Counting is a single atomic add
+ * and doesn't allocate.
+ * <p>
+ * The sum is not a snapshot: additions that happen while summing may or may not be included. Counters that go
+ * up and down (like subscriber counts) may therefore be briefly off by the additions in flight.
+ */
+public final class StripedCounter {
+
+    /** Cells are this many longs (one cache line) apart. */
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+
+    /**
+     * @param stripes The number of cells, a power of two.
+     */
+    public StripedCounter(int stripes) {
+        if (stripes < 1 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("stripes must be a positive power of two: " + stripes);
+        }
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        this.mask = stripes - 1;
+    }
+
+    /**
+     * Uses one cell per available processor, rounded up to a power of two, but no more than 64.
+     */
+    public StripedCounter() {
+        this(Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1)));
+    }
+
+    public void increment() {
+        add(1L);
+    }
+
+    public void decrement() {
+        add(-1L);
+    }
+
+    public void add(long delta) {
+        cells.addAndGet(((int) Thread.currentThread().getId() & mask) * PADDING, delta);
+    }
+
+    public long sum() {
+        long sum = 0L;
+        for (int i = 0; i < cells.length(); i += PADDING) {
+            sum += cells.get(i);
+        }
+        return sum;
+    }
+
+    @Override public String toString() {
+        return String.format("StripedCounter(sum = %d, stripes = %d)", sum(), mask + 1);
+    }
+}
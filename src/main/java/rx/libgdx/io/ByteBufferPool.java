@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * A bounded pool of equally sized byte buffers.
+ * <p>
+ * Sources emitting pooled buffers take them from here; consumers hand them back via {@link #release} when
+ * done, so a steady stream of chunks reuses the same few buffers. Buffers that are never released are simply
+ * garbage collected, and the pool allocates new ones when it runs empty.
+ */
+public final class ByteBufferPool {
+
+    private final int bufferSize;
+    private final boolean direct;
+    private final ArrayBlockingQueue<ByteBuffer> pool;
+
+    /**
+     * @param bufferSize The size of each buffer, in bytes.
+     * @param maxPooled The maximum number of idle buffers kept.
+     * @param direct Whether to allocate direct buffers, which is faster for channel I/O.
+     */
+    public ByteBufferPool(int bufferSize, int maxPooled, boolean direct) {
+        if (bufferSize < 1 || maxPooled < 1) {
+            throw new IllegalArgumentException("buffer size and pool size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.direct = direct;
+        this.pool = new ArrayBlockingQueue<ByteBuffer>(maxPooled);
+    }
+
+    /**
+     * A pool of up to 8 direct 64 KB buffers.
+     */
+    public ByteBufferPool() {
+        this(64 * 1024, 8, true);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return A cleared buffer, pooled if available.
+     */
+    public ByteBuffer acquire() {
+        final ByteBuffer buffer = pool.poll();
+        if (buffer != null) {
+            buffer.clear();
+            return buffer;
+        }
+        return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Returns a buffer to the pool. Don't use it afterwards.
+     *
+     * @param buffer A buffer acquired from this pool. Other buffers, like read-only views, are ignored.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize && !buffer.isReadOnly()) { // not a mapped or other view
+            pool.offer(buffer);
+        }
+    }
+
+    /**
+     * @return The number of idle buffers in the pool.
+     */
+    public int size() {
+        return pool.size();
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.lockstep;
+
+import rx.libgdx.events.input.InputEvent;
+import rx.libgdx.events.input.KeyDownEvent;
+import rx.libgdx.events.input.KeyTypedEvent;
+import rx.libgdx.events.input.KeyUpEvent;
+import rx.libgdx.events.input.MouseMovedEvent;
+import rx.libgdx.events.input.ScrolledEvent;
+import rx.libgdx.events.input.TouchDownEvent;
+import rx.libgdx.events.input.TouchDraggedEvent;
+import rx.libgdx.events.input.TouchUpEvent;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Encodes the input events of a frame compactly.
+ * <p>
+ * Every event is a one byte tag followed by its fields as varints, so small values take a single byte. Screen
+ * coordinates are encoded as the zig-zag encoded difference to the previous coordinates within the same batch,
+ * which keeps drags and mouse moves at one or two bytes per axis. Decoding uses the same running coordinates,
+ * so batches must be decoded in the order they were encoded, starting from {@link #reset}.
+ */
+public final class InputCodec {
+
+    private static final int KEY_DOWN = 0;
+    private static final int KEY_UP = 1;
+    private static final int KEY_TYPED = 2;
+    private static final int TOUCH_DOWN = 3;
+    private static final int TOUCH_UP = 4;
+    private static final int TOUCH_DRAGGED = 5;
+    private static final int MOUSE_MOVED = 6;
+    private static final int SCROLLED = 7;
+
+    private int lastX;
+    private int lastY;
+
+    /**
+     * Starts a new sequence of batches, with running coordinates at the origin.
+     */
+    public void reset() {
+        lastX = 0;
+        lastY = 0;
+    }
+
+    /**
+     * Writes the number of events, followed by the events.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer is too small.
+     * @throws IllegalArgumentException for events of unknown type.
+     */
+    public void encode(List<? extends InputEvent> events, ByteBuffer buffer) {
+        writeVarInt(buffer, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            encode(events.get(i), buffer);
+        }
+    }
+
+    /**
+     * Reads a batch written by {@link #encode(List, ByteBuffer)}, adding its events to the given list.
+     *
+     * @throws IllegalArgumentException if the batch is malformed.
+     */
+    public void decode(ByteBuffer buffer, List<? super InputEvent> events) {
+        try {
+            final int count = readVarInt(buffer);
+            for (int i = 0; i < count; i++) {
+                events.add(decodeEvent(buffer));
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("truncated input batch", e);
+        }
+    }
+
+    private void encode(InputEvent event, ByteBuffer buffer) {
+        if (event instanceof KeyDownEvent) {
+            buffer.put((byte) KEY_DOWN);
+            writeVarInt(buffer, ((KeyDownEvent) event).getKeycode());
+        } else if (event instanceof KeyUpEvent) {
+            buffer.put((byte) KEY_UP);
+            writeVarInt(buffer, ((KeyUpEvent) event).getKeycode());
+        } else if (event instanceof KeyTypedEvent) {
+            buffer.put((byte) KEY_TYPED);
+            writeVarInt(buffer, ((KeyTypedEvent) event).getCharacter());
+        } else if (event instanceof TouchDownEvent) {
+            final TouchDownEvent touch = (TouchDownEvent) event;
+            buffer.put((byte) TOUCH_DOWN);
+            writeCoords(buffer, touch.getScreenX(), touch.getScreenY());
+            writeVarInt(buffer, touch.getPointer());
+            writeVarInt(buffer, touch.getButton());
+        } else if (event instanceof TouchUpEvent) {
+            final TouchUpEvent touch = (TouchUpEvent) event;
+            buffer.put((byte) TOUCH_UP);
+            writeCoords(buffer, touch.getScreenX(), touch.getScreenY());
+            writeVarInt(buffer, touch.getPointer());
+            writeVarInt(buffer, touch.getButton());
+        } else if (event instanceof TouchDraggedEvent) {
+            final TouchDraggedEvent touch = (TouchDraggedEvent) event;
+            buffer.put((byte) TOUCH_DRAGGED);
+            writeCoords(buffer, touch.getScreenX(), touch.getScreenY());
+            writeVarInt(buffer, touch.getPointer());
+        } else if (event instanceof MouseMovedEvent) {
+            final MouseMovedEvent move = (MouseMovedEvent) event;
+            buffer.put((byte) MOUSE_MOVED);
+            writeCoords(buffer, move.getScreenX(), move.getScreenY());
+        } else if (event instanceof ScrolledEvent) {
+            buffer.put((byte) SCROLLED);
+            writeVarInt(buffer, zigZag(((ScrolledEvent) event).getAmount()));
+        } else {
+            throw new IllegalArgumentException("can't encode " + event);
+        }
+    }
+
+    private InputEvent decodeEvent(ByteBuffer buffer) {
+        final int tag = buffer.get();
+        switch (tag) {
+            case KEY_DOWN:
+                return new KeyDownEvent(readVarInt(buffer));
+            case KEY_UP:
+                return new KeyUpEvent(readVarInt(buffer));
+            case KEY_TYPED:
+                return new KeyTypedEvent((char) readVarInt(buffer));
+            case TOUCH_DOWN:
+                readCoords(buffer);
+                return new TouchDownEvent(lastX, lastY, readVarInt(buffer), readVarInt(buffer));
+            case TOUCH_UP:
+                readCoords(buffer);
+                return new TouchUpEvent(lastX, lastY, readVarInt(buffer), readVarInt(buffer));
+            case TOUCH_DRAGGED:
+                readCoords(buffer);
+                return new TouchDraggedEvent(lastX, lastY, readVarInt(buffer));
+            case MOUSE_MOVED:
+                readCoords(buffer);
+                return new MouseMovedEvent(lastX, lastY);
+            case SCROLLED:
+                return new ScrolledEvent(unZigZag(readVarInt(buffer)));
+            default:
+                throw new IllegalArgumentException("unknown input event tag " + tag);
+        }
+    }
+
+    private void writeCoords(ByteBuffer buffer, int x, int y) {
+        writeVarInt(buffer, zigZag(x - lastX));
+        writeVarInt(buffer, zigZag(y - lastY));
+        lastX = x;
+        lastY = y;
+    }
+
+    private void readCoords(ByteBuffer buffer) {
+        lastX += unZigZag(readVarInt(buffer));
+        lastY += unZigZag(readVarInt(buffer));
+    }
+
+    /**
+     * Writes 7 bits per byte, least significant first, with the high bit set on all but the last byte.
+     */
+    static void writeVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7f) != 0) {
+            buffer.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("varint longer than 5 bytes");
+    }
+
+    /**
+     * Maps signed to unsigned values so that small negative values stay small: 0, -1, 1, -2, ... become
+     * 0, 1, 2, 3, ...
+     */
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
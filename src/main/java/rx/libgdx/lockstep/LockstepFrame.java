@@ -0,0 +1,65 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.lockstep;
+
+import rx.libgdx.events.input.InputEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The input of all peers for one simulation frame, identical on every peer.
+ */
+public final class LockstepFrame {
+
+    private final int frame;
+    private final List<InputEvent>[] inputs;
+
+    LockstepFrame(int frame, List<InputEvent>[] inputs) {
+        this.frame = frame;
+        this.inputs = inputs;
+    }
+
+    public int getFrame() {
+        return frame;
+    }
+
+    public int getPeers() {
+        return inputs.length;
+    }
+
+    /**
+     * @return The events the peer gathered during the frame, in order.
+     */
+    public List<InputEvent> getInputs(int peer) {
+        return inputs[peer];
+    }
+
+    /**
+     * @return The events of all peers, ordered by peer, then in the order they happened.
+     */
+    public List<InputEvent> getMergedInputs() {
+        final List<InputEvent> merged = new ArrayList<InputEvent>();
+        for (List<InputEvent> peerInputs : inputs) {
+            merged.addAll(peerInputs);
+        }
+        return merged;
+    }
+
+    @Override public String toString() {
+        return String.format("LockstepFrame(%d)", frame);
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.lockstep;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action1;
+import rx.libgdx.events.input.InputEvent;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synchronizes the input of several peers for a deterministic lockstep simulation.
+ * <p>
+ * The local input events are gathered per tick into frame <code>tick + inputDelay</code> and sent to all peers.
+ * A frame is released once the input of every peer for it has arrived, with the same content and order on every
+ * peer. With an input delay of <i>d</i> frames, the input of the other peers has <i>d</i> ticks to arrive before
+ * the simulation stalls; the first <i>d</i> frames are empty. While some peer is a whole window behind, no input
+ * is gathered into new frames; the unconfirmed frames are still resent each tick, until the peer catches up.
+ * <p>
+ * Each packet carries all local frames that some peer hasn't confirmed yet, encoded by an {@link InputCodec},
+ * together with the last frame received from every peer as confirmation. So lost packets cost no round trip,
+ * and a confirmed frame is never sent again. All work happens on the thread of the ticks; packets arriving in
+ * between are queued until the next tick. Malformed packets and packets from unknown peers are dropped as a
+ * whole and counted, see {@link #getDroppedPackets}.
+ */
+public final class LockstepSession {
+
+    private final int localPeer;
+    private final int peers;
+    private final int inputDelay;
+    private final int window;
+    private final LockstepTransport transport;
+
+    private final InputCodec encoder = new InputCodec();
+    private final InputCodec decoder = new InputCodec();
+    private final List<InputEvent>[][] inputs;
+    private final long[] gatheredAt;
+    private final int[] received;
+    private final int[] confirmed;
+    private final ConcurrentLinkedQueue<ByteBuffer> incoming = new ConcurrentLinkedQueue<ByteBuffer>();
+    private final Object gatheringLock = new Object();
+    private final List<List<InputEvent>> decoded = new ArrayList<List<InputEvent>>();
+
+    private List<InputEvent> gathering = new ArrayList<InputEvent>();
+    private ByteBuffer packet = ByteBuffer.allocate(512);
+    private int localFrame;
+    private int nextRelease;
+
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private volatile long bytesSent;
+    private volatile long packetsSent;
+    private volatile long stalledTicks;
+    private volatile long droppedPackets;
+    private volatile long releasedFrames;
+    private volatile long lastDelayNanos;
+    private long delayNanosSum;
+    private long delaySamples;
+
+    /**
+     * @param localPeer The index of this peer, from 0 to <code>peers - 1</code>.
+     * @param peers The number of peers, including this one.
+     * @param inputDelay The number of frames between gathering input and simulating it.
+     * @param window The maximum number of frames to keep for peers lagging behind, more than the input delay.
+     *               Once a peer is this far behind, the session stalls until it catches up.
+     * @param transport The transport to exchange packets with the other peers over.
+     */
+    public LockstepSession(int localPeer, int peers, int inputDelay, int window, LockstepTransport transport) {
+        if (peers < 1 || localPeer < 0 || localPeer >= peers || inputDelay < 0 || window <= inputDelay) {
+            throw new IllegalArgumentException("invalid peers, input delay or window");
+        }
+        this.localPeer = localPeer;
+        this.peers = peers;
+        this.inputDelay = inputDelay;
+        this.window = window;
+        this.transport = transport;
+
+        inputs = frames(peers, window);
+        gatheredAt = new long[window];
+        received = new int[peers];
+        confirmed = new int[peers];
+        for (int peer = 0; peer < peers; peer++) {
+            for (int frame = 0; frame < inputDelay; frame++) {
+                inputs[peer][frame] = Collections.emptyList();
+            }
+            received[peer] = inputDelay - 1;
+            confirmed[peer] = inputDelay - 1;
+        }
+        localFrame = inputDelay;
+    }
+
+    /**
+     * Starts the session. Subscribe only once per session.
+     *
+     * @param localInput The local input events, e.g. from {@link rx.GdxObservable#fromInput}.
+     * @param ticks One signal per simulation tick, e.g. the fixed steps of the simulation.
+     * @return Observable emitting the released frames, in order, on the thread of the ticks.
+     */
+    public Observable<LockstepFrame> frames(final Observable<? extends InputEvent> localInput,
+                                            final Observable<?> ticks) {
+        return Observable.create(new Observable.OnSubscribe<LockstepFrame>() {
+
+            @Override
+            public void call(final Subscriber<? super LockstepFrame> subscriber) {
+                subscriber.add(transport.packets().subscribe(new Action1<ByteBuffer>() {
+
+                    @Override
+                    public void call(ByteBuffer packet) {
+                        final ByteBuffer copy = ByteBuffer.allocate(packet.remaining());
+                        copy.put(packet.duplicate()).flip();
+                        bytesReceived.addAndGet(copy.remaining());
+                        incoming.add(copy);
+                    }
+                }));
+                subscriber.add(localInput.subscribe(new Action1<InputEvent>() {
+
+                    @Override
+                    public void call(InputEvent event) {
+                        synchronized (gatheringLock) {
+                            gathering.add(event);
+                        }
+                    }
+                }));
+                subscriber.add(ticks.subscribe(new Subscriber<Object>() {
+
+                    @Override
+                    public void onCompleted() {
+                        subscriber.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        subscriber.onError(e);
+                    }
+
+                    @Override
+                    public void onNext(Object tick) {
+                        try {
+                            tick(subscriber);
+                        } catch (RuntimeException e) {
+                            subscriber.onError(e);
+                        }
+                    }
+                }));
+            }
+        });
+    }
+
+    public int getInputDelay() {
+        return inputDelay;
+    }
+
+    /**
+     * @return The number of frames released so far.
+     */
+    public long getReleasedFrames() {
+        return releasedFrames;
+    }
+
+    /**
+     * @return The number of ticks that released no frame because some peer's input was missing, or that
+     * gathered no input because some peer was a whole window behind.
+     */
+    public long getStalledTicks() {
+        return stalledTicks;
+    }
+
+    /**
+     * @return The number of malformed packets and packets from unknown peers, which were dropped.
+     */
+    public long getDroppedPackets() {
+        return droppedPackets;
+    }
+
+    /**
+     * @return The time from gathering the local input of the last released frame to releasing it, in
+     * nanoseconds. At least the input delay, more when stalled.
+     */
+    public long getLastDelayNanos() {
+        return lastDelayNanos;
+    }
+
+    public synchronized long getAverageDelayNanos() {
+        return delaySamples == 0L ? 0L : delayNanosSum / delaySamples;
+    }
+
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    public long getPacketsSent() {
+        return packetsSent;
+    }
+
+    /**
+     * @return The average number of bytes sent per tick, resends included.
+     */
+    public float getBytesPerTick() {
+        final long ticks = localFrame - inputDelay;
+        return ticks == 0L ? 0f : (float) bytesSent / ticks;
+    }
+
+    private void tick(Subscriber<? super LockstepFrame> subscriber) {
+        final int resendFrom = resendFrom();
+        // a new frame would overwrite one that is still unreleased or unconfirmed, so the input waits
+        final boolean full = localFrame - Math.min(nextRelease, resendFrom) >= window;
+        if (!full) {
+            final List<InputEvent> local;
+            synchronized (gatheringLock) {
+                local = gathering;
+                gathering = new ArrayList<InputEvent>();
+            }
+            final int slot = localFrame % window;
+            inputs[localPeer][slot] = local;
+            gatheredAt[slot] = System.nanoTime();
+            received[localPeer] = localFrame;
+            localFrame++;
+        }
+        send(resendFrom); // also while full, or a peer missing our frames could never confirm them
+
+        ByteBuffer packet;
+        while ((packet = incoming.poll()) != null) {
+            if (!receive(packet)) {
+                droppedPackets++;
+            }
+        }
+
+        int releasable = Integer.MAX_VALUE;
+        for (int peer = 0; peer < peers; peer++) {
+            releasable = Math.min(releasable, received[peer]);
+        }
+        if (full || nextRelease > releasable) {
+            stalledTicks++;
+        }
+        while (nextRelease <= releasable && !subscriber.isUnsubscribed()) {
+            subscriber.onNext(release(nextRelease++));
+        }
+    }
+
+    private int resendFrom() {
+        int from = localFrame;
+        for (int peer = 0; peer < peers; peer++) {
+            if (peer != localPeer) {
+                from = Math.min(from, confirmed[peer] + 1);
+            }
+        }
+        return from;
+    }
+
+    /**
+     * Packet layout, all varints: sender, last frame received from each peer plus one, first frame, frame
+     * count, then the encoded frames.
+     */
+    private void send(int from) {
+        while (true) {
+            try {
+                packet.clear();
+                InputCodec.writeVarInt(packet, localPeer);
+                for (int peer = 0; peer < peers; peer++) {
+                    InputCodec.writeVarInt(packet, received[peer] + 1);
+                }
+                InputCodec.writeVarInt(packet, from);
+                InputCodec.writeVarInt(packet, localFrame - from);
+                encoder.reset();
+                for (int frame = from; frame < localFrame; frame++) {
+                    encoder.encode(inputs[localPeer][frame % window], packet);
+                }
+                break;
+            } catch (BufferOverflowException e) {
+                packet = ByteBuffer.allocate(packet.capacity() * 2);
+            }
+        }
+        packet.flip();
+        bytesSent += packet.remaining();
+        packetsSent++;
+        transport.send(packet);
+    }
+
+    /**
+     * Decodes the whole packet before applying any of it, so that a malformed packet changes nothing.
+     *
+     * @return <code>false</code> if the packet was malformed or from an unknown peer, and was dropped.
+     */
+    private boolean receive(ByteBuffer packet) {
+        final int sender;
+        int confirmation = -1;
+        final int from;
+        final int count;
+        decoded.clear();
+        try {
+            sender = InputCodec.readVarInt(packet);
+            if (sender < 0 || sender >= peers || sender == localPeer) {
+                return false;
+            }
+            for (int peer = 0; peer < peers; peer++) {
+                final int last = InputCodec.readVarInt(packet) - 1;
+                if (peer == localPeer) {
+                    confirmation = last;
+                }
+            }
+            from = InputCodec.readVarInt(packet);
+            count = InputCodec.readVarInt(packet);
+            if (confirmation >= localFrame || from < 0 || count < 0 || count > window) {
+                return false;
+            }
+            decoder.reset();
+            for (int i = 0; i < count; i++) {
+                final List<InputEvent> events = new ArrayList<InputEvent>();
+                decoder.decode(packet, events);
+                decoded.add(events);
+            }
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (BufferUnderflowException e) {
+            return false;
+        }
+
+        confirmed[sender] = Math.max(confirmed[sender], confirmation);
+        for (int i = 0; i < count; i++) {
+            final int frame = from + i;
+            // the window bounds how far a peer may get ahead; beyond it, wait for the resend
+            if (frame == received[sender] + 1 && frame - nextRelease < window) {
+                inputs[sender][frame % window] = decoded.get(i);
+                received[sender] = frame;
+            }
+        }
+        return true;
+    }
+
+    private LockstepFrame release(int frame) {
+        final int slot = frame % window;
+        final List<InputEvent>[] frameInputs = frame(peers);
+        for (int peer = 0; peer < peers; peer++) {
+            frameInputs[peer] = inputs[peer][slot];
+        }
+        if (frame >= inputDelay) {
+            final long delay = System.nanoTime() - gatheredAt[slot];
+            lastDelayNanos = delay;
+            synchronized (this) {
+                delayNanosSum += delay;
+                delaySamples++;
+            }
+        }
+        releasedFrames++;
+        return new LockstepFrame(frame, frameInputs);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<InputEvent>[] frame(int peers) {
+        return (List<InputEvent>[]) new List<?>[peers];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<InputEvent>[][] frames(int peers, int frames) {
+        return (List<InputEvent>[][]) new List<?>[peers][frames];
+    }
+}
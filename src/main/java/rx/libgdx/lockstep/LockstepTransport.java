@@ -0,0 +1,43 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.lockstep;
+
+import rx.Observable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Carries the packets of a {@link LockstepSession} between peers.
+ * <p>
+ * Packets may be lost, duplicated or reordered: the session resends unconfirmed input and ignores duplicates.
+ * Over a stream connection, {@link rx.GdxObservable#toSocket} and {@link rx.GdxObservable#fromSocket} already
+ * preserve the packet boundaries.
+ */
+public interface LockstepTransport {
+
+    /**
+     * Sends a packet to all other peers.
+     *
+     * @param packet The packet, between position and limit. It is reused after this returns.
+     */
+    void send(ByteBuffer packet);
+
+    /**
+     * @return The packets arriving from the other peers, on any thread. Each buffer may be reused after
+     * <code>onNext</code> returns.
+     */
+    Observable<ByteBuffer> packets();
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.lockstep;
+
+import rx.Observable;
+import rx.subjects.PublishSubject;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Connects peers within the same process, delivering every packet synchronously to all other peers.
+ */
+public final class LoopbackTransport implements LockstepTransport {
+
+    private final PublishSubject<ByteBuffer> incoming = PublishSubject.create();
+    private LoopbackTransport[] group;
+
+    private LoopbackTransport() {
+    }
+
+    /**
+     * @param peers The number of peers.
+     * @return One transport per peer, all connected with each other.
+     */
+    public static LoopbackTransport[] connect(int peers) {
+        final LoopbackTransport[] group = new LoopbackTransport[peers];
+        for (int i = 0; i < peers; i++) {
+            group[i] = new LoopbackTransport();
+        }
+        for (LoopbackTransport transport : group) {
+            transport.group = group;
+        }
+        return group;
+    }
+
+    @Override
+    public void send(ByteBuffer packet) {
+        final ByteBuffer copy = ByteBuffer.allocate(packet.remaining());
+        copy.put(packet.duplicate()).flip();
+        for (LoopbackTransport peer : group) {
+            if (peer != this) {
+                peer.deliver(copy.duplicate());
+            }
+        }
+    }
+
+    @Override
+    public Observable<ByteBuffer> packets() {
+        return incoming;
+    }
+
+    private synchronized void deliver(ByteBuffer packet) {
+        incoming.onNext(packet);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.net;
+
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.net.HttpStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A http response with its body already read, as emitted by {@link HttpCache}.
+ * Unlike backend responses, its body can be read any number of times, on any thread.
+ */
+public final class CachedHttpResponse implements Net.HttpResponse {
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final byte[] body;
+    private final boolean fromCache;
+    private final boolean stale;
+
+    public CachedHttpResponse(int status, Map<String, List<String>> headers, byte[] body, boolean fromCache,
+                              boolean stale) {
+        this.status = status;
+        this.headers = Collections.unmodifiableMap(headers);
+        this.body = body;
+        this.fromCache = fromCache;
+        this.stale = stale;
+    }
+
+    /**
+     * @return <code>true</code> if the body came from the cache, possibly after a successful revalidation.
+     */
+    public boolean isFromCache() {
+        return fromCache;
+    }
+
+    /**
+     * @return <code>true</code> if the body came from the cache without revalidation, even though it had expired.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    int size() {
+        return body.length;
+    }
+
+    byte[] body() {
+        return body;
+    }
+
+    @Override
+    public byte[] getResult() {
+        return body.clone();
+    }
+
+    @Override
+    public String getResultAsString() {
+        try {
+            return new String(body, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public InputStream getResultAsStream() {
+        return new ByteArrayInputStream(body);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return new HttpStatus(status);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                return header.getValue().get(0);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.net;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.net.HttpStatus;
+import rx.GdxObservable;
+import rx.Observable;
+import rx.functions.Func0;
+import rx.functions.Func1;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the responses of GET requests made via {@link GdxObservable#fromHttpRequest}.
+ * <p>
+ * Responses are kept in memory, evicting the least recently used ones beyond a size limit in bytes, and
+ * optionally on disk. A cached response is fresh for its <code>Cache-Control: max-age</code>, or the default
+ * max age. Once expired, it is revalidated with <code>If-None-Match</code>/<code>If-Modified-Since</code>, so an
+ * unchanged resource costs a <code>304</code> without body. With stale-while-revalidate, the expired response
+ * is emitted right away and followed by the new one, if it changed.
+ * <p>
+ * Lookups (including disk reads) happen on the subscribing thread, so subscribe on a background scheduler if
+ * the disk cache is enabled.
+ */
+public final class HttpCache {
+
+    private final long maxMemoryBytes;
+    private final FileHandle directory;
+    private final long defaultMaxAgeMillis;
+    private final boolean staleWhileRevalidate;
+
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long memoryBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+
+    /**
+     * @param maxMemoryBytes The maximum total size of the response bodies kept in memory.
+     * @param directory The directory to keep responses on disk in, or <code>null</code> for memory only.
+     * @param defaultMaxAgeMillis How long responses without max age are fresh.
+     * @param staleWhileRevalidate Whether to emit expired responses while revalidating them.
+     */
+    public HttpCache(long maxMemoryBytes, FileHandle directory, long defaultMaxAgeMillis,
+                     boolean staleWhileRevalidate) {
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.directory = directory;
+        this.defaultMaxAgeMillis = defaultMaxAgeMillis;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    /**
+     * A cache of up to 4 MB in memory, backed by <code>http-cache</code> in local storage, that revalidates all
+     * responses without max age and emits stale responses while revalidating.
+     */
+    public HttpCache() {
+        this(4L * 1024L * 1024L, Gdx.files.local("http-cache"), 0L, true);
+    }
+
+    /**
+     * Like {@link GdxObservable#fromHttpRequest}, but emitting cached responses where possible. Requests other
+     * than GET are passed through.
+     *
+     * @param httpRequest The request to execute on subscription, if necessary
+     * @return Observable emitting the response, or a stale response followed by the fresh one.
+     */
+    public Observable<Net.HttpResponse> fromHttpRequest(final Net.HttpRequest httpRequest) {
+        if (!Net.HttpMethods.GET.equals(httpRequest.getMethod())) {
+            return GdxObservable.fromHttpRequest(httpRequest);
+        }
+        return Observable.defer(new Func0<Observable<Net.HttpResponse>>() {
+
+            @Override
+            public Observable<Net.HttpResponse> call() {
+                final String url = httpRequest.getUrl();
+                final Entry cached = lookup(url);
+                if (cached == null) {
+                    misses.incrementAndGet();
+                    return fetch(httpRequest, null);
+                }
+                if (cached.expiresAt > System.currentTimeMillis()) {
+                    hits.incrementAndGet();
+                    return Observable.<Net.HttpResponse>just(cached.response(false));
+                }
+
+                revalidations.incrementAndGet();
+                if (!staleWhileRevalidate) {
+                    return fetch(httpRequest, cached);
+                }
+                staleHits.incrementAndGet();
+                return Observable.concat(Observable.<Net.HttpResponse>just(cached.response(true)),
+                        fetch(httpRequest, cached).filter(new Func1<Net.HttpResponse, Boolean>() {
+
+                            @Override
+                            public Boolean call(Net.HttpResponse response) {
+                                return !((CachedHttpResponse) response).isFromCache(); // already emitted
+                            }
+                        }));
+            }
+        });
+    }
+
+    /**
+     * @return The number of requests answered from the cache without network access.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return The number of requests not found in the cache.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return The number of expired responses revalidated.
+     */
+    public long getRevalidations() {
+        return revalidations.get();
+    }
+
+    /**
+     * @return The number of revalidations answered with "not modified".
+     */
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    /**
+     * @return The number of expired responses emitted while revalidating.
+     */
+    public long getStaleHits() {
+        return staleHits.get();
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    /**
+     * Removes all responses from memory and disk.
+     */
+    public synchronized void clear() {
+        memory.clear();
+        memoryBytes = 0L;
+        if (directory != null) {
+            directory.deleteDirectory();
+        }
+    }
+
+    private Observable<Net.HttpResponse> fetch(final Net.HttpRequest httpRequest, final Entry cached) {
+        final Net.HttpRequest request;
+        if (cached == null) {
+            request = httpRequest;
+        } else {
+            request = new Net.HttpRequest(httpRequest.getMethod());
+            request.setUrl(httpRequest.getUrl());
+            request.setTimeOut(httpRequest.getTimeOut());
+            request.setFollowRedirects(httpRequest.getFollowRedirects());
+            for (Map.Entry<String, String> header : httpRequest.getHeaders().entrySet()) {
+                request.setHeader(header.getKey(), header.getValue());
+            }
+            if (cached.etag != null) {
+                request.setHeader("If-None-Match", cached.etag);
+            }
+            if (cached.lastModified != null) {
+                request.setHeader("If-Modified-Since", cached.lastModified);
+            }
+        }
+
+        return GdxObservable.fromHttpRequest(request).map(new Func1<Net.HttpResponse, Net.HttpResponse>() {
+
+            @Override
+            public Net.HttpResponse call(Net.HttpResponse response) {
+                final int status = response.getStatus().getStatusCode();
+                if (status == HttpStatus.SC_NOT_MODIFIED && cached != null) {
+                    notModified.incrementAndGet();
+                    final Entry refreshed = cached.refresh(expiresAt(response));
+                    store(refreshed);
+                    return refreshed.response(false);
+                }
+
+                final Map<String, List<String>> headers = copy(response.getHeaders());
+                final byte[] body = response.getResult();
+                final CachedHttpResponse fresh = new CachedHttpResponse(status, headers, body, false, false);
+                if (status == HttpStatus.SC_OK && !noStore(response)) {
+                    store(new Entry(httpRequest.getUrl(), status, headers, body, response.getHeader("ETag"),
+                            response.getHeader("Last-Modified"), expiresAt(response)));
+                }
+                return fresh;
+            }
+        });
+    }
+
+    private synchronized Entry lookup(String url) {
+        Entry entry = memory.get(url);
+        if (entry == null && directory != null) {
+            entry = Entry.read(url, directory.child(key(url)));
+            if (entry != null) {
+                remember(entry);
+            }
+        }
+        return entry;
+    }
+
+    private synchronized void store(Entry entry) {
+        remember(entry);
+        if (directory != null) {
+            entry.write(directory.child(key(entry.url)));
+        }
+    }
+
+    private void remember(Entry entry) {
+        final Entry previous = memory.remove(entry.url);
+        if (previous != null) {
+            memoryBytes -= previous.body.length;
+        }
+        if (entry.body.length > maxMemoryBytes) {
+            return;
+        }
+        memory.put(entry.url, entry);
+        memoryBytes += entry.body.length;
+
+        final Iterator<Entry> eldest = memory.values().iterator();
+        while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+            memoryBytes -= eldest.next().body.length;
+            eldest.remove();
+        }
+    }
+
+    private long expiresAt(Net.HttpResponse response) {
+        long maxAgeMillis = defaultMaxAgeMillis;
+        final String cacheControl = response.getHeader("Cache-Control");
+        if (cacheControl != null) {
+            for (String directive : cacheControl.split(",")) {
+                final String trimmed = directive.trim().toLowerCase();
+                if (trimmed.equals("no-cache")) {
+                    maxAgeMillis = 0L;
+                } else if (trimmed.startsWith("max-age=")) {
+                    try {
+                        maxAgeMillis = Long.parseLong(trimmed.substring(8)) * 1000L;
+                    } catch (NumberFormatException e) {
+                        // keep the default
+                    }
+                }
+            }
+        }
+        return System.currentTimeMillis() + maxAgeMillis;
+    }
+
+    private static boolean noStore(Net.HttpResponse response) {
+        final String cacheControl = response.getHeader("Cache-Control");
+        return cacheControl != null && cacheControl.toLowerCase().contains("no-store");
+    }
+
+    static Map<String, List<String>> copy(Map<String, List<String>> headers) {
+        final Map<String, List<String>> copy = new HashMap<String, List<String>>();
+        if (headers != null) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (header.getKey() != null) { // the status line comes without name
+                    copy.put(header.getKey(), new ArrayList<String>(header.getValue()));
+                }
+            }
+        }
+        return copy;
+    }
+
+    private static String key(String url) {
+        try {
+            final byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes("UTF-8"));
+            final StringBuilder key = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Entry {
+        final String url;
+        final int status;
+        final Map<String, List<String>> headers;
+        final byte[] body;
+        final String etag;
+        final String lastModified;
+        final long expiresAt;
+
+        Entry(String url, int status, Map<String, List<String>> headers, byte[] body, String etag,
+              String lastModified, long expiresAt) {
+            this.url = url;
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresAt = expiresAt;
+        }
+
+        Entry refresh(long expiresAt) {
+            return new Entry(url, status, headers, body, etag, lastModified, expiresAt);
+        }
+
+        CachedHttpResponse response(boolean stale) {
+            return new CachedHttpResponse(status, headers, body, true, stale);
+        }
+
+        void write(FileHandle file) {
+            final StringBuilder meta = new StringBuilder();
+            meta.append(url).append('\n').append(status).append('\n').append(expiresAt).append('\n');
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                for (String value : header.getValue()) {
+                    meta.append(header.getKey()).append(": ").append(value).append('\n');
+                }
+            }
+            file.sibling(file.name() + ".body").writeBytes(body, false);
+            file.sibling(file.name() + ".meta").writeString(meta.toString(), false, "UTF-8");
+        }
+
+        static Entry read(String url, FileHandle file) {
+            final FileHandle metaFile = file.sibling(file.name() + ".meta");
+            final FileHandle bodyFile = file.sibling(file.name() + ".body");
+            if (!metaFile.exists() || !bodyFile.exists()) {
+                return null;
+            }
+            try {
+                final String[] lines = metaFile.readString("UTF-8").split("\n");
+                if (!url.equals(lines[0])) {
+                    return null; // hash collision
+                }
+                final Map<String, List<String>> headers = new HashMap<String, List<String>>();
+                for (int i = 3; i < lines.length; i++) {
+                    final int colon = lines[i].indexOf(": ");
+                    final String name = lines[i].substring(0, colon);
+                    if (!headers.containsKey(name)) {
+                        headers.put(name, new ArrayList<String>());
+                    }
+                    headers.get(name).add(lines[i].substring(colon + 2));
+                }
+                return new Entry(url, Integer.parseInt(lines[1]), headers, bodyFile.readBytes(),
+                        first(headers, "ETag"), first(headers, "Last-Modified"), Long.parseLong(lines[2]));
+            } catch (RuntimeException e) {
+                return null; // unreadable entries are simply misses
+            }
+        }
+
+        private static String first(Map<String, List<String>> headers, String name) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    return header.getValue().get(0);
+                }
+            }
+            return null;
+        }
+    }
+}
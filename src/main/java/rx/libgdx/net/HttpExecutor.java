@@ -0,0 +1,406 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.net;
+
+import com.badlogic.gdx.Net;
+import rx.GdxObservable;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Func0;
+import rx.functions.Func1;
+import rx.libgdx.instrumentation.FrameTimeHistogram;
+import rx.schedulers.Schedulers;
+import rx.subscriptions.Subscriptions;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Executes http requests via {@link GdxObservable#fromHttpRequest}, with coalescing, limits and retries.
+ * <p>
+ * Identical GET requests (same url and headers) share a single request while it is in flight; once started, it
+ * runs to the end even if all of its subscribers unsubscribe. At most <code>maxPerHost</code> requests run against
+ * a host at once, the rest wait in a queue in subscription order.
+ * Transport failures and responses with status 429 or 5xx are retried with jittered exponential backoff; the
+ * delays run on timers of the given scheduler, so no thread sleeps and a waiting retry doesn't hold its host
+ * slot. If all retries fail with a status, the last response is emitted like any other.
+ * <p>
+ * The bodies are read right away, so the emitted {@link CachedHttpResponse}s can be read on any thread and by
+ * any number of subscribers.
+ */
+public final class HttpExecutor {
+
+    private final int maxPerHost;
+    private final int maxRetries;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final Scheduler scheduler;
+
+    private final Map<String, Observable<Net.HttpResponse>> inFlight =
+            new HashMap<String, Observable<Net.HttpResponse>>();
+    private final Map<String, Host> hosts = new HashMap<String, Host>();
+    private final Random random = new Random();
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+    private final FrameTimeHistogram latency = new FrameTimeHistogram(256, 1000000L, 10000);
+
+    /**
+     * @param maxPerHost The maximum number of concurrent requests per host.
+     * @param maxRetries The maximum number of retries per request.
+     * @param baseDelayMillis The backoff before the first retry, doubled for each further retry.
+     * @param maxDelayMillis The maximum backoff.
+     * @param scheduler The scheduler to run the backoff timers on.
+     */
+    public HttpExecutor(int maxPerHost, int maxRetries, long baseDelayMillis, long maxDelayMillis,
+                        Scheduler scheduler) {
+        if (maxPerHost < 1 || maxRetries < 0 || baseDelayMillis < 1 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException("invalid limits or delays");
+        }
+        this.maxPerHost = maxPerHost;
+        this.maxRetries = maxRetries;
+        this.baseDelayMillis = baseDelayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Four requests per host, up to three retries starting at 250 ms and backing off to at most 8 s on the
+     * computation scheduler.
+     */
+    public HttpExecutor() {
+        this(4, 3, 250L, 8000L, Schedulers.computation());
+    }
+
+    /**
+     * Like {@link GdxObservable#fromHttpRequest}, but coalesced, limited and retried as described above.
+     * Requests with a content stream can't be replayed, so they are never retried.
+     *
+     * @param httpRequest The request to execute on subscription, unless an identical one is in flight
+     * @return Observable emitting the buffered response.
+     */
+    public Observable<Net.HttpResponse> fromHttpRequest(final Net.HttpRequest httpRequest) {
+        if (!Net.HttpMethods.GET.equals(httpRequest.getMethod())) {
+            return execute(httpRequest);
+        }
+        return Observable.defer(new Func0<Observable<Net.HttpResponse>>() {
+
+            @Override
+            public Observable<Net.HttpResponse> call() {
+                final String key = httpRequest.getUrl() + ' ' + httpRequest.getHeaders();
+                synchronized (inFlight) {
+                    final Observable<Net.HttpResponse> shared = inFlight.get(key);
+                    if (shared != null) {
+                        coalesced.incrementAndGet();
+                        return shared;
+                    }
+                    final Forget forget = new Forget(key);
+                    // replays the response, as joiners may subscribe only after it was delivered to the others
+                    forget.shared = execute(httpRequest).doOnTerminate(forget).cache();
+                    inFlight.put(key, forget.shared);
+                    return forget.shared;
+                }
+            }
+        });
+    }
+
+    /**
+     * @return The number of requests waiting for their host's limit.
+     */
+    public int getQueueDepth() {
+        return queued.get();
+    }
+
+    /**
+     * @return The number of requests currently running, retries included.
+     */
+    public int getRunning() {
+        return running.get();
+    }
+
+    /**
+     * @return The number of requests sent, retries included.
+     */
+    public long getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return The number of requests that joined an identical one in flight.
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return The number of retries scheduled.
+     */
+    public long getRetries() {
+        return retries.get();
+    }
+
+    /**
+     * @param percentile From 0 (exclusive) to 100 (inclusive).
+     * @return The latency of the last 256 requests at the percentile, in 1 ms resolution, in nanoseconds.
+     * Queueing and backoff are not included.
+     * @see FrameTimeHistogram#percentile
+     */
+    public long getLatencyPercentile(double percentile) {
+        synchronized (latency) {
+            return latency.percentile(percentile);
+        }
+    }
+
+    private Observable<Net.HttpResponse> execute(final Net.HttpRequest httpRequest) {
+        final Observable<Net.HttpResponse> attempt = limited(host(httpRequest.getUrl()),
+                GdxObservable.fromHttpRequest(httpRequest).flatMap(
+                        new Func1<Net.HttpResponse, Observable<Net.HttpResponse>>() {
+
+                    @Override
+                    public Observable<Net.HttpResponse> call(Net.HttpResponse response) {
+                        // the backend closes the connection when we return, so we read right away
+                        final int status = response.getStatus().getStatusCode();
+                        final CachedHttpResponse buffered = new CachedHttpResponse(status,
+                                HttpCache.copy(response.getHeaders()), response.getResult(), false, false);
+                        if (status == 429 || status >= 500) {
+                            return Observable.error(new RetryableStatus(httpRequest.getUrl(), buffered));
+                        }
+                        return Observable.<Net.HttpResponse>just(buffered);
+                    }
+                }));
+
+        final int retryLimit = httpRequest.getContentStream() == null ? maxRetries : 0;
+        return attempt.retryWhen(new Func1<Observable<? extends Throwable>, Observable<?>>() {
+
+            @Override
+            public Observable<?> call(Observable<? extends Throwable> errors) {
+                return errors.flatMap(new Func1<Throwable, Observable<?>>() {
+
+                    private int attempts;
+
+                    @Override
+                    public Observable<?> call(Throwable e) {
+                        if (++attempts > retryLimit || !(e instanceof IOException)) {
+                            return Observable.error(e);
+                        }
+                        retries.incrementAndGet();
+                        return Observable.timer(backoff(attempts), TimeUnit.MILLISECONDS, scheduler);
+                    }
+                });
+            }
+        }).onErrorResumeNext(new Func1<Throwable, Observable<? extends Net.HttpResponse>>() {
+
+            @Override
+            public Observable<? extends Net.HttpResponse> call(Throwable e) {
+                if (e instanceof RetryableStatus) {
+                    return Observable.just(((RetryableStatus) e).response);
+                }
+                return Observable.error(e);
+            }
+        });
+    }
+
+    /**
+     * Half the exponential delay, plus up to the other half at random, so that clients failing together
+     * don't retry together.
+     */
+    private long backoff(int attempt) {
+        final long delay = Math.min(maxDelayMillis, baseDelayMillis << Math.min(attempt - 1, 30));
+        final double jitter;
+        synchronized (random) {
+            jitter = random.nextDouble();
+        }
+        return delay / 2L + (long) (jitter * (delay - delay / 2L));
+    }
+
+    private <T> Observable<T> limited(final String hostKey, final Observable<T> source) {
+        return Observable.create(new Observable.OnSubscribe<T>() {
+
+            @Override
+            public void call(final Subscriber<? super T> subscriber) {
+                final Host host;
+                synchronized (hosts) {
+                    Host existing = hosts.get(hostKey);
+                    if (existing == null) {
+                        existing = new Host();
+                        hosts.put(hostKey, existing);
+                    }
+                    host = existing;
+                }
+
+                final Runnable start = new Runnable() {
+
+                    @Override
+                    public void run() {
+                        if (subscriber.isUnsubscribed()) {
+                            host.release();
+                            return;
+                        }
+                        requests.incrementAndGet();
+                        running.incrementAndGet();
+                        final Release release = new Release(host, System.nanoTime());
+                        subscriber.add(Subscriptions.create(release));
+                        source.doOnTerminate(release).unsafeSubscribe(subscriber);
+                    }
+                };
+                if (host.submit(start)) {
+                    subscriber.add(Subscriptions.create(new Action0() {
+
+                        @Override
+                        public void call() {
+                            host.withdraw(start);
+                        }
+                    }));
+                }
+            }
+        });
+    }
+
+    private static String host(String url) {
+        try {
+            final URL parsed = new URL(url);
+            return parsed.getHost() + ':' + parsed.getPort();
+        } catch (MalformedURLException e) {
+            return url; // fails when sent anyway
+        }
+    }
+
+    /**
+     * The running count and queue of a single host.
+     */
+    private final class Host {
+
+        private final ArrayDeque<Runnable> waiting = new ArrayDeque<Runnable>();
+        private int active;
+
+        /**
+         * Starts right away if below the limit.
+         *
+         * @return <code>true</code> if queued.
+         */
+        boolean submit(Runnable start) {
+            synchronized (this) {
+                if (active >= maxPerHost) {
+                    waiting.add(start);
+                    queued.incrementAndGet();
+                    return true;
+                }
+                active++;
+            }
+            start.run();
+            return false;
+        }
+
+        void withdraw(Runnable start) {
+            synchronized (this) {
+                if (waiting.remove(start)) {
+                    queued.decrementAndGet();
+                }
+            }
+        }
+
+        void release() {
+            final Runnable next;
+            synchronized (this) {
+                next = waiting.poll();
+                if (next == null) {
+                    active--;
+                    return;
+                }
+                queued.decrementAndGet();
+            }
+            next.run(); // takes over the slot
+        }
+    }
+
+    /**
+     * Frees the slot of a request exactly once, whether it terminated or was unsubscribed.
+     */
+    private final class Release extends AtomicBoolean implements Action0 {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Host host;
+        private final long startNanos;
+
+        Release(Host host, long startNanos) {
+            this.host = host;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public void call() {
+            if (compareAndSet(false, true)) {
+                synchronized (latency) {
+                    latency.record(System.nanoTime() - startNanos);
+                }
+                running.decrementAndGet();
+                host.release();
+            }
+        }
+    }
+
+    /**
+     * Removes a shared request from the in-flight map once it is done, unless it has been replaced already.
+     */
+    private final class Forget implements Action0 {
+
+        private final String key;
+        private Observable<Net.HttpResponse> shared;
+
+        Forget(String key) {
+            this.key = key;
+        }
+
+        @Override
+        public void call() {
+            synchronized (inFlight) {
+                if (inFlight.get(key) == shared) {
+                    inFlight.remove(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * A response worth retrying, carried through the retries as an error.
+     */
+    private static final class RetryableStatus extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final CachedHttpResponse response;
+
+        RetryableStatus(String url, CachedHttpResponse response) {
+            super("HTTP status " + response.getStatus().getStatusCode() + " for " + url);
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import rx.Observable;
+import rx.Subscriber;
+import rx.libgdx.events.box2d.StepEndEvent;
+import rx.libgdx.events.box2d.StepEvent;
+
+import java.util.Arrays;
+
+import static rx.Observable.create;
+
+/**
+ * Detects which of the tracked bodies moved during a step.
+ * <p>
+ * Only awake bodies are visited every step. A body counts as changed once its position or angle moved further
+ * than the thresholds from the transform it was last reported with, so slow drift is still reported eventually.
+ * When a body falls asleep, its final transform is reported if it differs from the last reported one at all, and
+ * the body moves to the sleepers. Sleepers are checked for having been woken up round robin, each one every
+ * <code>sleepCheckInterval</code> steps, so sleeping bodies cost a fraction of a visit per step. When the game
+ * knows it woke a body up (by applying an impulse, or from a contact), {@link #wake} makes it visited right away.
+ * <p>
+ * Everything is kept in primitive arrays that only grow when more bodies are tracked, so collecting changes does
+ * not allocate.
+ */
+public final class BodyChangeTracker {
+
+    private static final int DEFAULT_SLEEP_CHECK_INTERVAL = 8;
+
+    private final float positionThresholdSquared;
+    private final float angleThreshold;
+    private final int sleepCheckInterval;
+    private final TransformChanges changes;
+
+    private Body[] bodies;
+    private float[] x;
+    private float[] y;
+    private float[] angle;
+    private int[] free;
+    private int freeCount;
+    private int size;
+
+    // the tracked ids: the awake ones first, then the sleepers
+    private int[] order;
+    private int[] slot; // of each id in order
+    private int awakeCount;
+    private int trackedCount;
+    private int sleepCursor;
+
+    /**
+     * @param capacity The number of bodies to reserve space for.
+     * @param positionThreshold The distance (in world units) a body has to move to be reported.
+     * @param angleThreshold The angle (in radians) a body has to rotate to be reported.
+     */
+    public BodyChangeTracker(int capacity, float positionThreshold, float angleThreshold) {
+        this(capacity, positionThreshold, angleThreshold, DEFAULT_SLEEP_CHECK_INTERVAL);
+    }
+
+    /**
+     * @param capacity The number of bodies to reserve space for.
+     * @param positionThreshold The distance (in world units) a body has to move to be reported.
+     * @param angleThreshold The angle (in radians) a body has to rotate to be reported.
+     * @param sleepCheckInterval Every how many steps each sleeping body is checked for having been woken up.
+     */
+    public BodyChangeTracker(int capacity, float positionThreshold, float angleThreshold, int sleepCheckInterval) {
+        if (positionThreshold < 0f || angleThreshold < 0f) {
+            throw new IllegalArgumentException("thresholds may not be negative: " + positionThreshold + ", "
+                    + angleThreshold);
+        }
+        if (sleepCheckInterval < 1) {
+            throw new IllegalArgumentException("sleep check interval must be at least 1: " + sleepCheckInterval);
+        }
+        this.positionThresholdSquared = positionThreshold * positionThreshold;
+        this.angleThreshold = angleThreshold;
+        this.sleepCheckInterval = sleepCheckInterval;
+        changes = new TransformChanges(capacity);
+        bodies = new Body[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        angle = new float[capacity];
+        free = new int[capacity];
+        order = new int[capacity];
+        slot = new int[capacity];
+    }
+
+    /**
+     * Starts tracking a body. Its current transform is reported with the next changes.
+     *
+     * @param body The body to track.
+     * @return The id the body's changes are reported with.
+     */
+    public int track(Body body) {
+        final int id;
+        if (freeCount > 0) {
+            id = free[--freeCount];
+        } else {
+            if (size == bodies.length) {
+                grow();
+            }
+            id = size++;
+        }
+        bodies[id] = body;
+        x[id] = Float.NaN; // forces a report
+        order[trackedCount] = id;
+        slot[id] = trackedCount++;
+        wake(id);
+        return id;
+    }
+
+    /**
+     * Stops tracking a body, e.g. before destroying it. Its id may be reused afterwards.
+     *
+     * @param id The id returned by {@link #track}.
+     */
+    public void untrack(int id) {
+        checkTracked(id);
+        if (slot[id] < awakeCount) {
+            swap(slot[id], --awakeCount);
+        }
+        swap(slot[id], --trackedCount);
+        bodies[id] = null;
+        free[freeCount++] = id;
+    }
+
+    /**
+     * Makes the tracker visit a body from the next step on, instead of waiting for the body's next sleep check.
+     * Does nothing if the body is visited already.
+     *
+     * @param id The id returned by {@link #track}.
+     */
+    public void wake(int id) {
+        checkTracked(id);
+        if (slot[id] >= awakeCount) {
+            swap(slot[id], awakeCount++);
+        }
+    }
+
+    /**
+     * @return The number of tracked bodies visited every step.
+     */
+    public int getAwakeCount() {
+        return awakeCount;
+    }
+
+    /**
+     * Collects the changes since the last call. Call this from the stepping thread, between steps.
+     *
+     * @param step The step to record the changes for.
+     * @return The reused changes.
+     */
+    public TransformChanges collect(long step) {
+        changes.clear(step);
+
+        int index = 0;
+        while (index < awakeCount) {
+            final int id = order[index];
+            final Body body = bodies[id];
+            if (body.isAwake()) {
+                report(id, body, false);
+                index++;
+            } else {
+                report(id, body, true); // fell asleep: settle on the exact final transform
+                swap(index, --awakeCount); // now a sleeper, the next one to visit took its place
+            }
+        }
+
+        final int sleeping = trackedCount - awakeCount;
+        int checks = (sleeping + sleepCheckInterval - 1) / sleepCheckInterval;
+        while (checks-- > 0 && awakeCount < trackedCount) {
+            if (sleepCursor >= trackedCount - awakeCount) {
+                sleepCursor = 0;
+            }
+            final int id = order[awakeCount + sleepCursor];
+            final Body body = bodies[id];
+            if (body.isAwake()) {
+                swap(awakeCount + sleepCursor, awakeCount++); // shifts the sleepers, the cursor stays on the next one
+                report(id, body, false);
+            } else {
+                sleepCursor++;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Collects the changes after each fixed step.
+     *
+     * @param steps The step events of a {@link FixedTimeStepper}.
+     * @return Observable emitting the (reused) changes after each step, also if nothing changed.
+     */
+    public Observable<TransformChanges> changes(final Observable<? extends StepEvent> steps) {
+        return create(new Observable.OnSubscribe<TransformChanges>() {
+
+            @Override
+            public void call(final Subscriber<? super TransformChanges> subscriber) {
+                subscriber.add(steps.subscribe(new Subscriber<StepEvent>() {
+
+                    @Override
+                    public void onNext(StepEvent event) {
+                        if (event instanceof StepEndEvent) {
+                            subscriber.onNext(collect(((StepEndEvent) event).getStep()));
+                        }
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        subscriber.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        subscriber.onError(e);
+                    }
+                }));
+            }
+        });
+    }
+
+    private void report(int id, Body body, boolean settle) {
+        final Vector2 position = body.getPosition(); // reused by Box2D, no allocation
+        final float bodyAngle = body.getAngle();
+        final float dx = position.x - x[id];
+        final float dy = position.y - y[id];
+        final float da = Math.abs(bodyAngle - angle[id]);
+        final boolean moved = settle
+                ? dx != 0f || dy != 0f || da != 0f
+                : dx * dx + dy * dy > positionThresholdSquared || da > angleThreshold;
+        if (moved || Float.isNaN(dx)) {
+            x[id] = position.x;
+            y[id] = position.y;
+            angle[id] = bodyAngle;
+            changes.add(id, position.x, position.y, bodyAngle);
+        }
+    }
+
+    private void swap(int i, int j) {
+        final int a = order[i];
+        final int b = order[j];
+        order[i] = b;
+        slot[b] = i;
+        order[j] = a;
+        slot[a] = j;
+    }
+
+    private void checkTracked(int id) {
+        if (id < 0 || id >= size || bodies[id] == null) {
+            throw new IllegalArgumentException("not tracked: " + id);
+        }
+    }
+
+    private void grow() {
+        final int capacity = Math.max(8, bodies.length * 2);
+        bodies = Arrays.copyOf(bodies, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        angle = Arrays.copyOf(angle, capacity);
+        free = Arrays.copyOf(free, capacity);
+        order = Arrays.copyOf(order, capacity);
+        slot = Arrays.copyOf(slot, capacity);
+    }
+}
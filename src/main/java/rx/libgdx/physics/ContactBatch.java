@@ -0,0 +1,106 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import com.badlogic.gdx.physics.box2d.Fixture;
+
+import java.util.Arrays;
+
+/**
+ * The begin and end contacts of one world during one step, recorded by a {@link ParallelWorldStepper}.
+ * <p>
+ * Box2D reuses its <code>Contact</code> objects, so a batch keeps the fixtures of each contact instead.
+ */
+public final class ContactBatch {
+
+    public static final int BEGIN = 0;
+    public static final int END = 1;
+
+    private final int world;
+    private long step;
+    private int size;
+    private int[] types = new int[8];
+    private Fixture[] fixturesA = new Fixture[8];
+    private Fixture[] fixturesB = new Fixture[8];
+
+    ContactBatch(int world) {
+        this.world = world;
+    }
+
+    void clear(long step) {
+        this.step = step;
+        Arrays.fill(fixturesA, 0, size, null);
+        Arrays.fill(fixturesB, 0, size, null);
+        size = 0;
+    }
+
+    void add(int type, Fixture fixtureA, Fixture fixtureB) {
+        if (size == types.length) {
+            types = Arrays.copyOf(types, size * 2);
+            fixturesA = Arrays.copyOf(fixturesA, size * 2);
+            fixturesB = Arrays.copyOf(fixturesB, size * 2);
+        }
+        types[size] = type;
+        fixturesA[size] = fixtureA;
+        fixturesB[size] = fixtureB;
+        size++;
+    }
+
+    ContactBatch copy() {
+        final ContactBatch copy = new ContactBatch(world);
+        copy.step = step;
+        copy.size = size;
+        copy.types = Arrays.copyOf(types, size);
+        copy.fixturesA = Arrays.copyOf(fixturesA, size);
+        copy.fixturesB = Arrays.copyOf(fixturesB, size);
+        return copy;
+    }
+
+    /**
+     * @return The index of the world in its {@link ParallelWorldStepper}.
+     */
+    public int getWorld() {
+        return world;
+    }
+
+    public long getStep() {
+        return step;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index From 0 (inclusive) to {@link #size()} (exclusive).
+     * @return Either {@link #BEGIN} or {@link #END}.
+     */
+    public int getType(int index) {
+        return types[index];
+    }
+
+    public Fixture getFixtureA(int index) {
+        return fixturesA[index];
+    }
+
+    public Fixture getFixtureB(int index) {
+        return fixturesB[index];
+    }
+
+    @Override public String toString() {
+        return String.format("ContactBatch(%d, %d, %d)", world, step, size);
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.physics.box2d.World;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.functions.Func1;
+import rx.libgdx.events.box2d.InterpolationEvent;
+import rx.libgdx.events.box2d.StepEndEvent;
+import rx.libgdx.events.box2d.StepEvent;
+import rx.libgdx.events.box2d.StepStartEvent;
+import rx.libgdx.events.lifecycle.RenderEvent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static rx.Observable.create;
+
+/**
+ * Steps one or more Box2D worlds at a fixed rate, driven by variable frame deltas.
+ * <p>
+ * Each fixed step is wrapped in a {@link StepStartEvent} and a {@link StepEndEvent}. Contact events from
+ * {@link rx.GdxObservable#fromBox2DContact} are emitted synchronously from within <code>World.step</code>, so
+ * when the contact stream is observed on the stepping thread, all contacts between a start and an end event
+ * belong to that step. After the steps of a frame, an {@link InterpolationEvent} carries the alpha to blend
+ * the previous and the current body transforms with.
+ * <p>
+ * At most <code>maxSubSteps</code> steps are taken per frame. Time that cannot be caught up with is dropped,
+ * so a slow frame does not cause even slower frames afterwards.
+ * <p>
+ * A stepper holds the simulation state of its worlds, so only subscribe to its steps once (and publish that).
+ */
+public final class FixedTimeStepper {
+
+    private final float timeStep;
+    private final int maxSubSteps;
+    private final int velocityIterations;
+    private final int positionIterations;
+    private final World[] worlds;
+
+    private float accumulator;
+    private long step;
+
+    public FixedTimeStepper(float timeStep, int maxSubSteps, int velocityIterations, int positionIterations,
+                            World... worlds) {
+        if (timeStep <= 0f) {
+            throw new IllegalArgumentException("time step must be positive: " + timeStep);
+        }
+        if (maxSubSteps < 1) {
+            throw new IllegalArgumentException("max sub steps must be at least 1: " + maxSubSteps);
+        }
+        this.timeStep = timeStep;
+        this.maxSubSteps = maxSubSteps;
+        this.velocityIterations = velocityIterations;
+        this.positionIterations = positionIterations;
+        this.worlds = worlds.clone();
+    }
+
+    public float getTimeStep() {
+        return timeStep;
+    }
+
+    /**
+     * @return The number of fixed steps taken so far.
+     */
+    public long getStepCount() {
+        return step;
+    }
+
+    /**
+     * Steps the worlds synchronously on the thread emitting the frame deltas (usually the render thread).
+     *
+     * @param deltas Frame deltas in seconds, see {@link #renderDeltas}.
+     * @return Observable emitting the step events.
+     */
+    public Observable<StepEvent> steps(final Observable<Float> deltas) {
+        return create(new Observable.OnSubscribe<StepEvent>() {
+
+            @Override
+            public void call(final Subscriber<? super StepEvent> subscriber) {
+                subscriber.add(deltas.subscribe(new Subscriber<Float>() {
+
+                    @Override
+                    public void onNext(Float delta) {
+                        advance(delta, subscriber, null);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        subscriber.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        subscriber.onError(e);
+                    }
+                }));
+            }
+        });
+    }
+
+    /**
+     * Steps the worlds on a dedicated physics scheduler. Deltas arriving while the physics thread is still busy
+     * are accumulated and caught up with in one go. After each frame, the transforms of the bodies tracked by
+     * <code>transforms</code> are published to the render thread, which reads them after calling
+     * {@link TransformBuffer#swap}.
+     * <p>
+     * The step events are emitted on the physics scheduler.
+     *
+     * @param deltas Frame deltas in seconds, see {@link #renderDeltas}.
+     * @param physics The scheduler to step the worlds on. Should be single threaded, as Box2D is not thread safe.
+     * @param transforms Receives the body transforms after each frame.
+     * @return Observable emitting the step events.
+     */
+    public Observable<StepEvent> steps(final Observable<Float> deltas, final Scheduler physics,
+                                       final TransformBuffer transforms) {
+        return create(new Observable.OnSubscribe<StepEvent>() {
+
+            @Override
+            public void call(final Subscriber<? super StepEvent> subscriber) {
+                final Scheduler.Worker worker = physics.createWorker();
+                final AtomicLong pendingNanos = new AtomicLong();
+                final AtomicInteger wip = new AtomicInteger();
+                final Action0 drain = new Action0() {
+
+                    @Override
+                    public void call() {
+                        int missed = wip.get(); // all of their deltas are in pendingNanos already
+                        do {
+                            final float delta = pendingNanos.getAndSet(0L) / 1e9f;
+                            if (!subscriber.isUnsubscribed()) {
+                                advance(delta, subscriber, transforms);
+                            }
+                            missed = wip.addAndGet(-missed);
+                        } while (missed != 0);
+                    }
+                };
+
+                subscriber.add(worker);
+                subscriber.add(deltas.subscribe(new Subscriber<Float>() {
+
+                    @Override
+                    public void onNext(Float delta) {
+                        pendingNanos.addAndGet((long) (delta * 1e9));
+                        if (wip.getAndIncrement() == 0) {
+                            worker.schedule(drain);
+                        }
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        worker.schedule(new Action0() {
+
+                            @Override
+                            public void call() {
+                                subscriber.onCompleted();
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onError(final Throwable e) {
+                        worker.schedule(new Action0() {
+
+                            @Override
+                            public void call() {
+                                subscriber.onError(e);
+                            }
+                        });
+                    }
+                }));
+            }
+        });
+    }
+
+    /**
+     * Maps render events to their frame deltas, falling back to <code>Gdx.graphics</code> for render events
+     * without frame information.
+     *
+     * @param source The observable of render events to use as source.
+     * @return An observable emitting frame deltas in seconds.
+     */
+    public static Observable<Float> renderDeltas(Observable<? extends RenderEvent> source) {
+        return source.map(new Func1<RenderEvent, Float>() {
+
+            @Override
+            public Float call(RenderEvent event) {
+                return event.getFrame() > 0L ? event.getDeltaTime() : Gdx.graphics.getDeltaTime();
+            }
+        });
+    }
+
+    void advance(float delta, Subscriber<? super StepEvent> subscriber, TransformBuffer transforms) {
+        accumulator += Math.max(delta, 0f);
+
+        int steps = 0;
+        while (accumulator >= timeStep && steps < maxSubSteps) {
+            step++;
+            subscriber.onNext(new StepStartEvent(step, timeStep));
+            for (World world : worlds) {
+                world.step(timeStep, velocityIterations, positionIterations);
+            }
+            if (transforms != null) {
+                transforms.step();
+            }
+            subscriber.onNext(new StepEndEvent(step, timeStep));
+            accumulator -= timeStep;
+            steps++;
+        }
+
+        if (accumulator >= timeStep) {
+            accumulator %= timeStep; // drop what we can't catch up with
+        }
+
+        final float alpha = accumulator / timeStep;
+        if (transforms != null) {
+            transforms.capture(alpha);
+        }
+        subscriber.onNext(new InterpolationEvent(alpha, steps));
+    }
+}
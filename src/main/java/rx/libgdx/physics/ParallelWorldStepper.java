@@ -0,0 +1,215 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.ContactImpulse;
+import com.badlogic.gdx.physics.box2d.ContactListener;
+import com.badlogic.gdx.physics.box2d.Manifold;
+import com.badlogic.gdx.physics.box2d.World;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static rx.Observable.create;
+
+/**
+ * Steps independent Box2D worlds in parallel on a fork-join pool.
+ * <p>
+ * Each call to {@link #step} steps every world once and returns when all of them are done, so steps never
+ * overlap. The begin and end contacts of each world are recorded while stepping and emitted as one
+ * {@link ContactBatch} per world and step, ordered by world, on the consuming scheduler. This replaces
+ * {@link rx.GdxObservable#fromBox2DContact} for worlds stepped here, as its events would otherwise arrive on
+ * arbitrary pool threads.
+ * <p>
+ * Worlds must not share bodies, and must not be touched by other threads while stepping.
+ */
+public final class ParallelWorldStepper {
+
+    private final ForkJoinPool pool;
+    private final float timeStep;
+    private final int velocityIterations;
+    private final int positionIterations;
+    private final List<WorldTask> tasks = new ArrayList<WorldTask>();
+
+    private final RecursiveAction all = new RecursiveAction() {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected void compute() {
+            invokeAll(tasks);
+        }
+    };
+
+    private long step;
+
+    public ParallelWorldStepper(ForkJoinPool pool, float timeStep, int velocityIterations, int positionIterations) {
+        if (timeStep <= 0f) {
+            throw new IllegalArgumentException("time step must be positive: " + timeStep);
+        }
+        this.pool = pool;
+        this.timeStep = timeStep;
+        this.velocityIterations = velocityIterations;
+        this.positionIterations = positionIterations;
+    }
+
+    /**
+     * Adds a world, replacing its contact listener. Call this between steps only.
+     *
+     * @param world The world to step.
+     * @return The index of the world, as found in its contact batches.
+     */
+    public int add(World world) {
+        final WorldTask task = new WorldTask(tasks.size(), world);
+        world.setContactListener(task);
+        tasks.add(task);
+        return task.batch.getWorld();
+    }
+
+    public int size() {
+        return tasks.size();
+    }
+
+    public long getStepCount() {
+        return step;
+    }
+
+    /**
+     * Steps all worlds once, in parallel, and waits for them to finish.
+     *
+     * @return The non-empty contact batches of this step, ordered by world.
+     */
+    public List<ContactBatch> step() {
+        step++;
+        for (WorldTask task : tasks) {
+            task.reinitialize();
+            task.batch.clear(step);
+        }
+        all.reinitialize();
+        pool.invoke(all);
+
+        final List<ContactBatch> batches = new ArrayList<ContactBatch>();
+        for (WorldTask task : tasks) {
+            if (task.batch.size() > 0) {
+                batches.add(task.batch.copy());
+            }
+        }
+        return batches;
+    }
+
+    /**
+     * Steps all worlds once per tick, on the thread emitting the ticks.
+     *
+     * @param ticks Anything that should trigger a step, e.g. the step start events of a {@link FixedTimeStepper}
+     *              without worlds, or a timer.
+     * @param consumer The scheduler to emit the contact batches on.
+     * @return Observable emitting the non-empty contact batches, ordered by step and world.
+     */
+    public Observable<ContactBatch> steps(final Observable<?> ticks, final Scheduler consumer) {
+        return create(new Observable.OnSubscribe<ContactBatch>() {
+
+            @Override
+            public void call(final Subscriber<? super ContactBatch> subscriber) {
+                final Scheduler.Worker worker = consumer.createWorker();
+                subscriber.add(worker);
+                subscriber.add(ticks.subscribe(new Subscriber<Object>() {
+
+                    @Override
+                    public void onNext(Object tick) {
+                        final List<ContactBatch> batches = step();
+                        if (!batches.isEmpty()) {
+                            worker.schedule(new Action0() {
+
+                                @Override
+                                public void call() {
+                                    for (ContactBatch batch : batches) {
+                                        if (subscriber.isUnsubscribed()) {
+                                            return;
+                                        }
+                                        subscriber.onNext(batch);
+                                    }
+                                }
+                            });
+                        }
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        worker.schedule(new Action0() {
+
+                            @Override
+                            public void call() {
+                                subscriber.onCompleted();
+                            }
+                        });
+                    }
+
+                    @Override
+                    public void onError(final Throwable e) {
+                        worker.schedule(new Action0() {
+
+                            @Override
+                            public void call() {
+                                subscriber.onError(e);
+                            }
+                        });
+                    }
+                }));
+            }
+        });
+    }
+
+    private final class WorldTask extends RecursiveAction implements ContactListener {
+        private static final long serialVersionUID = 1L;
+
+        private final World world;
+        private final ContactBatch batch;
+
+        WorldTask(int index, World world) {
+            this.world = world;
+            this.batch = new ContactBatch(index);
+        }
+
+        @Override
+        protected void compute() {
+            world.step(timeStep, velocityIterations, positionIterations);
+        }
+
+        @Override
+        public void beginContact(Contact contact) {
+            batch.add(ContactBatch.BEGIN, contact.getFixtureA(), contact.getFixtureB());
+        }
+
+        @Override
+        public void endContact(Contact contact) {
+            batch.add(ContactBatch.END, contact.getFixtureA(), contact.getFixtureB());
+        }
+
+        @Override
+        public void preSolve(Contact contact, Manifold oldManifold) {
+        }
+
+        @Override
+        public void postSolve(Contact contact, ContactImpulse impulse) {
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Contact;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntIntMap;
+import com.badlogic.gdx.utils.ObjectIntMap;
+import rx.Observable;
+import rx.Subscriber;
+import rx.libgdx.events.box2d.BeginContactEvent;
+import rx.libgdx.events.box2d.ContactEvent;
+import rx.libgdx.events.box2d.EndContactEvent;
+import rx.libgdx.events.box2d.StepEndEvent;
+import rx.libgdx.events.box2d.StepEvent;
+
+import static rx.Observable.create;
+
+/**
+ * Tracks which bodies are inside which sensor fixtures ("zones").
+ * <p>
+ * Each begin or end contact touching a zone updates that zone's occupants in constant time, counting the
+ * overlapping fixtures per body, so a body enters a zone with its first fixture and exits with its last one.
+ * Entries and exits are collected per step and emitted as one {@link ZoneChanges} at the end of the step.
+ * <p>
+ * Bodies are identified by int ids that are assigned when a body first touches a zone, and released again
+ * after the step in which it left its last zone. All methods must be called from the stepping thread.
+ */
+public final class SensorZones {
+
+    private static final int NONE = -1;
+
+    private final ObjectIntMap<Fixture> zoneIds = new ObjectIntMap<Fixture>();
+    private final Array<IntIntMap> occupants = new Array<IntIntMap>();
+
+    private final ObjectIntMap<Body> bodyIds = new ObjectIntMap<Body>();
+    private final Array<Body> bodies = new Array<Body>();
+    private final IntArray freeBodyIds = new IntArray();
+    private final IntIntMap zoneCounts = new IntIntMap(); // body id -> number of zones it is in
+    private final IntArray released = new IntArray();
+
+    private ZoneChanges changes = new ZoneChanges();
+    private ZoneChanges flushed = new ZoneChanges();
+
+    /**
+     * Registers a sensor fixture as a zone. Register zones before they touch anything.
+     *
+     * @param sensor The sensor fixture.
+     * @return The zone id.
+     */
+    public int addZone(Fixture sensor) {
+        if (!sensor.isSensor()) {
+            throw new IllegalArgumentException("not a sensor: " + sensor);
+        }
+        if (zoneIds.containsKey(sensor)) {
+            throw new IllegalArgumentException("already a zone: " + sensor);
+        }
+        final int zone = occupants.size;
+        zoneIds.put(sensor, zone);
+        occupants.add(new IntIntMap());
+        return zone;
+    }
+
+    /**
+     * @param zone The zone id.
+     * @return The number of bodies inside the zone.
+     */
+    public int getOccupantCount(int zone) {
+        return occupants.get(zone).size;
+    }
+
+    /**
+     * @param zone The zone id.
+     * @param body The body to check.
+     * @return <code>true</code> if the body is inside the zone.
+     */
+    public boolean contains(int zone, Body body) {
+        final int id = bodyIds.get(body, NONE);
+        return id != NONE && occupants.get(zone).containsKey(id);
+    }
+
+    /**
+     * Adds the ids of the bodies inside a zone to <code>target</code>.
+     *
+     * @param zone The zone id.
+     * @param target The array to add the body ids to.
+     * @return The target array.
+     */
+    public IntArray getOccupants(int zone, IntArray target) {
+        final IntIntMap.Keys keys = occupants.get(zone).keys();
+        while (keys.hasNext) {
+            target.add(keys.next());
+        }
+        return target;
+    }
+
+    /**
+     * @param id A body id from a {@link ZoneChanges} or from {@link #getOccupants}.
+     * @return The body with that id, or <code>null</code> if the id has been released.
+     */
+    public Body getBody(int id) {
+        return id < bodies.size ? bodies.get(id) : null;
+    }
+
+    /**
+     * Updates the zones from a contact event. Events not touching any zone are ignored.
+     *
+     * @param event A contact event, see {@link rx.GdxObservable#fromBox2DContact}.
+     */
+    public void onContact(ContactEvent event) {
+        final int delta;
+        if (event instanceof BeginContactEvent) {
+            delta = 1;
+        } else if (event instanceof EndContactEvent) {
+            delta = -1;
+        } else {
+            return;
+        }
+
+        final Contact contact = event.getContact();
+        final Fixture fixtureA = contact.getFixtureA();
+        final Fixture fixtureB = contact.getFixtureB();
+        final int zoneA = zoneIds.get(fixtureA, NONE);
+        final int zoneB = zoneIds.get(fixtureB, NONE);
+        if (zoneA != NONE) {
+            update(zoneA, fixtureB.getBody(), delta);
+        }
+        if (zoneB != NONE) {
+            update(zoneB, fixtureA.getBody(), delta);
+        }
+    }
+
+    /**
+     * Hands out the changes of the current step and starts collecting the next one.
+     *
+     * @param step The step that just ended.
+     * @return The reused changes.
+     */
+    public ZoneChanges flush(long step) {
+        // releasing ids from the previous flush only now, so they stay valid while those changes are read
+        for (int i = 0; i < released.size; i++) {
+            final int id = released.get(i);
+            if (!zoneCounts.containsKey(id) && bodies.get(id) != null) {
+                bodyIds.remove(bodies.get(id), NONE);
+                bodies.set(id, null);
+                freeBodyIds.add(id);
+            }
+        }
+        released.clear();
+
+        for (int i = 0; i < changes.size; i++) {
+            if (changes.types[i] == ZoneChanges.EXIT) {
+                released.add(changes.bodies[i]);
+            }
+        }
+
+        final ZoneChanges result = changes;
+        result.step = step;
+        changes = flushed;
+        changes.clear(step + 1);
+        flushed = result;
+        return result;
+    }
+
+    /**
+     * Tracks the zones using the contacts and steps of one world.
+     *
+     * @param contacts The world's contact events, observed on the stepping thread.
+     * @param steps The world's step events from a {@link FixedTimeStepper}.
+     * @return Observable emitting the (reused) changes at the end of each step that had any.
+     */
+    public Observable<ZoneChanges> changes(final Observable<? extends ContactEvent> contacts,
+                                           final Observable<? extends StepEvent> steps) {
+        return create(new Observable.OnSubscribe<ZoneChanges>() {
+
+            @Override
+            public void call(final Subscriber<? super ZoneChanges> subscriber) {
+                subscriber.add(contacts.subscribe(new Subscriber<ContactEvent>() {
+
+                    @Override
+                    public void onNext(ContactEvent event) {
+                        onContact(event);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        subscriber.onError(e);
+                    }
+                }));
+                subscriber.add(steps.subscribe(new Subscriber<StepEvent>() {
+
+                    @Override
+                    public void onNext(StepEvent event) {
+                        if (event instanceof StepEndEvent) {
+                            final ZoneChanges changes = flush(((StepEndEvent) event).getStep());
+                            if (changes.size() > 0) {
+                                subscriber.onNext(changes);
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        subscriber.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        subscriber.onError(e);
+                    }
+                }));
+            }
+        });
+    }
+
+    private void update(int zone, Body body, int delta) {
+        final int id = delta > 0 ? bodyId(body) : bodyIds.get(body, NONE);
+        if (id == NONE) {
+            return; // ended a contact that began before the zone was registered
+        }
+
+        final IntIntMap fixtures = occupants.get(zone);
+        final int count = fixtures.getAndIncrement(id, 0, delta) + delta;
+        if (count == 1 && delta > 0) {
+            zoneCounts.getAndIncrement(id, 0, 1);
+            changes.add(ZoneChanges.ENTER, zone, id);
+        } else if (count == 0) {
+            fixtures.remove(id, 0);
+            if (zoneCounts.getAndIncrement(id, 0, -1) == 1) {
+                zoneCounts.remove(id, 0);
+            }
+            changes.add(ZoneChanges.EXIT, zone, id);
+        } else if (count < 0) {
+            fixtures.remove(id, 0);
+        }
+    }
+
+    private int bodyId(Body body) {
+        int id = bodyIds.get(body, NONE);
+        if (id == NONE) {
+            if (freeBodyIds.size > 0) {
+                id = freeBodyIds.pop();
+                bodies.set(id, body);
+            } else {
+                id = bodies.size;
+                bodies.add(body);
+            }
+            bodyIds.put(body, id);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+
+/**
+ * Double buffered body transforms, handed from the physics thread to the render thread.
+ * <p>
+ * The physics side writes into the back buffer via {@link #capture}, the render side calls {@link #swap} once
+ * per frame and then reads the front buffer without further synchronization. Both sides only hold the lock
+ * for a copy (physics) or a reference swap (render), so neither waits for the other's frame.
+ */
+public final class TransformBuffer {
+
+    private static final int STRIDE = 3; // x, y, angle
+
+    private final Body[] bodies;
+    private int size;
+
+    // physics side only
+    private float[] previous;
+    private float[] current;
+
+    // guarded by this
+    private float[] backPrevious;
+    private float[] backCurrent;
+    private float backAlpha;
+    private boolean pending;
+
+    // render side only
+    private float[] frontPrevious;
+    private float[] frontCurrent;
+    private float frontAlpha;
+
+    public TransformBuffer(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity may not be negative: " + capacity);
+        }
+        bodies = new Body[capacity];
+        previous = new float[capacity * STRIDE];
+        current = new float[capacity * STRIDE];
+        backPrevious = new float[capacity * STRIDE];
+        backCurrent = new float[capacity * STRIDE];
+        frontPrevious = new float[capacity * STRIDE];
+        frontCurrent = new float[capacity * STRIDE];
+    }
+
+    /**
+     * Starts tracking the transform of a body. Call this before stepping starts or from the physics thread.
+     *
+     * @param body The body to track.
+     * @return The slot to read the body's transform from on the render side.
+     */
+    public int track(Body body) {
+        if (size == bodies.length) {
+            throw new IllegalStateException("transform buffer is full: " + size);
+        }
+        bodies[size] = body;
+        write(current, size, body);
+        System.arraycopy(current, size * STRIDE, previous, size * STRIDE, STRIDE);
+        return size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Records the transforms after one fixed step. Physics side only.
+     */
+    void step() {
+        float[] tmp = previous;
+        previous = current;
+        current = tmp;
+        for (int i = 0; i < size; i++) {
+            write(current, i, bodies[i]);
+        }
+    }
+
+    /**
+     * Publishes the recorded transforms together with the interpolation alpha. Physics side only.
+     */
+    void capture(float alpha) {
+        final int length = size * STRIDE;
+        synchronized (this) {
+            System.arraycopy(previous, 0, backPrevious, 0, length);
+            System.arraycopy(current, 0, backCurrent, 0, length);
+            backAlpha = alpha;
+            pending = true;
+        }
+    }
+
+    /**
+     * Makes the most recently captured transforms visible to the render side. Call this once per frame,
+     * before reading.
+     *
+     * @return <code>true</code> if new transforms were captured since the last swap.
+     */
+    public boolean swap() {
+        synchronized (this) {
+            if (!pending) {
+                return false;
+            }
+            float[] tmp = frontPrevious;
+            frontPrevious = backPrevious;
+            backPrevious = tmp;
+            tmp = frontCurrent;
+            frontCurrent = backCurrent;
+            backCurrent = tmp;
+            frontAlpha = backAlpha;
+            pending = false;
+            return true;
+        }
+    }
+
+    public float getAlpha() {
+        return frontAlpha;
+    }
+
+    public float getX(int slot) {
+        return lerp(frontPrevious[slot * STRIDE], frontCurrent[slot * STRIDE], frontAlpha);
+    }
+
+    public float getY(int slot) {
+        return lerp(frontPrevious[slot * STRIDE + 1], frontCurrent[slot * STRIDE + 1], frontAlpha);
+    }
+
+    public float getAngle(int slot) {
+        return lerp(frontPrevious[slot * STRIDE + 2], frontCurrent[slot * STRIDE + 2], frontAlpha);
+    }
+
+    private static void write(float[] target, int slot, Body body) {
+        final Vector2 position = body.getPosition(); // reused by Box2D, no allocation
+        target[slot * STRIDE] = position.x;
+        target[slot * STRIDE + 1] = position.y;
+        target[slot * STRIDE + 2] = body.getAngle();
+    }
+
+    private static float lerp(float from, float to, float alpha) {
+        return from + (to - from) * alpha;
+    }
+}
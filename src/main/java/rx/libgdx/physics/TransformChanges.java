@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import java.util.Arrays;
+
+/**
+ * The body transforms that changed during one step, as written by a {@link BodyChangeTracker}.
+ * <p>
+ * Instances are reused from step to step, so read (or copy) them within the <code>onNext</code> call.
+ */
+public final class TransformChanges {
+
+    long step;
+    int size;
+    int[] ids;
+    float[] x;
+    float[] y;
+    float[] angle;
+
+    TransformChanges(int capacity) {
+        ids = new int[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        angle = new float[capacity];
+    }
+
+    void clear(long step) {
+        this.step = step;
+        size = 0;
+    }
+
+    void add(int id, float x, float y, float angle) {
+        if (size == ids.length) {
+            final int capacity = Math.max(8, size * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            this.x = Arrays.copyOf(this.x, capacity);
+            this.y = Arrays.copyOf(this.y, capacity);
+            this.angle = Arrays.copyOf(this.angle, capacity);
+        }
+        ids[size] = id;
+        this.x[size] = x;
+        this.y[size] = y;
+        this.angle[size] = angle;
+        size++;
+    }
+
+    /**
+     * @return The step these changes belong to.
+     */
+    public long getStep() {
+        return step;
+    }
+
+    /**
+     * @return The number of changed bodies.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index From 0 (inclusive) to {@link #size()} (exclusive).
+     * @return The id the body got from {@link BodyChangeTracker#track}.
+     */
+    public int getId(int index) {
+        return ids[index];
+    }
+
+    public float getX(int index) {
+        return x[index];
+    }
+
+    public float getY(int index) {
+        return y[index];
+    }
+
+    public float getAngle(int index) {
+        return angle[index];
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import java.util.Arrays;
+
+/**
+ * The zone entries and exits of one step, as written by {@link SensorZones}.
+ * <p>
+ * Instances are reused from step to step, so read (or copy) them within the <code>onNext</code> call.
+ */
+public final class ZoneChanges {
+
+    public static final int ENTER = 0;
+    public static final int EXIT = 1;
+
+    long step;
+    int size;
+    int[] types = new int[16];
+    int[] zones = new int[16];
+    int[] bodies = new int[16];
+
+    void clear(long step) {
+        this.step = step;
+        size = 0;
+    }
+
+    void add(int type, int zone, int body) {
+        if (size == types.length) {
+            types = Arrays.copyOf(types, size * 2);
+            zones = Arrays.copyOf(zones, size * 2);
+            bodies = Arrays.copyOf(bodies, size * 2);
+        }
+        types[size] = type;
+        zones[size] = zone;
+        bodies[size] = body;
+        size++;
+    }
+
+    public long getStep() {
+        return step;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index From 0 (inclusive) to {@link #size()} (exclusive).
+     * @return Either {@link #ENTER} or {@link #EXIT}.
+     */
+    public int getType(int index) {
+        return types[index];
+    }
+
+    /**
+     * @param index From 0 (inclusive) to {@link #size()} (exclusive).
+     * @return The zone id returned by {@link SensorZones#addZone}.
+     */
+    public int getZone(int index) {
+        return zones[index];
+    }
+
+    /**
+     * @param index From 0 (inclusive) to {@link #size()} (exclusive).
+     * @return The body id, see {@link SensorZones#getBody}.
+     */
+    public int getBody(int index) {
+        return bodies[index];
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.preferences;
+
+import com.badlogic.gdx.Preferences;
+import rx.Observable;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Func1;
+import rx.libgdx.events.lifecycle.DisposeEvent;
+import rx.libgdx.events.lifecycle.LifecycleEvent;
+import rx.libgdx.events.lifecycle.PauseEvent;
+import rx.libgdx.events.preferences.PreferenceChangeEvent;
+import rx.libgdx.sources.EventBus;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps preferences, keeping changes in memory and writing them out in the background.
+ * <p>
+ * Changes are visible right away, but only applied to the wrapped preferences when flushing. {@link #flush}
+ * doesn't write anything itself: it schedules a write on the given scheduler, at most once per interval, so
+ * flushing after every change costs nothing on the calling thread. Pausing or disposing the application writes
+ * synchronously, once {@link #attach}ed to the lifecycle, as the process may be killed afterwards.
+ * <p>
+ * Every change is announced to the {@link #changes} observers on the changing thread. Changes made to the
+ * wrapped preferences directly are noticed by comparing their contents in memory when writing, and announced
+ * as external changes on the writing thread. Flushing without local changes still checks for them, without
+ * writing anything.
+ */
+public final class RxPreferences implements Preferences {
+
+    private static final Object REMOVED = new Object();
+
+    private final Preferences preferences;
+    private final long intervalMillis;
+    private final Scheduler.Worker worker;
+    private final EventBus<PreferenceChangeEvent> changes = new EventBus<PreferenceChangeEvent>();
+
+    private final Map<String, Object> pending = new HashMap<String, Object>();
+    private int clears;
+    private int appliedClears;
+    private boolean scheduled;
+    private long lastWriteMillis;
+    private Map<String, ?> known;
+
+    private final Action0 write = new Action0() {
+
+        @Override
+        public void call() {
+            synchronized (pending) {
+                scheduled = false;
+            }
+            write();
+        }
+    };
+
+    /**
+     * @param preferences The preferences to wrap, e.g. from <code>Gdx.app.getPreferences</code>.
+     * @param intervalMillis The minimum time between two writes, in milliseconds.
+     * @param scheduler The scheduler to write on, e.g. {@link rx.schedulers.Schedulers#io}.
+     */
+    public RxPreferences(Preferences preferences, long intervalMillis, Scheduler scheduler) {
+        this.preferences = preferences;
+        this.intervalMillis = intervalMillis;
+        this.worker = scheduler.createWorker();
+        this.known = preferences.get();
+        this.lastWriteMillis = worker.now() - intervalMillis;
+    }
+
+    /**
+     * External changes are only noticed when writing, so call {@link #flush} from time to time to have them
+     * announced even without local changes.
+     *
+     * @return Observable emitting all changes.
+     */
+    public Observable<PreferenceChangeEvent> changes() {
+        return changes.observable();
+    }
+
+    /**
+     * @return Observable emitting the changes of a single key.
+     */
+    public Observable<PreferenceChangeEvent> changes(final String key) {
+        return changes.observable().filter(new Func1<PreferenceChangeEvent, Boolean>() {
+
+            @Override
+            public Boolean call(PreferenceChangeEvent event) {
+                return key.equals(event.getKey());
+            }
+        });
+    }
+
+    /**
+     * Writes synchronously whenever the application pauses or is disposed.
+     *
+     * @param lifecycle The observable of lifecycle events to follow.
+     * @return The subscription to unsubscribe from to stop following.
+     */
+    public Subscription attach(Observable<? extends LifecycleEvent> lifecycle) {
+        return lifecycle.subscribe(new Subscriber<LifecycleEvent>() {
+
+            @Override
+            public void onNext(LifecycleEvent event) {
+                if (event instanceof PauseEvent || event instanceof DisposeEvent) {
+                    write();
+                }
+            }
+
+            @Override
+            public void onCompleted() {
+                // nothing more to follow
+            }
+
+            @Override
+            public void onError(Throwable e) {
+                // nothing more to follow
+            }
+        });
+    }
+
+    /**
+     * Schedules writing the changes, unless already scheduled. Without changes, only checks for external ones.
+     */
+    @Override
+    public void flush() {
+        final long delay;
+        synchronized (pending) {
+            if (scheduled) {
+                return;
+            }
+            scheduled = true;
+            delay = Math.max(0L, lastWriteMillis + intervalMillis - worker.now());
+        }
+        worker.schedule(write, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Applies the changes to the wrapped preferences and flushes them, on the calling thread. Without changes,
+     * only announces external ones.
+     */
+    public void write() {
+        synchronized (preferences) {
+            final Map<String, Object> applied;
+            final int clearsApplied;
+            synchronized (pending) {
+                applied = new HashMap<String, Object>(pending);
+                clearsApplied = clears;
+                lastWriteMillis = worker.now();
+            }
+
+            final Map<String, ?> current = preferences.get();
+            if (clearsApplied != appliedClears) {
+                preferences.clear();
+            } else {
+                announceExternal(current, applied);
+                if (applied.isEmpty()) {
+                    known = current; // nothing to write
+                    return;
+                }
+            }
+            for (Map.Entry<String, Object> change : applied.entrySet()) {
+                apply(change.getKey(), change.getValue());
+            }
+            preferences.flush();
+            known = preferences.get();
+
+            synchronized (pending) {
+                appliedClears = clearsApplied;
+                for (Map.Entry<String, Object> change : applied.entrySet()) {
+                    if (pending.get(change.getKey()) == change.getValue()) {
+                        pending.remove(change.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops scheduling writes. Call {@link #write} before to keep the last changes.
+     */
+    public void dispose() {
+        worker.unsubscribe();
+    }
+
+    @Override
+    public Preferences putBoolean(String key, boolean val) {
+        return change(key, val);
+    }
+
+    @Override
+    public Preferences putInteger(String key, int val) {
+        return change(key, val);
+    }
+
+    @Override
+    public Preferences putLong(String key, long val) {
+        return change(key, val);
+    }
+
+    @Override
+    public Preferences putFloat(String key, float val) {
+        return change(key, val);
+    }
+
+    @Override
+    public Preferences putString(String key, String val) {
+        return change(key, val);
+    }
+
+    @Override
+    public Preferences put(Map<String, ?> vals) {
+        for (Map.Entry<String, ?> val : vals.entrySet()) {
+            final Object value = val.getValue();
+            if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+                    || value instanceof Float || value instanceof String) {
+                change(val.getKey(), value);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public void remove(String key) {
+        change(key, REMOVED);
+    }
+
+    @Override
+    public void clear() {
+        final Set<String> keys = get().keySet();
+        synchronized (pending) {
+            pending.clear();
+            clears++;
+        }
+        for (String key : keys) {
+            changes.emit(new PreferenceChangeEvent(key, null, false));
+        }
+    }
+
+    @Override
+    public boolean getBoolean(String key) {
+        return getBoolean(key, false);
+    }
+
+    @Override
+    public int getInteger(String key) {
+        return getInteger(key, 0);
+    }
+
+    @Override
+    public long getLong(String key) {
+        return getLong(key, 0L);
+    }
+
+    @Override
+    public float getFloat(String key) {
+        return getFloat(key, 0f);
+    }
+
+    @Override
+    public String getString(String key) {
+        return getString(key, "");
+    }
+
+    @Override
+    public boolean getBoolean(String key, boolean defValue) {
+        final Object value = lookup(key);
+        if (value == null) {
+            return preferences.getBoolean(key, defValue);
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        return value instanceof String ? Boolean.parseBoolean((String) value) : defValue;
+    }
+
+    @Override
+    public int getInteger(String key, int defValue) {
+        final Object value = lookup(key);
+        if (value == null) {
+            return preferences.getInteger(key, defValue);
+        }
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        }
+        try {
+            return value instanceof String ? Integer.parseInt((String) value) : defValue;
+        } catch (NumberFormatException e) {
+            return defValue;
+        }
+    }
+
+    @Override
+    public long getLong(String key, long defValue) {
+        final Object value = lookup(key);
+        if (value == null) {
+            return preferences.getLong(key, defValue);
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        try {
+            return value instanceof String ? Long.parseLong((String) value) : defValue;
+        } catch (NumberFormatException e) {
+            return defValue;
+        }
+    }
+
+    @Override
+    public float getFloat(String key, float defValue) {
+        final Object value = lookup(key);
+        if (value == null) {
+            return preferences.getFloat(key, defValue);
+        }
+        if (value instanceof Number) {
+            return ((Number) value).floatValue();
+        }
+        try {
+            return value instanceof String ? Float.parseFloat((String) value) : defValue;
+        } catch (NumberFormatException e) {
+            return defValue;
+        }
+    }
+
+    @Override
+    public String getString(String key, String defValue) {
+        final Object value = lookup(key);
+        if (value == null) {
+            return preferences.getString(key, defValue);
+        }
+        return value == REMOVED ? defValue : String.valueOf(value);
+    }
+
+    @Override
+    public Map<String, ?> get() {
+        final Map<String, Object> all = new HashMap<String, Object>();
+        synchronized (pending) {
+            if (clears == appliedClears) {
+                all.putAll(preferences.get());
+            }
+            for (Map.Entry<String, Object> change : pending.entrySet()) {
+                if (change.getValue() == REMOVED) {
+                    all.remove(change.getKey());
+                } else {
+                    all.put(change.getKey(), change.getValue());
+                }
+            }
+        }
+        return all;
+    }
+
+    @Override
+    public boolean contains(String key) {
+        final Object value = lookup(key);
+        return value == null ? preferences.contains(key) : value != REMOVED;
+    }
+
+    /**
+     * @return The pending value, {@link #REMOVED} if pending removal or cleared, or <code>null</code> to look
+     * it up in the wrapped preferences.
+     */
+    private Object lookup(String key) {
+        synchronized (pending) {
+            final Object value = pending.get(key);
+            return value == null && clears != appliedClears ? REMOVED : value;
+        }
+    }
+
+    private Preferences change(String key, Object value) {
+        synchronized (pending) {
+            pending.put(key, value);
+        }
+        changes.emit(new PreferenceChangeEvent(key, value == REMOVED ? null : value, false));
+        return this;
+    }
+
+    private void apply(String key, Object value) {
+        if (value == REMOVED) {
+            preferences.remove(key);
+        } else if (value instanceof Boolean) {
+            preferences.putBoolean(key, (Boolean) value);
+        } else if (value instanceof Integer) {
+            preferences.putInteger(key, (Integer) value);
+        } else if (value instanceof Long) {
+            preferences.putLong(key, (Long) value);
+        } else if (value instanceof Float) {
+            preferences.putFloat(key, (Float) value);
+        } else {
+            preferences.putString(key, (String) value);
+        }
+    }
+
+    /**
+     * Announces the keys that differ from the last write, unless about to be overwritten anyway.
+     */
+    private void announceExternal(Map<String, ?> current, Map<String, Object> applied) {
+        final Set<String> keys = new HashSet<String>(current.keySet());
+        keys.addAll(known.keySet());
+        for (String key : keys) {
+            final Object now = current.get(key);
+            final Object before = known.get(key);
+            if (!applied.containsKey(key) && (now == null ? before != null : !now.equals(before))) {
+                changes.emit(new PreferenceChangeEvent(key, now, true));
+            }
+        }
+    }
+}
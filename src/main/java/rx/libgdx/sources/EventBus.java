@@ -0,0 +1,138 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.subscriptions.Subscriptions;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Multicasts events to any number of subscribers without locking.
+ * <p>
+ * Subscribers are kept in a copy-on-write array, so subscribing and unsubscribing allocate, while emitting
+ * an event just walks the current array. Events are expected to be emitted from one thread at a time
+ * (usually the render thread), subscriptions may come from anywhere.
+ *
+ * @param <T> The type of the events.
+ */
+public final class EventBus<T> {
+
+    private static final Subscriber<?>[] EMPTY = new Subscriber<?>[0];
+    private static final Subscriber<?>[] TERMINATED = new Subscriber<?>[0];
+
+    private final AtomicReference<Subscriber<? super T>[]> subscribers =
+            new AtomicReference<Subscriber<? super T>[]>(EventBus.<T>array(EMPTY));
+
+    private final Observable<T> observable = Observable.create(new Observable.OnSubscribe<T>() {
+
+        @Override
+        public void call(final Subscriber<? super T> subscriber) {
+            if (!add(subscriber)) {
+                subscriber.onCompleted();
+                return;
+            }
+            subscriber.add(Subscriptions.create(new Action0() {
+
+                @Override
+                public void call() {
+                    remove(subscriber);
+                }
+            }));
+        }
+    });
+
+    /**
+     * @return Observable emitting all events emitted on this bus after subscription.
+     */
+    public Observable<T> observable() {
+        return observable;
+    }
+
+    public boolean hasSubscribers() {
+        return subscribers.get().length > 0;
+    }
+
+    /**
+     * Emits an event to all current subscribers.
+     *
+     * @param event The event to emit.
+     */
+    public void emit(T event) {
+        for (Subscriber<? super T> subscriber : subscribers.get()) {
+            if (!subscriber.isUnsubscribed()) {
+                subscriber.onNext(event);
+            }
+        }
+    }
+
+    /**
+     * Completes all current and future subscribers.
+     */
+    public void complete() {
+        for (Subscriber<? super T> subscriber : subscribers.getAndSet(EventBus.<T>array(TERMINATED))) {
+            if (!subscriber.isUnsubscribed()) {
+                subscriber.onCompleted();
+            }
+        }
+    }
+
+    /**
+     * @return <code>false</code> if the bus has been completed already, so that the subscriber wasn't added.
+     */
+    private boolean add(Subscriber<? super T> subscriber) {
+        Subscriber<? super T>[] current;
+        Subscriber<? super T>[] next;
+        do {
+            current = subscribers.get();
+            if (current == TERMINATED) {
+                return false;
+            }
+            next = EventBus.<T>array(new Subscriber<?>[current.length + 1]);
+            System.arraycopy(current, 0, next, 0, current.length);
+            next[current.length] = subscriber;
+        } while (!subscribers.compareAndSet(current, next));
+        return true;
+    }
+
+    private void remove(Subscriber<? super T> subscriber) {
+        Subscriber<? super T>[] current;
+        Subscriber<? super T>[] next;
+        do {
+            current = subscribers.get();
+            int index = -1;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == subscriber) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return; // also when terminated
+            }
+            next = EventBus.<T>array(current.length == 1 ? EMPTY : new Subscriber<?>[current.length - 1]);
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+        } while (!subscribers.compareAndSet(current, next));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Subscriber<? super T>[] array(Subscriber<?>[] subscribers) {
+        return (Subscriber<? super T>[]) subscribers;
+    }
+}
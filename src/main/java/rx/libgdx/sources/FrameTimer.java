@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import rx.libgdx.events.lifecycle.RenderEvent;
+
+/**
+ * Times frames and fills a reused {@link RenderEvent} with the frame index and timing.
+ * Call {@link #begin} at the start and {@link #end} at the end of each <code>render()</code>.
+ * <p>
+ * Frame times and deltas are taken from the timer's {@link Clock}, which a simulation can replace with synthetic
+ * time, e.g. a {@link rx.libgdx.headless.HeadlessDriver}. The time spent rendering is always measured in real time.
+ */
+public final class FrameTimer {
+
+    /**
+     * The source of frame times.
+     */
+    public interface Clock {
+        long nanoTime();
+    }
+
+    public static final Clock SYSTEM = new Clock() {
+
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private final Clock clock;
+    private final RenderEvent event = new RenderEvent();
+    private long frame;
+    private long start;
+    private long time;
+    private long previousTime;
+    private long previousNanos;
+
+    /**
+     * Takes frame times from the {@link #SYSTEM} clock.
+     */
+    public FrameTimer() {
+        this(SYSTEM);
+    }
+
+    /**
+     * @param clock The clock to take frame times and deltas from.
+     */
+    public FrameTimer(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return The reused render event for the frame that just began.
+     */
+    public RenderEvent begin() {
+        start = System.nanoTime();
+        time = clock.nanoTime();
+        final long delta = frame == 0L ? 0L : time - previousTime;
+        return event.set(++frame, time, delta, previousNanos);
+    }
+
+    /**
+     * @return The time the frame took, in nanoseconds.
+     */
+    public long end() {
+        previousTime = time;
+        previousNanos = System.nanoTime() - start;
+        return previousNanos;
+    }
+
+    /**
+     * Restarts the delta measurement, so that the time spent paused doesn't count as frame delta.
+     */
+    public void resume() {
+        previousTime = clock.nanoTime();
+    }
+
+    public long getFrame() {
+        return frame;
+    }
+
+    public Clock getClock() {
+        return clock;
+    }
+}
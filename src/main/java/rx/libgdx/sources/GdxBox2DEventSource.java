@@ -18,7 +18,11 @@ package rx.libgdx.sources;
 import com.badlogic.gdx.physics.box2d.*;
 import rx.Observable;
 import rx.Subscriber;
+import rx.functions.Action0;
 import rx.libgdx.events.box2d.*;
+import rx.libgdx.instrumentation.MetricsRegistry;
+import rx.libgdx.instrumentation.StripedCounter;
+import rx.subscriptions.Subscriptions;
 
 import static rx.GdxObservable.filtered;
 import static rx.Observable.create;
@@ -26,6 +30,10 @@ import static rx.Observable.create;
 public enum GdxBox2DEventSource {
     ; // no instances
 
+    private static final StripedCounter SUBSCRIBERS = MetricsRegistry.get().counter("box2d.subscribers");
+    private static final StripedCounter EVENTS = MetricsRegistry.get().counter("box2d.events");
+    private static final StripedCounter DROPPED = MetricsRegistry.get().counter("box2d.dropped");
+
     /**
      * @see rx.GdxObservable#fromBox2DContact
      */
@@ -34,33 +42,54 @@ public enum GdxBox2DEventSource {
 
             @Override
             public void call(final Subscriber<? super ContactEvent> subscriber) {
+                final LifecycleGate gate = LifecycleGate.get();
+                SUBSCRIBERS.increment();
+                subscriber.add(Subscriptions.create(new Action0() {
+
+                    @Override
+                    public void call() {
+                        SUBSCRIBERS.decrement();
+                    }
+                }));
                 world.setContactListener(new ContactListener() {
 
                     @Override
                     public void beginContact(Contact contact) {
-                        if (!subscriber.isUnsubscribed()) {
+                        if (!subscriber.isUnsubscribed() && !gate.isPaused()) {
+                            EVENTS.increment();
                             subscriber.onNext(new BeginContactEvent(contact));
+                        } else {
+                            DROPPED.increment();
                         }
                     }
 
                     @Override
                     public void endContact(Contact contact) {
-                        if (!subscriber.isUnsubscribed()) {
+                        if (!subscriber.isUnsubscribed() && !gate.isPaused()) {
+                            EVENTS.increment();
                             subscriber.onNext(new EndContactEvent(contact));
+                        } else {
+                            DROPPED.increment();
                         }
                     }
 
                     @Override
                     public void preSolve(Contact contact, Manifold oldManifold) {
-                        if (!subscriber.isUnsubscribed()) {
+                        if (!subscriber.isUnsubscribed() && !gate.isPaused()) {
+                            EVENTS.increment();
                             subscriber.onNext(new PreSolveContactEvent(contact, oldManifold));
+                        } else {
+                            DROPPED.increment();
                         }
                     }
 
                     @Override
                     public void postSolve(Contact contact, ContactImpulse impulse) {
-                        if (!subscriber.isUnsubscribed()) {
+                        if (!subscriber.isUnsubscribed() && !gate.isPaused()) {
+                            EVENTS.increment();
                             subscriber.onNext(new PostSolveContactEvent(contact, impulse));
+                        } else {
+                            DROPPED.increment();
                         }
                     }
                 });
@@ -108,4 +137,37 @@ public enum GdxBox2DEventSource {
         return filtered(source, PostSolveContactEvent.class);
     }
 
+    /**
+     * Returns all "Step Start" events. Use this after publishing the steps of a
+     * {@link rx.libgdx.physics.FixedTimeStepper}.
+     *
+     * @param source The observable of step events to use as source.
+     * @return An observable emitting "Step Start" events.
+     */
+    public static Observable<StepStartEvent> stepStart(Observable<? extends StepEvent> source) {
+        return filtered(source, StepStartEvent.class);
+    }
+
+    /**
+     * Returns all "Step End" events. Use this after publishing the steps of a
+     * {@link rx.libgdx.physics.FixedTimeStepper}.
+     *
+     * @param source The observable of step events to use as source.
+     * @return An observable emitting "Step End" events.
+     */
+    public static Observable<StepEndEvent> stepEnd(Observable<? extends StepEvent> source) {
+        return filtered(source, StepEndEvent.class);
+    }
+
+    /**
+     * Returns all "Interpolation" events. Use this after publishing the steps of a
+     * {@link rx.libgdx.physics.FixedTimeStepper}.
+     *
+     * @param source The observable of step events to use as source.
+     * @return An observable emitting "Interpolation" events.
+     */
+    public static Observable<InterpolationEvent> interpolation(Observable<? extends StepEvent> source) {
+        return filtered(source, InterpolationEvent.class);
+    }
+
 }
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import rx.Observable;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.functions.Action0;
+import rx.libgdx.io.ByteBufferPool;
+import rx.schedulers.Schedulers;
+import rx.subscriptions.Subscriptions;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static rx.Observable.create;
+
+public enum GdxFileEventSource {
+    ; // no instances
+
+    /**
+     * The size of the regions files are mapped in, a multiple of the chunk size.
+     */
+    private static final int MAX_REGION_BYTES = 64 * 1024 * 1024;
+
+    /**
+     * @see rx.GdxObservable#fromFile
+     */
+    public static Observable<ByteBuffer> fromFile(final FileHandle file, final ByteBufferPool pool) {
+        return create(new Observable.OnSubscribe<ByteBuffer>() {
+
+            @Override
+            public void call(final Subscriber<? super ByteBuffer> subscriber) {
+                final Chunks chunks;
+                try {
+                    chunks = mappable(file)
+                            ? new MappedChunks(file, pool.getBufferSize())
+                            : new PooledChunks(file, pool);
+                } catch (IOException e) {
+                    subscriber.onError(e);
+                    return;
+                } catch (GdxRuntimeException e) {
+                    subscriber.onError(e);
+                    return;
+                }
+                final Scheduler.Worker worker = Schedulers.io().createWorker();
+                subscriber.add(worker);
+                subscriber.add(Subscriptions.create(new Action0() {
+
+                    @Override
+                    public void call() {
+                        chunks.close();
+                    }
+                }));
+                subscriber.setProducer(new ChunkProducer(chunks, subscriber, worker));
+            }
+        });
+    }
+
+    /**
+     * Files that exist in the file system, unlike classpath resources or Android assets.
+     */
+    private static boolean mappable(FileHandle file) {
+        return file.type() != Files.FileType.Classpath && file.file().isFile();
+    }
+
+    /**
+     * Emits chunks on a worker as they are requested, without blocking a thread while there is no demand.
+     */
+    private static final class ChunkProducer extends AtomicLong implements Producer, Action0 {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Chunks chunks;
+        private final Subscriber<? super ByteBuffer> subscriber;
+        private final Scheduler.Worker worker;
+
+        ChunkProducer(Chunks chunks, Subscriber<? super ByteBuffer> subscriber, Scheduler.Worker worker) {
+            this.chunks = chunks;
+            this.subscriber = subscriber;
+            this.worker = worker;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0L) {
+                return;
+            }
+            while (true) {
+                final long current = get();
+                final long next = current + n < 0L ? Long.MAX_VALUE : current + n;
+                if (compareAndSet(current, next)) {
+                    if (current == 0L) {
+                        worker.schedule(this);
+                    }
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void call() {
+            long requested = get();
+            try {
+                while (true) {
+                    long emitted = 0L;
+                    while (emitted < requested) {
+                        if (subscriber.isUnsubscribed()) {
+                            return;
+                        }
+                        final ByteBuffer chunk = chunks.next();
+                        if (chunk == null) {
+                            chunks.close();
+                            subscriber.onCompleted();
+                            return;
+                        }
+                        subscriber.onNext(chunk);
+                        emitted++;
+                    }
+                    requested = requested == Long.MAX_VALUE ? requested : addAndGet(-emitted);
+                    if (requested == 0L) {
+                        return;
+                    }
+                }
+            } catch (IOException e) {
+                chunks.close();
+                if (!subscriber.isUnsubscribed()) {
+                    subscriber.onError(e);
+                }
+            }
+        }
+    }
+
+    private interface Chunks {
+
+        /**
+         * @return The next chunk, or <code>null</code> at the end of the file.
+         */
+        ByteBuffer next() throws IOException;
+
+        void close();
+    }
+
+    /**
+     * Read-only views of memory mapped regions, so the contents are paged in by the OS without copying.
+     */
+    private static final class MappedChunks implements Chunks {
+
+        private final FileChannel channel;
+        private final long size;
+        private final int chunkSize;
+        private final int regionSize;
+        private ByteBuffer region;
+        private long regionStart;
+        private long position;
+
+        MappedChunks(FileHandle file, int chunkSize) throws IOException {
+            this.channel = new FileInputStream(file.file()).getChannel();
+            this.size = channel.size();
+            this.chunkSize = chunkSize;
+            this.regionSize = Math.max(1, MAX_REGION_BYTES / chunkSize) * chunkSize;
+        }
+
+        @Override
+        public ByteBuffer next() throws IOException {
+            if (position >= size) {
+                return null;
+            }
+            if (region == null || position == regionStart + region.capacity()) {
+                regionStart = position;
+                region = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(regionSize, size - position));
+            }
+            final int offset = (int) (position - regionStart);
+            final int length = Math.min(chunkSize, region.capacity() - offset);
+            final ByteBuffer view = region.duplicate();
+            view.limit(offset + length).position(offset);
+            position += length;
+            return view.slice();
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close(); // the mappings stay valid until garbage collected
+            } catch (IOException e) {
+                // nothing left to do about it
+            }
+        }
+    }
+
+    /**
+     * Pooled buffers filled from the file's stream, for files that can't be mapped.
+     */
+    private static final class PooledChunks implements Chunks {
+
+        private final ReadableByteChannel channel;
+        private final ByteBufferPool pool;
+
+        PooledChunks(FileHandle file, ByteBufferPool pool) {
+            this.channel = Channels.newChannel(file.read());
+            this.pool = pool;
+        }
+
+        @Override
+        public ByteBuffer next() throws IOException {
+            final ByteBuffer buffer = pool.acquire();
+            GdxNetEventSource.fill(channel, buffer);
+            buffer.flip();
+            if (!buffer.hasRemaining()) {
+                pool.release(buffer);
+                return null;
+            }
+            return buffer;
+        }
+
+        @Override
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // nothing left to do about it
+            }
+        }
+    }
+}
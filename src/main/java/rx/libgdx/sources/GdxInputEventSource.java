@@ -21,15 +21,30 @@ import com.badlogic.gdx.InputProcessor;
 import rx.Observable;
 import rx.Subscriber;
 import rx.functions.Action0;
+import rx.functions.Action1;
 import rx.libgdx.events.input.*;
+import rx.libgdx.instrumentation.MetricsRegistry;
+import rx.libgdx.instrumentation.StripedCounter;
 import rx.subscriptions.Subscriptions;
 
+import java.util.ArrayDeque;
+
 import static rx.GdxObservable.filtered;
 import static rx.Observable.create;
 
 public enum GdxInputEventSource {
     ; // no instances
 
+    private static final StripedCounter SUBSCRIBERS = MetricsRegistry.get().counter("input.subscribers");
+    private static final StripedCounter EVENTS = MetricsRegistry.get().counter("input.events");
+    private static final StripedCounter HELD = MetricsRegistry.get().counter("input.held");
+    private static final StripedCounter DROPPED = MetricsRegistry.get().counter("input.dropped");
+
+    /**
+     * The maximum number of events held per subscriber while paused in {@link LifecycleGate.Mode#KEEP} mode.
+     */
+    static final int MAX_HELD = 1024;
+
     /**
      * @see rx.GdxObservable#fromInput
      */
@@ -38,78 +53,79 @@ public enum GdxInputEventSource {
 
             @Override
             public void call(final Subscriber<? super InputEvent> subscriber) {
+                final LifecycleGate gate = LifecycleGate.get();
+                final LifecycleGate.Mode mode = gate.getMode();
+                final ArrayDeque<InputEvent> held = new ArrayDeque<InputEvent>();
+
                 final InputProcessor processor = new InputProcessor() {
 
+                    private boolean emit(InputEvent event) {
+                        if (subscriber.isUnsubscribed()) {
+                            DROPPED.increment();
+                            return false;
+                        }
+                        if (gate.isPaused()) {
+                            hold(event); // only while paused in KEEP mode, otherwise we're detached
+                        } else {
+                            EVENTS.increment();
+                            subscriber.onNext(event);
+                        }
+                        return true;
+                    }
+
+                    /**
+                     * Replaces a move or drag of the same pointer right before the event, as only the latest
+                     * position counts. Beyond <code>MAX_HELD</code> events, drops the oldest one.
+                     */
+                    private void hold(InputEvent event) {
+                        if (supersedes(event, held.peekLast())) {
+                            held.pollLast();
+                        } else if (held.size() >= MAX_HELD) {
+                            held.poll();
+                            DROPPED.increment();
+                        }
+                        held.add(event);
+                        HELD.increment();
+                    }
+
                     @Override
                     public boolean touchUp(int screenX, int screenY, int pointer, int button) {
-                        if (!subscriber.isUnsubscribed()) {
-                            subscriber.onNext(new TouchUpEvent(screenX, screenY, pointer, button));
-                            return true;
-                        }
-                        return false;
+                        return emit(new TouchUpEvent(screenX, screenY, pointer, button));
                     }
 
                     @Override
                     public boolean touchDown(int screenX, int screenY, int pointer, int button) {
-                        if (!subscriber.isUnsubscribed()) {
-                            subscriber.onNext(new TouchDownEvent(screenX, screenY, pointer, button));
-                            return true;
-                        }
-                        return false;
+                        return emit(new TouchDownEvent(screenX, screenY, pointer, button));
                     }
 
                     @Override
                     public boolean touchDragged(int screenX, int screenY, int pointer) {
-                        if (!subscriber.isUnsubscribed()) {
-                            subscriber.onNext(new TouchDraggedEvent(screenX, screenY, pointer));
-                            return true;
-                        }
-                        return false;
+                        return emit(new TouchDraggedEvent(screenX, screenY, pointer));
                     }
 
                     @Override
                     public boolean keyDown(int keycode) {
-                        if (!subscriber.isUnsubscribed()) {
-                            subscriber.onNext(new KeyDownEvent(keycode));
-                            return true;
-                        }
-                        return false;
+                        return emit(new KeyDownEvent(keycode));
                     }
 
                     @Override
                     public boolean keyUp(int keycode) {
-                        if (!subscriber.isUnsubscribed()) {
-                            subscriber.onNext(new KeyUpEvent(keycode));
-                            return true;
-                        }
-                        return false;
+                        return emit(new KeyUpEvent(keycode));
                     }
 
                     @Override
                     public boolean keyTyped(char character) {
-                        if (!subscriber.isUnsubscribed()) {
-                            subscriber.onNext(new KeyTypedEvent(character));
-                            return true;
-                        }
-                        return false;
+                        return emit(new KeyTypedEvent(character));
                     }
 
                     @Override
                     public boolean mouseMoved(int screenX, int screenY) {
-                        if (!subscriber.isUnsubscribed()) {
-                            subscriber.onNext(new MouseMovedEvent(screenX, screenY));
-                            return true;
-                        }
-                        return false;
+                        return emit(new MouseMovedEvent(screenX, screenY));
                     }
 
                     @Override
                     public boolean scrolled(int amount) {
-                        if (!subscriber.isUnsubscribed()) {
-                            subscriber.onNext(new ScrolledEvent(amount));
-                            return true;
-                        }
-                        return false;
+                        return emit(new ScrolledEvent(amount));
                     }
 
                 };
@@ -124,12 +140,43 @@ public enum GdxInputEventSource {
                     im = new InputMultiplexer();
                 }
 
-                im.addProcessor(processor);
+                if (mode == LifecycleGate.Mode.KEEP || !gate.isPaused()) {
+                    im.addProcessor(processor);
+                }
+
+                subscriber.add(gate.states().subscribe(new Action1<Boolean>() {
+
+                    private int index = -1; // where the processor was detached from, so that it keeps its priority
+
+                    @Override
+                    public void call(Boolean paused) {
+                        if (mode == LifecycleGate.Mode.DROP) {
+                            if (paused) {
+                                index = im.getProcessors().indexOf(processor, true);
+                                if (index >= 0) {
+                                    im.removeProcessor(index);
+                                }
+                            } else if (index >= 0 && index <= im.size()) {
+                                im.addProcessor(index, processor);
+                            } else {
+                                im.addProcessor(processor);
+                            }
+                        } else if (!paused) {
+                            while (!held.isEmpty() && !subscriber.isUnsubscribed()) {
+                                EVENTS.increment();
+                                subscriber.onNext(held.poll());
+                            }
+                            held.clear();
+                        }
+                    }
+
+                }));
 
                 subscriber.add(Subscriptions.create(new Action0() {
 
                     @Override
                     public void call() {
+                        SUBSCRIBERS.decrement();
                         im.removeProcessor(processor);
                         if (wrapped != null && wrapped != im && im.size() == 1) {
                             Gdx.input.setInputProcessor(wrapped);
@@ -138,12 +185,21 @@ public enum GdxInputEventSource {
 
                 }));
 
+                SUBSCRIBERS.increment();
                 Gdx.input.setInputProcessor(im);
             }
 
         });
     }
 
+    private static boolean supersedes(InputEvent event, InputEvent previous) {
+        if (event instanceof MouseMovedEvent) {
+            return previous instanceof MouseMovedEvent;
+        }
+        return event instanceof TouchDraggedEvent && previous instanceof TouchDraggedEvent
+                && ((TouchDraggedEvent) event).getPointer() == ((TouchDraggedEvent) previous).getPointer();
+    }
+
     /**
      * Returns all "Touch Up" events. Use this after publishing via {@link rx.GdxObservable#fromInput}.
      *
@@ -15,12 +15,15 @@
  */
 package rx.libgdx.sources;
 
+import com.badlogic.gdx.ApplicationListener;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.LifecycleListener;
 import rx.Observable;
 import rx.Subscriber;
 import rx.functions.Action0;
 import rx.libgdx.events.lifecycle.*;
+import rx.libgdx.instrumentation.MetricsRegistry;
+import rx.libgdx.instrumentation.StripedCounter;
 import rx.subscriptions.Subscriptions;
 
 import static rx.GdxObservable.filtered;
@@ -28,6 +31,11 @@ import static rx.GdxObservable.filtered;
 public enum GdxLifecycleEventSource {
     ;
 
+    private static final StripedCounter SUBSCRIBERS = MetricsRegistry.get().counter("lifecycle.subscribers");
+    private static final StripedCounter EVENTS = MetricsRegistry.get().counter("lifecycle.events");
+
+    private static final EventBus<RenderEvent> renderTicks = new EventBus<RenderEvent>();
+
     public static Observable<LifecycleEvent> fromLifecycle() {
         return Observable.create(new Observable.OnSubscribe<LifecycleEvent>() {
 
@@ -38,6 +46,7 @@ public enum GdxLifecycleEventSource {
                     @Override
                     public void pause() {
                         if (!subscriber.isUnsubscribed()) {
+                            EVENTS.increment();
                             subscriber.onNext(new PauseEvent());
                         }
                     }
@@ -45,6 +54,7 @@ public enum GdxLifecycleEventSource {
                     @Override
                     public void resume() {
                         if (!subscriber.isUnsubscribed()) {
+                            EVENTS.increment();
                             subscriber.onNext(new ResumeEvent());
                         }
                     }
@@ -52,6 +62,7 @@ public enum GdxLifecycleEventSource {
                     @Override
                     public void dispose() {
                         if (!subscriber.isUnsubscribed()) {
+                            EVENTS.increment();
                             subscriber.onNext(new DisposeEvent());
                         }
                     }
@@ -62,17 +73,40 @@ public enum GdxLifecycleEventSource {
 
                     @Override
                     public void call() {
+                        SUBSCRIBERS.decrement();
                         Gdx.app.removeLifecycleListener(listener);
                     }
 
                 }));
 
+                SUBSCRIBERS.increment();
                 Gdx.app.addLifecycleListener(listener);
             }
 
         });
     }
 
+    /**
+     * @see rx.GdxObservable#fromRenderTicks
+     */
+    public static Observable<RenderEvent> fromRenderTicks() {
+        return renderTicks.observable();
+    }
+
+    /**
+     * @see rx.GdxObservable#withRenderTicks
+     */
+    public static ApplicationListener withRenderTicks(ApplicationListener listener) {
+        return withRenderTicks(listener, FrameTimer.SYSTEM);
+    }
+
+    /**
+     * @see rx.GdxObservable#withRenderTicks
+     */
+    public static ApplicationListener withRenderTicks(ApplicationListener listener, FrameTimer.Clock clock) {
+        return new RenderTickListener(listener, renderTicks, clock);
+    }
+
     /**
      * Returns all "Pause" events. Use this after publishing via {@link rx.GdxObservable#fromLifecycle}.
      *
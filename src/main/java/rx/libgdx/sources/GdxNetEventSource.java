@@ -0,0 +1,579 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.net.ServerSocket;
+import com.badlogic.gdx.net.ServerSocketHints;
+import com.badlogic.gdx.net.Socket;
+import com.badlogic.gdx.net.SocketHints;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import rx.Observable;
+import rx.Producer;
+import rx.Scheduler;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.libgdx.events.net.HttpProgressEvent;
+import rx.libgdx.io.ByteBufferPool;
+import rx.observers.SerializedSubscriber;
+import rx.schedulers.Schedulers;
+import rx.subscriptions.Subscriptions;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import static rx.Observable.create;
+
+public enum GdxNetEventSource {
+    ; // no instances
+
+    /**
+     * @see rx.GdxObservable#fromHttpRequestChunked
+     */
+    public static Observable<ByteBuffer> fromHttpRequestChunked(final Net.HttpRequest httpRequest,
+                                                                final ByteBufferPool pool) {
+        return chunks(httpRequest, pool, new long[1]);
+    }
+
+    /**
+     * @see rx.GdxObservable#downloadToFile
+     */
+    public static Observable<HttpProgressEvent> downloadToFile(final Net.HttpRequest httpRequest,
+                                                               final FileHandle file, final ByteBufferPool pool) {
+        return create(new Observable.OnSubscribe<HttpProgressEvent>() {
+
+            @Override
+            public void call(final Subscriber<? super HttpProgressEvent> subscriber) {
+                final long[] contentLength = new long[1];
+                final File temp;
+                final FileChannel channel;
+                try {
+                    file.parent().mkdirs();
+                    // a sibling, so that the file is replaced by renaming it within the same file system
+                    temp = File.createTempFile("." + file.name() + ".", ".part", file.parent().file());
+                    channel = new FileOutputStream(temp).getChannel();
+                } catch (IOException e) {
+                    subscriber.onError(e);
+                    return;
+                } catch (GdxRuntimeException e) {
+                    subscriber.onError(e); // e.g. a read-only file type
+                    return;
+                }
+                final Subscription discard = Subscriptions.create(new Action0() {
+
+                    @Override
+                    public void call() {
+                        try {
+                            channel.close();
+                        } catch (IOException e) {
+                            // nothing left to do about it
+                        }
+                        temp.delete(); // gone already after a successful download
+                    }
+                });
+                subscriber.add(discard);
+
+                subscriber.add(chunks(httpRequest, pool, contentLength).subscribe(new Subscriber<ByteBuffer>() {
+
+                    private long bytes;
+
+                    @Override
+                    public void onStart() {
+                        request(1);
+                    }
+
+                    @Override
+                    public void onNext(ByteBuffer buffer) {
+                        try {
+                            while (buffer.hasRemaining()) {
+                                bytes += channel.write(buffer);
+                            }
+                        } catch (IOException e) {
+                            onError(e);
+                            return;
+                        } finally {
+                            pool.release(buffer);
+                        }
+                        subscriber.onNext(new HttpProgressEvent(bytes, contentLength[0]));
+                        request(1);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        try {
+                            channel.close();
+                            Files.move(temp.toPath(), file.file().toPath(), StandardCopyOption.REPLACE_EXISTING,
+                                    StandardCopyOption.ATOMIC_MOVE);
+                        } catch (IOException e) {
+                            onError(e);
+                            return;
+                        }
+                        subscriber.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        unsubscribe();
+                        discard.unsubscribe();
+                        subscriber.onError(e);
+                    }
+                }));
+            }
+        });
+    }
+
+    private static Observable<ByteBuffer> chunks(final Net.HttpRequest httpRequest, final ByteBufferPool pool,
+                                                 final long[] contentLength) {
+        return create(new Observable.OnSubscribe<ByteBuffer>() {
+
+            @Override
+            public void call(final Subscriber<? super ByteBuffer> subscriber) {
+                final Demand demand = new Demand();
+                subscriber.setProducer(demand);
+                subscriber.add(Subscriptions.create(new Action0() {
+
+                    @Override
+                    public void call() {
+                        demand.cancel();
+                        Gdx.net.cancelHttpRequest(httpRequest);
+                    }
+                }));
+
+                Gdx.net.sendHttpRequest(httpRequest, new Net.HttpResponseListener() {
+
+                    @Override
+                    public void handleHttpResponse(Net.HttpResponse httpResponse) {
+                        // the backend closes the connection when we return, so we read on its thread
+                        final int status = httpResponse.getStatus().getStatusCode();
+                        if (status >= 400) {
+                            subscriber.onError(new IOException("HTTP status " + status + " for "
+                                    + httpRequest.getUrl()));
+                            return;
+                        }
+                        contentLength[0] = parseLength(httpResponse.getHeader("Content-Length"));
+
+                        final InputStream stream = httpResponse.getResultAsStream();
+                        if (stream == null) {
+                            subscriber.onCompleted();
+                            return;
+                        }
+                        final ReadableByteChannel channel = Channels.newChannel(stream);
+                        try {
+                            boolean eof = false;
+                            while (!eof && demand.await()) {
+                                final ByteBuffer buffer = pool.acquire();
+                                eof = fill(channel, buffer);
+                                buffer.flip();
+                                if (buffer.hasRemaining()) {
+                                    demand.take();
+                                    subscriber.onNext(buffer);
+                                } else {
+                                    pool.release(buffer);
+                                }
+                            }
+                            if (eof) {
+                                subscriber.onCompleted();
+                            }
+                        } catch (IOException e) {
+                            subscriber.onError(e);
+                        } catch (InterruptedException e) {
+                            subscriber.onError(e);
+                        }
+                    }
+
+                    @Override
+                    public void failed(Throwable t) {
+                        subscriber.onError(t);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        subscriber.unsubscribe();
+                    }
+
+                });
+            }
+        });
+    }
+
+    /**
+     * @see rx.GdxObservable#fromSocket
+     */
+    public static Observable<ByteBuffer> fromSocket(final Socket socket, final ByteBufferPool pool) {
+        return create(new Observable.OnSubscribe<ByteBuffer>() {
+
+            @Override
+            public void call(final Subscriber<? super ByteBuffer> subscriber) {
+                final Demand demand = new Demand();
+                final Scheduler.Worker worker = Schedulers.io().createWorker();
+                subscriber.setProducer(demand);
+                subscriber.add(Subscriptions.create(new Action0() {
+
+                    @Override
+                    public void call() {
+                        demand.cancel();
+                    }
+                }));
+                subscriber.add(worker);
+
+                worker.schedule(new Action0() {
+
+                    @Override
+                    public void call() {
+                        final ReadableByteChannel channel = Channels.newChannel(socket.getInputStream());
+                        final ByteBuffer header = ByteBuffer.allocate(4);
+                        try {
+                            while (demand.await()) {
+                                header.clear();
+                                if (fill(channel, header)) {
+                                    if (header.position() > 0) {
+                                        throw new EOFException("connection closed within a frame header");
+                                    }
+                                    subscriber.onCompleted();
+                                    return;
+                                }
+                                final int length = header.getInt(0);
+                                if (length < 0 || length > pool.getBufferSize()) {
+                                    throw new IOException("frame of " + length + " bytes doesn't fit into "
+                                            + pool.getBufferSize() + " byte buffers");
+                                }
+
+                                final ByteBuffer buffer = pool.acquire();
+                                buffer.limit(length);
+                                if (fill(channel, buffer)) {
+                                    pool.release(buffer);
+                                    throw new EOFException("connection closed within a frame");
+                                }
+                                buffer.flip();
+                                demand.take();
+                                subscriber.onNext(buffer);
+                            }
+                        } catch (IOException e) {
+                            subscriber.onError(e);
+                        } catch (GdxRuntimeException e) {
+                            subscriber.onError(e);
+                        } catch (InterruptedException e) {
+                            subscriber.onError(e);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @see rx.GdxObservable#fromServerSocket
+     */
+    public static Observable<Socket> fromServerSocket(final Net.Protocol protocol, final int port,
+                                                      final ServerSocketHints serverHints,
+                                                      final SocketHints hints) {
+        return create(new Observable.OnSubscribe<Socket>() {
+
+            @Override
+            public void call(final Subscriber<? super Socket> subscriber) {
+                final ServerSocket server;
+                try {
+                    server = Gdx.net.newServerSocket(protocol, port, serverHints);
+                } catch (GdxRuntimeException e) {
+                    subscriber.onError(e);
+                    return;
+                }
+                final Demand demand = new Demand();
+                final Scheduler.Worker worker = Schedulers.io().createWorker();
+                subscriber.setProducer(demand);
+                subscriber.add(Subscriptions.create(new Action0() {
+
+                    @Override
+                    public void call() {
+                        demand.cancel();
+                        server.dispose(); // unblocks accept
+                    }
+                }));
+                subscriber.add(worker);
+
+                worker.schedule(new Action0() {
+
+                    @Override
+                    public void call() {
+                        try {
+                            while (demand.await()) {
+                                final Socket socket;
+                                try {
+                                    socket = server.accept(hints);
+                                } catch (GdxRuntimeException e) {
+                                    if (e.getCause() instanceof SocketTimeoutException) {
+                                        continue; // the accept timeout of the hints
+                                    }
+                                    if (!subscriber.isUnsubscribed()) {
+                                        subscriber.onError(e);
+                                    }
+                                    return;
+                                }
+                                demand.take();
+                                subscriber.onNext(socket);
+                            }
+                        } catch (InterruptedException e) {
+                            subscriber.onError(e);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * @see rx.GdxObservable#toSocket
+     */
+    public static Observable<Integer> toSocket(final Socket socket, final Observable<? extends ByteBuffer> messages,
+                                               final Observable<?> flushes, final int maxPendingBytes) {
+        return create(new Observable.OnSubscribe<Integer>() {
+
+            @Override
+            public void call(final Subscriber<? super Integer> subscriber) {
+                final Scheduler.Worker worker = Schedulers.io().createWorker();
+                subscriber.add(worker);
+                // the writer emits on the worker, and the flushes may fail on their own thread
+                final Subscriber<Integer> serialized = new SerializedSubscriber<Integer>(subscriber);
+                final FrameWriter writer = new FrameWriter(socket.getOutputStream(), maxPendingBytes, worker,
+                        serialized);
+                subscriber.add(flushes.subscribe(new Subscriber<Object>() {
+
+                    @Override
+                    public void onCompleted() {
+                        // keep writing as messages complete
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        serialized.onError(e);
+                    }
+
+                    @Override
+                    public void onNext(Object flush) {
+                        writer.flush();
+                    }
+                }));
+                subscriber.add(messages.subscribe(writer));
+            }
+        });
+    }
+
+    static boolean fill(ReadableByteChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseLength(String header) {
+        if (header == null) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Outstanding requests of a subscriber, for a producer that blocks while there are none.
+     */
+    private static final class Demand implements Producer {
+
+        private long requested;
+        private boolean cancelled;
+
+        @Override
+        public synchronized void request(long n) {
+            if (n <= 0L) {
+                return;
+            }
+            requested = requested + n < 0L ? Long.MAX_VALUE : requested + n;
+            notifyAll();
+        }
+
+        synchronized void cancel() {
+            cancelled = true;
+            notifyAll();
+        }
+
+        /**
+         * @return <code>false</code> if cancelled.
+         */
+        synchronized boolean await() throws InterruptedException {
+            while (requested == 0L && !cancelled) {
+                wait();
+            }
+            return !cancelled;
+        }
+
+        synchronized void take() {
+            if (requested != Long.MAX_VALUE) {
+                requested--;
+            }
+        }
+    }
+
+    /**
+     * Collects length-prefixed frames in a staging buffer and writes it out, on a worker, once per flush.
+     * Messages are requested one by one while less than the maximum is pending, so a slow connection slows
+     * down the source instead of buffering without bounds. A flush while the previous write is still going on
+     * is merged into the next one.
+     */
+    private static final class FrameWriter extends Subscriber<ByteBuffer> {
+
+        private final WritableByteChannel channel;
+        private final OutputStream stream;
+        private final int maxPendingBytes;
+        private final Scheduler.Worker worker;
+        private final Subscriber<? super Integer> subscriber;
+
+        private ByteBuffer staging;
+        private ByteBuffer writing;
+        private boolean busy;
+        private boolean starved;
+        private boolean completed;
+
+        FrameWriter(OutputStream stream, int maxPendingBytes, Scheduler.Worker worker,
+                    Subscriber<? super Integer> subscriber) {
+            this.stream = stream;
+            this.channel = Channels.newChannel(stream);
+            this.maxPendingBytes = maxPendingBytes;
+            this.worker = worker;
+            this.subscriber = subscriber;
+            this.staging = ByteBuffer.allocate(Math.max(64, maxPendingBytes));
+            this.writing = ByteBuffer.allocate(staging.capacity());
+        }
+
+        @Override
+        public void onStart() {
+            request(1L);
+        }
+
+        @Override
+        public void onNext(ByteBuffer message) {
+            final boolean more;
+            synchronized (this) {
+                final int length = message.remaining();
+                if (staging.remaining() < 4 + length) {
+                    staging = grow(staging, 4 + length);
+                }
+                staging.putInt(length);
+                staging.put(message.duplicate());
+                more = staging.position() < maxPendingBytes;
+                starved = !more;
+            }
+            if (more) {
+                request(1L);
+            }
+        }
+
+        @Override
+        public void onCompleted() {
+            synchronized (this) {
+                completed = true;
+            }
+            flush();
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            subscriber.onError(e);
+        }
+
+        void flush() {
+            synchronized (this) {
+                if (busy) {
+                    return;
+                }
+                if (staging.position() == 0) {
+                    if (completed) {
+                        subscriber.onCompleted();
+                    }
+                    return;
+                }
+                final ByteBuffer swap = writing;
+                writing = staging;
+                staging = swap;
+                staging.clear();
+                busy = true;
+            }
+
+            worker.schedule(new Action0() {
+
+                @Override
+                public void call() {
+                    final int bytes;
+                    try {
+                        writing.flip();
+                        bytes = writing.remaining();
+                        while (writing.hasRemaining()) {
+                            channel.write(writing);
+                        }
+                        stream.flush();
+                        writing.clear();
+                    } catch (IOException e) {
+                        subscriber.onError(e);
+                        return;
+                    }
+                    subscriber.onNext(bytes);
+
+                    final boolean resume;
+                    final boolean drain;
+                    synchronized (FrameWriter.this) {
+                        busy = false;
+                        resume = starved && staging.position() < maxPendingBytes;
+                        if (resume) {
+                            starved = false;
+                        }
+                        drain = completed;
+                    }
+                    if (resume) {
+                        request(1L);
+                    }
+                    if (drain) {
+                        flush();
+                    }
+                }
+            });
+        }
+
+        private static ByteBuffer grow(ByteBuffer buffer, int needed) {
+            final ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + needed));
+            buffer.flip();
+            grown.put(buffer);
+            return grown;
+        }
+    }
+}
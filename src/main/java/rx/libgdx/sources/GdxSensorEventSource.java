@@ -0,0 +1,240 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import rx.Observable;
+import rx.Subscriber;
+import rx.functions.Func0;
+import rx.libgdx.events.lifecycle.RenderEvent;
+import rx.libgdx.events.sensors.SensorEvent;
+
+import static rx.Observable.create;
+
+public enum GdxSensorEventSource {
+    ; // no instances
+
+    private static final float DEGREES = (float) (180.0 / Math.PI);
+
+    /**
+     * @see rx.GdxObservable#fromAccelerometer
+     */
+    public static Observable<SensorEvent> fromAccelerometer(Observable<?> ticks, final SensorFilter filter,
+                                                            int history) {
+        return sample(ticks, history, new Func0<Sampler>() {
+
+            @Override
+            public Sampler call() {
+                return new AccelerometerSampler(filter);
+            }
+        }, Input.Peripheral.Accelerometer);
+    }
+
+    /**
+     * @see rx.GdxObservable#fromCompass
+     */
+    public static Observable<SensorEvent> fromCompass(Observable<?> ticks, final SensorFilter filter, int history) {
+        return sample(ticks, history, new Func0<Sampler>() {
+
+            @Override
+            public Sampler call() {
+                return new CompassSampler(filter);
+            }
+        }, Input.Peripheral.Compass);
+    }
+
+    /**
+     * @see rx.GdxObservable#fromTilt
+     */
+    public static Observable<SensorEvent> fromTilt(Observable<?> ticks, final float timeConstant, int history) {
+        if (timeConstant <= 0f) {
+            throw new IllegalArgumentException("time constant must be positive: " + timeConstant);
+        }
+        return sample(ticks, history, new Func0<Sampler>() {
+
+            @Override
+            public Sampler call() {
+                return new TiltSampler(timeConstant);
+            }
+        }, Input.Peripheral.Compass, Input.Peripheral.Accelerometer);
+    }
+
+    /**
+     * Completes right away unless all of the given peripherals are available.
+     */
+    private static Observable<SensorEvent> sample(final Observable<?> ticks, final int history,
+                                                  final Func0<Sampler> samplers,
+                                                  final Input.Peripheral... peripherals) {
+        return create(new Observable.OnSubscribe<SensorEvent>() {
+
+            @Override
+            public void call(final Subscriber<? super SensorEvent> subscriber) {
+                for (Input.Peripheral peripheral : peripherals) {
+                    if (!Gdx.input.isPeripheralAvailable(peripheral)) {
+                        subscriber.onCompleted();
+                        return;
+                    }
+                }
+                final Sampler sampler = samplers.call();
+                final SensorEvent event = new SensorEvent(history);
+                final float[] raw = new float[3];
+                final float[] filtered = new float[3];
+
+                subscriber.add(ticks.subscribe(new Subscriber<Object>() {
+
+                    private long last;
+
+                    @Override
+                    public void onCompleted() {
+                        subscriber.onCompleted();
+                    }
+
+                    @Override
+                    public void onError(Throwable e) {
+                        subscriber.onError(e);
+                    }
+
+                    @Override
+                    public void onNext(Object tick) {
+                        final long now = tick instanceof RenderEvent && ((RenderEvent) tick).getFrame() != 0L
+                                ? ((RenderEvent) tick).getTimeNanos() : System.nanoTime();
+                        final boolean first = event.getSample() == 0L;
+                        sampler.read(raw);
+                        System.arraycopy(raw, 0, filtered, 0, 3);
+                        sampler.filter(filtered, first ? 0f : (now - last) / 1e9f, first);
+                        last = now;
+                        subscriber.onNext(event.record(now, raw, filtered));
+                    }
+                }));
+            }
+        });
+    }
+
+    /**
+     * Reads and filters the samples of one subscription, keeping its filter state.
+     */
+    private abstract static class Sampler {
+
+        abstract void read(float[] raw);
+
+        abstract void filter(float[] values, float dt, boolean first);
+    }
+
+    private static final class AccelerometerSampler extends Sampler {
+
+        private final SensorFilter filter;
+        private final float[] state = new float[3];
+
+        AccelerometerSampler(SensorFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        void read(float[] raw) {
+            raw[0] = Gdx.input.getAccelerometerX();
+            raw[1] = Gdx.input.getAccelerometerY();
+            raw[2] = Gdx.input.getAccelerometerZ();
+        }
+
+        @Override
+        void filter(float[] values, float dt, boolean first) {
+            filter.apply(state, values, dt, first);
+        }
+    }
+
+    private static final class CompassSampler extends Sampler {
+
+        private final SensorFilter filter;
+        private final float[] state = new float[3];
+
+        CompassSampler(SensorFilter filter) {
+            this.filter = filter;
+        }
+
+        @Override
+        void read(float[] raw) {
+            raw[0] = Gdx.input.getAzimuth();
+            raw[1] = Gdx.input.getPitch();
+            raw[2] = Gdx.input.getRoll();
+        }
+
+        /**
+         * Filters each angle as the shortest turn from the filtered one, so that samples jittering across
+         * &plusmn;180&deg; average out there rather than at 0&deg;.
+         */
+        @Override
+        void filter(float[] values, float dt, boolean first) {
+            if (!first) {
+                for (int axis = 0; axis < 3; axis++) {
+                    values[axis] = state[axis] + wrap(values[axis] - state[axis]);
+                }
+            }
+            filter.apply(state, values, dt, first);
+            for (int axis = 0; axis < 3; axis++) {
+                state[axis] = wrap(state[axis]);
+                values[axis] = wrap(values[axis]);
+            }
+        }
+    }
+
+    /**
+     * Fuses pitch and roll of the orientation with the tilt of gravity measured by the accelerometer, using a
+     * complementary filter: the estimate follows each change of the orientation right away, and drifts towards
+     * the tilt of gravity over the time constant. The azimuth is passed through.
+     */
+    private static final class TiltSampler extends Sampler {
+
+        private final float timeConstant;
+        private final float[] tilt = new float[2];
+        private final float[] orientation = new float[2];
+
+        TiltSampler(float timeConstant) {
+            this.timeConstant = timeConstant;
+        }
+
+        @Override
+        void read(float[] raw) {
+            raw[0] = Gdx.input.getPitch();
+            raw[1] = Gdx.input.getRoll();
+            raw[2] = Gdx.input.getAzimuth();
+        }
+
+        @Override
+        void filter(float[] values, float dt, boolean first) {
+            final float x = Gdx.input.getAccelerometerX();
+            final float y = Gdx.input.getAccelerometerY();
+            final float z = Gdx.input.getAccelerometerZ();
+            // pitch and roll of gravity, as Android derives them for the orientation
+            final float gravityPitch = (float) Math.atan2(-y, Math.sqrt(x * x + z * z)) * DEGREES;
+            final float gravityRoll = (float) Math.atan2(-x, z) * DEGREES;
+            final float weight = first ? 0f : 1f - SensorFilter.smoothing(dt, timeConstant);
+            for (int axis = 0; axis < 2; axis++) {
+                final float change = wrap(values[axis] - orientation[axis]);
+                orientation[axis] = values[axis];
+                tilt[axis] = weight * (tilt[axis] + change) + (1f - weight) * (axis == 0 ? gravityPitch : gravityRoll);
+                values[axis] = tilt[axis];
+            }
+        }
+    }
+
+    /**
+     * @return The angle moved into -180 to 180&deg;, for angles at most one turn outside of it.
+     */
+    private static float wrap(float degrees) {
+        return degrees > 180f ? degrees - 360f : degrees < -180f ? degrees + 360f : degrees;
+    }
+}
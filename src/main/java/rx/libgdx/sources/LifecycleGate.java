@@ -0,0 +1,126 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.libgdx.events.lifecycle.LifecycleEvent;
+import rx.libgdx.events.lifecycle.PauseEvent;
+import rx.libgdx.events.lifecycle.ResumeEvent;
+
+/**
+ * Suspends the built-in sources and the {@link rx.concurrency.GdxScheduler} while the application is paused.
+ * <p>
+ * While paused,
+ * <ul>
+ * <li>input sources detach their input processors ({@link Mode#DROP}), and attach them again at the same
+ * position in the multiplexer, or keep them and hold back their events until resumed ({@link Mode#KEEP}),
+ * merging consecutive moves and drags and dropping the oldest events beyond a limit,</li>
+ * <li>contact sources don't dispatch; Box2D reuses its contacts, so contact events are always dropped,</li>
+ * <li>the Gdx scheduler parks due actions and runs them when resumed, and holds its timers with their
+ * remaining delays. Dropping them would break the operators scheduling them, so they are always kept.</li>
+ * </ul>
+ * {@link rx.RxApplication} pauses and resumes the gate automatically. Other applications {@link #attach} it
+ * to their lifecycle events, e.g. from {@link rx.GdxObservable#fromLifecycle}.
+ */
+public final class LifecycleGate {
+
+    /**
+     * What to do with events arriving while paused.
+     */
+    public enum Mode {
+        DROP, KEEP
+    }
+
+    private static final LifecycleGate INSTANCE = new LifecycleGate();
+
+    public static LifecycleGate get() {
+        return INSTANCE;
+    }
+
+    private final EventBus<Boolean> states = new EventBus<Boolean>();
+    private volatile boolean paused;
+    private volatile Mode mode = Mode.DROP;
+
+    private LifecycleGate() {
+        // hide from public access
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * @param mode What sources subscribed to from now on do with events arriving while paused.
+     */
+    public void setMode(Mode mode) {
+        this.mode = mode;
+    }
+
+    public synchronized void pause() {
+        if (!paused) {
+            paused = true;
+            states.emit(Boolean.TRUE);
+        }
+    }
+
+    public synchronized void resume() {
+        if (paused) {
+            paused = false;
+            states.emit(Boolean.FALSE);
+        }
+    }
+
+    /**
+     * @return Observable emitting <code>true</code> when pausing and <code>false</code> when resuming.
+     */
+    public Observable<Boolean> states() {
+        return states.observable();
+    }
+
+    /**
+     * Pauses and resumes the gate following the given lifecycle.
+     *
+     * @param lifecycle The observable of lifecycle events to follow.
+     * @return The subscription to unsubscribe from to stop following.
+     */
+    public Subscription attach(Observable<? extends LifecycleEvent> lifecycle) {
+        return lifecycle.subscribe(new Subscriber<LifecycleEvent>() {
+
+            @Override
+            public void onNext(LifecycleEvent event) {
+                if (event instanceof PauseEvent) {
+                    pause();
+                } else if (event instanceof ResumeEvent) {
+                    resume();
+                }
+            }
+
+            @Override
+            public void onCompleted() {
+            }
+
+            @Override
+            public void onError(Throwable e) {
+            }
+        });
+    }
+}
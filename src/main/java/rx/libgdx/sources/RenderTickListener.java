@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import com.badlogic.gdx.ApplicationListener;
+import rx.libgdx.events.lifecycle.RenderEvent;
+
+/**
+ * Wraps an existing application listener (or <code>Game</code>) and emits a render event to
+ * {@link GdxLifecycleEventSource#fromRenderTicks} right before each frame is rendered.
+ * <p>
+ * Pausing and resuming also pauses and resumes the {@link LifecycleGate}.
+ */
+public final class RenderTickListener implements ApplicationListener {
+
+    private final ApplicationListener delegate;
+    private final EventBus<RenderEvent> ticks;
+    private final FrameTimer timer;
+
+    RenderTickListener(ApplicationListener delegate, EventBus<RenderEvent> ticks, FrameTimer.Clock clock) {
+        this.delegate = delegate;
+        this.ticks = ticks;
+        this.timer = new FrameTimer(clock);
+    }
+
+    public ApplicationListener getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void create() {
+        delegate.create();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        delegate.resize(width, height);
+    }
+
+    @Override
+    public void render() {
+        ticks.emit(timer.begin());
+        delegate.render();
+        timer.end();
+    }
+
+    @Override
+    public void pause() {
+        delegate.pause();
+        LifecycleGate.get().pause();
+    }
+
+    @Override
+    public void resume() {
+        timer.resume();
+        LifecycleGate.get().resume();
+        delegate.resume();
+    }
+
+    @Override
+    public void dispose() {
+        delegate.dispose();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+/**
+ * Filters sensor samples in place, for the sensor sources of {@link rx.GdxObservable}. Filters are stateless
+ * and may be shared; the sources keep the state of each subscription in a primitive array.
+ * <p>
+ * The filters are first-order, with a cutoff frequency rather than a fixed smoothing factor, so that they behave
+ * the same at any sampling rate, including the varying rate of frame ticks.
+ */
+public final class SensorFilter {
+
+    private static final int PASS = 0;
+    private static final int LOW_PASS = 1;
+    private static final int HIGH_PASS = 2;
+
+    /**
+     * Leaves the samples as they are.
+     */
+    public static final SensorFilter NONE = new SensorFilter(PASS, 0f);
+
+    /**
+     * Smoothes out changes faster than the cutoff, e.g. to get gravity from the accelerometer.
+     *
+     * @param cutoffHz The cutoff frequency, in Hz.
+     */
+    public static SensorFilter lowPass(float cutoffHz) {
+        return new SensorFilter(LOW_PASS, timeConstant(cutoffHz));
+    }
+
+    /**
+     * Removes changes slower than the cutoff, e.g. to get the motion without gravity from the accelerometer.
+     *
+     * @param cutoffHz The cutoff frequency, in Hz.
+     */
+    public static SensorFilter highPass(float cutoffHz) {
+        return new SensorFilter(HIGH_PASS, timeConstant(cutoffHz));
+    }
+
+    private final int kind;
+    private final float timeConstant;
+
+    private SensorFilter(int kind, float timeConstant) {
+        this.kind = kind;
+        this.timeConstant = timeConstant;
+    }
+
+    /**
+     * Filters the three axes of a sample in place.
+     *
+     * @param state The low-passed signal so far, per axis; updated.
+     * @param values The sample, per axis; replaced by the filtered values.
+     * @param dt The time since the previous sample, in seconds; ignored for the first sample.
+     * @param first Whether this is the first sample, which initializes the state.
+     */
+    public void apply(float[] state, float[] values, float dt, boolean first) {
+        if (kind == PASS) {
+            return;
+        }
+        final float alpha = first ? 1f : smoothing(dt, timeConstant);
+        for (int axis = 0; axis < 3; axis++) {
+            state[axis] += alpha * (values[axis] - state[axis]);
+            values[axis] = kind == LOW_PASS ? state[axis] : values[axis] - state[axis];
+        }
+    }
+
+    /**
+     * @return The weight of a new sample in a first-order low-pass filter.
+     */
+    static float smoothing(float dt, float timeConstant) {
+        return dt <= 0f ? 0f : dt / (timeConstant + dt);
+    }
+
+    static float timeConstant(float cutoffHz) {
+        if (cutoffHz <= 0f) {
+            throw new IllegalArgumentException("cutoff must be positive: " + cutoffHz);
+        }
+        return (float) (1.0 / (2.0 * Math.PI * cutoffHz));
+    }
+
+    @Override public String toString() {
+        return kind == PASS ? "SensorFilter(none)" : String.format("SensorFilter(%s, %.1f Hz)",
+                kind == LOW_PASS ? "low-pass" : "high-pass", 1.0 / (2.0 * Math.PI * timeConstant));
+    }
+}
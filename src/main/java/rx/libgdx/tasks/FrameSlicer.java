@@ -0,0 +1,168 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.tasks;
+
+import rx.Observable;
+import rx.Subscriber;
+import rx.Subscription;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.libgdx.events.tasks.TaskProgressEvent;
+import rx.subscriptions.Subscriptions;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Runs long computations on the GL thread a few steps at a time, within a budget per frame.
+ * <p>
+ * Tasks run in the order they were submitted. In each frame, {@link #runFrame} steps the first task until it is
+ * done or the budget is spent, then continues with the next one, so that the first tasks finish in as few frames
+ * as possible. The budget is checked after each step, and at least one step runs per frame, so a frame takes
+ * the budget plus at most one step longer.
+ * <p>
+ * Stepping doesn't allocate; each task emits one progress event per frame in which it ran.
+ */
+public final class FrameSlicer {
+
+    private final long budgetNanos;
+    private final Queue<Job<?>> jobs = new ConcurrentLinkedQueue<Job<?>>();
+
+    /**
+     * @param budgetNanos The maximum time per frame to spend on tasks, in nanoseconds.
+     */
+    public FrameSlicer(long budgetNanos) {
+        if (budgetNanos < 0L) {
+            throw new IllegalArgumentException("budget may not be negative: " + budgetNanos);
+        }
+        this.budgetNanos = budgetNanos;
+    }
+
+    /**
+     * Creates an observable that queues the task on subscription and runs it in the following frames. Emits the
+     * progress after each frame in which the task ran, the last event carrying the result, then completes.
+     * Unsubscribing cancels the task before its next step. Exceptions thrown by a step are emitted as errors.
+     * Each subscription runs the task anew, so use a fresh task per subscription.
+     *
+     * @param task The task to run
+     * @return Observable emitting the progress of the task.
+     */
+    public <R> Observable<TaskProgressEvent<R>> submit(final SlicedTask<R> task) {
+        return Observable.create(new Observable.OnSubscribe<TaskProgressEvent<R>>() {
+
+            @Override
+            public void call(Subscriber<? super TaskProgressEvent<R>> subscriber) {
+                final Job<R> job = new Job<R>(task, subscriber);
+                jobs.add(job);
+                subscriber.add(Subscriptions.create(new Action0() {
+
+                    @Override
+                    public void call() {
+                        jobs.remove(job);
+                    }
+                }));
+            }
+        });
+    }
+
+    /**
+     * Calls {@link #runFrame} once per frame while subscribed.
+     *
+     * @param frames One signal per frame, on the GL thread, e.g. {@link rx.GdxObservable#fromRenderTicks}
+     * @return The subscription to unsubscribe from to stop running tasks.
+     */
+    public Subscription attach(Observable<?> frames) {
+        return frames.subscribe(new Action1<Object>() {
+
+            @Override
+            public void call(Object frame) {
+                runFrame();
+            }
+        });
+    }
+
+    /**
+     * Runs tasks within the budget. Call this once per frame on the GL thread, unless {@link #attach} does.
+     *
+     * @return <code>true</code> if no tasks are left.
+     */
+    public boolean runFrame() {
+        final long deadline = System.nanoTime() + budgetNanos;
+        Job<?> job;
+        while ((job = jobs.peek()) != null) {
+            if (!job.runUntil(deadline)) {
+                break; // out of time
+            }
+            jobs.remove(job);
+            if (System.nanoTime() >= deadline) {
+                break;
+            }
+        }
+        return jobs.isEmpty();
+    }
+
+    public int getPending() {
+        return jobs.size();
+    }
+
+    @Override public String toString() {
+        return String.format("FrameSlicer(%d ns per frame, %d tasks)", budgetNanos, jobs.size());
+    }
+
+    private static final class Job<R> {
+
+        private final SlicedTask<R> task;
+        private final Subscriber<? super TaskProgressEvent<R>> subscriber;
+        private int steps;
+        private int frames;
+
+        Job(SlicedTask<R> task, Subscriber<? super TaskProgressEvent<R>> subscriber) {
+            this.task = task;
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * @return <code>true</code> if the job is over, because it's done, failed or was cancelled.
+         */
+        boolean runUntil(long deadline) {
+            frames++;
+            boolean done;
+            final TaskProgressEvent<R> event;
+            try {
+                do {
+                    if (subscriber.isUnsubscribed()) {
+                        return true;
+                    }
+                    done = task.step();
+                    steps++;
+                } while (!done && System.nanoTime() < deadline);
+                // the result and the progress are the task's code too, and fail like its steps
+                event = done
+                        ? new TaskProgressEvent<R>(1f, steps, frames, true, task.getResult())
+                        : new TaskProgressEvent<R>(task.getProgress(), steps, frames, false, null);
+            } catch (RuntimeException e) {
+                subscriber.onError(e);
+                return true;
+            }
+
+            subscriber.onNext(event);
+            if (done) {
+                subscriber.onCompleted();
+            }
+            return done;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.tasks;
+
+import rx.functions.Func0;
+
+import java.util.Iterator;
+
+/**
+ * A sliced task made of an iterator whose every call of <code>next</code> does one step of the work, like
+ * expanding one node of a path search or laying out one widget.
+ */
+public final class IteratorTask<R> implements SlicedTask<R> {
+
+    private final Iterator<?> steps;
+    private final int count;
+    private final Func0<? extends R> result;
+    private int done;
+
+    /**
+     * @param steps The iterator doing one step per element.
+     * @param count The expected number of steps, for the progress; less than 1 if unknown.
+     * @param result Provides the result after the last step.
+     */
+    public IteratorTask(Iterator<?> steps, int count, Func0<? extends R> result) {
+        this.steps = steps;
+        this.count = count;
+        this.result = result;
+    }
+
+    @Override
+    public boolean step() {
+        if (steps.hasNext()) {
+            steps.next();
+            done++;
+        }
+        return !steps.hasNext();
+    }
+
+    @Override
+    public float getProgress() {
+        return count < 1 ? 0f : Math.min(1f, (float) done / count);
+    }
+
+    @Override
+    public R getResult() {
+        return result.call();
+    }
+
+    @Override public String toString() {
+        return String.format("IteratorTask(%d of %d steps)", done, count);
+    }
+}
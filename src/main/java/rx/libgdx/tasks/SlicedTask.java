@@ -0,0 +1,41 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.tasks;
+
+/**
+ * A computation split into small steps, which {@link FrameSlicer} runs a few at a time per frame. The task keeps
+ * its own state between steps, so that it can resume where it left off in the next frame.
+ */
+public interface SlicedTask<R> {
+
+    /**
+     * Does the next bit of work. Steps should be short compared to the frame budget, since the budget is only
+     * checked between them.
+     *
+     * @return <code>true</code> once the task is complete.
+     */
+    boolean step();
+
+    /**
+     * @return The completed fraction from 0 to 1, or an estimate of it.
+     */
+    float getProgress();
+
+    /**
+     * @return The result, called once after the last step.
+     */
+    R getResult();
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx;
+
+import com.badlogic.gdx.ApplicationListener;
+import org.junit.Test;
+import rx.libgdx.events.lifecycle.*;
+import rx.observers.TestSubscriber;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class RxApplicationTest {
+
+    @Test
+    public void testMulticastsToAllSubscribers() {
+        final TestSubscriber<LifecycleEvent> first = new TestSubscriber<LifecycleEvent>();
+        final TestSubscriber<LifecycleEvent> second = new TestSubscriber<LifecycleEvent>();
+        final TestSubscriber<LifecycleEvent> third = new TestSubscriber<LifecycleEvent>();
+
+        final ApplicationListener app = RxApplication.app(new RxGame() {
+            @Override
+            public void start(Observable<LifecycleEvent> lifecycle) {
+                lifecycle.subscribe(first);
+                lifecycle.subscribe(second);
+            }
+        }, new RxGame() {
+            @Override
+            public void start(Observable<LifecycleEvent> lifecycle) {
+                lifecycle.subscribe(third);
+            }
+        });
+
+        app.create();
+        app.resize(640, 480);
+        app.render();
+        second.unsubscribe();
+        app.render();
+        app.dispose();
+
+        assertEquals(5, first.getOnNextEvents().size());
+        assertEquals(3, second.getOnNextEvents().size());
+        assertEquals(5, third.getOnNextEvents().size());
+        assertEquals(new ResizeEvent(640, 480), first.getOnNextEvents().get(1));
+        assertSame(first.getOnNextEvents().get(2), third.getOnNextEvents().get(3));
+        first.assertTerminalEvent();
+        third.assertTerminalEvent();
+        assertEquals(0, first.getOnErrorEvents().size());
+    }
+
+}
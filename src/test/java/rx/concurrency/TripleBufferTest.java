@@ -0,0 +1,117 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.concurrency;
+
+import org.junit.Test;
+import rx.functions.Action2;
+import rx.functions.Func0;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class TripleBufferTest {
+
+    private static final Func0<long[]> STATE = new Func0<long[]>() {
+
+        @Override
+        public long[] call() {
+            return new long[64];
+        }
+    };
+
+    @Test
+    public void testNeverReadsTornOrOutdatedStates() throws InterruptedException {
+        final TripleBuffer<long[]> buffer = new TripleBuffer<long[]>(STATE);
+        final long states = 2000000L;
+        final AtomicBoolean done = new AtomicBoolean();
+        final Thread producer = new Thread(new Runnable() {
+
+            @Override
+            public void run() {
+                for (long state = 1L; state <= states; state++) {
+                    Arrays.fill(buffer.back(), state);
+                    buffer.publish();
+                }
+                done.set(true);
+            }
+        });
+        producer.start();
+
+        long last = 0L;
+        long updates = 0L;
+        while (true) {
+            final boolean finished = done.get();
+            if (!buffer.update()) {
+                if (finished) {
+                    break;
+                }
+                Thread.yield();
+                continue;
+            }
+            updates++;
+            final long[] front = buffer.front();
+            final long state = front[0];
+            for (long value : front) {
+                assertEquals("torn read", state, value);
+            }
+            assertTrue("went back from " + last + " to " + state, state > last);
+            last = state;
+        }
+        producer.join();
+
+        assertEquals(states, buffer.front()[0]);
+        assertTrue(updates > 1L);
+    }
+
+    @Test
+    public void testEmitsTheLatestPublishedStatePerFrame() {
+        final TripleBuffer<long[]> buffer = new TripleBuffer<long[]>(STATE);
+        final PublishSubject<Long> steps = PublishSubject.create();
+        final PublishSubject<Object> frames = PublishSubject.create();
+        buffer.publishing(steps, new Action2<Long, long[]>() {
+
+            @Override
+            public void call(Long step, long[] state) {
+                Arrays.fill(state, step);
+            }
+        }).subscribe();
+        final TestSubscriber<long[]> subscriber = new TestSubscriber<long[]>();
+        buffer.latest(frames).subscribe(subscriber);
+
+        frames.onNext(0);
+        assertTrue("nothing published yet", subscriber.getOnNextEvents().isEmpty());
+
+        steps.onNext(1L);
+        steps.onNext(2L);
+        frames.onNext(1);
+        frames.onNext(2);
+        steps.onNext(3L);
+        frames.onNext(3);
+
+        assertEquals(3, subscriber.getOnNextEvents().size());
+        assertEquals(2L, subscriber.getOnNextEvents().get(0)[0]);
+        assertSame(subscriber.getOnNextEvents().get(0), subscriber.getOnNextEvents().get(1));
+        assertEquals(3L, subscriber.getOnNextEvents().get(2)[0]);
+        assertFalse(buffer.update());
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.ApplicationListener;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import rx.GdxObservable;
+import rx.Observable;
+import rx.RxApplication;
+import rx.RxGame;
+import rx.Scheduler;
+import rx.Subscription;
+import rx.concurrency.GdxScheduler;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.libgdx.events.box2d.ContactEvent;
+import rx.libgdx.events.input.InputEvent;
+import rx.libgdx.events.lifecycle.LifecycleEvent;
+import rx.libgdx.events.lifecycle.RenderEvent;
+import rx.libgdx.headless.StubApplication;
+import rx.libgdx.headless.StubGraphics;
+import rx.libgdx.headless.StubInput;
+import rx.libgdx.sources.GdxLifecycleEventSource;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Drives the per-frame and per-event paths in steady state and fails when one of them allocates more than its
+ * budget. A budget is only ever raised on purpose, together with the change that needs it.
+ */
+public class AllocationBudgetTest {
+
+    /** Rendering a frame reuses the render event. */
+    private static final int RENDER_TICK_BUDGET = 0;
+
+    /** Ticking a wrapped listener reuses the render event, too. */
+    private static final int RENDER_TICK_LISTENER_BUDGET = 0;
+
+    /** One input event object per input callback. */
+    private static final int INPUT_EVENT_BUDGET = 32;
+
+    /** One contact event object per contact callback. */
+    private static final int CONTACT_EVENT_BUDGET = 32;
+
+    /** Stepping a world nobody listens to must not cost anything on the Java side. */
+    private static final int UNOBSERVED_STEP_BUDGET = 0;
+
+    /** The queued action and the runnable wrapping it. */
+    private static final int SCHEDULED_ACTION_BUDGET = 96;
+
+    private AllocationMeter meter;
+
+    /** Where subscribers put the events, so that the JIT cannot optimize their allocation away. */
+    private volatile Object sink;
+
+    @Before
+    public void createMeter() {
+        Assume.assumeTrue(AllocationMeter.isSupported());
+        meter = new AllocationMeter();
+    }
+
+    @After
+    public void resetGdx() {
+        Gdx.app = null;
+        Gdx.input = null;
+    }
+
+    @Test
+    public void testRenderTick() {
+        final ApplicationListener listener = RxApplication.app(new RxGame() {
+
+            @Override
+            public void start(Observable<LifecycleEvent> lifecycle) {
+                GdxLifecycleEventSource.render(lifecycle).subscribe(new Action1<RenderEvent>() {
+
+                    @Override
+                    public void call(RenderEvent event) {
+                        sink = event;
+                    }
+                });
+            }
+        });
+        listener.create();
+        try {
+            assertWithinBudget("render tick", meter.bytesPerOperation(new Action0() {
+
+                @Override
+                public void call() {
+                    listener.render();
+                }
+            }, 10000), RENDER_TICK_BUDGET);
+        } finally {
+            listener.dispose();
+        }
+    }
+
+    @Test
+    public void testRenderTickListener() {
+        final ApplicationListener listener = GdxObservable.withRenderTicks(new ApplicationAdapter() { });
+        final Subscription subscription = GdxObservable.fromRenderTicks().subscribe(new Action1<RenderEvent>() {
+
+            @Override
+            public void call(RenderEvent event) {
+                sink = event;
+            }
+        });
+        try {
+            assertWithinBudget("render tick listener", meter.bytesPerOperation(new Action0() {
+
+                @Override
+                public void call() {
+                    listener.render();
+                }
+            }, 10000), RENDER_TICK_LISTENER_BUDGET);
+        } finally {
+            subscription.unsubscribe();
+        }
+    }
+
+    @Test
+    public void testInputEvent() {
+        Gdx.input = new StubInput();
+        final Subscription subscription = GdxObservable.fromInput().subscribe(new Action1<InputEvent>() {
+
+            @Override
+            public void call(InputEvent event) {
+                sink = event;
+            }
+        });
+        final InputProcessor processor = Gdx.input.getInputProcessor();
+        try {
+            assertWithinBudget("input event", meter.bytesPerOperation(new Action0() {
+                private int x;
+
+                @Override
+                public void call() {
+                    x = (x + 1) & 1023;
+                    processor.touchDragged(x, 300, 0);
+                }
+            }, 10000), INPUT_EVENT_BUDGET);
+        } finally {
+            subscription.unsubscribe();
+        }
+    }
+
+    @Test
+    public void testContactEvent() {
+        final World world = createPile();
+        final int[] events = new int[1];
+        final Subscription subscription = GdxObservable.fromBox2DContact(world).subscribe(new Action1<ContactEvent>() {
+
+            @Override
+            public void call(ContactEvent event) {
+                sink = event;
+                events[0]++;
+            }
+        });
+        try {
+            final Action0 step = step(world);
+            for (int i = 0; i < 60; i++) {
+                step.call();
+            }
+            events[0] = 0;
+            step.call();
+            final int eventsPerStep = events[0];
+            assertTrue("the pile has no contacts", eventsPerStep > 0);
+
+            assertWithinBudget("contact event", meter.bytesPerOperation(step, 200) / eventsPerStep,
+                    CONTACT_EVENT_BUDGET);
+        } finally {
+            subscription.unsubscribe();
+            world.dispose();
+        }
+    }
+
+    @Test
+    public void testUnobservedWorldStep() {
+        final World world = createPile();
+        try {
+            assertWithinBudget("unobserved world step", meter.bytesPerOperation(step(world), 200),
+                    UNOBSERVED_STEP_BUDGET);
+        } finally {
+            world.dispose();
+        }
+    }
+
+    @Test
+    public void testScheduledAction() {
+        final StubApplication app = new StubApplication(new ApplicationAdapter() { }, new StubGraphics(640, 480),
+                new StubInput());
+        Gdx.app = app;
+        final Scheduler.Worker worker = GdxScheduler.get().createWorker();
+        final Action0 action = new Action0() {
+
+            @Override
+            public void call() { }
+        };
+        assertWithinBudget("scheduled action", meter.bytesPerOperation(new Action0() {
+
+            @Override
+            public void call() {
+                worker.schedule(action);
+                app.executeRunnables();
+            }
+        }, 10000), SCHEDULED_ACTION_BUDGET); // the worker is shared, so it stays subscribed
+    }
+
+    private static void assertWithinBudget(String path, double bytes, int budget) {
+        assertTrue(String.format("%s allocates %.1f bytes, its budget is %d", path, bytes, budget), bytes <= budget);
+    }
+
+    /** A pile of 32 boxes that never sleeps, so that every step reports contacts. */
+    private static World createPile() {
+        GdxNativesLoader.load();
+        final World world = new World(new Vector2(0f, -10f), false);
+
+        final PolygonShape ground = new PolygonShape();
+        ground.setAsBox(50f, 1f);
+        world.createBody(new BodyDef()).createFixture(ground, 0f);
+        ground.dispose();
+
+        final PolygonShape box = new PolygonShape();
+        box.setAsBox(0.5f, 0.5f);
+        final BodyDef def = new BodyDef();
+        def.type = BodyDef.BodyType.DynamicBody;
+        for (int i = 0; i < 32; i++) {
+            def.position.set((i % 16) * 1.01f - 8f, 1.5f + (i / 16) * 1.01f);
+            world.createBody(def).createFixture(box, 1f);
+        }
+        box.dispose();
+        return world;
+    }
+
+    private static Action0 step(final World world) {
+        return new Action0() {
+
+            @Override
+            public void call() {
+                world.step(1f / 60f, 8, 3);
+            }
+        };
+    }
+}
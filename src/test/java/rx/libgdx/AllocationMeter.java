@@ -0,0 +1,77 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx;
+
+import rx.functions.Action0;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes the current thread allocates per call of an action, using the allocation counter of
+ * <code>com.sun.management.ThreadMXBean</code>. The action is run often enough beforehand that the JIT has compiled
+ * it, so that what is measured is the steady state.
+ */
+final class AllocationMeter {
+
+    private static final int WARMUP = 20000;
+    private static final int RUNS = 5;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final long thread;
+    private final long overhead;
+
+    AllocationMeter() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threads.setThreadAllocatedMemoryEnabled(true);
+        thread = Thread.currentThread().getId();
+        overhead = calibrate();
+    }
+
+    static boolean isSupported() {
+        return ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                        .isThreadAllocatedMemorySupported();
+    }
+
+    /**
+     * @return the fewest bytes allocated per operation over several runs, so that a stray allocation by the
+     *         runtime during one of them (class loading, a deoptimization) does not count against the action
+     */
+    double bytesPerOperation(Action0 action, int operations) {
+        for (int i = 0; i < WARMUP; i++) {
+            action.call();
+        }
+        long least = Long.MAX_VALUE;
+        for (int run = 0; run < RUNS; run++) {
+            final long before = threads.getThreadAllocatedBytes(thread);
+            for (int i = 0; i < operations; i++) {
+                action.call();
+            }
+            final long allocated = threads.getThreadAllocatedBytes(thread) - before - overhead;
+            least = Math.min(least, allocated);
+        }
+        return Math.max(0L, least) / (double) operations;
+    }
+
+    private long calibrate() {
+        long least = Long.MAX_VALUE;
+        for (int i = 0; i < WARMUP; i++) {
+            final long before = threads.getThreadAllocatedBytes(thread);
+            least = Math.min(least, threads.getThreadAllocatedBytes(thread) - before);
+        }
+        return least;
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.assets;
+
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.assets.loaders.SynchronousAssetLoader;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.libgdx.events.assets.AssetProgressEvent;
+import rx.observers.TestSubscriber;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RxAssetManagerTest {
+
+    /**
+     * A text asset whose synchronous step stands in for a GL upload, taking 5 ms.
+     */
+    public static class Text {
+        final String content;
+
+        Text(String content) {
+            this.content = content;
+        }
+    }
+
+    /**
+     * A text asset loaded synchronously, which resolves its (lack of) dependencies in an update of its own.
+     */
+    public static class Line {
+        final String content;
+
+        Line(String content) {
+            this.content = content;
+        }
+    }
+
+    private File directory;
+    private AssetManager manager;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = File.createTempFile("assets", "");
+        assertTrue(directory.delete());
+        final FileHandleResolver resolver = new FileHandleResolver() {
+            @Override
+            public FileHandle resolve(String fileName) {
+                return new FileHandle(new File(directory, fileName));
+            }
+        };
+        for (String name : new String[] { "a", "b", "c" }) {
+            new FileHandle(new File(directory, name + ".txt")).writeString(name, false);
+        }
+
+        manager = new AssetManager(resolver);
+        manager.setLoader(Text.class, new AsynchronousAssetLoader<Text, AssetLoaderParameters<Text>>(resolver) {
+
+            private String content;
+
+            @Override
+            public void loadAsync(AssetManager manager, String fileName, FileHandle file,
+                                  AssetLoaderParameters<Text> parameter) {
+                content = file.readString();
+            }
+
+            @Override
+            public Text loadSync(AssetManager manager, String fileName, FileHandle file,
+                                 AssetLoaderParameters<Text> parameter) {
+                final long end = System.nanoTime() + 5000000L;
+                while (System.nanoTime() < end) {
+                    // uploading
+                }
+                return new Text(content);
+            }
+
+            @Override
+            @SuppressWarnings("rawtypes")
+            public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file,
+                                                          AssetLoaderParameters<Text> parameter) {
+                return null;
+            }
+        });
+        manager.setLoader(Line.class, new SynchronousAssetLoader<Line, AssetLoaderParameters<Line>>(resolver) {
+
+            @Override
+            public Line load(AssetManager manager, String fileName, FileHandle file,
+                             AssetLoaderParameters<Line> parameter) {
+                return new Line(file.readString());
+            }
+
+            @Override
+            @SuppressWarnings("rawtypes")
+            public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file,
+                                                          AssetLoaderParameters<Line> parameter) {
+                return new Array<AssetDescriptor>();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        manager.dispose();
+        new FileHandle(directory).deleteDirectory();
+    }
+
+    @Test
+    public void testEmitsEachAssetOnceLoaded() throws InterruptedException {
+        final RxAssetManager assets = new RxAssetManager(manager, 1f);
+        final TestSubscriber<Text> a = new TestSubscriber<Text>();
+        final TestSubscriber<Text> b = new TestSubscriber<Text>();
+        assets.load("a.txt", Text.class).subscribe(a);
+        assets.load("b.txt", Text.class).subscribe(b);
+
+        final List<Integer> loadedPerFrame = frames(assets);
+
+        assertEquals("a", a.getOnNextEvents().get(0).content);
+        assertEquals("b", b.getOnNextEvents().get(0).content);
+        a.assertTerminalEvent();
+        b.assertTerminalEvent();
+        for (int loaded : loadedPerFrame) {
+            assertTrue(loaded <= 1); // the budget is shorter than a single upload
+        }
+    }
+
+    @Test
+    public void testReportsProgressOfPrefetchedGroup() throws InterruptedException {
+        final RxAssetManager assets = new RxAssetManager(manager, 100f);
+        final TestSubscriber<AssetProgressEvent> progress = new TestSubscriber<AssetProgressEvent>();
+        assets.prefetch(new AssetDescriptor<Text>("a.txt", Text.class), new AssetDescriptor<Text>("b.txt", Text.class),
+                new AssetDescriptor<Text>("c.txt", Text.class)).subscribe(progress);
+
+        frames(assets);
+
+        final List<AssetProgressEvent> events = progress.getOnNextEvents();
+        int loaded = -1;
+        for (AssetProgressEvent event : events) {
+            assertTrue("progress reported twice or backwards: " + events, event.getLoaded() > loaded);
+            assertEquals(3, event.getLoaded() + event.getRemaining());
+            loaded = event.getLoaded();
+        }
+        assertEquals(new AssetProgressEvent(3, 0), events.get(events.size() - 1));
+        progress.assertTerminalEvent();
+        assertTrue(manager.isLoaded("c.txt", Text.class));
+    }
+
+    @Test
+    public void testFinishesSeveralAssetsWithinOneFrame() {
+        final RxAssetManager assets = new RxAssetManager(manager, 1000f);
+        final TestSubscriber<AssetProgressEvent> progress = new TestSubscriber<AssetProgressEvent>();
+        assets.prefetch(new AssetDescriptor<Line>("a.txt", Line.class), new AssetDescriptor<Line>("b.txt", Line.class),
+                new AssetDescriptor<Line>("c.txt", Line.class)).subscribe(progress);
+
+        assertTrue(assets.update());
+
+        assertEquals(3, manager.getLoadedAssets());
+        assertEquals("c", manager.get("c.txt", Line.class).content);
+        assertEquals(new AssetProgressEvent(3, 0), progress.getOnNextEvents().get(0));
+        progress.assertTerminalEvent();
+    }
+
+    @Test
+    public void testFailsForMissingAssets() throws InterruptedException {
+        final RxAssetManager assets = new RxAssetManager(manager, 1f);
+        final TestSubscriber<Text> missing = new TestSubscriber<Text>();
+        assets.load("missing.txt", Text.class).subscribe(missing);
+
+        frames(assets);
+
+        assertEquals(1, missing.getOnErrorEvents().size());
+    }
+
+    /**
+     * Runs frames until all assets are loaded, returning the number of assets loaded in each.
+     */
+    private static List<Integer> frames(RxAssetManager assets) throws InterruptedException {
+        final List<Integer> loadedPerFrame = new ArrayList<Integer>();
+        final long deadline = System.currentTimeMillis() + 5000L;
+        boolean done = false;
+        while (!done && System.currentTimeMillis() < deadline) {
+            final int before = assets.getManager().getLoadedAssets();
+            done = assets.update();
+            loadedPerFrame.add(assets.getManager().getLoadedAssets() - before);
+            Thread.sleep(1L);
+        }
+        assertTrue(done);
+        return loadedPerFrame;
+    }
+}
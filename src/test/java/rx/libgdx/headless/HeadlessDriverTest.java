@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.ApplicationListener;
+import org.junit.Test;
+import rx.GdxObservable;
+import rx.Observable;
+import rx.RxGame;
+import rx.concurrency.GdxScheduler;
+import rx.functions.Action0;
+import rx.functions.Action1;
+import rx.functions.Func1;
+import rx.libgdx.events.input.InputEvent;
+import rx.libgdx.events.input.KeyDownEvent;
+import rx.libgdx.events.lifecycle.LifecycleEvent;
+import rx.libgdx.events.lifecycle.RenderEvent;
+import rx.libgdx.sources.FrameTimer;
+import rx.libgdx.sources.GdxLifecycleEventSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HeadlessDriverTest {
+
+    @Test
+    public void testRunsLifecycleWithSyntheticTimeAndRecordedInput() {
+        final List<Long> deltas = new ArrayList<Long>();
+        final List<Long> keyFrames = new ArrayList<Long>();
+        final long[] frame = new long[1];
+        final int[] scheduled = new int[1];
+
+        final HeadlessDriver driver = HeadlessDriver.of(new RxGame() {
+            @Override
+            public void start(Observable<LifecycleEvent> lifecycle) {
+                GdxLifecycleEventSource.render(lifecycle).subscribe(new Action1<RenderEvent>() {
+                    @Override
+                    public void call(RenderEvent event) {
+                        frame[0] = event.getFrame();
+                        deltas.add(event.getDeltaNanos());
+                        if (event.getFrame() == 2) {
+                            GdxScheduler.get().createWorker().schedule(new Action0() {
+                                @Override
+                                public void call() {
+                                    scheduled[0]++;
+                                }
+                            });
+                        }
+                    }
+                });
+                GdxLifecycleEventSource.create(lifecycle).subscribe(new Action1<LifecycleEvent>() {
+                    @Override
+                    public void call(LifecycleEvent event) {
+                        GdxObservable.fromInput().subscribe(new Action1<InputEvent>() {
+                            @Override
+                            public void call(InputEvent event) {
+                                keyFrames.add(frame[0] + 1); // input arrives before the frame's render event
+                            }
+                        });
+                    }
+                });
+            }
+        });
+        driver.setInput(new RecordedInput().add(3, new KeyDownEvent(42)).add(7, new KeyDownEvent(43)));
+
+        final DriverReport report = driver.run(10);
+
+        assertEquals(10, report.getFrames());
+        assertEquals(10, deltas.size());
+        assertEquals(0L, (long) deltas.get(0));
+        assertEquals(1000000000L / 60L, (long) deltas.get(9));
+        assertEquals(1, scheduled[0]);
+        assertEquals(2, keyFrames.size());
+        assertEquals(3L, (long) keyFrames.get(0));
+        assertEquals(7L, (long) keyFrames.get(1));
+        assertTrue(report.getFramesPerSecond() > 0.0);
+    }
+
+    @Test
+    public void testHandsItsClockToTheApplicationAndReportsAllFrames() {
+        final List<Long> times = new ArrayList<Long>();
+        final HeadlessDriver driver = new HeadlessDriver(new Func1<FrameTimer.Clock, ApplicationListener>() {
+
+            @Override
+            public ApplicationListener call(FrameTimer.Clock clock) {
+                return GdxObservable.withRenderTicks(new ApplicationAdapter() { }, clock);
+            }
+        }, 640, 480, 1000L);
+        GdxObservable.fromRenderTicks().take(3).subscribe(new Action1<RenderEvent>() {
+
+            @Override
+            public void call(RenderEvent event) {
+                times.add(event.getTimeNanos());
+            }
+        });
+
+        final DriverReport report = driver.run(200000);
+
+        assertEquals(Arrays.asList(0L, 1000L, 2000L), times);
+        assertEquals(200000, report.getFrames());
+        assertTrue(report.getP50FrameNanos() > 0L);
+        assertTrue(report.getP50FrameNanos() <= report.getP99FrameNanos());
+    }
+
+}
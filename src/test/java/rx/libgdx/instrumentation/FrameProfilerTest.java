@@ -0,0 +1,165 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import org.junit.Test;
+import rx.Observable;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.libgdx.sources.FrameTimer;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FrameProfilerTest {
+
+    private static final long MS = 1000000L;
+
+    private long now;
+
+    private final FrameTimer.Clock clock = new FrameTimer.Clock() {
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+    };
+
+    private final PublishSubject<Object> source = PublishSubject.create();
+
+    @Test
+    public void testAddsUpTheTimesOfEachSubscriberPerFrame() {
+        final FrameProfiler profiler = new FrameProfiler(true, 4, 100L * MS, clock);
+        final List<String> profiles = record(profiler);
+        profiler.profile(source, "a").subscribe(costing(3L * MS));
+        profiler.profile(source, "b").subscribe(costing(5L * MS));
+
+        source.onNext("first");
+        source.onNext("second");
+        profiler.endFrame(1L, 20L * MS);
+        profiler.endFrame(2L, 20L * MS); // nothing happened, and the times were reset
+
+        assertEquals(Arrays.asList("1: b=10, a=6", "2:"), profiles);
+    }
+
+    @Test
+    public void testReportsOnlyTheTopKInOrder() {
+        final FrameProfiler profiler = new FrameProfiler(true, 2, 100L * MS, clock);
+        final List<String> profiles = record(profiler);
+        profiler.profile(source, "cheap").subscribe(costing(1L * MS));
+        profiler.profile(source, "expensive").subscribe(costing(4L * MS));
+        profiler.profile(source, "medium").subscribe(costing(2L * MS));
+        profiler.profile(source, "most expensive").subscribe(costing(8L * MS));
+
+        source.onNext("event");
+        profiler.endFrame(1L, 20L * MS);
+
+        assertEquals(Arrays.asList("1: most expensive=8, expensive=4"), profiles);
+    }
+
+    @Test
+    public void testStopsProfilingUnsubscribedSubscribers() {
+        final FrameProfiler profiler = new FrameProfiler(true, 4, 100L * MS, clock);
+        final List<String> profiles = record(profiler);
+        final Subscription a = profiler.profile(source, "a").subscribe(costing(3L * MS));
+        profiler.profile(source, "b").subscribe(costing(5L * MS));
+
+        source.onNext("event");
+        a.unsubscribe();
+        profiler.endFrame(1L, 20L * MS); // a's time of this frame is gone with it
+        source.onNext("event");
+        profiler.endFrame(2L, 20L * MS);
+
+        assertEquals(Arrays.asList("1: b=5", "2: b=5"), profiles);
+    }
+
+    @Test
+    public void testFiresTheWatchdogForFramesOverBudget() {
+        final FrameProfiler profiler = new FrameProfiler(true, 4, 16L * MS, clock);
+        final TestSubscriber<FrameBudgetExceededEvent> watchdog = new TestSubscriber<FrameBudgetExceededEvent>();
+        profiler.watchdog().subscribe(watchdog);
+        profiler.profile(source, "a").subscribe(costing(3L * MS));
+        profiler.profile(source, "b").subscribe(costing(12L * MS));
+
+        source.onNext("event");
+        profiler.endFrame(1L, 16L * MS);
+        assertTrue(watchdog.getOnNextEvents().isEmpty());
+
+        source.onNext("event");
+        profiler.endFrame(2L, 17L * MS);
+        assertEquals(1, watchdog.getOnNextEvents().size());
+        final FrameBudgetExceededEvent event = watchdog.getOnNextEvents().get(0);
+        assertEquals(2L, event.getFrame());
+        assertEquals(17L * MS, event.getFrameNanos());
+        assertEquals(16L * MS, event.getBudgetNanos());
+        assertArrayEquals(new String[] { "b", "a" }, event.getLabels());
+        assertArrayEquals(new long[] { 12L * MS, 3L * MS }, event.getNanos());
+    }
+
+    @Test
+    public void testDoesNothingWhenDisabled() {
+        final FrameProfiler profiler = new FrameProfiler(false, 4, 0L, clock);
+        final List<String> profiles = record(profiler);
+        final TestSubscriber<FrameBudgetExceededEvent> watchdog = new TestSubscriber<FrameBudgetExceededEvent>();
+        profiler.watchdog().subscribe(watchdog);
+
+        final Observable<Object> profiled = profiler.profile(source, "a");
+        assertSame(source, profiled);
+        profiled.subscribe(costing(3L * MS));
+        source.onNext("event");
+        profiler.endFrame(1L, 20L * MS);
+
+        assertTrue(profiles.isEmpty());
+        assertTrue(watchdog.getOnNextEvents().isEmpty());
+    }
+
+    /** A subscriber that takes the given time per event, on the test clock. */
+    private Action1<Object> costing(final long nanos) {
+        return new Action1<Object>() {
+
+            @Override
+            public void call(Object event) {
+                now += nanos;
+            }
+        };
+    }
+
+    /** Describes each profile as "frame: label=ms, ...", as profiles are reused. */
+    private static List<String> record(FrameProfiler profiler) {
+        final List<String> profiles = new ArrayList<String>();
+        profiler.profiles().subscribe(new Action1<FrameProfile>() {
+
+            @Override
+            public void call(FrameProfile profile) {
+                final StringBuilder builder = new StringBuilder().append(profile.getFrame()).append(':');
+                for (int i = 0; i < profile.size(); i++) {
+                    builder.append(i == 0 ? " " : ", ").append(profile.getLabel(i)).append('=')
+                            .append(profile.getNanos(i) / MS);
+                }
+                profiles.add(builder.toString());
+            }
+        });
+        return profiles;
+    }
+}
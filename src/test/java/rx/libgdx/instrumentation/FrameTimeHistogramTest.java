@@ -0,0 +1,101 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class FrameTimeHistogramTest {
+
+    private static final long MS = 1000000L;
+    private static final long HALF_MS = MS / 2L;
+
+    @Test
+    public void testIsEmptyBeforeRecording() {
+        final FrameTimeHistogram histogram = new FrameTimeHistogram();
+        assertEquals(0, histogram.size());
+        assertEquals(0L, histogram.percentile(50.0));
+        assertEquals(0L, histogram.max());
+    }
+
+    @Test
+    public void testReportsPercentilesAsBucketUpperBounds() {
+        final FrameTimeHistogram histogram = new FrameTimeHistogram(100, MS, 200);
+        for (int i = 100; i >= 1; i--) {
+            histogram.record(i * MS - HALF_MS); // i - 0.5 ms, in bucket i - 1
+        }
+        assertEquals(100, histogram.size());
+        assertEquals(1L * MS, histogram.percentile(1.0));
+        assertEquals(50L * MS, histogram.percentile(50.0));
+        assertEquals(99L * MS, histogram.percentile(99.0));
+        assertEquals(100L * MS, histogram.percentile(100.0));
+        assertEquals(100L * MS - HALF_MS, histogram.max());
+    }
+
+    @Test
+    public void testCoversOnlyTheWindow() {
+        final FrameTimeHistogram histogram = new FrameTimeHistogram(4, MS, 100);
+        for (int i = 0; i < 4; i++) {
+            histogram.record(80L * MS);
+        }
+        assertEquals(81L * MS, histogram.percentile(50.0));
+
+        for (int i = 0; i < 3; i++) {
+            histogram.record(10L * MS);
+        }
+        assertEquals(4, histogram.size());
+        assertEquals(11L * MS, histogram.percentile(75.0));
+        assertEquals(81L * MS, histogram.percentile(100.0)); // one slow frame is still in the window
+        assertEquals(80L * MS, histogram.max());
+
+        histogram.record(10L * MS);
+        assertEquals(11L * MS, histogram.percentile(100.0));
+        assertEquals(10L * MS, histogram.max());
+    }
+
+    @Test
+    public void testClampsIntoTheFirstAndTheOverflowBucket() {
+        final FrameTimeHistogram histogram = new FrameTimeHistogram(10, MS, 10);
+        histogram.record(-5L * MS);
+        histogram.record(500L * MS);
+        histogram.record(250L * MS);
+
+        assertEquals(1L * MS, histogram.percentile(33.0)); // negative durations count as 0
+        assertEquals(500L * MS, histogram.percentile(50.0)); // overflow: the exact maximum
+        assertEquals(500L * MS, histogram.percentile(100.0));
+        assertEquals(500L * MS, histogram.max());
+    }
+
+    @Test
+    public void testClearsAllCounts() {
+        final FrameTimeHistogram histogram = new FrameTimeHistogram(10, MS, 10);
+        histogram.record(5L * MS);
+        histogram.record(7L * MS);
+        histogram.clear();
+        assertEquals(0, histogram.size());
+        assertEquals(0L, histogram.percentile(100.0));
+
+        histogram.record(2L * MS);
+        assertEquals(3L * MS, histogram.percentile(50.0));
+        assertEquals(2L * MS, histogram.max());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsAnEmptyWindow() {
+        new FrameTimeHistogram(0, MS, 10);
+    }
+}
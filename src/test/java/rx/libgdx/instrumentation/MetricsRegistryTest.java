@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.instrumentation;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import org.junit.After;
+import org.junit.Test;
+import rx.concurrency.GdxScheduler;
+import rx.functions.Action0;
+import rx.libgdx.headless.StubApplication;
+import rx.libgdx.headless.StubGraphics;
+import rx.libgdx.headless.StubInput;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class MetricsRegistryTest {
+
+    @After
+    public void resetGdx() {
+        Gdx.app = null;
+    }
+
+    @Test
+    public void testStripedCounterSumsAllThreads() throws InterruptedException {
+        final StripedCounter counter = new StripedCounter(4);
+        final Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; j++) {
+                        counter.increment();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(80000L, counter.sum());
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        final BucketHistogram histogram = BucketHistogram.linear(10L, 10);
+        for (long value = 1L; value <= 100L; value++) {
+            histogram.record(value);
+        }
+        histogram.record(1000L);
+
+        final HistogramSnapshot snapshot = histogram.snapshot();
+        assertEquals(101L, snapshot.getCount());
+        assertEquals(10L, snapshot.getBucketCount(0));
+        assertEquals(1L, snapshot.getBucketCount(10));
+        assertEquals(60L, snapshot.percentile(50.0));
+        assertEquals(1000L, snapshot.percentile(100.0));
+        assertEquals(1000L, snapshot.getMax());
+    }
+
+    @Test
+    public void testSchedulerBacklogIsVisibleInSnapshotsAndThroughJmx() throws Exception {
+        final StubApplication app = new StubApplication(new ApplicationAdapter() { }, new StubGraphics(640, 480),
+                new StubInput());
+        Gdx.app = app;
+        final MetricsRegistry registry = MetricsRegistry.get();
+        registry.registerMBean();
+        final ObjectName name = new ObjectName("rx.libgdx:type=Metrics");
+
+        final long backlog = registry.snapshot().getCounter("scheduler.backlog");
+        final long executed = registry.snapshot().getCounter("scheduler.executed");
+        final Action0 action = new Action0() {
+
+            @Override
+            public void call() { }
+        };
+        for (int i = 0; i < 3; i++) {
+            GdxScheduler.get().createWorker().schedule(action);
+        }
+        assertEquals(backlog + 3L, registry.snapshot().getCounter("scheduler.backlog"));
+        assertEquals(backlog + 3L, ManagementFactory.getPlatformMBeanServer().getAttribute(name, "scheduler.backlog"));
+
+        final TestScheduler scheduler = new TestScheduler();
+        final TestSubscriber<MetricsSnapshot> snapshots = new TestSubscriber<MetricsSnapshot>();
+        GdxInstrumentation.metrics(1L, TimeUnit.SECONDS, scheduler).subscribe(snapshots);
+        app.executeRunnables();
+        scheduler.advanceTimeBy(1L, TimeUnit.SECONDS);
+
+        assertEquals(1, snapshots.getOnNextEvents().size());
+        assertEquals(backlog, snapshots.getOnNextEvents().get(0).getCounter("scheduler.backlog"));
+        assertEquals(executed + 3L, snapshots.getOnNextEvents().get(0).getCounter("scheduler.executed"));
+        snapshots.unsubscribe();
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.lockstep;
+
+import org.junit.Test;
+import rx.Observable;
+import rx.functions.Action1;
+import rx.libgdx.events.input.InputEvent;
+import rx.libgdx.events.input.KeyDownEvent;
+import rx.libgdx.events.input.KeyTypedEvent;
+import rx.libgdx.events.input.KeyUpEvent;
+import rx.libgdx.events.input.MouseMovedEvent;
+import rx.libgdx.events.input.ScrolledEvent;
+import rx.libgdx.events.input.TouchDownEvent;
+import rx.libgdx.events.input.TouchDraggedEvent;
+import rx.libgdx.events.input.TouchUpEvent;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LockstepSessionTest {
+
+    @Test
+    public void testCodecRoundTripsAllEventTypes() {
+        final List<InputEvent> events = Arrays.asList(new KeyDownEvent(29), new KeyUpEvent(29),
+                new KeyTypedEvent('x'), new TouchDownEvent(640, 360, 0, 0), new TouchDraggedEvent(642, 359, 0),
+                new TouchUpEvent(645, 357, 0, 0), new MouseMovedEvent(10, 20), new ScrolledEvent(-1));
+
+        final ByteBuffer encoded = encode(events);
+        final List<InputEvent> decoded = new ArrayList<InputEvent>();
+        final InputCodec codec = new InputCodec();
+        codec.decode(encoded.duplicate(), decoded);
+
+        assertEquals(events.size(), decoded.size());
+        assertEquals(640, ((TouchDownEvent) decoded.get(3)).getScreenX());
+        assertEquals(357, ((TouchUpEvent) decoded.get(5)).getScreenY());
+        assertEquals(-1, ((ScrolledEvent) decoded.get(7)).getAmount());
+        assertArrayEquals(bytes(encoded), bytes(encode(decoded)));
+    }
+
+    @Test
+    public void testEncodesSmallMovesInFewBytes() {
+        final List<InputEvent> drags = new ArrayList<InputEvent>();
+        for (int i = 0; i < 100; i++) {
+            drags.add(new TouchDraggedEvent(500 + i, 300 - i, 0));
+        }
+        // tag, two one byte deltas and the pointer per event, after the first one
+        assertTrue(encode(drags).remaining() <= 1 + 7 + 99 * 4);
+    }
+
+    @Test
+    public void testReleasesIdenticalFramesOnAllPeers() {
+        final List<List<LockstepFrame>> frames = run(LoopbackTransport.connect(3), 2, 20);
+
+        for (List<LockstepFrame> peerFrames : frames) {
+            assertTrue(peerFrames.size() >= 21);
+            assertEquals(0, peerFrames.get(1).getMergedInputs().size()); // within the input delay
+            assertEquals(Arrays.asList(0, 1, 2), keycodes(peerFrames.get(2)));
+            assertEquals(Arrays.asList(54, 55, 56), keycodes(peerFrames.get(20)));
+        }
+        assertEquals(keycodesPerFrame(frames.get(0), 21), keycodesPerFrame(frames.get(1), 21));
+        assertEquals(keycodesPerFrame(frames.get(0), 21), keycodesPerFrame(frames.get(2), 21));
+    }
+
+    @Test
+    public void testResendsUnconfirmedFramesOverLossyTransport() {
+        final LoopbackTransport[] loopback = LoopbackTransport.connect(2);
+        final LockstepTransport[] lossy = new LockstepTransport[2];
+        for (int i = 0; i < 2; i++) {
+            final LoopbackTransport transport = loopback[i];
+            lossy[i] = new LockstepTransport() {
+
+                private int sent;
+
+                @Override
+                public void send(ByteBuffer packet) {
+                    if (++sent % 3 != 0) {
+                        transport.send(packet);
+                    }
+                }
+
+                @Override
+                public Observable<ByteBuffer> packets() {
+                    return transport.packets();
+                }
+            };
+        }
+
+        final List<List<LockstepFrame>> frames = run(lossy, 1, 30);
+
+        assertTrue(frames.get(0).size() >= 25);
+        assertTrue(frames.get(1).size() >= 25);
+        assertEquals(keycodesPerFrame(frames.get(0), 25), keycodesPerFrame(frames.get(1), 25));
+        assertEquals(Arrays.asList(30, 31), keycodes(frames.get(0).get(11)));
+    }
+
+    @Test
+    public void testStallsWhileAPeerIsAWindowBehindAndResumes() {
+        final LoopbackTransport[] transports = LoopbackTransport.connect(2);
+        final LockstepSession[] sessions = new LockstepSession[2];
+        final List<TestSubscriber<LockstepFrame>> subscribers = new ArrayList<TestSubscriber<LockstepFrame>>();
+        final List<PublishSubject<Object>> ticks = new ArrayList<PublishSubject<Object>>();
+        final List<PublishSubject<InputEvent>> inputs = new ArrayList<PublishSubject<InputEvent>>();
+        for (int peer = 0; peer < 2; peer++) {
+            final TestSubscriber<LockstepFrame> subscriber = new TestSubscriber<LockstepFrame>();
+            final PublishSubject<InputEvent> input = PublishSubject.create();
+            final PublishSubject<Object> tick = PublishSubject.create();
+            sessions[peer] = new LockstepSession(peer, 2, 1, 4, transports[peer]);
+            sessions[peer].frames(input, tick).subscribe(subscriber);
+            subscribers.add(subscriber);
+            inputs.add(input);
+            ticks.add(tick);
+        }
+
+        for (int tick = 0; tick < 10; tick++) { // peer 1 goes quiet
+            inputs.get(0).onNext(new KeyDownEvent(tick * 3));
+            ticks.get(0).onNext(tick);
+        }
+        subscribers.get(0).assertNoErrors();
+        assertEquals(1, subscribers.get(0).getOnNextEvents().size()); // the empty first frame
+        assertEquals(9L, sessions[0].getStalledTicks()); // frames 1 to 4 gathered, then the window is full
+
+        for (int tick = 0; tick < 10; tick++) {
+            for (int peer = 1; peer >= 0; peer--) {
+                ticks.get(peer).onNext(tick);
+            }
+        }
+        for (int peer = 0; peer < 2; peer++) {
+            subscribers.get(peer).assertNoErrors();
+            assertTrue(subscribers.get(peer).getOnNextEvents().size() >= 10);
+        }
+        assertEquals(keycodesPerFrame(subscribers.get(0).getOnNextEvents(), 10),
+                keycodesPerFrame(subscribers.get(1).getOnNextEvents(), 10));
+        // the input of the stalled ticks waited for the first frame gathered after them
+        final List<LockstepFrame> frames = subscribers.get(0).getOnNextEvents();
+        assertEquals(Arrays.asList(9), keycodes(frames.get(4)));
+        assertEquals(Arrays.asList(12, 15, 18, 21, 24, 27), keycodes(frames.get(5)));
+    }
+
+    @Test
+    public void testDropsMalformedAndStrayPackets() {
+        final LoopbackTransport[] transports = LoopbackTransport.connect(3);
+        final LockstepSession[] sessions = new LockstepSession[2];
+        final List<List<LockstepFrame>> frames = new ArrayList<List<LockstepFrame>>();
+        final List<PublishSubject<Object>> ticks = new ArrayList<PublishSubject<Object>>();
+        final List<TestSubscriber<LockstepFrame>> subscribers = new ArrayList<TestSubscriber<LockstepFrame>>();
+        final List<PublishSubject<InputEvent>> inputs = new ArrayList<PublishSubject<InputEvent>>();
+        for (int peer = 0; peer < 2; peer++) {
+            final TestSubscriber<LockstepFrame> subscriber = new TestSubscriber<LockstepFrame>();
+            final PublishSubject<InputEvent> input = PublishSubject.create();
+            final PublishSubject<Object> tick = PublishSubject.create();
+            sessions[peer] = new LockstepSession(peer, 2, 1, 64, transports[peer]);
+            sessions[peer].frames(input, tick).subscribe(subscriber);
+            subscribers.add(subscriber);
+            frames.add(subscriber.getOnNextEvents());
+            inputs.add(input);
+            ticks.add(tick);
+        }
+
+        for (int tick = 0; tick < 10; tick++) {
+            if (tick == 3) {
+                transports[2].send(ByteBuffer.wrap(new byte[] { 9 })); // an unknown peer
+                transports[2].send(ByteBuffer.wrap(new byte[] { 1 })); // truncated
+                // a known peer confirming frame 0, with an event of unknown type in its only frame
+                transports[2].send(ByteBuffer.wrap(new byte[] { 0, 1, 1, 0, 1, 1, 99 }));
+            }
+            for (int peer = 0; peer < 2; peer++) {
+                inputs.get(peer).onNext(new KeyDownEvent(tick * 3 + peer));
+                ticks.get(peer).onNext(tick);
+            }
+        }
+
+        for (int peer = 0; peer < 2; peer++) {
+            subscribers.get(peer).assertNoErrors();
+            assertEquals(3L, sessions[peer].getDroppedPackets());
+            assertTrue(frames.get(peer).size() >= 10);
+        }
+        assertEquals(keycodesPerFrame(frames.get(0), 10), keycodesPerFrame(frames.get(1), 10));
+        assertEquals(Arrays.asList(9, 10), keycodes(frames.get(0).get(4)));
+    }
+
+    /**
+     * Every peer types the keycode <code>tick * 3 + peer</code> in every tick, then all peers tick in turn.
+     */
+    private static List<List<LockstepFrame>> run(LockstepTransport[] transports, int inputDelay, int ticks) {
+        final int peers = transports.length;
+        final List<List<LockstepFrame>> frames = new ArrayList<List<LockstepFrame>>();
+        final List<PublishSubject<InputEvent>> inputs = new ArrayList<PublishSubject<InputEvent>>();
+        final List<PublishSubject<Object>> tickSubjects = new ArrayList<PublishSubject<Object>>();
+        for (int peer = 0; peer < peers; peer++) {
+            final List<LockstepFrame> peerFrames = new ArrayList<LockstepFrame>();
+            final PublishSubject<InputEvent> input = PublishSubject.create();
+            final PublishSubject<Object> tick = PublishSubject.create();
+            new LockstepSession(peer, peers, inputDelay, 64, transports[peer]).frames(input, tick)
+                    .subscribe(new Action1<LockstepFrame>() {
+
+                        @Override
+                        public void call(LockstepFrame frame) {
+                            peerFrames.add(frame);
+                        }
+                    });
+            frames.add(peerFrames);
+            inputs.add(input);
+            tickSubjects.add(tick);
+        }
+
+        for (int tick = 0; tick < ticks; tick++) {
+            for (int peer = 0; peer < peers; peer++) {
+                inputs.get(peer).onNext(new KeyDownEvent(tick * 3 + peer));
+                tickSubjects.get(peer).onNext(tick);
+            }
+        }
+        return frames;
+    }
+
+    private static List<List<Integer>> keycodesPerFrame(List<LockstepFrame> frames, int count) {
+        final List<List<Integer>> keycodes = new ArrayList<List<Integer>>();
+        for (LockstepFrame frame : frames.subList(0, count)) {
+            assertEquals(keycodes.size(), frame.getFrame());
+            keycodes.add(keycodes(frame));
+        }
+        return keycodes;
+    }
+
+    private static List<Integer> keycodes(LockstepFrame frame) {
+        final List<Integer> keycodes = new ArrayList<Integer>();
+        for (InputEvent event : frame.getMergedInputs()) {
+            keycodes.add(((KeyDownEvent) event).getKeycode());
+        }
+        return keycodes;
+    }
+
+    private static ByteBuffer encode(List<InputEvent> events) {
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        new InputCodec().encode(events, buffer);
+        buffer.flip();
+        return buffer;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
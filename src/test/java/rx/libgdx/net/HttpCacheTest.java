@@ -0,0 +1,171 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.net;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.files.FileHandle;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.libgdx.headless.HeadlessNet;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HttpCacheTest {
+
+    private HttpServer server;
+    private Net previousNet;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private volatile String version = "v1";
+    private volatile String cacheControl = "no-cache";
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                final String etag = "\"" + version + "\"";
+                exchange.getResponseHeaders().add("ETag", etag);
+                exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+                if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    notModified.incrementAndGet();
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    final byte[] body = (exchange.getRequestURI().getPath() + " " + version).getBytes("UTF-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    exchange.getResponseBody().write(body);
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+        previousNet = Gdx.net;
+        Gdx.net = new HeadlessNet();
+    }
+
+    @After
+    public void stopServer() {
+        Gdx.net = previousNet;
+        server.stop(0);
+    }
+
+    @Test
+    public void testServesFreshResponsesFromMemory() {
+        cacheControl = "max-age=60";
+        final HttpCache cache = new HttpCache(1024L, null, 0L, true);
+
+        assertEquals("/a v1", get(cache, "/a").get(0));
+        assertEquals("/a v1", get(cache, "/a").get(0));
+
+        assertEquals(1, requests.get());
+        assertEquals(1L, cache.getHits());
+        assertEquals(1L, cache.getMisses());
+    }
+
+    @Test
+    public void testRevalidatesExpiredResponsesWithEtag() {
+        final HttpCache cache = new HttpCache(1024L, null, 0L, false);
+
+        assertEquals("/a v1", get(cache, "/a").get(0));
+        final List<Net.HttpResponse> revalidated = cache.fromHttpRequest(request("/a")).toList().toBlocking().single();
+
+        assertEquals(1, revalidated.size());
+        assertEquals("/a v1", revalidated.get(0).getResultAsString());
+        assertTrue(((CachedHttpResponse) revalidated.get(0)).isFromCache());
+        assertEquals(2, requests.get());
+        assertEquals(1, notModified.get());
+        assertEquals(1L, cache.getNotModified());
+    }
+
+    @Test
+    public void testEmitsStaleResponseWhileRevalidating() {
+        final HttpCache cache = new HttpCache(1024L, null, 0L, true);
+
+        get(cache, "/a");
+        assertEquals(1, get(cache, "/a").size()); // unchanged, so only the stale response
+
+        version = "v2";
+        final List<String> changed = get(cache, "/a");
+        assertEquals(2, changed.size());
+        assertEquals("/a v1", changed.get(0));
+        assertEquals("/a v2", changed.get(1));
+        assertEquals(2L, cache.getStaleHits());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedBeyondMemoryLimit() {
+        cacheControl = "max-age=60";
+        final HttpCache cache = new HttpCache(10L, null, 0L, true); // room for two 5 byte bodies
+
+        get(cache, "/a");
+        get(cache, "/b");
+        get(cache, "/a");
+        get(cache, "/c"); // evicts /b
+        get(cache, "/a");
+        get(cache, "/b");
+
+        assertEquals(4, requests.get());
+        assertEquals(10L, cache.getMemoryBytes());
+    }
+
+    @Test
+    public void testKeepsResponsesOnDisk() throws IOException {
+        cacheControl = "max-age=60";
+        final File directory = File.createTempFile("http-cache", "");
+        assertTrue(directory.delete());
+        final FileHandle handle = new FileHandle(directory);
+        try {
+            get(new HttpCache(1024L, handle, 0L, true), "/a");
+            final HttpCache restarted = new HttpCache(1024L, handle, 0L, true);
+            assertEquals("/a v1", get(restarted, "/a").get(0));
+            assertEquals(1, requests.get());
+            assertEquals(1L, restarted.getHits());
+        } finally {
+            handle.deleteDirectory();
+        }
+    }
+
+    private List<String> get(HttpCache cache, String path) {
+        final List<Net.HttpResponse> responses = cache.fromHttpRequest(request(path)).toList().toBlocking().single();
+        final List<String> bodies = new ArrayList<String>();
+        for (Net.HttpResponse response : responses) {
+            bodies.add(response.getResultAsString());
+        }
+        return bodies;
+    }
+
+    private Net.HttpRequest request(String path) {
+        final Net.HttpRequest request = new Net.HttpRequest(Net.HttpMethods.GET);
+        request.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        return request;
+    }
+
+}
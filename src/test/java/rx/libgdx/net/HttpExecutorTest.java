@@ -0,0 +1,202 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.net;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.libgdx.headless.HeadlessNet;
+import rx.observers.TestSubscriber;
+import rx.schedulers.Schedulers;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HttpExecutorTest {
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private Net previousNet;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    @Before
+    public void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                requests.incrementAndGet();
+                final int now = concurrent.incrementAndGet();
+                while (maxConcurrent.get() < now && !maxConcurrent.compareAndSet(maxConcurrent.get(), now)) {
+                    // retry
+                }
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                concurrent.decrementAndGet();
+                final boolean fail = failuresLeft.getAndDecrement() > 0;
+                final byte[] body = (fail ? "busy" : exchange.getRequestURI().getPath()).getBytes("UTF-8");
+                exchange.sendResponseHeaders(fail ? 503 : 200, body.length);
+                exchange.getResponseBody().write(body);
+                exchange.close();
+            }
+        });
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.start();
+        previousNet = Gdx.net;
+        Gdx.net = new HeadlessNet();
+    }
+
+    @After
+    public void stopServer() {
+        Gdx.net = previousNet;
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    public void testSharesIdenticalRequestsInFlight() throws InterruptedException {
+        gate = new CountDownLatch(1);
+        final HttpExecutor executor = new HttpExecutor(4, 0, 1L, 1L, Schedulers.immediate());
+
+        final List<TestSubscriber<Net.HttpResponse>> subscribers = new ArrayList<TestSubscriber<Net.HttpResponse>>();
+        for (int i = 0; i < 3; i++) {
+            final TestSubscriber<Net.HttpResponse> subscriber = new TestSubscriber<Net.HttpResponse>();
+            executor.fromHttpRequest(request("/a")).subscribe(subscriber);
+            subscribers.add(subscriber);
+        }
+        gate.countDown();
+
+        for (TestSubscriber<Net.HttpResponse> subscriber : subscribers) {
+            subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+            subscriber.assertNoErrors();
+            assertEquals("/a", subscriber.getOnNextEvents().get(0).getResultAsString());
+        }
+        assertEquals(1, requests.get());
+        assertEquals(2L, executor.getCoalesced());
+    }
+
+    @Test
+    public void testReplaysTheResponseToRequestsJoiningWhileItIsDelivered() {
+        final HttpExecutor executor = new HttpExecutor(4, 0, 1L, 1L, Schedulers.immediate());
+        final TestSubscriber<Net.HttpResponse> second = new TestSubscriber<Net.HttpResponse>();
+        final TestSubscriber<Net.HttpResponse> first = new TestSubscriber<Net.HttpResponse>() {
+
+            @Override
+            public void onNext(Net.HttpResponse response) {
+                executor.fromHttpRequest(HttpExecutorTest.this.request("/a")).subscribe(second);
+                super.onNext(response);
+            }
+        };
+        executor.fromHttpRequest(request("/a")).subscribe(first);
+
+        first.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        second.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        second.assertNoErrors();
+        assertEquals(1, second.getOnNextEvents().size());
+        assertEquals("/a", second.getOnNextEvents().get(0).getResultAsString());
+        assertEquals(1, requests.get());
+        assertEquals(1L, executor.getCoalesced());
+    }
+
+    @Test
+    public void testLimitsConcurrentRequestsPerHost() throws InterruptedException {
+        gate = new CountDownLatch(1);
+        final HttpExecutor executor = new HttpExecutor(2, 0, 1L, 1L, Schedulers.immediate());
+
+        final List<TestSubscriber<Net.HttpResponse>> subscribers = new ArrayList<TestSubscriber<Net.HttpResponse>>();
+        for (int i = 0; i < 6; i++) {
+            final TestSubscriber<Net.HttpResponse> subscriber = new TestSubscriber<Net.HttpResponse>();
+            executor.fromHttpRequest(request("/" + i)).subscribe(subscriber);
+            subscribers.add(subscriber);
+        }
+        assertEquals(4, executor.getQueueDepth());
+        assertEquals(2, executor.getRunning());
+        awaitRequests(2);
+        gate.countDown();
+
+        for (TestSubscriber<Net.HttpResponse> subscriber : subscribers) {
+            subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+            subscriber.assertNoErrors();
+        }
+        assertEquals(6, requests.get());
+        assertEquals(2, maxConcurrent.get());
+        assertEquals(0, executor.getQueueDepth());
+        assertTrue(executor.getLatencyPercentile(50.0) > 0L);
+    }
+
+    @Test
+    public void testRetriesServerErrorsWithBackoff() {
+        failuresLeft.set(2);
+        final HttpExecutor executor = new HttpExecutor(1, 3, 1L, 4L, Schedulers.computation());
+
+        final Net.HttpResponse response = executor.fromHttpRequest(request("/a")).toBlocking().single();
+
+        assertEquals(200, response.getStatus().getStatusCode());
+        assertEquals("/a", response.getResultAsString());
+        assertEquals(3, requests.get());
+        assertEquals(2L, executor.getRetries());
+    }
+
+    @Test
+    public void testEmitsLastResponseWhenOutOfRetries() {
+        failuresLeft.set(10);
+        final HttpExecutor executor = new HttpExecutor(1, 2, 1L, 4L, Schedulers.computation());
+
+        final Net.HttpResponse response = executor.fromHttpRequest(request("/a")).toBlocking().single();
+
+        assertEquals(503, response.getStatus().getStatusCode());
+        assertEquals("busy", response.getResultAsString());
+        assertEquals(3, requests.get());
+    }
+
+    private void awaitRequests(int count) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000L;
+        while (requests.get() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        Thread.sleep(50L); // give any excess request the chance to show up
+    }
+
+    private Net.HttpRequest request(String path) {
+        final Net.HttpRequest request = new Net.HttpRequest(Net.HttpMethods.GET);
+        request.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + path);
+        return request;
+    }
+
+}
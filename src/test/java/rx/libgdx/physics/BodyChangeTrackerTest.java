@@ -0,0 +1,220 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BodyChangeTrackerTest {
+
+    private static final float STEP = 1f / 60f;
+
+    private World world;
+
+    @Before
+    public void createWorld() {
+        GdxNativesLoader.load();
+        world = new World(new Vector2(0f, -10f), true);
+        final PolygonShape ground = new PolygonShape();
+        ground.setAsBox(50f, 1f);
+        world.createBody(new BodyDef()).createFixture(ground, 0f);
+        ground.dispose();
+    }
+
+    @After
+    public void disposeWorld() {
+        world.dispose();
+    }
+
+    @Test
+    public void testReportsNewBodiesOnce() {
+        world.setGravity(new Vector2(0f, 0f));
+        final BodyChangeTracker tracker = new BodyChangeTracker(0, 0f, 0f);
+        final int id = tracker.track(box(3f, 5f));
+
+        final TransformChanges changes = tracker.collect(1L);
+        assertEquals(1L, changes.getStep());
+        assertEquals(1, changes.size());
+        assertEquals(id, changes.getId(0));
+        assertEquals(3f, changes.getX(0), 0f);
+        assertEquals(5f, changes.getY(0), 0f);
+        assertEquals(0f, changes.getAngle(0), 0f);
+
+        world.step(STEP, 8, 3);
+        assertEquals(0, tracker.collect(2L).size());
+    }
+
+    @Test
+    public void testReportsMovementBeyondTheThresholds() {
+        world.setGravity(new Vector2(0f, 0f));
+        final BodyChangeTracker tracker = new BodyChangeTracker(2, 0.1f, 0.06f);
+        final Body moving = box(0f, 5f);
+        moving.setLinearVelocity(1f, 0f);
+        final Body turning = box(5f, 5f);
+        turning.setAngularVelocity(1f);
+        final int movingId = tracker.track(moving);
+        final int turningId = tracker.track(turning);
+        assertEquals(2, tracker.collect(0L).size());
+
+        final int[] movingReports = new int[1];
+        final int[] turningReports = new int[1];
+        for (int step = 1; step <= 7; step++) {
+            world.step(STEP, 8, 3);
+            final TransformChanges changes = tracker.collect(step);
+            for (int i = 0; i < changes.size(); i++) {
+                if (changes.getId(i) == movingId) {
+                    assertEquals("slow drift adds up", 7, step); // 7 / 60 > 0.1
+                    assertEquals(7f / 60f, changes.getX(i), 0.0001f);
+                    movingReports[0]++;
+                } else {
+                    assertEquals(turningId, changes.getId(i));
+                    assertEquals(4, step); // 4 / 60 > 0.06
+                    assertEquals(4f / 60f, changes.getAngle(i), 0.0001f);
+                    turningReports[0]++;
+                }
+            }
+        }
+        assertEquals(1, movingReports[0]);
+        assertEquals(1, turningReports[0]);
+    }
+
+    @Test
+    public void testSettlesOnTheFinalTransformWhenFallingAsleep() {
+        final BodyChangeTracker tracker = new BodyChangeTracker(1, 0.5f, 0.5f);
+        final Body body = box(0f, 3f);
+        final int id = tracker.track(body);
+
+        float lastX = Float.NaN;
+        float lastY = Float.NaN;
+        for (int step = 0; body.isAwake(); step++) {
+            assertTrue("the box doesn't fall asleep", step < 600);
+            world.step(STEP, 8, 3);
+            final TransformChanges changes = tracker.collect(step);
+            if (changes.size() > 0) {
+                assertEquals(id, changes.getId(0));
+                lastX = changes.getX(0);
+                lastY = changes.getY(0);
+            }
+        }
+        assertEquals(0, tracker.getAwakeCount()); // visited in the step it fell asleep in
+        assertEquals(body.getPosition().x, lastX, 0f);
+        assertEquals(body.getPosition().y, lastY, 0f);
+        assertEquals(0, tracker.collect(1000L).size());
+    }
+
+    @Test
+    public void testChecksSleepersForWakingUpEveryInterval() {
+        final BodyChangeTracker tracker = new BodyChangeTracker(4, 0f, 0f, 4);
+        final Body[] bodies = new Body[4];
+        for (int i = 0; i < bodies.length; i++) {
+            bodies[i] = box(i * 3f, 1.5f);
+            tracker.track(bodies[i]);
+        }
+        fallAsleep(tracker);
+        assertEquals(0, tracker.getAwakeCount());
+
+        bodies[2].setLinearVelocity(0f, 5f); // wakes it up
+        world.step(STEP, 8, 3);
+        int collects = 0;
+        while (tracker.getAwakeCount() == 0) {
+            assertTrue("the woken body isn't noticed within the interval", collects < 4);
+            final TransformChanges changes = tracker.collect(collects++);
+            assertEquals(tracker.getAwakeCount(), changes.size());
+        }
+        assertEquals(1, tracker.getAwakeCount());
+    }
+
+    @Test
+    public void testWakesBodiesOnRequest() {
+        final BodyChangeTracker tracker = new BodyChangeTracker(1, 0f, 0f, 1000);
+        final Body body = box(0f, 1.5f);
+        final int id = tracker.track(body);
+        fallAsleep(tracker);
+
+        body.setLinearVelocity(0f, 5f);
+        tracker.wake(id);
+        tracker.wake(id);
+        assertEquals(1, tracker.getAwakeCount());
+        world.step(STEP, 8, 3);
+        final TransformChanges changes = tracker.collect(0L);
+        assertEquals(1, changes.size());
+        assertEquals(body.getPosition().y, changes.getY(0), 0f);
+    }
+
+    @Test
+    public void testReusesTheIdsOfUntrackedBodies() {
+        world.setGravity(new Vector2(0f, 0f));
+        final BodyChangeTracker tracker = new BodyChangeTracker(0, 0f, 0f);
+        final int first = tracker.track(box(1f, 5f));
+        final int second = tracker.track(box(2f, 5f));
+        tracker.untrack(first);
+
+        TransformChanges changes = tracker.collect(0L);
+        assertEquals(1, changes.size());
+        assertEquals(second, changes.getId(0));
+        assertEquals(1, tracker.getAwakeCount());
+
+        final int third = tracker.track(box(3f, 5f));
+        assertEquals(first, third);
+        changes = tracker.collect(1L);
+        assertEquals(1, changes.size());
+        assertEquals(third, changes.getId(0));
+        assertEquals(3f, changes.getX(0), 0f);
+
+        tracker.untrack(second);
+        tracker.untrack(third);
+        assertEquals(0, tracker.getAwakeCount());
+        assertEquals(0, tracker.collect(2L).size());
+        try {
+            tracker.untrack(third);
+            fail("untracked twice");
+        } catch (IllegalArgumentException expected) {
+            assertFalse(expected.getMessage().isEmpty());
+        }
+    }
+
+    private Body box(float x, float y) {
+        final BodyDef def = new BodyDef();
+        def.type = BodyDef.BodyType.DynamicBody;
+        def.position.set(x, y);
+        final Body body = world.createBody(def);
+        final PolygonShape shape = new PolygonShape();
+        shape.setAsBox(0.5f, 0.5f);
+        body.createFixture(shape, 1f);
+        shape.dispose();
+        return body;
+    }
+
+    private void fallAsleep(BodyChangeTracker tracker) {
+        for (int step = 0; tracker.getAwakeCount() > 0; step++) {
+            assertTrue("the bodies don't fall asleep", step < 600);
+            world.step(STEP, 8, 3);
+            tracker.collect(step);
+        }
+    }
+}
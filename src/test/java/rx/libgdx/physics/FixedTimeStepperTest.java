@@ -0,0 +1,182 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.libgdx.events.box2d.InterpolationEvent;
+import rx.libgdx.events.box2d.StepEndEvent;
+import rx.libgdx.events.box2d.StepEvent;
+import rx.libgdx.events.box2d.StepStartEvent;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FixedTimeStepperTest {
+
+    private static final float STEP = 0.25f; // exactly representable, so the accumulator has no rounding errors
+
+    private World world;
+    private Body body;
+
+    @Before
+    public void createWorld() {
+        GdxNativesLoader.load();
+        world = new World(new Vector2(0f, 0f), false);
+        final BodyDef def = new BodyDef();
+        def.type = BodyDef.BodyType.DynamicBody;
+        def.linearVelocity.set(1f, 0f);
+        body = world.createBody(def);
+    }
+
+    @After
+    public void disposeWorld() {
+        world.dispose();
+    }
+
+    @Test
+    public void testAccumulatesDeltasUntilAStepIsDue() {
+        final FixedTimeStepper stepper = new FixedTimeStepper(STEP, 5, 8, 3, world);
+        final TestSubscriber<StepEvent> subscriber = new TestSubscriber<StepEvent>();
+        final PublishSubject<Float> deltas = PublishSubject.create();
+        stepper.steps(deltas).subscribe(subscriber);
+
+        deltas.onNext(0.125f);
+        assertInterpolation(subscriber.getOnNextEvents(), 0, 0, 0.5f);
+        assertEquals(0L, stepper.getStepCount());
+
+        deltas.onNext(0.25f);
+        final List<StepEvent> events = subscriber.getOnNextEvents();
+        assertEquals(4, events.size());
+        assertEquals(1L, ((StepStartEvent) events.get(1)).getStep());
+        assertEquals(STEP, ((StepStartEvent) events.get(1)).getTimeStep(), 0f);
+        assertEquals(1L, ((StepEndEvent) events.get(2)).getStep());
+        assertInterpolation(events, 3, 1, 0.5f);
+        assertEquals(1L, stepper.getStepCount());
+        assertEquals(0.25f, body.getPosition().x, 0.001f);
+    }
+
+    @Test
+    public void testIgnoresNegativeDeltas() {
+        final FixedTimeStepper stepper = new FixedTimeStepper(STEP, 5, 8, 3, world);
+        final TestSubscriber<StepEvent> subscriber = new TestSubscriber<StepEvent>();
+        final PublishSubject<Float> deltas = PublishSubject.create();
+        stepper.steps(deltas).subscribe(subscriber);
+
+        deltas.onNext(0.125f);
+        deltas.onNext(-1f);
+        assertInterpolation(subscriber.getOnNextEvents(), 1, 0, 0.5f);
+    }
+
+    @Test
+    public void testCapsSubStepsAndDropsTheBacklog() {
+        final FixedTimeStepper stepper = new FixedTimeStepper(STEP, 3, 8, 3, world);
+        final TestSubscriber<StepEvent> subscriber = new TestSubscriber<StepEvent>();
+        final PublishSubject<Float> deltas = PublishSubject.create();
+        stepper.steps(deltas).subscribe(subscriber);
+
+        deltas.onNext(10f); // a long hitch, worth 40 steps
+        assertEquals(7, subscriber.getOnNextEvents().size());
+        assertInterpolation(subscriber.getOnNextEvents(), 6, 3, 0f);
+        assertEquals(3L, stepper.getStepCount());
+
+        deltas.onNext(0.125f); // the hitch doesn't make the next frame catch up
+        assertInterpolation(subscriber.getOnNextEvents(), 7, 0, 0.5f);
+
+        deltas.onNext(1f); // the remainder of a capped frame is kept below one step
+        assertInterpolation(subscriber.getOnNextEvents(), 14, 3, 0.5f);
+        assertEquals(6L, stepper.getStepCount());
+    }
+
+    @Test
+    public void testStepsOnThePhysicsSchedulerAndPublishesTransforms() {
+        final FixedTimeStepper stepper = new FixedTimeStepper(STEP, 5, 8, 3, world);
+        final TransformBuffer transforms = new TransformBuffer(1);
+        final int slot = transforms.track(body);
+        final TestScheduler physics = new TestScheduler();
+        final TestSubscriber<StepEvent> subscriber = new TestSubscriber<StepEvent>();
+        final PublishSubject<Float> deltas = PublishSubject.create();
+        stepper.steps(deltas, physics, transforms).subscribe(subscriber);
+
+        deltas.onNext(0.25f);
+        deltas.onNext(0.125f); // arrives while the physics thread is busy
+        assertTrue(subscriber.getOnNextEvents().isEmpty());
+        assertFalse(transforms.swap());
+
+        physics.triggerActions();
+        assertInterpolation(subscriber.getOnNextEvents(), 2, 1, 0.5f); // both deltas in one go
+        assertTrue(transforms.swap());
+        assertEquals(0.5f, transforms.getAlpha(), 0f);
+        assertEquals(0.125f, transforms.getX(slot), 0.001f);
+
+        deltas.onCompleted();
+        assertTrue(subscriber.getOnCompletedEvents().isEmpty());
+        physics.triggerActions();
+        assertEquals(1, subscriber.getOnCompletedEvents().size());
+    }
+
+    @Test
+    public void testTransformBufferOnlyShowsSwappedTransforms() {
+        final TransformBuffer transforms = new TransformBuffer(1);
+        final int slot = transforms.track(body);
+        assertFalse(transforms.swap());
+
+        world.step(STEP, 8, 3);
+        transforms.step();
+        transforms.capture(0.5f);
+        assertEquals(0f, transforms.getX(slot), 0f); // not swapped yet
+
+        assertTrue(transforms.swap());
+        assertEquals(0.125f, transforms.getX(slot), 0.001f);
+        assertFalse(transforms.swap());
+
+        world.step(STEP, 8, 3);
+        transforms.step();
+        transforms.capture(0f);
+        assertEquals(0.125f, transforms.getX(slot), 0.001f); // the render side keeps its frame until it swaps
+
+        assertTrue(transforms.swap());
+        assertEquals(0.25f, transforms.getX(slot), 0.001f);
+        assertEquals(0f, transforms.getY(slot), 0f);
+        assertEquals(0f, transforms.getAngle(slot), 0f);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTransformBufferRejectsBodiesBeyondItsCapacity() {
+        final TransformBuffer transforms = new TransformBuffer(1);
+        transforms.track(body);
+        transforms.track(body);
+    }
+
+    private static void assertInterpolation(List<StepEvent> events, int index, int steps, float alpha) {
+        assertEquals(index + 1, events.size());
+        final InterpolationEvent event = (InterpolationEvent) events.get(index);
+        assertEquals(steps, event.getSteps());
+        assertEquals(alpha, event.getAlpha(), 0.0001f);
+    }
+}
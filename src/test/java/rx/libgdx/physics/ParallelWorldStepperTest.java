@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelWorldStepperTest {
+
+    private static final int WORLDS = 4;
+
+    private final List<World> worlds = new ArrayList<World>();
+    private final List<ForkJoinPool> pools = new ArrayList<ForkJoinPool>();
+
+    @Before
+    public void loadNatives() {
+        GdxNativesLoader.load();
+    }
+
+    @After
+    public void dispose() {
+        for (ForkJoinPool pool : pools) {
+            pool.shutdown();
+        }
+        for (World world : worlds) {
+            world.dispose();
+        }
+    }
+
+    @Test
+    public void testContactBatchesDoNotDependOnTheNumberOfThreads() {
+        final List<String> sequential = record(stepper(1), 90);
+        final List<String> parallel = record(stepper(WORLDS), 90);
+        assertFalse(sequential.isEmpty());
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    public void testEmitsBatchesOrderedByStepAndWorld() {
+        final ParallelWorldStepper stepper = stepper(WORLDS);
+        final TestScheduler consumer = new TestScheduler();
+        final PublishSubject<Object> ticks = PublishSubject.create();
+        final TestSubscriber<ContactBatch> subscriber = new TestSubscriber<ContactBatch>();
+        stepper.steps(ticks, consumer).subscribe(subscriber);
+
+        for (int i = 0; i < 90; i++) {
+            ticks.onNext(i);
+        }
+        assertEquals(90L, stepper.getStepCount());
+        assertTrue(subscriber.getOnNextEvents().isEmpty()); // not yet on the consumer
+
+        ticks.onCompleted();
+        consumer.triggerActions();
+        final List<ContactBatch> batches = subscriber.getOnNextEvents();
+        assertFalse(batches.isEmpty());
+        for (int i = 1; i < batches.size(); i++) {
+            final ContactBatch previous = batches.get(i - 1);
+            final ContactBatch current = batches.get(i);
+            assertTrue(previous + " before " + current, previous.getStep() < current.getStep()
+                    || previous.getStep() == current.getStep() && previous.getWorld() < current.getWorld());
+        }
+        assertEquals(1, subscriber.getOnCompletedEvents().size());
+    }
+
+    private ParallelWorldStepper stepper(int threads) {
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        pools.add(pool);
+        final ParallelWorldStepper stepper = new ParallelWorldStepper(pool, 1f / 60f, 8, 3);
+        for (int i = 0; i < WORLDS; i++) {
+            final World world = pile(8 + i * 8);
+            worlds.add(world);
+            assertEquals(i, stepper.add(world));
+        }
+        return stepper;
+    }
+
+    /** Steps and describes every contact by step, world, type and the indices of its fixtures. */
+    private static List<String> record(ParallelWorldStepper stepper, int steps) {
+        final List<String> contacts = new ArrayList<String>();
+        for (int i = 0; i < steps; i++) {
+            int world = -1;
+            for (ContactBatch batch : stepper.step()) {
+                assertEquals(stepper.getStepCount(), batch.getStep());
+                assertTrue("batches are ordered by world", batch.getWorld() > world);
+                world = batch.getWorld();
+                for (int j = 0; j < batch.size(); j++) {
+                    contacts.add(batch.getStep() + ":" + world + ":" + batch.getType(j) + ":"
+                            + batch.getFixtureA(j).getUserData() + ":" + batch.getFixtureB(j).getUserData());
+                }
+            }
+        }
+        return contacts;
+    }
+
+    /** Boxes dropped onto the ground, numbered by their fixtures' user data. */
+    private static World pile(int boxes) {
+        final World world = new World(new Vector2(0f, -10f), true);
+
+        final PolygonShape ground = new PolygonShape();
+        ground.setAsBox(50f, 1f);
+        world.createBody(new BodyDef()).createFixture(ground, 0f).setUserData(-1);
+        ground.dispose();
+
+        final PolygonShape box = new PolygonShape();
+        box.setAsBox(0.5f, 0.5f);
+        final BodyDef def = new BodyDef();
+        def.type = BodyDef.BodyType.DynamicBody;
+        for (int i = 0; i < boxes; i++) {
+            def.position.set((i % 8) * 1.2f - 4f + (i / 8) * 0.3f, 2f + (i / 8) * 1.5f);
+            def.angle = i * 0.1f;
+            world.createBody(def).createFixture(box, 1f).setUserData(i);
+        }
+        box.dispose();
+        return world;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.physics;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.CircleShape;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.FixtureDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import com.badlogic.gdx.utils.IntArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.GdxObservable;
+import rx.Subscription;
+import rx.functions.Action1;
+import rx.libgdx.events.box2d.ContactEvent;
+import rx.libgdx.events.box2d.StepEvent;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SensorZonesTest {
+
+    private static final float STEP = 1f / 60f;
+
+    private World world;
+    private SensorZones zones;
+    private int first;
+    private int second;
+
+    @Before
+    public void createWorld() {
+        GdxNativesLoader.load();
+        world = new World(new Vector2(0f, 0f), false);
+        zones = new SensorZones();
+        first = zones.addZone(zone(0f));
+        second = zones.addZone(zone(10f));
+    }
+
+    @After
+    public void disposeWorld() {
+        world.dispose();
+    }
+
+    @Test
+    public void testEntersWithTheFirstFixtureAndExitsWithTheLast() {
+        final Body body = twoBalls(-3f, 0f, 6f);
+        final List<String> events = new ArrayList<String>();
+        final Subscription contacts = GdxObservable.fromBox2DContact(world).subscribe(new Action1<ContactEvent>() {
+
+            @Override
+            public void call(ContactEvent event) {
+                zones.onContact(event);
+            }
+        });
+
+        boolean sawBothFixturesInside = false;
+        int id = -1;
+        for (int step = 1; step <= 240; step++) {
+            world.step(STEP, 8, 3);
+            final ZoneChanges changes = zones.flush(step);
+            assertEquals(step, changes.getStep());
+            for (int i = 0; i < changes.size(); i++) {
+                id = changes.getBody(i);
+                assertSame(body, zones.getBody(id)); // valid while the changes are read
+                events.add((changes.getType(i) == ZoneChanges.ENTER ? "enter " : "exit ") + changes.getZone(i));
+            }
+            if (body.getPosition().x > -0.6f && body.getPosition().x < -0.4f) { // both balls inside the first zone
+                sawBothFixturesInside = true;
+                assertTrue(zones.contains(first, body));
+                assertEquals(1, zones.getOccupantCount(first));
+                assertEquals(1, zones.getOccupants(first, new IntArray()).size);
+            }
+        }
+        contacts.unsubscribe();
+
+        assertTrue(sawBothFixturesInside);
+        assertEquals(Arrays.asList("enter 0", "exit 0", "enter 1", "exit 1"), events);
+        assertFalse(zones.contains(first, body));
+        assertEquals(0, zones.getOccupantCount(second));
+        assertNull("released after the changes it left with", zones.getBody(id));
+    }
+
+    @Test
+    public void testTracksSeveralBodiesThroughTheChangesStream() {
+        final Body slow = twoBalls(-3f, 0.5f, 3f);
+        final Body fast = twoBalls(-6f, -0.5f, 12f);
+        final FixedTimeStepper stepper = new FixedTimeStepper(STEP, 1, 8, 3, world);
+        final PublishSubject<Float> deltas = PublishSubject.create();
+        final PublishSubject<StepEvent> steps = PublishSubject.create();
+        final int[] entries = new int[2];
+        final int[] exits = new int[2];
+        final TestSubscriber<ZoneChanges> subscriber = new TestSubscriber<ZoneChanges>() {
+
+            @Override
+            public void onNext(ZoneChanges changes) { // reused, so read them right here
+                super.onNext(changes);
+                for (int i = 0; i < changes.size(); i++) {
+                    final Body body = zones.getBody(changes.getBody(i));
+                    assertTrue(body == slow || body == fast);
+                    final int[] counts = changes.getType(i) == ZoneChanges.ENTER ? entries : exits;
+                    counts[body == slow ? 0 : 1]++;
+                }
+            }
+        };
+        zones.changes(GdxObservable.fromBox2DContact(world), steps).subscribe(subscriber);
+        final Subscription stepping = stepper.steps(deltas).subscribe(steps);
+
+        int maxOccupants = 0;
+        for (int frame = 0; frame < 120; frame++) {
+            deltas.onNext(STEP);
+            maxOccupants = Math.max(maxOccupants, zones.getOccupantCount(first));
+        }
+        stepping.unsubscribe();
+        subscriber.unsubscribe();
+
+        assertTrue(subscriber.getOnErrorEvents().isEmpty());
+        assertEquals(2, maxOccupants); // the fast one overtakes the slow one inside the first zone
+        assertEquals(1, entries[0]);
+        assertEquals(1, exits[0]); // slow: through the first zone
+        assertEquals(2, entries[1]);
+        assertEquals(2, exits[1]); // fast: through both zones
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsFixturesThatAreNotSensors() {
+        zones.addZone(twoBalls(0f, 0f, 0f).getFixtureList().get(0));
+    }
+
+    /** A static sensor box of 2 x 2 units. */
+    private Fixture zone(float x) {
+        final BodyDef def = new BodyDef();
+        def.position.set(x, 0f);
+        final PolygonShape shape = new PolygonShape();
+        shape.setAsBox(1f, 1f);
+        final FixtureDef fixture = new FixtureDef();
+        fixture.shape = shape;
+        fixture.isSensor = true;
+        final Fixture sensor = world.createBody(def).createFixture(fixture);
+        shape.dispose();
+        return sensor;
+    }
+
+    /** A body of two small balls, one unit apart, moving to the right. */
+    private Body twoBalls(float x, float y, float speed) {
+        final BodyDef def = new BodyDef();
+        def.type = BodyDef.BodyType.DynamicBody;
+        def.position.set(x, y);
+        def.linearVelocity.set(speed, 0f);
+        final Body body = world.createBody(def);
+        final CircleShape ball = new CircleShape();
+        ball.setRadius(0.25f);
+        body.createFixture(ball, 1f);
+        ball.setPosition(new Vector2(1f, 0f));
+        body.createFixture(ball, 1f);
+        ball.dispose();
+        return body;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.preferences;
+
+import com.badlogic.gdx.Preferences;
+import org.junit.Before;
+import org.junit.Test;
+import rx.libgdx.events.lifecycle.LifecycleEvent;
+import rx.libgdx.events.lifecycle.PauseEvent;
+import rx.libgdx.events.preferences.PreferenceChangeEvent;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RxPreferencesTest {
+
+    private MemoryPreferences stored;
+    private TestScheduler scheduler;
+    private RxPreferences preferences;
+
+    @Before
+    public void setUp() {
+        stored = new MemoryPreferences();
+        scheduler = new TestScheduler();
+        preferences = new RxPreferences(stored, 1000L, scheduler);
+    }
+
+    @Test
+    public void testWritesAtMostOncePerInterval() {
+        for (int i = 0; i < 10; i++) {
+            preferences.putInteger("score", i);
+            preferences.flush();
+        }
+        assertEquals(0, stored.flushes);
+        assertEquals(9, preferences.getInteger("score"));
+
+        scheduler.triggerActions();
+        assertEquals(1, stored.flushes);
+        assertEquals(9, stored.getInteger("score"));
+
+        preferences.putInteger("score", 10);
+        preferences.flush();
+        scheduler.advanceTimeBy(999L, TimeUnit.MILLISECONDS);
+        assertEquals(1, stored.flushes);
+        scheduler.advanceTimeBy(1L, TimeUnit.MILLISECONDS);
+        assertEquals(2, stored.flushes);
+        assertEquals(10, stored.getInteger("score"));
+    }
+
+    @Test
+    public void testKeepsRemovalsAndClearsPendingUntilWritten() {
+        stored.putString("name", "old");
+        stored.putBoolean("sound", true);
+
+        preferences.remove("name");
+        assertFalse(preferences.contains("name"));
+        assertTrue(stored.contains("name"));
+
+        preferences.clear();
+        preferences.putBoolean("music", false);
+        assertFalse(preferences.getBoolean("sound", false));
+        assertEquals(1, preferences.get().size());
+
+        preferences.write();
+        assertEquals(1, stored.get().size());
+        assertFalse(stored.getBoolean("music", true));
+    }
+
+    @Test
+    public void testAnnouncesChangesPerKey() {
+        final TestSubscriber<PreferenceChangeEvent> volume = new TestSubscriber<PreferenceChangeEvent>();
+        preferences.changes("volume").subscribe(volume);
+
+        preferences.putFloat("volume", 0.5f);
+        preferences.putString("name", "player");
+        preferences.remove("volume");
+
+        volume.assertReceivedOnNext(Arrays.asList(new PreferenceChangeEvent("volume", 0.5f, false),
+                new PreferenceChangeEvent("volume", null, false)));
+    }
+
+    @Test
+    public void testAnnouncesExternalChangesWhenWriting() {
+        final TestSubscriber<PreferenceChangeEvent> changes = new TestSubscriber<PreferenceChangeEvent>();
+        preferences.changes().subscribe(changes);
+
+        stored.putInteger("level", 3);
+        preferences.putInteger("score", 1);
+        preferences.write();
+
+        assertEquals(2, changes.getOnNextEvents().size());
+        assertEquals(new PreferenceChangeEvent("level", 3, true), changes.getOnNextEvents().get(1));
+    }
+
+    @Test
+    public void testAnnouncesExternalChangesWhenFlushingWithoutChanges() {
+        final TestSubscriber<PreferenceChangeEvent> changes = new TestSubscriber<PreferenceChangeEvent>();
+        preferences.changes().subscribe(changes);
+
+        stored.putInteger("level", 3);
+        preferences.flush();
+        scheduler.triggerActions();
+        preferences.flush();
+        scheduler.advanceTimeBy(1000L, TimeUnit.MILLISECONDS);
+
+        changes.assertReceivedOnNext(Arrays.asList(new PreferenceChangeEvent("level", 3, true)));
+        assertEquals(0, stored.flushes);
+    }
+
+    @Test
+    public void testWritesSynchronouslyOnPause() {
+        final PublishSubject<LifecycleEvent> lifecycle = PublishSubject.create();
+        preferences.attach(lifecycle);
+
+        preferences.putLong("time", 42L);
+        lifecycle.onNext(new PauseEvent());
+
+        assertEquals(1, stored.flushes);
+        assertEquals(42L, stored.getLong("time"));
+    }
+
+    /**
+     * Preferences kept in a map, counting flushes.
+     */
+    private static final class MemoryPreferences implements Preferences {
+
+        private final Map<String, Object> values = new HashMap<String, Object>();
+        int flushes;
+
+        @Override
+        public Preferences putBoolean(String key, boolean val) {
+            values.put(key, val);
+            return this;
+        }
+
+        @Override
+        public Preferences putInteger(String key, int val) {
+            values.put(key, val);
+            return this;
+        }
+
+        @Override
+        public Preferences putLong(String key, long val) {
+            values.put(key, val);
+            return this;
+        }
+
+        @Override
+        public Preferences putFloat(String key, float val) {
+            values.put(key, val);
+            return this;
+        }
+
+        @Override
+        public Preferences putString(String key, String val) {
+            values.put(key, val);
+            return this;
+        }
+
+        @Override
+        public Preferences put(Map<String, ?> vals) {
+            values.putAll(vals);
+            return this;
+        }
+
+        @Override
+        public boolean getBoolean(String key) {
+            return getBoolean(key, false);
+        }
+
+        @Override
+        public int getInteger(String key) {
+            return getInteger(key, 0);
+        }
+
+        @Override
+        public long getLong(String key) {
+            return getLong(key, 0L);
+        }
+
+        @Override
+        public float getFloat(String key) {
+            return getFloat(key, 0f);
+        }
+
+        @Override
+        public String getString(String key) {
+            return getString(key, "");
+        }
+
+        @Override
+        public boolean getBoolean(String key, boolean defValue) {
+            return values.containsKey(key) ? (Boolean) values.get(key) : defValue;
+        }
+
+        @Override
+        public int getInteger(String key, int defValue) {
+            return values.containsKey(key) ? (Integer) values.get(key) : defValue;
+        }
+
+        @Override
+        public long getLong(String key, long defValue) {
+            return values.containsKey(key) ? (Long) values.get(key) : defValue;
+        }
+
+        @Override
+        public float getFloat(String key, float defValue) {
+            return values.containsKey(key) ? (Float) values.get(key) : defValue;
+        }
+
+        @Override
+        public String getString(String key, String defValue) {
+            return values.containsKey(key) ? (String) values.get(key) : defValue;
+        }
+
+        @Override
+        public Map<String, ?> get() {
+            return new HashMap<String, Object>(values);
+        }
+
+        @Override
+        public boolean contains(String key) {
+            return values.containsKey(key);
+        }
+
+        @Override
+        public void clear() {
+            values.clear();
+        }
+
+        @Override
+        public void remove(String key) {
+            values.remove(key);
+        }
+
+        @Override
+        public void flush() {
+            flushes++;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import org.junit.Test;
+import rx.Subscription;
+import rx.observers.TestSubscriber;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class EventBusTest {
+
+    @Test
+    public void testMulticastsToCurrentSubscribers() {
+        final EventBus<String> bus = new EventBus<String>();
+        final TestSubscriber<String> first = new TestSubscriber<String>();
+        final TestSubscriber<String> second = new TestSubscriber<String>();
+        assertFalse(bus.hasSubscribers());
+
+        final Subscription subscription = bus.observable().subscribe(first);
+        bus.emit("a");
+        bus.observable().subscribe(second);
+        bus.emit("b");
+        subscription.unsubscribe();
+        bus.emit("c");
+
+        assertEquals(Arrays.asList("a", "b"), first.getOnNextEvents());
+        assertEquals(Arrays.asList("b", "c"), second.getOnNextEvents());
+        assertTrue(bus.hasSubscribers());
+        second.unsubscribe();
+        assertFalse(bus.hasSubscribers());
+    }
+
+    @Test
+    public void testCompletesCurrentAndLaterSubscribers() {
+        final EventBus<String> bus = new EventBus<String>();
+        final TestSubscriber<String> before = new TestSubscriber<String>();
+        bus.observable().subscribe(before);
+        bus.complete();
+        bus.emit("ignored");
+
+        final TestSubscriber<String> after = new TestSubscriber<String>();
+        bus.observable().subscribe(after);
+        assertEquals(1, before.getOnCompletedEvents().size());
+        assertEquals(1, after.getOnCompletedEvents().size());
+        assertTrue(before.getOnNextEvents().isEmpty());
+        assertFalse(bus.hasSubscribers());
+    }
+
+    @Test
+    public void testCompletesSubscribersRacingTheCompletion() throws InterruptedException {
+        for (int round = 0; round < 500; round++) {
+            final EventBus<String> bus = new EventBus<String>();
+            final TestSubscriber<String> subscriber = new TestSubscriber<String>();
+            final CountDownLatch start = new CountDownLatch(1);
+            final Thread completing = new Thread(new Runnable() {
+
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    bus.complete();
+                }
+            });
+            completing.start();
+            start.countDown();
+            bus.observable().subscribe(subscriber);
+            completing.join();
+
+            assertEquals("round " + round, 1, subscriber.getOnCompletedEvents().size());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.files.FileHandle;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.GdxObservable;
+import rx.libgdx.io.ByteBufferPool;
+import rx.observers.TestSubscriber;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GdxFileEventSourceTest {
+
+    private File file;
+    private byte[] contents;
+
+    @Before
+    public void writeFile() throws IOException {
+        file = File.createTempFile("chunks", ".bin");
+        contents = new byte[10000];
+        for (int i = 0; i < contents.length; i++) {
+            contents[i] = (byte) (i * 31);
+        }
+        new FileHandle(file).writeBytes(contents, false);
+    }
+
+    @After
+    public void deleteFile() {
+        assertTrue(file.delete());
+    }
+
+    @Test
+    public void testMapsFilesInTheFileSystem() {
+        final List<ByteBuffer> chunks = read(new FileHandle(file), new ByteBufferPool(4096, 2, false));
+
+        assertEquals(3, chunks.size());
+        assertTrue(chunks.get(0).isReadOnly());
+        assertArrayEquals(contents, concat(chunks));
+    }
+
+    @Test
+    public void testReadsOtherFilesIntoPooledBuffers() {
+        final FileHandle resource = new FileHandle(file) {
+            @Override
+            public Files.FileType type() {
+                return Files.FileType.Classpath;
+            }
+        };
+        final ByteBufferPool pool = new ByteBufferPool(4096, 2, false);
+        final List<ByteBuffer> chunks = read(resource, pool);
+
+        assertEquals(3, chunks.size());
+        assertEquals(4096, chunks.get(0).capacity());
+        assertArrayEquals(contents, concat(chunks));
+    }
+
+    @Test
+    public void testReadsOnlyRequestedChunks() throws InterruptedException {
+        final TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<ByteBuffer>() {
+            @Override
+            public void onStart() {
+                request(1L);
+            }
+        };
+        GdxObservable.fromFile(new FileHandle(file), new ByteBufferPool(1024, 2, false)).subscribe(subscriber);
+
+        Thread.sleep(100L);
+        assertEquals(1, subscriber.getOnNextEvents().size());
+        subscriber.requestMore(Long.MAX_VALUE);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        assertEquals(10, subscriber.getOnNextEvents().size());
+    }
+
+    private static List<ByteBuffer> read(FileHandle file, ByteBufferPool pool) {
+        return GdxObservable.fromFile(file, pool).toList().toBlocking().single();
+    }
+
+    private static byte[] concat(List<ByteBuffer> chunks) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (ByteBuffer chunk : chunks) {
+            final byte[] array = new byte[chunk.remaining()];
+            chunk.get(array);
+            bytes.write(array, 0, array.length);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import com.badlogic.gdx.Files;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Net;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.net.HttpStatus;
+import com.badlogic.gdx.net.Socket;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import rx.GdxObservable;
+import rx.Observable;
+import rx.functions.Func1;
+import rx.libgdx.events.net.HttpProgressEvent;
+import rx.libgdx.headless.HeadlessNet;
+import rx.libgdx.io.ByteBufferPool;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class GdxNetEventSourceTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private Net previousNet;
+    private Socket client;
+    private Socket server;
+
+    @Before
+    public void connect() throws Exception {
+        previousNet = Gdx.net;
+        Gdx.net = new HeadlessNet();
+
+        final java.net.ServerSocket probe = new java.net.ServerSocket(0);
+        final int port = probe.getLocalPort();
+        probe.close();
+
+        final java.util.concurrent.Future<Socket> accepted = GdxObservable.fromServerSocket(Net.Protocol.TCP, port,
+                null, null).take(1).toBlocking().toFuture();
+        client = Gdx.net.newClientSocket(Net.Protocol.TCP, "127.0.0.1", port, null);
+        server = accepted.get(5, TimeUnit.SECONDS);
+    }
+
+    @After
+    public void disconnect() {
+        client.dispose();
+        server.dispose();
+        Gdx.net = previousNet;
+    }
+
+    @Test
+    public void testFramesMessagesAndFlushesOncePerSignal() {
+        final PublishSubject<ByteBuffer> messages = PublishSubject.create();
+        final PublishSubject<Object> flushes = PublishSubject.create();
+        final TestSubscriber<Integer> written = new TestSubscriber<Integer>();
+        GdxObservable.toSocket(client, messages, flushes, 1024).subscribe(written);
+
+        messages.onNext(message("a"));
+        messages.onNext(message("bb"));
+        messages.onNext(message("ccc"));
+        flushes.onNext(this);
+        messages.onNext(message("dddd"));
+        messages.onCompleted();
+        written.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        client.dispose();
+
+        written.assertNoErrors();
+        assertEquals(Arrays.asList(18, 8), written.getOnNextEvents());
+        assertEquals(Arrays.asList("a", "bb", "ccc", "dddd"), read(new ByteBufferPool(16, 4, false)));
+    }
+
+    @Test
+    public void testFailsForFramesLargerThanTheBuffers() {
+        GdxObservable.toSocket(client, Observable.just(message("ccc")), Observable.never(), 1024).subscribe();
+
+        final TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<ByteBuffer>();
+        GdxObservable.fromSocket(server, new ByteBufferPool(2, 4, false)).subscribe(subscriber);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+
+        assertEquals(1, subscriber.getOnErrorEvents().size());
+        assertTrue(subscriber.getOnErrorEvents().get(0) instanceof IOException);
+    }
+
+    @Test
+    public void testStreamsTheBodyInPooledChunks() {
+        respond(200, "abcdefghij");
+        final ByteBufferPool pool = new ByteBufferPool(4, 4, false);
+
+        final List<String> chunks = GdxObservable.fromHttpRequestChunked(request(), pool)
+                .map(new Func1<ByteBuffer, String>() {
+
+                    @Override
+                    public String call(ByteBuffer buffer) {
+                        final String text = UTF8.decode(buffer).toString();
+                        pool.release(buffer);
+                        return text;
+                    }
+                }).toList().toBlocking().single();
+
+        assertEquals(Arrays.asList("abcd", "efgh", "ij"), chunks);
+    }
+
+    @Test
+    public void testReadsTheBodyOnlyAsFastAsChunksAreRequested() throws InterruptedException {
+        final ByteArrayInputStream body = respond(200, "abcdefghij");
+        final TestSubscriber<ByteBuffer> subscriber = new TestSubscriber<ByteBuffer>() {
+
+            @Override
+            public void onStart() {
+                request(1L);
+            }
+        };
+        GdxObservable.fromHttpRequestChunked(request(), new ByteBufferPool(4, 4, false)).subscribe(subscriber);
+
+        awaitChunks(subscriber, 1);
+        Thread.sleep(100L);
+        assertEquals(1, subscriber.getOnNextEvents().size());
+        assertEquals("read ahead of the demand", 6, body.available());
+
+        subscriber.requestMore(2L);
+        subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+        subscriber.assertNoErrors();
+        assertEquals(3, subscriber.getOnNextEvents().size());
+    }
+
+    @Test
+    public void testReportsTheProgressOfDownloads() throws IOException {
+        respond(200, "abcdefghij");
+        final File file = File.createTempFile("download", ".bin");
+        try {
+            final List<HttpProgressEvent> progress = GdxObservable.downloadToFile(request(), new FileHandle(file),
+                    new ByteBufferPool(4, 4, false)).toList().toBlocking().single();
+
+            assertEquals(Arrays.asList(new HttpProgressEvent(4L, 10L), new HttpProgressEvent(8L, 10L),
+                    new HttpProgressEvent(10L, 10L)), progress);
+            assertArrayEquals("abcdefghij".getBytes(UTF8), new FileHandle(file).readBytes());
+            assertEquals("left a temporary file behind", 1, siblings(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testKeepsTheFileWhenTheDownloadFails() throws IOException {
+        respond(404, "not found");
+        final File file = File.createTempFile("download", ".bin");
+        new FileHandle(file).writeString("previous", false);
+        try {
+            final TestSubscriber<HttpProgressEvent> subscriber = new TestSubscriber<HttpProgressEvent>();
+            GdxObservable.downloadToFile(request(), new FileHandle(file), new ByteBufferPool(4, 4, false))
+                    .subscribe(subscriber);
+            subscriber.awaitTerminalEvent(5, TimeUnit.SECONDS);
+
+            assertEquals(1, subscriber.getOnErrorEvents().size());
+            assertTrue(subscriber.getOnErrorEvents().get(0) instanceof IOException);
+            assertEquals("previous", new FileHandle(file).readString());
+            assertEquals("left a temporary file behind", 1, siblings(file));
+        } finally {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testFailsForFilesThatCantBeWritten() {
+        final FileHandle resource = new FileHandle("rx/libgdx/download.bin", Files.FileType.Classpath) { };
+        final TestSubscriber<HttpProgressEvent> subscriber = new TestSubscriber<HttpProgressEvent>();
+        GdxObservable.downloadToFile(request(), resource, new ByteBufferPool(4, 4, false)).subscribe(subscriber);
+
+        assertEquals(1, subscriber.getOnErrorEvents().size());
+        assertTrue(subscriber.getOnErrorEvents().get(0) instanceof GdxRuntimeException);
+    }
+
+    /**
+     * Answers all http requests with the given status and body, on a thread of their own as backends do.
+     *
+     * @return The body, to see how much of it has been read.
+     */
+    private ByteArrayInputStream respond(int status, String text) {
+        final byte[] bytes = text.getBytes(UTF8);
+        final ByteArrayInputStream body = new ByteArrayInputStream(bytes);
+        final Net.HttpResponse response = mock(Net.HttpResponse.class);
+        when(response.getStatus()).thenReturn(new HttpStatus(status));
+        when(response.getHeader("Content-Length")).thenReturn(String.valueOf(bytes.length));
+        when(response.getResultAsStream()).thenReturn(body);
+
+        final Net net = mock(Net.class);
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                final Net.HttpResponseListener listener = (Net.HttpResponseListener) invocation.getArguments()[1];
+                new Thread(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        listener.handleHttpResponse(response);
+                    }
+                }).start();
+                return null;
+            }
+        }).when(net).sendHttpRequest(any(Net.HttpRequest.class), any(Net.HttpResponseListener.class));
+        Gdx.net = net;
+        return body;
+    }
+
+    private static Net.HttpRequest request() {
+        final Net.HttpRequest request = new Net.HttpRequest(Net.HttpMethods.GET);
+        request.setUrl("http://localhost/body");
+        return request;
+    }
+
+    private static void awaitChunks(TestSubscriber<?> subscriber, int chunks) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (subscriber.getOnNextEvents().size() < chunks && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+        }
+    }
+
+    /**
+     * @return The number of files with the name of the given one in their names, in its directory.
+     */
+    private static int siblings(File file) {
+        int siblings = 0;
+        for (String name : file.getParentFile().list()) {
+            if (name.contains(file.getName())) {
+                siblings++;
+            }
+        }
+        return siblings;
+    }
+
+    private List<String> read(final ByteBufferPool pool) {
+        return GdxObservable.fromSocket(server, pool).map(new Func1<ByteBuffer, String>() {
+
+            @Override
+            public String call(ByteBuffer buffer) {
+                final String text = UTF8.decode(buffer).toString();
+                pool.release(buffer);
+                return text;
+            }
+        }).toList().toBlocking().single();
+    }
+
+    private static ByteBuffer message(String text) {
+        return ByteBuffer.wrap(text.getBytes(UTF8));
+    }
+}
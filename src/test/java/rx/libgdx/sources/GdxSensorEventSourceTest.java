@@ -0,0 +1,185 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import com.badlogic.gdx.Gdx;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.GdxObservable;
+import rx.libgdx.events.sensors.SensorEvent;
+import rx.libgdx.headless.StubInput;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class GdxSensorEventSourceTest {
+
+    private static final long FRAME = 16666667L;
+
+    private final StubInput input = new StubInput();
+    private final PublishSubject<Object> ticks = PublishSubject.create();
+    private long now;
+
+    private final FrameTimer timer = new FrameTimer(new FrameTimer.Clock() {
+
+        @Override
+        public long nanoTime() {
+            return now;
+        }
+    });
+
+    @Before
+    public void install() {
+        Gdx.input = input;
+    }
+
+    @After
+    public void uninstall() {
+        Gdx.input = null;
+    }
+
+    @Test
+    public void testLowPassesTheAccelerometerAndKeepsRawSamples() {
+        final TestSubscriber<SensorEvent> subscriber = new TestSubscriber<SensorEvent>();
+        GdxObservable.fromAccelerometer(ticks, SensorFilter.lowPass(1f), 2).subscribe(subscriber);
+
+        input.setAccelerometer(0f, 0f, 9.81f);
+        tick();
+        final SensorEvent event = subscriber.getOnNextEvents().get(0);
+        assertEquals(9.81f, event.getZ(), 0.0001f);
+
+        input.setAccelerometer(0f, 0f, 0f);
+        tick();
+        final float alpha = (FRAME / 1e9f) / ((float) (1.0 / (2.0 * Math.PI)) + FRAME / 1e9f);
+        assertEquals(9.81f * (1f - alpha), event.getZ(), 0.0001f);
+        tick();
+        assertEquals(9.81f * (1f - alpha) * (1f - alpha), event.getZ(), 0.0001f);
+
+        assertSame(event, subscriber.getOnNextEvents().get(2));
+        assertEquals(3L, event.getSample());
+        assertEquals(2, event.getHistorySize());
+        assertEquals(0f, event.getRaw(0, 2), 0f);
+        assertEquals(0f, event.getRaw(1, 2), 0f);
+    }
+
+    @Test
+    public void testHighPassRemovesConstantAcceleration() {
+        final TestSubscriber<SensorEvent> subscriber = new TestSubscriber<SensorEvent>();
+        GdxObservable.fromAccelerometer(ticks, SensorFilter.highPass(1f), 1).subscribe(subscriber);
+
+        input.setAccelerometer(1f, 2f, 9.81f);
+        for (int i = 0; i < 3; i++) {
+            tick();
+            assertEquals(0f, subscriber.getOnNextEvents().get(i).getZ(), 0.0001f);
+        }
+        input.setAccelerometer(1f, 2f, 11.81f);
+        tick();
+        assertEquals(2f * (1f - (FRAME / 1e9f) / ((float) (1.0 / (2.0 * Math.PI)) + FRAME / 1e9f)),
+                subscriber.getOnNextEvents().get(3).getZ(), 0.0001f);
+        assertEquals(11.81f, subscriber.getOnNextEvents().get(3).getRaw(0, 2), 0f);
+    }
+
+    @Test
+    public void testLowPassesTheAzimuthAcrossTheTurn() {
+        final TestSubscriber<SensorEvent> subscriber = new TestSubscriber<SensorEvent>();
+        GdxObservable.fromCompass(ticks, SensorFilter.lowPass(1f), 1).subscribe(subscriber);
+
+        for (int i = 0; i < 60; i++) { // jitter around south
+            input.setOrientation(i % 2 == 0 ? 170f : -170f, 0f, 0f);
+            tick();
+            final float azimuth = subscriber.getOnNextEvents().get(i).getX();
+            assertTrue("averaged through north: " + azimuth,
+                    Math.abs(azimuth) >= 170f && Math.abs(azimuth) <= 180f);
+        }
+        assertEquals(-170f, subscriber.getOnNextEvents().get(59).getRaw(0, 0), 0f);
+
+        input.setOrientation(-150f, 0f, 0f);
+        for (int i = 0; i < 300; i++) { // five seconds, thirty time constants
+            tick();
+        }
+        assertEquals(-150f, subscriber.getOnNextEvents().get(359).getX(), 0.1f);
+    }
+
+    @Test
+    public void testTiltFollowsOrientationChangesAndSettlesOnGravity() {
+        final TestSubscriber<SensorEvent> subscriber = new TestSubscriber<SensorEvent>();
+        GdxObservable.fromTilt(ticks, 0.5f, 1).subscribe(subscriber);
+
+        input.setAccelerometer(0f, 0f, 9.81f);
+        input.setOrientation(90f, 0f, 0f);
+        tick();
+        final SensorEvent event = subscriber.getOnNextEvents().get(0);
+        assertEquals(0f, event.getX(), 0.0001f);
+        assertEquals(90f, event.getZ(), 0f);
+
+        input.setOrientation(90f, 10f, 0f); // a quick turn the accelerometer doesn't show yet
+        tick();
+        final float weight = 0.5f / (0.5f + FRAME / 1e9f);
+        assertEquals(10f * weight, event.getX(), 0.0001f);
+
+        for (int i = 0; i < 300; i++) { // ten time constants
+            tick();
+        }
+        assertEquals(0f, event.getX(), 0.01f);
+        assertEquals(0f, event.getY(), 0.0001f);
+    }
+
+    @Test
+    public void testCompletesWithoutTheSensor() {
+        Gdx.input = new StubInput() {
+
+            @Override
+            public boolean isPeripheralAvailable(Peripheral peripheral) {
+                return false;
+            }
+        };
+        final TestSubscriber<SensorEvent> subscriber = new TestSubscriber<SensorEvent>();
+        GdxObservable.fromCompass(ticks, SensorFilter.NONE, 1).subscribe(subscriber);
+
+        tick();
+        subscriber.assertReceivedOnNext(Collections.<SensorEvent>emptyList());
+        assertEquals(1, subscriber.getOnCompletedEvents().size());
+    }
+
+    @Test
+    public void testTiltCompletesWithoutTheAccelerometer() {
+        Gdx.input = new StubInput() {
+
+            @Override
+            public boolean isPeripheralAvailable(Peripheral peripheral) {
+                return peripheral != Peripheral.Accelerometer;
+            }
+        };
+        final TestSubscriber<SensorEvent> subscriber = new TestSubscriber<SensorEvent>();
+        GdxObservable.fromTilt(ticks, 0.5f, 1).subscribe(subscriber);
+
+        tick();
+        subscriber.assertReceivedOnNext(Collections.<SensorEvent>emptyList());
+        assertEquals(1, subscriber.getOnCompletedEvents().size());
+    }
+
+    private void tick() {
+        now += FRAME;
+        ticks.onNext(timer.begin());
+        timer.end();
+    }
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.InputMultiplexer;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+import com.badlogic.gdx.utils.GdxNativesLoader;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.GdxObservable;
+import rx.Scheduler;
+import rx.Subscription;
+import rx.concurrency.GdxScheduler;
+import rx.functions.Action0;
+import rx.libgdx.events.box2d.ContactEvent;
+import rx.libgdx.events.input.InputEvent;
+import rx.libgdx.events.input.KeyDownEvent;
+import rx.libgdx.events.input.KeyTypedEvent;
+import rx.libgdx.events.input.KeyUpEvent;
+import rx.libgdx.events.input.MouseMovedEvent;
+import rx.libgdx.events.input.TouchDraggedEvent;
+import rx.libgdx.headless.StubApplication;
+import rx.libgdx.headless.StubGraphics;
+import rx.libgdx.headless.StubInput;
+import rx.libgdx.instrumentation.MetricsRegistry;
+import rx.libgdx.instrumentation.StripedCounter;
+import rx.observers.TestSubscriber;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LifecycleGateTest {
+
+    private final LifecycleGate gate = LifecycleGate.get();
+    private StubInput input;
+    private StubApplication app;
+
+    @Before
+    public void install() {
+        input = new StubInput();
+        app = new StubApplication(new ApplicationAdapter() { }, new StubGraphics(640, 480), input);
+        Gdx.input = input;
+        Gdx.app = app;
+    }
+
+    @After
+    public void uninstall() {
+        gate.resume();
+        gate.setMode(LifecycleGate.Mode.DROP);
+        Gdx.input = null;
+        Gdx.app = null;
+    }
+
+    @Test
+    public void testDetachesInputWhileDroppingAndReattachesAtTheSamePosition() {
+        final InputProcessor before = new InputAdapter();
+        final InputProcessor after = new InputAdapter();
+        input.setInputProcessor(before);
+        final TestSubscriber<InputEvent> subscriber = new TestSubscriber<InputEvent>();
+        final Subscription subscription = GdxObservable.fromInput().subscribe(subscriber);
+        final InputMultiplexer multiplexer = (InputMultiplexer) input.getInputProcessor();
+        multiplexer.addProcessor(after);
+        final InputProcessor processor = multiplexer.getProcessors().get(1);
+
+        gate.pause();
+        assertEquals(2, multiplexer.size());
+        assertFalse("the game's processors get the input while paused", input.dispatch(new KeyDownEvent(1), 0L));
+        gate.resume();
+        gate.pause();
+        gate.resume();
+
+        assertEquals(3, multiplexer.size());
+        assertSame(before, multiplexer.getProcessors().get(0));
+        assertSame(processor, multiplexer.getProcessors().get(1));
+        assertSame(after, multiplexer.getProcessors().get(2));
+        input.dispatch(new KeyUpEvent(2), 0L);
+        assertEquals(1, subscriber.getOnNextEvents().size());
+        assertTrue(subscriber.getOnNextEvents().get(0) instanceof KeyUpEvent);
+
+        subscription.unsubscribe();
+        assertEquals(2, multiplexer.size());
+    }
+
+    @Test
+    public void testAttachesInputSubscribedToWhileDroppingOnResume() {
+        gate.pause();
+        final TestSubscriber<InputEvent> subscriber = new TestSubscriber<InputEvent>();
+        GdxObservable.fromInput().subscribe(subscriber);
+        assertEquals(0, ((InputMultiplexer) input.getInputProcessor()).size());
+
+        gate.resume();
+        input.dispatch(new KeyDownEvent(1), 0L);
+        assertEquals(1, subscriber.getOnNextEvents().size());
+    }
+
+    @Test
+    public void testHoldsBackInputWhileKeeping() {
+        gate.setMode(LifecycleGate.Mode.KEEP);
+        final TestSubscriber<InputEvent> subscriber = new TestSubscriber<InputEvent>();
+        GdxObservable.fromInput().subscribe(subscriber);
+
+        gate.pause();
+        input.dispatch(new KeyDownEvent(1), 0L);
+        input.dispatch(new KeyTypedEvent('a'), 0L);
+        assertTrue(subscriber.getOnNextEvents().isEmpty());
+
+        gate.resume();
+        assertEquals(2, subscriber.getOnNextEvents().size());
+        assertTrue(subscriber.getOnNextEvents().get(0) instanceof KeyDownEvent);
+        assertTrue(subscriber.getOnNextEvents().get(1) instanceof KeyTypedEvent);
+        input.dispatch(new KeyUpEvent(1), 0L);
+        assertEquals(3, subscriber.getOnNextEvents().size());
+    }
+
+    @Test
+    public void testMergesMovesAndBoundsTheEventsHeldWhileKeeping() {
+        gate.setMode(LifecycleGate.Mode.KEEP);
+        final TestSubscriber<InputEvent> subscriber = new TestSubscriber<InputEvent>();
+        GdxObservable.fromInput().subscribe(subscriber);
+        final StripedCounter dropped = MetricsRegistry.get().counter("input.dropped");
+        final long droppedBefore = dropped.sum();
+
+        gate.pause();
+        input.dispatch(new MouseMovedEvent(1, 1), 0L);
+        input.dispatch(new MouseMovedEvent(2, 2), 0L);
+        input.dispatch(new TouchDraggedEvent(3, 3, 0), 0L);
+        input.dispatch(new TouchDraggedEvent(4, 4, 1), 0L);
+        input.dispatch(new TouchDraggedEvent(5, 5, 1), 0L);
+        for (int i = 1; i < GdxInputEventSource.MAX_HELD; i++) { // the oldest move and drag make room
+            input.dispatch(new KeyTypedEvent('a'), 0L);
+        }
+        assertEquals(2L, dropped.sum() - droppedBefore);
+
+        gate.resume();
+        assertEquals(GdxInputEventSource.MAX_HELD, subscriber.getOnNextEvents().size());
+        final TouchDraggedEvent drag = (TouchDraggedEvent) subscriber.getOnNextEvents().get(0);
+        assertEquals(5, drag.getScreenX());
+        assertEquals(1, drag.getPointer());
+    }
+
+    @Test
+    public void testDropsContactsWhilePausedInBothModes() {
+        for (LifecycleGate.Mode mode : LifecycleGate.Mode.values()) {
+            gate.setMode(mode);
+            final World world = boxOnTheGround();
+            final AtomicInteger events = new AtomicInteger();
+            final TestSubscriber<ContactEvent> subscriber = new TestSubscriber<ContactEvent>() {
+
+                @Override
+                public void onNext(ContactEvent event) {
+                    events.incrementAndGet();
+                }
+            };
+            GdxObservable.fromBox2DContact(world).subscribe(subscriber);
+            try {
+                gate.pause();
+                for (int i = 0; i < 60; i++) {
+                    world.step(1f / 60f, 8, 3);
+                }
+                assertEquals(mode.name(), 0, events.get());
+
+                gate.resume();
+                world.step(1f / 60f, 8, 3);
+                assertTrue(mode.name(), events.get() > 0); // the box rests on the ground: pre and post solve
+            } finally {
+                subscriber.unsubscribe();
+                world.dispose();
+            }
+        }
+    }
+
+    @Test
+    public void testParksScheduledActionsWhilePausedInBothModes() {
+        for (LifecycleGate.Mode mode : LifecycleGate.Mode.values()) {
+            gate.setMode(mode);
+            final Scheduler.Worker worker = GdxScheduler.get().createWorker();
+            final AtomicInteger calls = new AtomicInteger();
+
+            worker.schedule(counting(calls));
+            gate.pause();
+            app.executeRunnables(); // posted before pausing, comes due while paused
+            worker.schedule(counting(calls));
+            app.executeRunnables();
+            assertEquals(mode.name(), 0, calls.get());
+
+            gate.resume();
+            app.executeRunnables();
+            assertEquals(mode.name(), 2, calls.get());
+        }
+    }
+
+    @Test
+    public void testHoldsTimersWhilePaused() throws InterruptedException {
+        final Scheduler.Worker worker = GdxScheduler.get().createWorker();
+        final AtomicInteger calls = new AtomicInteger();
+        worker.schedule(counting(calls), 300L, TimeUnit.MILLISECONDS);
+        Thread.sleep(100L);
+
+        gate.pause();
+        Thread.sleep(600L); // the timer would have expired without pausing
+        app.executeRunnables();
+        gate.resume();
+        app.executeRunnables();
+        assertEquals("the timer didn't keep its remaining delay", 0, calls.get());
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (calls.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+            app.executeRunnables();
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testCancelsTimers() throws InterruptedException {
+        final Scheduler.Worker worker = GdxScheduler.get().createWorker();
+        final AtomicInteger calls = new AtomicInteger();
+        final Subscription held = worker.schedule(counting(calls), 50L, TimeUnit.MILLISECONDS);
+        final Subscription running = worker.schedule(counting(calls), 50L, TimeUnit.MILLISECONDS);
+        gate.pause();
+        held.unsubscribe();
+        gate.resume();
+        running.unsubscribe();
+
+        Thread.sleep(200L);
+        app.executeRunnables();
+        assertEquals(0, calls.get());
+    }
+
+    private static Action0 counting(final AtomicInteger calls) {
+        return new Action0() {
+
+            @Override
+            public void call() {
+                calls.incrementAndGet();
+            }
+        };
+    }
+
+    private static World boxOnTheGround() {
+        GdxNativesLoader.load();
+        final World world = new World(new Vector2(0f, -10f), false);
+        final PolygonShape shape = new PolygonShape();
+        shape.setAsBox(50f, 1f);
+        world.createBody(new BodyDef()).createFixture(shape, 0f);
+        shape.setAsBox(0.5f, 0.5f);
+        final BodyDef def = new BodyDef();
+        def.type = BodyDef.BodyType.DynamicBody;
+        def.position.set(0f, 2f);
+        world.createBody(def).createFixture(shape, 1f);
+        shape.dispose();
+        return world;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.sources;
+
+import com.badlogic.gdx.ApplicationListener;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import rx.GdxObservable;
+import rx.Subscription;
+import rx.libgdx.events.lifecycle.RenderEvent;
+import rx.observers.TestSubscriber;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+public class RenderTickListenerTest {
+
+    private final ApplicationListener delegate = mock(ApplicationListener.class);
+    private final ApplicationListener listener = GdxObservable.withRenderTicks(delegate);
+    private final TestSubscriber<RenderEvent> ticks = new TestSubscriber<RenderEvent>();
+
+    @After
+    public void unsubscribe() {
+        ticks.unsubscribe();
+        LifecycleGate.get().resume();
+    }
+
+    @Test
+    public void testDelegatesAllCallbacks() {
+        assertSame(delegate, ((RenderTickListener) listener).getDelegate());
+        listener.create();
+        listener.resize(640, 480);
+        listener.render();
+        listener.pause();
+        listener.resume();
+        listener.dispose();
+
+        final InOrder order = inOrder(delegate);
+        order.verify(delegate).create();
+        order.verify(delegate).resize(640, 480);
+        order.verify(delegate).render();
+        order.verify(delegate).pause();
+        order.verify(delegate).resume();
+        order.verify(delegate).dispose();
+    }
+
+    @Test
+    public void testTicksBeforeEachRenderWithAReusedEvent() {
+        final List<Long> rendered = new ArrayList<Long>();
+        final Subscription subscription = GdxObservable.fromRenderTicks().subscribe(ticks);
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                final int frames = ticks.getOnNextEvents().size();
+                if (frames > 0) {
+                    rendered.add(ticks.getOnNextEvents().get(frames - 1).getFrame());
+                }
+                return null;
+            }
+        }).when(delegate).render();
+
+        for (int i = 0; i < 3; i++) {
+            listener.render();
+        }
+        subscription.unsubscribe();
+        listener.render();
+
+        assertEquals("ticked before rendering", Arrays.asList(1L, 2L, 3L, 4L), rendered);
+        assertEquals(3, ticks.getOnNextEvents().size());
+        final RenderEvent event = ticks.getOnNextEvents().get(0);
+        assertSame(event, ticks.getOnNextEvents().get(2));
+        assertEquals("frames count on without subscribers", 4L, event.getFrame());
+    }
+
+    @Test
+    public void testPausesTheGateAndSkipsThePauseInTheDelta() throws InterruptedException {
+        final LifecycleGate gate = LifecycleGate.get();
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                assertFalse("the game pauses before its sources", gate.isPaused());
+                return null;
+            }
+        }).when(delegate).pause();
+        doAnswer(new Answer<Void>() {
+
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                assertFalse("the game resumes after its sources", gate.isPaused());
+                return null;
+            }
+        }).when(delegate).resume();
+        GdxObservable.fromRenderTicks().subscribe(ticks);
+
+        listener.render();
+        listener.pause();
+        assertTrue(gate.isPaused());
+        Thread.sleep(200L);
+        listener.resume();
+        assertFalse(gate.isPaused());
+        listener.render();
+
+        final long delta = ticks.getOnNextEvents().get(1).getDeltaNanos();
+        assertTrue("the pause counted as frame delta: " + delta, delta < TimeUnit.MILLISECONDS.toNanos(100L));
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright 2014 Joachim Hofer & contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package rx.libgdx.tasks;
+
+import org.junit.Test;
+import rx.functions.Func0;
+import rx.libgdx.events.tasks.TaskProgressEvent;
+import rx.observers.TestSubscriber;
+import rx.subjects.PublishSubject;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FrameSlicerTest {
+
+    @Test
+    public void testRunsOneStepPerFrameWithoutBudget() {
+        final FrameSlicer slicer = new FrameSlicer(0L);
+        final TestSubscriber<TaskProgressEvent<String>> subscriber = new TestSubscriber<TaskProgressEvent<String>>();
+        slicer.submit(task(4)).subscribe(subscriber);
+        final PublishSubject<Object> frames = PublishSubject.create();
+        slicer.attach(frames);
+
+        for (int i = 0; i < 3; i++) {
+            frames.onNext(i);
+        }
+        assertEquals(3, subscriber.getOnNextEvents().size());
+        assertEquals(0.75f, subscriber.getOnNextEvents().get(2).getProgress(), 0.001f);
+        assertNull(subscriber.getOnNextEvents().get(2).getResult());
+        assertTrue(subscriber.getOnCompletedEvents().isEmpty());
+
+        frames.onNext(3);
+        final TaskProgressEvent<String> last = subscriber.getOnNextEvents().get(3);
+        assertTrue(last.isDone());
+        assertEquals("4 steps", last.getResult());
+        assertEquals(4, last.getFrames());
+        assertEquals(1, subscriber.getOnCompletedEvents().size());
+    }
+
+    @Test
+    public void testFinishesTasksInOrderWithinOneFrame() {
+        final FrameSlicer slicer = new FrameSlicer(1000000000L);
+        final TestSubscriber<TaskProgressEvent<String>> first = new TestSubscriber<TaskProgressEvent<String>>();
+        final TestSubscriber<TaskProgressEvent<String>> second = new TestSubscriber<TaskProgressEvent<String>>();
+        slicer.submit(task(100)).subscribe(first);
+        slicer.submit(task(10)).subscribe(second);
+
+        assertTrue(slicer.runFrame());
+        assertEquals("100 steps", first.getOnNextEvents().get(0).getResult());
+        assertEquals(1, first.getOnNextEvents().get(0).getFrames());
+        assertEquals("10 steps", second.getOnNextEvents().get(0).getResult());
+    }
+
+    @Test
+    public void testCancelsOnUnsubscribe() {
+        final FrameSlicer slicer = new FrameSlicer(0L);
+        final TestSubscriber<TaskProgressEvent<String>> subscriber = new TestSubscriber<TaskProgressEvent<String>>();
+        final IteratorTask<String> task = task(10);
+        slicer.submit(task).subscribe(subscriber);
+
+        slicer.runFrame();
+        subscriber.unsubscribe();
+        assertTrue(slicer.runFrame());
+        assertEquals(0.1f, task.getProgress(), 0.001f);
+        assertEquals(0, slicer.getPending());
+    }
+
+    @Test
+    public void testEmitsFailingSteps() {
+        final FrameSlicer slicer = new FrameSlicer(0L);
+        final TestSubscriber<TaskProgressEvent<Object>> subscriber = new TestSubscriber<TaskProgressEvent<Object>>();
+        slicer.submit(new SlicedTask<Object>() {
+
+            @Override
+            public boolean step() {
+                throw new IllegalStateException("no path");
+            }
+
+            @Override
+            public float getProgress() {
+                return 0f;
+            }
+
+            @Override
+            public Object getResult() {
+                return null;
+            }
+        }).subscribe(subscriber);
+
+        assertTrue(slicer.runFrame());
+        assertEquals(1, subscriber.getOnErrorEvents().size());
+    }
+
+    @Test
+    public void testEmitsFailingResults() {
+        final FrameSlicer slicer = new FrameSlicer(0L);
+        final TestSubscriber<TaskProgressEvent<Object>> subscriber = new TestSubscriber<TaskProgressEvent<Object>>();
+        final IllegalStateException failure = new IllegalStateException("no result");
+        slicer.submit(new SlicedTask<Object>() {
+
+            @Override
+            public boolean step() {
+                return true;
+            }
+
+            @Override
+            public float getProgress() {
+                return 1f;
+            }
+
+            @Override
+            public Object getResult() {
+                throw failure;
+            }
+        }).subscribe(subscriber);
+
+        assertTrue(slicer.runFrame());
+        assertEquals(Arrays.asList(failure), subscriber.getOnErrorEvents());
+        assertTrue(subscriber.getOnNextEvents().isEmpty());
+        assertEquals(0, slicer.getPending());
+    }
+
+    private static IteratorTask<String> task(final int steps) {
+        final Integer[] elements = new Integer[steps];
+        Arrays.fill(elements, 0);
+        final Iterator<Integer> iterator = Arrays.asList(elements).iterator();
+        return new IteratorTask<String>(iterator, steps, new Func0<String>() {
+
+            @Override
+            public String call() {
+                return steps + " steps";
+            }
+        });
+    }
+}